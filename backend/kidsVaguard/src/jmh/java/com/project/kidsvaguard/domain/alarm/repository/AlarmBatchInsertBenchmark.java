@@ -0,0 +1,98 @@
+package com.project.kidsvaguard.domain.alarm.repository;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import com.project.kidsvaguard.domain.user.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 단건 저장(/api/notify/fall_cry 를 이벤트마다 호출) vs 배치 저장(/api/notify/batch) 처리량 비교.
+ * 임베디드 H2(MySQL 모드)에 대해 낙상 이벤트 1건 = alarm 1행 + fell_detection 1행 을 저장합니다.
+ *
+ *  - single : 이벤트마다 트랜잭션 하나, alarm/fell_detection 을 각각 1행 배치로 INSERT (IDENTITY 단건 저장과 같은 왕복 수)
+ *  - batch  : BATCH_SIZE 건을 한 트랜잭션에서 JDBC 배치 2번으로 INSERT
+ *
+ * 점수는 ops/s = 초당 저장한 이벤트 수입니다. 네트워크 왕복이 없는 임베디드 DB 라
+ * 실제 MySQL 에서는 차이가 더 커집니다. 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AlarmBatchInsertBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private AlarmBatchWriter writer;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:alarm-bench;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE alarm (alarm_id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, " +
+                "content VARCHAR(255), is_read BOOLEAN, created_at TIMESTAMP, video_path VARCHAR(255), " +
+                "alarm_type VARCHAR(20) NOT NULL, user_pk BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE fell_detection (fell_id BIGINT AUTO_INCREMENT PRIMARY KEY, is_fell BOOLEAN, " +
+                "file_path VARCHAR(255), data CLOB, created_at TIMESTAMP, alarm_id BIGINT REFERENCES alarm(alarm_id))");
+
+        writer = new AlarmBatchWriter(jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        user = User.builder().userPk(1L).userId("bench").build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("DELETE FROM fell_detection");
+        jdbcTemplate.execute("DELETE FROM alarm");
+    }
+
+    @Benchmark
+    public void single() {
+        transactionTemplate.executeWithoutResult(status -> write(1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batch() {
+        transactionTemplate.executeWithoutResult(status -> write(BATCH_SIZE));
+    }
+
+    private void write(int count) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Alarm> alarms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            alarms.add(Alarm.builder()
+                    .title("낙상 감지")
+                    .content("아이가 넘어졌습니다.")
+                    .isRead(false)
+                    .createdAt(now)
+                    .alarmType(Alarm.AlarmType.FELL_DETECTION)
+                    .user(user)
+                    .build());
+        }
+        writer.insertAlarms(alarms);
+
+        List<FellDetection> detections = new ArrayList<>(count);
+        for (Alarm alarm : alarms) {
+            detections.add(FellDetection.builder()
+                    .isFell(true)
+                    .filePath("/uploads/bench.mp4")
+                    .createdAt(now)
+                    .alarm(alarm)
+                    .build());
+        }
+        writer.insertFellDetections(detections);
+    }
+}
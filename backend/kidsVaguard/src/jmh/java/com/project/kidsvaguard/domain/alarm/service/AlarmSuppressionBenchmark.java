@@ -0,0 +1,63 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlarmSuppressionService.tryAcquire 의 처리량 측정.
+ * 여러 스레드가 같은 키(hot)와 서로 다른 키(spread)로 동시에 호출할 때 경합이 없는지 확인합니다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class AlarmSuppressionBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"4"})
+    public int camerasPerUser;
+
+    private AlarmSuppressionService service;
+    private String[] userIds;
+    private String[] cameraIds;
+
+    @Setup
+    public void setUp() {
+        service = new AlarmSuppressionService(new SimpleMeterRegistry(), true, 30, 30, 100_000);
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+        }
+        cameraIds = new String[camerasPerUser];
+        for (int i = 0; i < camerasPerUser; i++) {
+            cameraIds[i] = "cam-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    // 모든 스레드가 한 카메라의 알림을 두드리는 경우 (대부분 억제됨)
+    @Benchmark
+    public long hotKey() {
+        return service.tryAcquire(userIds[0], cameraIds[0], AlarmType.FELL_DETECTION);
+    }
+
+    // 사용자·카메라가 고르게 퍼진 경우
+    @Benchmark
+    public long spreadKeys() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AlarmType type = random.nextBoolean() ? AlarmType.FELL_DETECTION : AlarmType.OVERCROWDING;
+        return service.tryAcquire(userIds[random.nextInt(users)], cameraIds[random.nextInt(camerasPerUser)], type);
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.kidsvaguard.global.fcm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 알람 푸시 EVENTS 건을 보내는 데 걸리는 시간 비교 (네트워크 없이, 호출 한 번에 LATENCY_MILLIS 가 걸리는 전송 스텁).
+ *
+ *  - direct     : 이전 구현. 요청 스레드에서 메시지마다 send 를 한 번씩 호출하고 결과를 기다림
+ *  - dispatcher : FcmDispatcher 에 submit 하고 전부 완료될 때까지 대기 (batch-size 100, linger 5ms)
+ *
+ * 점수는 ops/s = 초당 보낸 푸시 수입니다. 실행: ./gradlew jmhJar 후 java -jar build/libs/*-jmh.jar FcmDispatcher
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FcmDispatcherBenchmark {
+
+    private static final int EVENTS = 200;
+    private static final long LATENCY_MILLIS = 2;
+
+    private PushTransport transport;
+    private FcmDispatcher dispatcher;
+
+    @Setup
+    public void setUp() {
+        Executor delayed = CompletableFuture.delayedExecutor(LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+        transport = messages -> CompletableFuture.supplyAsync(() -> {
+            List<PushResult> results = new ArrayList<>(messages.size());
+            for (PushMessage message : messages) {
+                results.add(PushResult.success(message, "stub"));
+            }
+            return results;
+        }, delayed);
+        dispatcher = new FcmDispatcher(transport, new SimpleMeterRegistry(), 10_000, 100, 5, 8);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void direct() {
+        for (int i = 0; i < EVENTS; i++) {
+            transport.send(List.of(message(i))).join();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void dispatcher() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            futures[i] = dispatcher.submit(message(i));
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static PushMessage message(long alarmId) {
+        return new PushMessage(alarmId, "stub-token-" + alarmId, "낙상 감지", "아이가 넘어졌습니다.");
+    }
+}
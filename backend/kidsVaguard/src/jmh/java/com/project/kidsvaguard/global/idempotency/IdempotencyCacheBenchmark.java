@@ -0,0 +1,57 @@
+package com.project.kidsvaguard.global.idempotency;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재시도 폭주 시의 멱등 LRU 조회(hit) 경로 측정.
+ * 실제 요청처럼 키 문자열을 매번 새로 만들어 조회하므로 String 해시 계산과 equals 비교 비용이 포함됩니다.
+ * (String 은 해시를 객체마다 캐시하므로, 미리 만든 같은 문자열을 재사용하면 해시 계산이 빠져 실제보다 빠르게 측정됨)
+ * 할당량은 GC 프로파일러로 확인합니다: java -jar build/libs/*-jmh.jar IdempotencyCache -prof gc
+ * (gc.alloc.rate.norm 이 freshKeyOnly 와 같아야 함 = 캐시 조회 자체는 할당 없음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class IdempotencyCacheBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private IdempotencyCache<Object> cache;
+    // 요청 헤더 원문 (조회할 때마다 여기서 새 String 을 만듦)
+    private char[][] rawKeys;
+
+    @Setup
+    public void setUp() {
+        cache = new IdempotencyCache<>(KEYS, 16);
+        rawKeys = new char[KEYS][];
+        Object response = new Object();
+        for (int i = 0; i < KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            rawKeys[i] = key.toCharArray();
+            cache.put(key, response);
+        }
+    }
+
+    // 같은 키로 재시도가 몰리는 경우
+    @Benchmark
+    public Object hitSameKey() {
+        return cache.get(new String(rawKeys[0]));
+    }
+
+    // 여러 이벤트의 재시도가 섞여 들어오는 경우
+    @Benchmark
+    public Object hitSpread() {
+        return cache.get(new String(rawKeys[ThreadLocalRandom.current().nextInt(KEYS)]));
+    }
+
+    // 기준선: 키 문자열 생성 + 해시 계산만 (위 결과에서 이 비용을 빼면 캐시 조회 비용)
+    @Benchmark
+    public int freshKeyOnly() {
+        return new String(rawKeys[ThreadLocalRandom.current().nextInt(KEYS)]).hashCode();
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.kidsvaguard.global.jwtToken;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.service.UserDetailService;
+import com.project.kidsvaguard.domain.user.service.UserPrincipal;
+import com.project.kidsvaguard.domain.user.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter 의 토큰 -> Authentication 경로 비교 (같은 토큰으로 반복 폴링하는 상황).
+ *
+ *  - legacy     : 이전 구현. validateToken + parseClaims 가 각각 parserBuilder().build() 후 서명 검증 (2회)
+ *  - singlePass : 미리 만든 JwtParser 로 한 번만 검증 (VerifiedTokenCache 비활성)
+ *  - cached     : VerifiedTokenCache hit, HMAC 검증/JSON 디코딩 없음
+ *
+ * 사용자 조회는 세 경우 모두 UserPrincipalCache hit 으로 맞춰 JWT 처리 비용만 비교합니다.
+ * 실행: ./gradlew jmhJar 후 java -jar build/libs/*-jmh.jar JwtFilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "e0a4701b737d2ffb0de29b729a44d65e3be8e813175bdb09afafb3c2596db2f2";
+    private static final String USER_ID = "bench";
+
+    private Key key;
+    private String token;
+    private UserDetailService userDetailService;
+    private JwtTokenProvider singlePassProvider;
+    private JwtTokenProvider cachedProvider;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        token = Jwts.builder()
+                .setSubject(USER_ID)
+                .claim("auth", "ROLE_USER")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        UserPrincipalCache principalCache = new UserPrincipalCache(new SimpleMeterRegistry(), 3600, 100);
+        UserPrincipal user = UserPrincipal.from(User.builder().userPk(1L).userId(USER_ID).role(User.Role.USER).build());
+        principalCache.get(USER_ID, id -> user);
+        userDetailService = new UserDetailService(null, principalCache);
+
+        singlePassProvider = new JwtTokenProvider(SECRET, userDetailService, null,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), 0));
+        cachedProvider = new JwtTokenProvider(SECRET, userDetailService, null,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), 100));
+    }
+
+    @Benchmark
+    public Authentication legacy() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        UserDetails userDetails = userDetailService.loadCachedUserByUsername(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+
+    @Benchmark
+    public Authentication singlePass() {
+        return singlePassProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication cached() {
+        return cachedProvider.getAuthentication(token);
+    }
+}
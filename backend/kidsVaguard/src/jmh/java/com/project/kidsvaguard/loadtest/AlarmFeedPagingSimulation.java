@@ -0,0 +1,133 @@
+package com.project.kidsvaguard.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 알림 목록 페이지 N 조회 지연 비교: OFFSET + COUNT(*) vs 커서(createdAt, alarmId) (임베디드 H2, MySQL 모드).
+ *
+ * 한 사용자에게 알림 alarms 건(기본 100만, 낙상 알림은 fell_detection 행 포함)을 넣고 페이지 번호별로 repeat 번 조회해 중앙값을 출력합니다.
+ *  - legacy : 기존 /api/alarms/fell, 인덱스는 user_pk FK 인덱스뿐 (LIMIT 20 OFFSET N*20 + 전체 개수 COUNT)
+ *  - offset : 같은 조회, idx_alarm_user_type_created 인덱스 추가 후
+ *  - cursor : /api/alarms/fell/feed, 같은 인덱스 (이전 페이지 마지막 항목 다음부터 21건, COUNT 없음). 커서는 측정 전에 미리 구해 둠
+ * 실행: ./gradlew jmhJar 후
+ *   java -cp build/libs/*-jmh.jar com.project.kidsvaguard.loadtest.AlarmFeedPagingSimulation [alarms=1000000] [repeat=10]
+ */
+public class AlarmFeedPagingSimulation {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int INSERT_BATCH = 10_000;
+    private static final long USER_PK = 1;
+
+    private static final String SELECT = "SELECT a.alarm_id, a.title, a.content, a.created_at, a.is_read, u.user_id, " +
+            "f.fell_id, f.is_fell, COALESCE(a.video_path, f.file_path) AS video_path " +
+            "FROM alarm a JOIN user u ON u.user_pk = a.user_pk LEFT JOIN fell_detection f ON f.alarm_id = a.alarm_id ";
+    // 앞의 두 컬럼은 WHERE 에서 값이 고정돼 결과 순서는 같음. MySQL 은 이 경우 인덱스 순서로 읽지만
+    // H2 는 ORDER BY 가 인덱스 첫 컬럼부터 방향까지 같아야 정렬을 생략하므로 맞춰 줌
+    private static final String ORDER_BY = "ORDER BY a.user_pk DESC, a.alarm_type DESC, a.created_at DESC, a.alarm_id DESC ";
+
+    public static void main(String[] args) {
+        int alarms = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repeat = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:feed-sim;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0", "sa", "", true);
+        dataSource.setDriverClassName("org.h2.Driver"); // jmh jar 에서는 드라이버 서비스 파일이 합쳐지지 않음
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE user (user_pk BIGINT PRIMARY KEY, user_id VARCHAR(20) NOT NULL)");
+        jdbc.execute("CREATE TABLE alarm (alarm_id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, " +
+                "content VARCHAR(255), is_read BOOLEAN, created_at TIMESTAMP, video_path VARCHAR(255), " +
+                "alarm_type VARCHAR(20) NOT NULL, user_pk BIGINT)");
+        jdbc.execute("CREATE INDEX idx_alarm_user ON alarm (user_pk)"); // JPA 가 FK 에 만들어 주던 인덱스
+        jdbc.execute("CREATE TABLE fell_detection (fell_id BIGINT AUTO_INCREMENT PRIMARY KEY, is_fell BOOLEAN, " +
+                "file_path VARCHAR(255), created_at TIMESTAMP, alarm_id BIGINT)");
+        jdbc.execute("CREATE INDEX idx_fell_detection_alarm ON fell_detection (alarm_id)");
+        jdbc.update("INSERT INTO user VALUES (?, ?)", USER_PK, "heavy");
+
+        long start = System.nanoTime();
+        seed(jdbc, alarms);
+        System.out.printf("seeded %d alarms in %.1fs%n%n", alarms, (System.nanoTime() - start) / 1e9);
+
+        int lastPage = (alarms - 1) / PAGE_SIZE;
+        List<Integer> pages = new ArrayList<>();
+        for (int page : new int[]{0, 10, 100, 1_000, 10_000, 25_000}) {
+            if (page < lastPage) {
+                pages.add(page);
+            }
+        }
+        pages.add(lastPage);
+
+        double[] legacyMillis = new double[pages.size()];
+        for (int i = 0; i < pages.size(); i++) {
+            legacyMillis[i] = median(repeat, offsetPage(jdbc, pages.get(i)));
+        }
+        jdbc.execute("CREATE INDEX idx_alarm_user_type_created ON alarm (user_pk DESC, alarm_type DESC, created_at DESC, alarm_id DESC)"); // ORDER_BY 주석 참고
+
+        System.out.printf("%8s %16s %16s %16s%n", "page", "legacy ms", "offset+count ms", "cursor ms");
+        for (int i = 0; i < pages.size(); i++) {
+            int page = pages.get(i);
+            Map<String, Object> cursor = page == 0 ? null : jdbc.queryForMap(
+                    "SELECT created_at, alarm_id FROM alarm WHERE user_pk = ? AND alarm_type = 'FELL_DETECTION' " +
+                            ORDER_BY.replace("a.", "") + "LIMIT 1 OFFSET ?", USER_PK, page * PAGE_SIZE - 1);
+            double offsetMillis = median(repeat, offsetPage(jdbc, page));
+            double cursorMillis = median(repeat, () -> {
+                if (cursor == null) {
+                    jdbc.queryForList(SELECT + "WHERE a.user_pk = ? AND a.alarm_type = 'FELL_DETECTION' " +
+                            ORDER_BY + "LIMIT ?", USER_PK, PAGE_SIZE + 1);
+                } else {
+                    Timestamp createdAt = (Timestamp) cursor.get("CREATED_AT");
+                    jdbc.queryForList(SELECT + "WHERE a.user_pk = ? AND a.alarm_type = 'FELL_DETECTION' " +
+                                    "AND a.created_at <= ? AND (a.created_at < ? OR a.alarm_id < ?) " +
+                                    ORDER_BY + "LIMIT ?",
+                            USER_PK, createdAt, createdAt, cursor.get("ALARM_ID"), PAGE_SIZE + 1);
+                }
+            });
+            System.out.printf("%8d %16.2f %16.2f %16.2f%n", page, legacyMillis[i], offsetMillis, cursorMillis);
+        }
+        dataSource.destroy();
+    }
+
+    private static Runnable offsetPage(JdbcTemplate jdbc, int page) {
+        return () -> {
+            jdbc.queryForList(SELECT + "WHERE a.user_pk = ? AND a.alarm_type = 'FELL_DETECTION' " +
+                    ORDER_BY + "LIMIT ? OFFSET ?", USER_PK, PAGE_SIZE, page * PAGE_SIZE);
+            jdbc.queryForObject("SELECT COUNT(*) FROM alarm WHERE user_pk = ? AND alarm_type = 'FELL_DETECTION'",
+                    Long.class, USER_PK);
+        };
+    }
+
+    // 1초에 한 건씩 과거로, 100건마다 같은 시각 2건 (createdAt 동률은 alarmId 로 정렬)
+    private static void seed(JdbcTemplate jdbc, int alarms) {
+        long now = System.currentTimeMillis();
+        List<Object[]> alarmRows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < alarms; i++) {
+            long at = now - (i - i / 100) * 1000L;
+            alarmRows.add(new Object[]{"낙상 감지", "아이가 넘어졌습니다.", false, new Timestamp(at), "FELL_DETECTION", USER_PK});
+            if (alarmRows.size() == INSERT_BATCH || i == alarms - 1) {
+                jdbc.batchUpdate("INSERT INTO alarm (title, content, is_read, created_at, alarm_type, user_pk) VALUES (?, ?, ?, ?, ?, ?)",
+                        alarmRows);
+                alarmRows.clear();
+            }
+        }
+        jdbc.update("INSERT INTO fell_detection (is_fell, file_path, created_at, alarm_id) " +
+                "SELECT TRUE, CONCAT('clips/', alarm_id, '.mp4'), created_at, alarm_id FROM alarm");
+    }
+
+    private static double median(int repeat, Runnable query) {
+        query.run(); // 첫 실행(쿼리 파싱/캐시 적재)은 제외
+        double[] millis = new double[repeat];
+        for (int i = 0; i < repeat; i++) {
+            long start = System.nanoTime();
+            query.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[repeat / 2];
+    }
+}
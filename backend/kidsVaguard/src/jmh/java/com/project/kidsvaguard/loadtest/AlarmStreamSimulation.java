@@ -0,0 +1,225 @@
+package com.project.kidsvaguard.loadtest;
+
+import com.project.kidsvaguard.KidsVaguardApplication;
+import com.project.kidsvaguard.domain.alarm.service.AlarmStreamService;
+import com.project.kidsvaguard.domain.fell_detection.dto.FallCryRequestDto;
+import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.global.jwtToken.JwtTokenProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 실시간 알림 스트림(GET /api/alarms/stream) 연결 수/지연 시뮬레이션 (임베디드 H2, FCM 스텁, 실제 HTTP 연결).
+ *
+ * 사용자 connections 명이 각자 SSE 연결을 하나씩 열어 둔 상태에서
+ *  1) 서버 JVM 스레드 수가 연결 수와 무관하게 유지되는지 (연결마다 스레드를 잡지 않는지)
+ *  2) 낙상 알림 저장 시작부터 앱(클라이언트)이 이벤트를 받기까지의 지연
+ * 을 출력합니다. 클라이언트는 java.net.http.HttpClient 비동기 구독이라 클라이언트 쪽도 연결마다 스레드를 쓰지 않습니다.
+ * 같은 프로세스에서 연결 하나당 소켓 2개를 쓰므로 ulimit -n 이 connections * 2 보다 커야 합니다.
+ *
+ * 실행: ./gradlew streamSimulation -PstreamSimulation.args="5000 2000"
+ *   인자: 연결수 알림수
+ */
+public class AlarmStreamSimulation {
+
+    private static final Pattern TAG = Pattern.compile("#(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int alarms = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplication(KidsVaguardApplication.class).run(properties(connections));
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            AlarmStreamService streamService = context.getBean(AlarmStreamService.class);
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+            List<String> tokens = seedUsers(context, connections);
+
+            Map<Long, Long> started = new ConcurrentHashMap<>();
+            Stats delivered = new Stats();
+            LongAdder failed = new LongAdder();
+            long connectStart = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/alarms/stream"))
+                        .header("Authorization", "Bearer " + tokens.get(i))
+                        .header("Accept", "text/event-stream")
+                        .build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new EventSubscriber(started, delivered)))
+                        .exceptionally(e -> {
+                            failed.increment();
+                            return null;
+                        });
+            }
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (streamService.getConnectionCount() + failed.sum() < connections && System.nanoTime() < waitUntil) {
+                Thread.sleep(100);
+            }
+            double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+            Thread.sleep(2000); // 연결 직후 잠깐 늘어난 톰캣 작업 스레드가 다시 유휴 상태가 되도록
+            System.gc();
+            int threadsOpen = ManagementFactory.getThreadMXBean().getThreadCount();
+            long heapMb = (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / (1024 * 1024);
+
+            FallAlarmHandlerService fallService = context.getBean(FallAlarmHandlerService.class);
+            long publishStart = System.nanoTime();
+            for (long seq = 1; seq <= alarms; seq++) {
+                String userId = "stream" + ThreadLocalRandom.current().nextInt(connections);
+                started.put(seq, System.nanoTime());
+                fallService.handleFallNotification(fall(userId, seq));
+            }
+            double publishSeconds = (System.nanoTime() - publishStart) / 1e9;
+            long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!started.isEmpty() && System.nanoTime() < drainUntil) {
+                Thread.sleep(50);
+            }
+
+            System.out.printf("%n=== alarm stream: %d connections, %d alarms ===%n", connections, alarms);
+            System.out.printf("connected          : %d open, %d failed, in %.1fs%n", streamService.getConnectionCount(), failed.sum(), connectSeconds);
+            System.out.printf("JVM threads        : %d before connecting, %d with all connections open (client + server)%n", threadsBefore, threadsOpen);
+            System.out.printf("heap used          : %d MB%n", heapMb);
+            System.out.printf("notify rate        : %.1f/s%n", alarms / publishSeconds);
+            System.out.printf("stream delivery    : %s, not received=%d%n", delivered, started.size());
+        } finally {
+            context.close(); // 스트림이 닫히면 클라이언트 구독도 끝남 (HttpClient 스레드는 데몬)
+        }
+    }
+
+    private static String[] properties(int connections) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:stream-sim;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate"); // 스키마는 Flyway 마이그레이션으로 생성
+        properties.put("spring.flyway.placeholders.lob_text", "clob");
+        properties.put("server.port", "0");
+        properties.put("debug", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("push.transport", "stub");
+        properties.put("push.stub.latency-millis", "0");
+        properties.put("alarm.suppression.enabled", "false");
+        properties.put("notify.rate-limit.enabled", "false");
+        properties.put("alarm.stream.max-connections", String.valueOf(connections + 100));
+        return properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+    }
+
+    private static List<String> seedUsers(ConfigurableApplicationContext context, int users) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtTokenProvider jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        List<User> saved = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            saved.add(User.builder()
+                    .userId("stream" + i)
+                    .password("{noop}stream")
+                    .username("stream" + i)
+                    .phone("010-0000-0000")
+                    .email("stream" + i + "@bench.local")
+                    .createdAt(new Timestamp(System.currentTimeMillis()))
+                    .alarmSetting(true)
+                    .role(User.Role.USER)
+                    .build());
+        }
+        userRepository.saveAll(saved);
+        List<String> tokens = new ArrayList<>(users);
+        for (User user : saved) {
+            tokens.add(jwtTokenProvider.generateToken(
+                    new UsernamePasswordAuthenticationToken(user, "", user.getAuthorities())).getAccessToken());
+        }
+        return tokens;
+    }
+
+    private static FallCryRequestDto fall(String userId, long seq) {
+        FallCryRequestDto dto = new FallCryRequestDto();
+        dto.setUserId(userId);
+        dto.setIsFell(true);
+        dto.setTitle("낙상 감지 #" + seq);
+        dto.setContent("아이가 넘어졌습니다.");
+        return dto;
+    }
+
+    // "data:" 줄의 제목 태그(#순번)로 알림 호출 시각을 찾아 지연을 기록
+    private static final class EventSubscriber implements Flow.Subscriber<String> {
+        private final Map<Long, Long> started;
+        private final Stats delivered;
+
+        private EventSubscriber(Map<Long, Long> started, Stats delivered) {
+            this.started = started;
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            Matcher matcher = TAG.matcher(line);
+            if (matcher.find()) {
+                Long start = started.remove(Long.valueOf(matcher.group(1)));
+                if (start != null) {
+                    delivered.record(System.nanoTime() - start);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static final class Stats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        @Override
+        public String toString() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            if (sorted.length == 0) {
+                return "n=0";
+            }
+            Arrays.sort(sorted);
+            return String.format("n=%d p50=%.2fms p99=%.2fms max=%.2fms", sorted.length,
+                    sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6, sorted[sorted.length - 1] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.kidsvaguard.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 플랫폼 스레드 vs 가상 스레드 비교용 부하 생성기.
+ * 실행 중인 서버에 /api/notify/fall_cry (쓰기) 와 /api/alarms/fell (목록 조회) 를 섞어서 동시에 보내고
+ * 종류별 처리량, p50/p99 지연, 오류 수를 출력합니다.
+ *
+ * 1) 서버를 두 번 띄워 각각 측정 (쿨다운/수신 한도는 측정을 왜곡하므로 끔)
+ *    ./gradlew bootRun --args='--alarm.suppression.enabled=false --notify.rate-limit.enabled=false'
+ *    ./gradlew bootRun -PjavaVersion=21 --args='--spring.profiles.active=virtual --alarm.suppression.enabled=false --notify.rate-limit.enabled=false'
+ * 2) 부하 생성
+ *    ./gradlew loadTest -PloadTest.args="http://localhost:8080 <userId> <accessToken> 400 60 0.5"
+ *    인자: baseUrl userId accessToken 동시요청수 측정초 쓰기비율
+ */
+public class NotifyAlarmLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: baseUrl userId accessToken [concurrency=200] [seconds=30] [writeRatio=0.5]");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String userId = args[1];
+        String accessToken = args[2];
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        double writeRatio = args.length > 5 ? Double.parseDouble(args[5]) : 0.5;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8)))
+                .build();
+
+        Stats writes = new Stats("notify (POST /api/notify/fall_cry)");
+        Stats reads = new Stats("alarm list (GET /api/alarms/fell)");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            users.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    boolean write = ThreadLocalRandom.current().nextDouble() < writeRatio;
+                    HttpRequest request = write ? notifyRequest(baseUrl, userId) : listRequest(baseUrl, accessToken);
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        (write ? writes : reads).record(System.nanoTime() - start, response.statusCode() < 400);
+                    } catch (Exception e) {
+                        (write ? writes : reads).record(System.nanoTime() - start, false);
+                    }
+                }
+            });
+        }
+        users.shutdown();
+        users.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        System.out.printf("concurrency=%d, duration=%ds, writeRatio=%.2f%n", concurrency, seconds, writeRatio);
+        writes.print(seconds);
+        reads.print(seconds);
+        System.exit(0);
+    }
+
+    private static HttpRequest notifyRequest(String baseUrl, String userId) {
+        String body = """
+                {"userId":"%s","cameraId":"%s","isFell":true,"title":"load test","content":"load test","timeStr":"%s","videoUrl":"/uploads/load-test.mp4"}
+                """.formatted(userId, UUID.randomUUID(), LocalDateTime.now());
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/notify/fall_cry"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest listRequest(String baseUrl, String accessToken) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/alarms/fell?page=0&size=20"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build();
+    }
+
+    private static final class Stats {
+        private final String name;
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, boolean ok) {
+            if (ok) {
+                latencies.add(nanos);
+            } else {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized void print(int seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-40s ok=%d (%.1f req/s) errors=%d p50=%.1fms p99=%.1fms%n",
+                    name, sorted.length, sorted.length / (double) seconds, errors.get(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.floor(p * sorted.length))] / 1_000_000.0;
+        }
+    }
+}
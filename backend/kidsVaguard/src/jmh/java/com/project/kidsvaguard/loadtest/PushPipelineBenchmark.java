@@ -0,0 +1,262 @@
+package com.project.kidsvaguard.loadtest;
+
+import com.project.kidsvaguard.KidsVaguardApplication;
+import com.project.kidsvaguard.domain.alarm.dto.OvercrowdNotificationRequestDto;
+import com.project.kidsvaguard.domain.alarm.service.OverNotifyService;
+import com.project.kidsvaguard.domain.fell_detection.dto.FallCryRequestDto;
+import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.domain.user.service.UserService;
+import com.project.kidsvaguard.global.fcm.PushMessage;
+import com.project.kidsvaguard.global.fcm.PushResult;
+import com.project.kidsvaguard.global.fcm.PushTransport;
+import com.project.kidsvaguard.global.fcm.StubPushTransport;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 알림 수신 → 알람 저장 → FCM 푸시 전체 경로 벤치마크 (네트워크/Firebase/MySQL 없이 CI 에서 실행).
+ *
+ * 애플리케이션 컨텍스트를 임베디드 H2(MySQL 모드) 로 띄우고, 푸시 전송만 StubPushTransport 를 감싼 기록용 전송으로 바꿉니다.
+ * 여러 스레드가 FallAlarmHandlerService / OverNotifyService 를 직접 호출하고, 호출 시작부터 기기별 푸시 결과가 나오기까지를 잽니다.
+ * 쿨다운/수신 한도/과밀 묶음은 측정을 왜곡하므로 끕니다.
+ *
+ * 실행: ./gradlew pushBenchmark -PpushBenchmark.args="20 32 200 2 20 0.01 0.05 0.2"
+ *   인자: 측정초 동시호출수 사용자수 사용자당기기수 전송지연ms 일시오류율 죽은토큰비율 과밀비율
+ */
+public class PushPipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = intArg(args, 0, 20);
+        int concurrency = intArg(args, 1, 32);
+        int users = intArg(args, 2, 200);
+        int devicesPerUser = intArg(args, 3, 2);
+        long latencyMillis = intArg(args, 4, 20);
+        double errorRate = doubleArg(args, 5, 0.01);
+        double deadTokenRatio = doubleArg(args, 6, 0.05);
+        double overcrowdRatio = doubleArg(args, 7, 0.2);
+
+        RecordingTransport transport = new RecordingTransport(
+                new StubPushTransport(latencyMillis, latencyMillis / 2, errorRate, 0.0, "unregistered-"));
+        System.setProperty("spring.devtools.restart.enabled", "false"); // 재시작 시 main 이 스프링 인자로 다시 호출되지 않도록
+        SpringApplication application = new SpringApplication(KidsVaguardApplication.class);
+        application.addInitializers(context -> context.getBeanFactory().registerSingleton("pushTransport", transport));
+        ConfigurableApplicationContext context = application.run(properties());
+
+        try {
+            List<String> userIds = seedUsers(context, users, devicesPerUser, deadTokenRatio);
+            FallAlarmHandlerService fallService = context.getBean(FallAlarmHandlerService.class);
+            OverNotifyService overNotifyService = context.getBean(OverNotifyService.class);
+
+            Stats notify = new Stats();
+            AtomicLong sequence = new AtomicLong();
+            LongAdder notifyErrors = new LongAdder();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                callers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String userId = userIds.get(random.nextInt(userIds.size()));
+                        String tag = "#" + sequence.incrementAndGet();
+                        long start = System.nanoTime();
+                        transport.started.put(tag, start);
+                        try {
+                            if (random.nextDouble() < overcrowdRatio) {
+                                overNotifyService.handleOvercrowdingNotification(overcrowd(userId, tag, random));
+                            } else {
+                                fallService.handleFallNotification(fall(userId, tag));
+                            }
+                            notify.record(System.nanoTime() - start);
+                        } catch (RuntimeException e) {
+                            transport.started.remove(tag);
+                            notifyErrors.increment();
+                        }
+                    }
+                });
+            }
+            callers.shutdown();
+            callers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+            // 재시도 중인 푸시가 끝날 때까지 잠시 대기
+            long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!transport.started.isEmpty() && System.nanoTime() < drainUntil) {
+                Thread.sleep(100);
+            }
+
+            System.out.printf("%n=== push pipeline: %ds, concurrency=%d, users=%d x %d devices, stub latency=%dms, error-rate=%.3f, dead tokens=%.2f ===%n",
+                    seconds, concurrency, users, devicesPerUser, latencyMillis, errorRate, deadTokenRatio);
+            System.out.printf("notify (persist)   : %8.1f/s  %s  errors=%d%n", notify.count() / (double) seconds, notify, notifyErrors.sum());
+            System.out.printf("push (end-to-end)  : %8.1f/s  %s%n", transport.delivered.count() / (double) seconds, transport.delivered);
+            System.out.printf("transport calls    : %d (avg %.1f messages/call)%n", transport.calls.sum(),
+                    transport.messages.sum() / (double) Math.max(1, transport.calls.sum()));
+            System.out.printf("push results       : %s%n", transport.resultCounts());
+            System.out.printf("not finished       : %d%n", transport.started.size());
+        } finally {
+            context.close();
+        }
+    }
+
+    // application.properties 보다 우선하도록 명령행 인자로 넘김
+    private static String[] properties() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:push-bench;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate"); // 스키마는 Flyway 마이그레이션으로 생성
+        properties.put("spring.flyway.placeholders.lob_text", "clob");
+        properties.put("server.port", "0");
+        properties.put("debug", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("logging.level.com.project.kidsvaguard.global.fcm", "OFF"); // 스텁이 만든 실패/재시도 로그 생략 (결과는 아래 집계로 출력)
+        properties.put("push.transport", "benchmark"); // FirebasePushTransport/StubPushTransport 대신 아래 RecordingTransport
+        properties.put("push.coalesce.enabled", "false");
+        properties.put("push.retry.initial-backoff-millis", "50");
+        properties.put("push.retry.max-backoff-millis", "1000");
+        properties.put("push.retry.dead-letter-file", System.getProperty("java.io.tmpdir") + "/push-bench-dead-letter.jsonl");
+        properties.put("alarm.suppression.enabled", "false");
+        properties.put("notify.rate-limit.enabled", "false");
+        return properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+    }
+
+    private static List<String> seedUsers(ConfigurableApplicationContext context, int users, int devicesPerUser, double deadTokenRatio) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        UserService userService = context.getBean(UserService.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> userIds = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String userId = "bench" + i;
+            userRepository.save(User.builder()
+                    .userId(userId)
+                    .password("{noop}bench")
+                    .username("bench" + i)
+                    .phone("010-0000-0000")
+                    .email(userId + "@bench.local")
+                    .createdAt(new Timestamp(System.currentTimeMillis()))
+                    .alarmSetting(true)
+                    .role(User.Role.USER)
+                    .build());
+            for (int d = 0; d < devicesPerUser; d++) {
+                String prefix = random.nextDouble() < deadTokenRatio ? "unregistered-" : "token-";
+                userService.updateFcmToken(userId, prefix + userId + "-" + d);
+            }
+            userIds.add(userId);
+        }
+        return userIds;
+    }
+
+    private static FallCryRequestDto fall(String userId, String tag) {
+        FallCryRequestDto dto = new FallCryRequestDto();
+        dto.setUserId(userId);
+        dto.setIsFell(true);
+        dto.setTitle("낙상 감지 " + tag);
+        dto.setContent("아이가 넘어졌습니다.");
+        return dto;
+    }
+
+    private static OvercrowdNotificationRequestDto overcrowd(String userId, String tag, ThreadLocalRandom random) {
+        OvercrowdNotificationRequestDto dto = new OvercrowdNotificationRequestDto();
+        dto.setUserId(userId);
+        dto.setTitle("인원 초과 경고 " + tag);
+        dto.setContent("현재 인원: " + (11 + random.nextInt(5)) + "명 (최대 10명)");
+        return dto;
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    private static double doubleArg(String[] args, int index, double defaultValue) {
+        return args.length > index ? Double.parseDouble(args[index]) : defaultValue;
+    }
+
+    /**
+     * StubPushTransport 를 감싸 메시지 제목의 태그(#순번)로 알림 호출 시각을 찾아 종단 지연을 기록합니다.
+     * 재시도 후 성공했거나 재시도하지 않는 오류로 끝난 결과만 완료로 봅니다.
+     */
+    private static final class RecordingTransport implements PushTransport {
+        private final PushTransport delegate;
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> results = new ConcurrentHashMap<>();
+        private final Stats delivered = new Stats();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder messages = new LongAdder();
+
+        private RecordingTransport(PushTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletableFuture<List<PushResult>> send(List<PushMessage> batch) {
+            calls.increment();
+            messages.add(batch.size());
+            return delegate.send(batch).whenComplete((list, error) -> {
+                if (list == null) {
+                    return;
+                }
+                long now = System.nanoTime();
+                for (PushResult result : list) {
+                    String code = result.isSuccess() ? "SUCCESS" : result.getErrorCode();
+                    results.computeIfAbsent(code, k -> new LongAdder()).increment();
+                    if (result.isSuccess() || !result.isRetryable()) {
+                        String title = result.getMessage().getTitle();
+                        Long start = started.remove(title.substring(title.lastIndexOf('#')));
+                        if (start != null) {
+                            delivered.record(now - start); // 알림 한 건의 첫 기기 결과 기준
+                        }
+                    }
+                }
+            });
+        }
+
+        private String resultCounts() {
+            Map<String, Long> counts = new HashMap<>();
+            results.forEach((code, count) -> counts.put(code, count.sum()));
+            return counts.toString();
+        }
+    }
+
+    private static final class Stats {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        long count() {
+            return latencies.size();
+        }
+
+        @Override
+        public String toString() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            if (sorted.length == 0) {
+                return "n=0";
+            }
+            Arrays.sort(sorted);
+            return String.format("n=%d p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms", sorted.length,
+                    sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+                    sorted[(int) (sorted.length * 0.999)] / 1e6, sorted[sorted.length - 1] / 1e6);
+        }
+    }
+}
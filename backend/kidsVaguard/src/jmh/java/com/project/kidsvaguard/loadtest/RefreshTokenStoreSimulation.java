@@ -0,0 +1,170 @@
+package com.project.kidsvaguard.loadtest;
+
+import com.project.kidsvaguard.global.jwtToken.RefreshToken;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * refresh_token 저장 방식 비교 시뮬레이션 (임베디드 H2, MySQL 모드, 시각은 가상 시계).
+ *
+ *  - legacy : 토큰 원문(512) + 일반 인덱스, 로그인 = 조회/삭제/저장, 재발급 = 조회/삭제/저장, 정리 없음
+ *  - hashed : SHA-256 hex(64) + unique 인덱스, 로그인 = upsert, 재발급 = 조회 + 조건부 UPDATE, 매시간 청크 삭제
+ *
+ * 매일 신규 가입자가 늘고, 기존 사용자 중 일부만 앱을 열어 로그인/재발급합니다.
+ * 하루가 끝날 때마다 두 테이블의 행 수를, 마지막에 재발급 지연(p50/p99)을 출력합니다.
+ * 실행: ./gradlew jmhJar 후
+ *   java -cp build/libs/*-jmh.jar com.project.kidsvaguard.loadtest.RefreshTokenStoreSimulation [days=28] [initialUsers=20000] [newUsersPerDay=1000]
+ */
+public class RefreshTokenStoreSimulation {
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long REFRESH_VALIDITY_MILLIS = TimeUnit.DAYS.toMillis(7); // jwt.refresh-token-validity 기본값
+    private static final double DAILY_ACTIVE_RATIO = 0.3;
+    private static final int REFRESHES_PER_ACTIVE_USER = 5;
+    private static final int SWEEP_BATCH = 1000;
+
+    public static void main(String[] args) {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 28;
+        int initialUsers = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int newUsersPerDay = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:refresh-sim;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver"); // jmh jar 에서는 드라이버 서비스 파일이 합쳐지지 않음
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE legacy_refresh_token (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "refresh_token VARCHAR(512) NOT NULL, user_pk BIGINT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_legacy_refresh_token ON legacy_refresh_token (refresh_token)");
+        jdbc.execute("CREATE TABLE refresh_token (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "refresh_token VARCHAR(64) NOT NULL, user_pk BIGINT NOT NULL, created_at TIMESTAMP NOT NULL, expires_at TIMESTAMP, " +
+                "CONSTRAINT uk_refresh_token_hash UNIQUE (refresh_token), CONSTRAINT uk_refresh_token_user UNIQUE (user_pk))");
+        jdbc.execute("CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at)");
+
+        Random random = new Random(42);
+        // 사용자별 현재 토큰 (클라이언트가 들고 있는 값)
+        List<String> legacyTokens = new ArrayList<>();
+        List<String> hashedTokens = new ArrayList<>();
+        List<Long> legacyLatencies = new ArrayList<>();
+        List<Long> hashedLatencies = new ArrayList<>();
+        int users = initialUsers;
+        long now = 0;
+
+        System.out.printf("%4s %10s %14s %14s%n", "day", "users", "legacy rows", "hashed rows");
+        for (int day = 1; day <= days; day++) {
+            int population = day == 1 ? initialUsers : users + newUsersPerDay;
+            while (legacyTokens.size() < population) {
+                legacyTokens.add(null);
+                hashedTokens.add(null);
+            }
+            users = population;
+
+            for (int userPk = 0; userPk < users; userPk++) {
+                boolean newUser = legacyTokens.get(userPk) == null;
+                if (!newUser && random.nextDouble() >= DAILY_ACTIVE_RATIO) {
+                    continue;
+                }
+                long at = now + random.nextInt((int) DAY_MILLIS);
+
+                // 토큰이 없거나 만료됐으면 로그인, 아니면 재발급
+                String legacy = legacyTokens.get(userPk);
+                String hashed = hashedTokens.get(userPk);
+                if (legacy == null || expired(hashed, at)) {
+                    legacyTokens.set(userPk, legacyLogin(jdbc, userPk, at));
+                    hashedTokens.set(userPk, hashedLogin(jdbc, userPk, at));
+                }
+                for (int i = 0; i < REFRESHES_PER_ACTIVE_USER; i++) {
+                    long start = System.nanoTime();
+                    legacyTokens.set(userPk, legacyRefresh(jdbc, legacyTokens.get(userPk), userPk, at));
+                    legacyLatencies.add(System.nanoTime() - start);
+
+                    start = System.nanoTime();
+                    hashedTokens.set(userPk, hashedRefresh(jdbc, hashedTokens.get(userPk), at));
+                    hashedLatencies.add(System.nanoTime() - start);
+                }
+            }
+
+            now += DAY_MILLIS;
+            for (int hour = 0; hour < 24; hour++) {
+                sweep(jdbc, now - DAY_MILLIS + TimeUnit.HOURS.toMillis(hour + 1));
+            }
+            System.out.printf("%4d %10d %14d %14d%n", day, users,
+                    jdbc.queryForObject("SELECT COUNT(*) FROM legacy_refresh_token", Long.class),
+                    jdbc.queryForObject("SELECT COUNT(*) FROM refresh_token", Long.class));
+        }
+
+        System.out.println();
+        print("legacy refresh", legacyLatencies);
+        print("hashed refresh", hashedLatencies);
+    }
+
+    private static String newToken(long at) {
+        // 실제 Refresh Token 길이(약 150자)에 맞춘 임의 문자열
+        return UUID.randomUUID() + "." + Long.toHexString(at) + "." + "x".repeat(100) + UUID.randomUUID();
+    }
+
+    private static boolean expired(String token, long at) {
+        return token != null && Long.parseLong(token.split("\\.")[1], 16) + REFRESH_VALIDITY_MILLIS <= at;
+    }
+
+    private static String legacyLogin(JdbcTemplate jdbc, long userPk, long at) {
+        List<Long> existing = jdbc.queryForList("SELECT id FROM legacy_refresh_token WHERE user_pk = ?", Long.class, userPk);
+        existing.forEach(id -> jdbc.update("DELETE FROM legacy_refresh_token WHERE id = ?", id));
+        String token = newToken(at);
+        jdbc.update("INSERT INTO legacy_refresh_token (refresh_token, user_pk, created_at) VALUES (?, ?, ?)",
+                token, userPk, new Timestamp(at));
+        return token;
+    }
+
+    private static String legacyRefresh(JdbcTemplate jdbc, String token, long userPk, long at) {
+        Long id = jdbc.queryForObject("SELECT id FROM legacy_refresh_token WHERE refresh_token = ?", Long.class, token);
+        jdbc.update("DELETE FROM legacy_refresh_token WHERE id = ?", id);
+        String next = newToken(at);
+        jdbc.update("INSERT INTO legacy_refresh_token (refresh_token, user_pk, created_at) VALUES (?, ?, ?)",
+                next, userPk, new Timestamp(at));
+        return next;
+    }
+
+    private static String hashedLogin(JdbcTemplate jdbc, long userPk, long at) {
+        String token = newToken(at);
+        jdbc.update("INSERT INTO refresh_token (user_pk, refresh_token, created_at, expires_at) VALUES (?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE refresh_token = VALUES(refresh_token), created_at = VALUES(created_at), expires_at = VALUES(expires_at)",
+                userPk, RefreshToken.hash(token), new Timestamp(at), new Timestamp(at + REFRESH_VALIDITY_MILLIS));
+        return token;
+    }
+
+    private static String hashedRefresh(JdbcTemplate jdbc, String token, long at) {
+        String hash = RefreshToken.hash(token);
+        jdbc.queryForObject("SELECT user_pk FROM refresh_token WHERE refresh_token = ?", Long.class, hash);
+        String next = newToken(at);
+        int rotated = jdbc.update("UPDATE refresh_token SET refresh_token = ?, created_at = ?, expires_at = ? " +
+                        "WHERE refresh_token = ? AND expires_at > ?",
+                RefreshToken.hash(next), new Timestamp(at), new Timestamp(at + REFRESH_VALIDITY_MILLIS), hash, new Timestamp(at));
+        if (rotated != 1) {
+            throw new IllegalStateException("rotation failed");
+        }
+        return next;
+    }
+
+    private static void sweep(JdbcTemplate jdbc, long at) {
+        int deleted;
+        do {
+            deleted = jdbc.update("DELETE FROM refresh_token WHERE expires_at IS NULL OR expires_at < ? LIMIT ?",
+                    new Timestamp(at), SWEEP_BATCH);
+        } while (deleted == SWEEP_BATCH);
+    }
+
+    private static void print(String name, List<Long> latencies) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%-16s n=%d p50=%.1fus p99=%.1fus%n", name, sorted.length,
+                sorted[sorted.length / 2] / 1_000.0, sorted[(int) (sorted.length * 0.99)] / 1_000.0);
+    }
+}
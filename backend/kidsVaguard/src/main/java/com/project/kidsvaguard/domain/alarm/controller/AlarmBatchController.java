@@ -0,0 +1,53 @@
+package com.project.kidsvaguard.domain.alarm.controller;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmBatchItemDto;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmBatchResultDto;
+import com.project.kidsvaguard.domain.alarm.service.AlarmBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notify")
+@RequiredArgsConstructor
+@Slf4j
+public class AlarmBatchController {
+
+    private final AlarmBatchService alarmBatchService;
+
+    /**
+     * 낙상/과밀 이벤트 배열을 한 번에 수신하는 엔드포인트
+     * 항목별 결과(CREATED / SUPPRESSED / RATE_LIMITED / FAILED)를 요청 순서대로 돌려줍니다.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> notifyBatch(@RequestBody List<AlarmBatchItemDto> events) {
+        log.info("Received /batch request: {} events", events.size());
+        try {
+            List<AlarmBatchResultDto> results = alarmBatchService.ingest(events);
+
+            Map<String, Object> response = Map.of(
+                    "status", "success",
+                    "created", count(results, AlarmBatchResultDto.Status.CREATED),
+                    "suppressed", count(results, AlarmBatchResultDto.Status.SUPPRESSED),
+                    "rateLimited", count(results, AlarmBatchResultDto.Status.RATE_LIMITED),
+                    "failed", count(results, AlarmBatchResultDto.Status.FAILED),
+                    "results", results
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Batch validation failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "fail",
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    private static long count(List<AlarmBatchResultDto> results, AlarmBatchResultDto.Status status) {
+        return results.stream().filter(r -> r.getStatus() == status).count();
+    }
+}
@@ -1,17 +1,32 @@
 package com.project.kidsvaguard.domain.alarm.controller;
 
+import com.project.kidsvaguard.domain.alarm.dto.AlarmChangesResponse;
 import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmFeedResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmReadRequest;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmUnreadCountResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.service.AlarmListVersions;
 import com.project.kidsvaguard.domain.alarm.service.AlarmService;
+import com.project.kidsvaguard.domain.alarm.service.AlarmStreamService;
+import com.project.kidsvaguard.domain.user.service.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/alarms") // 알람 관련 기본 경로 예시
@@ -20,10 +35,16 @@ import org.springframework.web.bind.annotation.*;
 public class AlarmController {
 
     private final AlarmService alarmService;
+    private final AlarmStreamService alarmStreamService;
+    private final AlarmListVersions alarmListVersions;
+
+    // 사용자별 응답이므로 공유 캐시에는 두지 않고, 앱은 매번 If-None-Match 로 재검증
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     @GetMapping("/fell")
     public ResponseEntity<?> getFellDetectionAlarms(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @PageableDefault(size = 20) Pageable pageable) {
 
         if (userDetails == null) {
@@ -31,13 +52,19 @@ public class AlarmController {
         }
 
         String currentUserId = userDetails.getUsername();
+        // 앱이 가진 페이지 이후 알림이 바뀌지 않았으면 조회/직렬화 없이 304
+        String etag = alarmListVersions.etag(currentUserId, "fell", pageable.toString());
+        if (alarmListVersions.notModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         Page<AlarmDetailResponse> fellAlarms = alarmService.getFellAlarmsByUser(currentUserId, pageable);
-        return ResponseEntity.ok(fellAlarms);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(fellAlarms);
     }
 
     @GetMapping("/overcrowding")
     public ResponseEntity<?> getOvercrowdingAlarms(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @PageableDefault(size = 20) Pageable pageable) {
 
         if (userDetails == null) {
@@ -45,9 +72,127 @@ public class AlarmController {
         }
 
         String currentUserId = userDetails.getUsername();
+        String etag = alarmListVersions.etag(currentUserId, "overcrowding", pageable.toString());
+        if (alarmListVersions.notModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
         Page<AlarmDetailResponse> overAlarms = alarmService.getOvercrowdingAlarmsByUser(currentUserId, pageable);
-        return ResponseEntity.ok(overAlarms);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(overAlarms);
+    }
+    // 커서 기반 목록 (전체 개수 없이 nextCursor 로 다음 페이지 요청, 기존 /fell, /overcrowding 은 호환용으로 유지)
+    @GetMapping("/fell/feed")
+    public ResponseEntity<?> getFellDetectionFeed(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Authentication required.");
+        }
+
+        String etag = alarmListVersions.etag(userDetails.getUsername(), "fell_detection-feed", String.valueOf(cursor), String.valueOf(size));
+        if (alarmListVersions.notModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        AlarmFeedResponse feed = alarmService.getAlarmFeed(userDetails.getUsername(), AlarmType.FELL_DETECTION, cursor, size);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(feed);
+    }
+
+    @GetMapping("/overcrowding/feed")
+    public ResponseEntity<?> getOvercrowdingFeed(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("Authentication required.");
+        }
+
+        String etag = alarmListVersions.etag(userDetails.getUsername(), "overcrowding-feed", String.valueOf(cursor), String.valueOf(size));
+        if (alarmListVersions.notModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        AlarmFeedResponse feed = alarmService.getAlarmFeed(userDetails.getUsername(), AlarmType.OVERCROWDING, cursor, size);
+        return ResponseEntity.ok().eTag(etag).cacheControl(LIST_CACHE_CONTROL).body(feed);
     }
+
+    // 실시간 알림 스트림 (SSE). 재연결 시 EventSource 가 보내는 Last-Event-ID 이후 알림부터 다시 받음
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAlarms(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        SseEmitter emitter = alarmStreamService.connect(userDetails.getUsername(), lastEventId);
+        return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .body(emitter);
+    }
+
+    // 증분 동기화: 이전 응답의 version 이후 추가/변경/삭제된 알림만 (첫 요청은 since=0, reset=true 면 목록을 처음부터 다시 받음)
+    @GetMapping("/changes")
+    public ResponseEntity<AlarmChangesResponse> getAlarmChanges(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(defaultValue = "0") long since) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return ResponseEntity.ok(alarmService.getChanges(user, since));
+    }
+
+    // 안 읽은 알림 배지 (사용자/타입별 카운터 조회만)
+    @GetMapping("/unread-count")
+    public ResponseEntity<AlarmUnreadCountResponse> getUnreadCount(@AuthenticationPrincipal UserPrincipal user) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return ResponseEntity.ok(alarmService.getUnreadCount(user));
+    }
+
+    // 일괄 읽음 처리: alarmIds / alarmType / before 중 하나 (UPDATE 한 번), 응답에 갱신된 배지 포함
+    @PatchMapping("/read")
+    public ResponseEntity<?> markAlarmsRead(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestBody AlarmReadRequest request) {
+
+        if (user == null) {
+            return ResponseEntity.status(401).body("인증이 필요합니다.");
+        }
+
+        int updated = alarmService.markRead(user, request);
+        return ResponseEntity.ok(Map.of(
+                "updated", updated,
+                "unread", alarmService.getUnreadCount(user)
+        ));
+    }
+
+    @PatchMapping("/{alarmId}/read")
+    public ResponseEntity<String> markAlarmRead(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long alarmId) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).body("인증이 필요합니다.");
+        }
+
+        try {
+            alarmService.markRead(alarmId, userDetails.getUsername());
+            return ResponseEntity.ok("알림을 읽음 처리했습니다.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{alarmId}")
     public ResponseEntity<String> deleteAlarm(
             @AuthenticationPrincipal UserDetails userDetails,
@@ -71,4 +216,8 @@ public class AlarmController {
             return ResponseEntity.status(500).body("알림 삭제 중 오류가 발생했습니다.");
         }
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LIST_CACHE_CONTROL).build();
+    }
+}
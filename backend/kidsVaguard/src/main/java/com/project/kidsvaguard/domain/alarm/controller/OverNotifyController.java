@@ -1,13 +1,23 @@
 package com.project.kidsvaguard.domain.alarm.controller;
 
 import com.project.kidsvaguard.domain.alarm.dto.OvercrowdNotificationRequestDto; // 새로운 DTO 임포트
+import com.project.kidsvaguard.domain.alarm.dto.AlarmEvent;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.service.AlarmEventDispatcher;
 import com.project.kidsvaguard.domain.alarm.service.OverNotifyService;
+import com.project.kidsvaguard.global.exception.NotifyRateLimitedException;
+import com.project.kidsvaguard.global.idempotency.IdempotencyService;
+import com.project.kidsvaguard.global.ratelimit.NotifyRateLimiter;
+import com.project.kidsvaguard.global.storage.MultipartVideoIngestor;
+import com.project.kidsvaguard.global.storage.MultipartVideoIngestor.IngestedVideo;
+import com.project.kidsvaguard.global.storage.StoredVideo;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // Slf4j 추가
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -20,17 +30,53 @@ import java.util.Map;
 public class OverNotifyController {
 
     private final OverNotifyService overNotifyService;
+    private final AlarmEventDispatcher alarmEventDispatcher;
+    private final MultipartVideoIngestor multipartVideoIngestor;
+    private final VideoStorageService videoStorageService;
+    private final IdempotencyService idempotencyService;
+    private final NotifyRateLimiter notifyRateLimiter;
     // UPLOAD_DIR은 서비스 계층으로 이동했으므로 컨트롤러에서 제거
 
     /**
      * JSON Body를 통해 과밀 감지 알림을 수신하는 엔드포인트
+     * 같은 Idempotency-Key(없으면 userId+cameraId+timeStr) 로 재시도하면 최초 응답을 그대로 돌려줍니다.
      */
     @PostMapping("/overcrowd")
-    public ResponseEntity<Map<String, Object>> notifyOvercrowding(@RequestBody OvercrowdNotificationRequestDto payload) {
+    public ResponseEntity<Map<String, Object>> notifyOvercrowding(@RequestBody OvercrowdNotificationRequestDto payload,
+                                                                  @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Received /overcrowd request: {}", payload.toString());
+        String key = IdempotencyService.deriveKey(idempotencyKey, payload.getUserId(), payload.getCameraId(),
+                payload.getTimeStr(), null);
+        // 메모리에 응답이 남은 재시도는 429 없이 바로 돌려주고, 나머지는 멱등 키 조회(JPA) 전에 한도 확인
+        return idempotencyService.execute(IdempotencyService.Scope.OVERCROWD, key,
+                () -> notifyRateLimiter.acquire(payload.getUserId(), payload.getCameraId(), AlarmType.OVERCROWDING),
+                () -> processOvercrowding(payload));
+    }
+
+    private ResponseEntity<Map<String, Object>> processOvercrowding(OvercrowdNotificationRequestDto payload) {
+        if (alarmEventDispatcher.isEnabled()) {
+            // 비동기 모드: 검증 후 큐에 넣고 바로 202 + eventId 응답 (저장/FCM 은 워커가 처리)
+            if (payload.getUserId() == null || payload.getUserId().isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "fail",
+                        "message", "userId 는 필수입니다."
+                ));
+            }
+            String eventId = alarmEventDispatcher.submit(AlarmEvent.builder()
+                    .type(AlarmEvent.Type.OVERCROWD)
+                    .overcrowd(payload)
+                    .build());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "status", "accepted",
+                    "message", "Overcrowd detection queued.",
+                    "eventId", eventId
+            ));
+        }
 
         // 서비스 계층으로 모든 데이터 전달
-        overNotifyService.handleOvercrowdingNotification(payload);
+        if (!overNotifyService.handleOvercrowdingNotification(payload)) {
+            return suppressedResponse();
+        }
 
         Map<String, Object> response = Map.of(
                 "status", "success",
@@ -41,32 +87,35 @@ public class OverNotifyController {
     }
 
     /**
-     * MultipartFile을 통해 비디오 파일과 함께 과밀 감지 알림을 수신하는 엔드포인트
+     * multipart/form-data 로 비디오 파일과 함께 과밀 감지 알림을 수신하는 엔드포인트
+     * video 파트는 톰캣 임시 파일을 거치지 않고 uploads/ 로 바로 스트리밍 저장됩니다.
      */
     @PostMapping(value = "/overcrowd_file", consumes = "multipart/form-data")
-    public ResponseEntity<Map<String, Object>> notifyOvercrowdingWithFile(
-            @RequestPart("video") MultipartFile video,
-            @RequestPart("dto") OvercrowdNotificationRequestDto dto // DTO로 묶어서 받기
-    ) {
-        log.info("Received /overcrowd_file request for DTO: {}", dto.toString());
-
-        // 컨트롤러 레벨에서 기본적인 파일 유효성 검사 (선택 사항, 서비스에서 더 상세히 진행)
-        if (video.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "status", "fail",
-                    "message", "비디오 파일이 없습니다."
-            ));
-        }
-
+    public ResponseEntity<Map<String, Object>> notifyOvercrowdingWithFile(HttpServletRequest request) {
+        StoredVideo video = null;
         try {
-            // 서비스 계층으로 파일과 DTO 데이터 모두 전달
-            String filePath = overNotifyService.handleOvercrowdingNotificationWithFile(video, dto);
+            // 파트 순서와 관계없이 video 는 디스크로, dto 는 OvercrowdNotificationRequestDto 로 파싱
+            IngestedVideo<OvercrowdNotificationRequestDto> upload =
+                    multipartVideoIngestor.ingest(request, "video", "dto", OvercrowdNotificationRequestDto.class);
+            video = upload.getVideo();
+            log.info("Received /overcrowd_file request for DTO: {}", upload.getDto().toString());
+            // userId/cameraId 는 dto 파트에 있으므로 파싱 직후, 알람 저장(JPA) 전에 한도 확인
+            notifyRateLimiter.acquire(upload.getDto().getUserId(), upload.getDto().getCameraId(), AlarmType.OVERCROWDING);
+
+            // 서비스 계층으로 저장된 파일 정보와 DTO 데이터 모두 전달
+            String filePath = overNotifyService.handleOvercrowdingNotificationWithFile(video, upload.getDto());
+            if (filePath == null) {
+                return suppressedResponse(); // 파일 참조는 서비스에서 이미 해제됨
+            }
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "message", "Overcrowding 감지 (파일 업로드 방식) 수신 완료.",
                     "videoUrl", filePath // 저장된 파일 경로 반환
             ));
+        } catch (NotifyRateLimitedException e) {
+            videoStorageService.release(video); // 429 + Retry-After 는 GlobalExceptionHandler 에서 응답
+            throw e;
         } catch (IllegalArgumentException e) {
             // 서비스에서 던진 파일 유효성 검사 예외 처리
             log.warn("File validation failed: {}", e.getMessage());
@@ -77,6 +126,7 @@ public class OverNotifyController {
         } catch (ResponseStatusException e) {
             // 서비스에서 던진 사용자 조회 실패 예외 처리
             log.error("User not found: {}", e.getMessage());
+            videoStorageService.release(video); // 알람이 저장되지 않았으므로 파일도 정리
             return ResponseEntity.status(e.getStatusCode()).body(Map.of(
                     "status", "fail",
                     "message", e.getReason()
@@ -92,6 +142,7 @@ public class OverNotifyController {
         } catch (Exception e) {
             // 그 외 예상치 못한 모든 예외 처리
             log.error("An unexpected error occurred: {}", e.getMessage(), e);
+            videoStorageService.release(video);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "status", "fail",
                     "message", "서버 내부 오류 발생",
@@ -99,4 +150,12 @@ public class OverNotifyController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    // 같은 사용자·카메라의 쿨다운 중이라 저장/푸시하지 않은 경우의 응답
+    private ResponseEntity<Map<String, Object>> suppressedResponse() {
+        return ResponseEntity.ok(Map.of(
+                "status", "suppressed",
+                "message", "Overcrowd 알림이 쿨다운 중이라 억제되었습니다."
+        ));
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+// /api/notify/batch 요청 배열의 한 항목
+// type 이 FALL 이면 isFell/videoUrl 이 FellDetection 에, OVERCROWD 면 videoUrl 이 Alarm.videoPath 에 저장됩니다.
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AlarmBatchItemDto {
+    private AlarmEvent.Type type;
+    private String userId;
+    private String cameraId;
+    private Boolean isFell;
+    private String title;
+    private String content;
+    private String timeStr;
+    private String videoUrl;
+}
@@ -0,0 +1,42 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// /api/notify/batch 응답의 항목별 결과 (요청 배열의 index 기준)
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlarmBatchResultDto {
+
+    public enum Status {
+        CREATED,
+        SUPPRESSED,
+        RATE_LIMITED,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private Long alarmId;
+    private String message;
+    private Long retryAfterSeconds;
+
+    public static AlarmBatchResultDto created(int index, Long alarmId) {
+        return new AlarmBatchResultDto(index, Status.CREATED, alarmId, null, null);
+    }
+
+    public static AlarmBatchResultDto suppressed(int index) {
+        return new AlarmBatchResultDto(index, Status.SUPPRESSED, null, "쿨다운 중이라 억제되었습니다.", null);
+    }
+
+    // 그 항목만 retryAfterSeconds 뒤에 다시 보내면 됨
+    public static AlarmBatchResultDto rateLimited(int index, long retryAfterSeconds) {
+        return new AlarmBatchResultDto(index, Status.RATE_LIMITED, null, "알림 수신 한도를 초과했습니다.", retryAfterSeconds);
+    }
+
+    public static AlarmBatchResultDto failed(int index, String message) {
+        return new AlarmBatchResultDto(index, Status.FAILED, null, message, null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * /api/alarms/changes?since= 응답. 앱은 version 을 저장해 두었다가 다음 요청의 since 로 보냅니다.
+ *  - reset 이 true 면 since 가 너무 오래되었거나(변경 기록 정리됨) 맞지 않으므로 목록을 처음부터 다시 받고 version 부터 이어 감
+ *  - hasMore 가 true 면 version 까지만 담겼으므로 바로 다시 요청
+ *  - readRanges 는 일괄 읽음(타입 전체 / 시각 이전)이라 알림별로 담지 않으므로, 가지고 있는 목록에 먼저 적용한 뒤
+ *    inserted/updated 를 반영 (inserted/updated 는 현재 상태로 다시 읽은 것이라 나중에 추가된 알림이 잘못 읽음 처리되지 않음)
+ */
+@Getter
+@AllArgsConstructor
+public class AlarmChangesResponse {
+
+    private long version;
+    private boolean reset;
+    private boolean hasMore;
+    private List<Item> inserted;
+    private List<Item> updated;
+    private List<Long> deleted;
+    private List<Long> deletedFellDetections;
+    private List<ReadRange> readRanges;
+
+    public static AlarmChangesResponse unchanged(long version) {
+        return new AlarmChangesResponse(version, false, false, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    public static AlarmChangesResponse reset(long version) {
+        return new AlarmChangesResponse(version, true, false, List.of(), List.of(), List.of(), List.of(), List.of());
+    }
+
+    // 알림 목록 항목과 같은 필드 + 어느 목록(낙상/과밀)에 넣을지 알 수 있도록 alarmType
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+        private AlarmType alarmType;
+        @JsonUnwrapped
+        private AlarmDetailResponse alarm;
+    }
+
+    // alarmType 알림 중 createdAt 이 before 이하인 것(before 가 null 이면 전부)이 읽음 처리됨
+    @Getter
+    @AllArgsConstructor
+    public static class ReadRange {
+        private AlarmType alarmType;
+        private Timestamp before;
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+// 알림 목록 커서: 마지막으로 받은 항목의 (createdAt, alarmId). 클라이언트에는 내용을 알 수 없는 문자열로만 전달합니다.
+@Getter
+@AllArgsConstructor
+public class AlarmCursor {
+
+    private Timestamp createdAt;
+    private Long alarmId;
+
+    public static AlarmCursor of(AlarmDetailResponse last) {
+        return new AlarmCursor(last.getCreatedAt(), last.getAlarmId());
+    }
+
+    // "초:나노초:alarmId" 를 URL-safe Base64 로 (DB 에 저장된 시각과 정확히 같은 값으로 비교해야 하므로 나노초까지 보존)
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + alarmId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AlarmCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new AlarmCursor(Timestamp.from(instant), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) { // NumberFormatException, Base64 오류, 범위를 벗어난 시각(DateTimeException/ArithmeticException) 포함
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
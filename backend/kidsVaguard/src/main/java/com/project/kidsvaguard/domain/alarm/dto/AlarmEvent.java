@@ -0,0 +1,39 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.kidsvaguard.domain.fell_detection.dto.FallCryRequestDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+// 비동기 알람 파이프라인 큐에 들어가는 이벤트
+// 타입에 따라 fall 또는 overcrowd 중 하나만 채워집니다.
+// 큐가 가득 차서 디스크로 넘길 때(spill) JSON 으로 직렬화되므로 기본 생성자/Setter 가 필요합니다.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class AlarmEvent {
+
+    public enum Type {
+        FALL,
+        OVERCROWD
+    }
+
+    private String eventId;
+    private Type type;
+    private FallCryRequestDto fall;
+    private OvercrowdNotificationRequestDto overcrowd;
+    private long enqueuedAtMillis;
+    private int attempts; // 처리 시도 횟수 (일시적 실패로 다시 넣을 때 증가)
+
+    @JsonIgnore
+    public String getUserId() {
+        return type == Type.FALL ? fall.getUserId() : overcrowd.getUserId();
+    }
+}
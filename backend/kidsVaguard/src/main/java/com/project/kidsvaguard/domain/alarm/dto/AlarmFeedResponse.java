@@ -0,0 +1,16 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 커서 기반 알림 목록 응답 (전체 개수는 세지 않음). nextCursor 가 null 이면 마지막 페이지
+@Getter
+@AllArgsConstructor
+public class AlarmFeedResponse {
+
+    private List<AlarmDetailResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
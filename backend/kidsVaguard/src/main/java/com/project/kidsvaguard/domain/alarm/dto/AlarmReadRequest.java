@@ -0,0 +1,23 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 알림 일괄 읽음 처리 요청 (PATCH /api/alarms/read). 세 가지 중 하나만 지정
+//  - alarmIds: 지정한 알림들
+//  - alarmType: 해당 타입의 안 읽은 알림 전부
+//  - before: 이 시각(포함) 이전에 생성된 안 읽은 알림 전부 ("yyyy-MM-dd HH:mm:ss" 또는 "yyyy-MM-ddTHH:mm:ss")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AlarmReadRequest {
+    private List<Long> alarmIds;
+    private Alarm.AlarmType alarmType;
+    private String before;
+}
@@ -0,0 +1,14 @@
+package com.project.kidsvaguard.domain.alarm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 안 읽은 알림 배지 (GET /api/alarms/unread-count), 일괄 읽음 처리 응답에도 포함
+@Getter
+@AllArgsConstructor
+public class AlarmUnreadCountResponse {
+
+    private long fellDetection;
+    private long overcrowding;
+    private long total;
+}
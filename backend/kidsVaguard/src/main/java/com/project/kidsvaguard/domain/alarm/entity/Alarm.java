@@ -6,7 +6,9 @@ import lombok.*;
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "alarm")
+@Table(name = "alarm", indexes = {
+        @Index(name = "idx_alarm_user_type_created", columnList = "user_pk, alarmType, createdAt, alarmId") // 커서 기반 목록 조회, 타입/시각 단위 일괄 읽음
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,59 @@
+package com.project.kidsvaguard.domain.alarm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.sql.Timestamp;
+
+// 앱 증분 동기화(/api/alarms/changes)용 변경 기록. 사용자별 version 은 AlarmSyncVersion 에서 1씩 올려 받음
+@Entity
+@Table(name = "alarm_change", indexes = {
+        @Index(name = "idx_alarm_change_user_version", columnList = "user_pk, version"),
+        @Index(name = "idx_alarm_change_created", columnList = "created_at") // 보관 기간 지난 기록 정리용
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class AlarmChange {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long changeId;
+
+    @Column(name = "user_pk", nullable = false)
+    private Long userPk;
+
+    @Column(nullable = false)
+    private Long version;
+
+    public enum EntityType {
+        ALARM,
+        FELL_DETECTION
+    }
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id") // READ_RANGE 는 알림 하나가 아니므로 null
+    private Long entityId;
+
+    public enum ChangeType {
+        INSERTED,
+        UPDATED, // 읽음 처리, 연결된 낙상 기록 삭제
+        DELETED,
+        READ_RANGE // 타입 전체 / 특정 시각 이전 일괄 읽음 (alarm_type, read_before)
+    }
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 10)
+    private ChangeType changeType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alarm_type", length = 20)
+    private Alarm.AlarmType alarmType;
+
+    @Column(name = "read_before") // null 이면 그 타입 전체
+    private Timestamp readBefore;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+}
@@ -0,0 +1,25 @@
+package com.project.kidsvaguard.domain.alarm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// 사용자별 알림 변경 버전. 변경마다 같은 트랜잭션에서 version 을 올리므로 (행 잠금) 같은 사용자의 변경은 커밋 순서대로 번호가 매겨짐
+// User 행에 두지 않는 이유: User 는 변경 감지로 전체 컬럼이 다시 저장되어 오래된 값으로 덮어쓸 수 있음
+@Entity
+@Table(name = "alarm_sync_version")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class AlarmSyncVersion {
+
+    @Id
+    @Column(name = "user_pk")
+    private Long userPk;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // 보관 기간이 지나 지운 변경 기록 중 가장 큰 version. since 가 이보다 작으면 앱은 전체 목록을 다시 받아야 함
+    @Column(name = "pruned_version", nullable = false)
+    private Long prunedVersion;
+}
@@ -0,0 +1,37 @@
+package com.project.kidsvaguard.domain.alarm.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// 사용자 + 알람 타입별 안 읽은 알림 수. 알림 저장/읽음 처리/삭제 때 같은 트랜잭션에서 더하고 빼므로 배지 조회에 COUNT(*) 가 필요 없음
+@Entity
+@Table(name = "alarm_unread_count")
+@IdClass(AlarmUnreadCount.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class AlarmUnreadCount {
+
+    @Id
+    @Column(name = "user_pk")
+    private Long userPk;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alarm_type", length = 20)
+    private Alarm.AlarmType alarmType;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long userPk;
+        private Alarm.AlarmType alarmType;
+    }
+}
@@ -0,0 +1,145 @@
+package com.project.kidsvaguard.domain.alarm.repository;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alarm / FellDetection 다건 저장 전용 JDBC 배치 writer.
+ *
+ * 두 엔티티는 GenerationType.IDENTITY 라 Hibernate 가 INSERT 를 배치로 묶지 못하고 한 건씩 왕복합니다.
+ * 기존 테이블/ID 체계를 바꾸지 않기 위해 ID 전략은 그대로 두고, 배치 경로에서만
+ * PreparedStatement.addBatch + getGeneratedKeys 로 한 번에 넣은 뒤 생성된 alarm_id 를 돌려받아
+ * fell_detection 을 이어서 배치로 넣습니다.
+ * (MySQL 은 rewriteBatchedStatements=true 일 때 다중 VALUES INSERT 한 문장으로 전송됨)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlarmBatchWriter {
+
+    private static final String INSERT_ALARM =
+            "INSERT INTO alarm (title, content, is_read, created_at, video_path, alarm_type, user_pk) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_FELL_DETECTION =
+            "INSERT INTO fell_detection (is_fell, file_path, created_at, alarm_id) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_ALARM_CHANGE =
+            "INSERT INTO alarm_change (user_pk, version, entity_type, entity_id, change_type, alarm_type, read_before, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 알람을 한 번의 배치로 저장하고, 생성된 alarmId 를 각 엔티티에 채워 넣습니다.
+     */
+    public void insertAlarms(List<Alarm> alarms) {
+        if (alarms.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_ALARM, new String[]{"alarm_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Alarm alarm = alarms.get(i);
+                        ps.setString(1, alarm.getTitle());
+                        ps.setString(2, alarm.getContent());
+                        ps.setBoolean(3, Boolean.TRUE.equals(alarm.getIsRead()));
+                        ps.setTimestamp(4, alarm.getCreatedAt());
+                        ps.setString(5, alarm.getVideoPath());
+                        ps.setString(6, alarm.getAlarmType().name());
+                        ps.setLong(7, alarm.getUser().getUserPk());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return alarms.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != alarms.size()) {
+            throw new IllegalStateException("생성된 alarm_id 개수가 맞지 않습니다: " + keys.size() + " != " + alarms.size());
+        }
+        for (int i = 0; i < alarms.size(); i++) {
+            // MySQL 은 GENERATED_KEY, H2 등은 ALARM_ID 로 돌려주므로 컬럼명 대신 첫 값을 사용
+            Number key = (Number) keys.get(i).values().iterator().next();
+            alarms.get(i).setAlarmId(key.longValue());
+        }
+    }
+
+    /**
+     * insertAlarms 로 alarmId 가 채워진 알람에 연결된 낙상 감지 정보를 한 번의 배치로 저장합니다.
+     */
+    public void insertFellDetections(List<FellDetection> detections) {
+        if (detections.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_FELL_DETECTION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FellDetection detection = detections.get(i);
+                if (detection.getIsFell() == null) {
+                    ps.setNull(1, Types.BOOLEAN);
+                } else {
+                    ps.setBoolean(1, detection.getIsFell());
+                }
+                ps.setString(2, detection.getFilePath());
+                ps.setTimestamp(3, detection.getCreatedAt());
+                ps.setLong(4, detection.getAlarm().getAlarmId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return detections.size();
+            }
+        });
+    }
+
+    /**
+     * 증분 동기화 변경 기록을 한 번의 배치로 저장합니다. (version 은 AlarmChangeLog 가 미리 채움)
+     */
+    public void insertChanges(List<AlarmChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ALARM_CHANGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AlarmChange change = changes.get(i);
+                ps.setLong(1, change.getUserPk());
+                ps.setLong(2, change.getVersion());
+                ps.setString(3, change.getEntityType().name());
+                if (change.getEntityId() == null) {
+                    ps.setNull(4, Types.BIGINT);
+                } else {
+                    ps.setLong(4, change.getEntityId());
+                }
+                ps.setString(5, change.getChangeType().name());
+                ps.setString(6, change.getAlarmType() != null ? change.getAlarmType().name() : null);
+                ps.setTimestamp(7, change.getReadBefore());
+                ps.setTimestamp(8, change.getCreatedAt());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+    }
+}
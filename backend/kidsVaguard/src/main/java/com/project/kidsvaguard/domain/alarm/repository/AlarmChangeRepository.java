@@ -0,0 +1,32 @@
+package com.project.kidsvaguard.domain.alarm.repository;
+
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface AlarmChangeRepository extends JpaRepository<AlarmChange, Long> {
+
+    // since 이후 변경 (idx_alarm_change_user_version 범위 탐색)
+    @Query("SELECT c FROM AlarmChange c WHERE c.userPk = :userPk AND c.version > :since ORDER BY c.version ASC")
+    List<AlarmChange> findSince(@Param("userPk") Long userPk, @Param("since") long since, Limit limit);
+
+    // 보관 기간이 지난 변경 기록을 batchSize 행씩 삭제 (AlarmChangePruner)
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM alarm_change WHERE created_at < :cutoff LIMIT :batchSize", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") Timestamp cutoff, @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AlarmChange c WHERE c.userPk = :userPk")
+    int deleteByUserPk(@Param("userPk") Long userPk);
+}
@@ -1,13 +1,22 @@
 package com.project.kidsvaguard.domain.alarm.repository;
 
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
 import com.project.kidsvaguard.domain.alarm.entity.Alarm;
 import com.project.kidsvaguard.domain.user.entity.User;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
 
 
 @Repository
@@ -15,6 +24,80 @@ public interface AlarmRepository extends JpaRepository<Alarm, Long> {
     // 사용자별 + 알람 타입별 페이징 조회
     Page<Alarm> findByUserAndAlarmType(User user, Alarm.AlarmType alarmType, Pageable pageable);
 
+    // 알림 목록 한 페이지를 alarm + user + fell_detection 조인 한 번으로 DTO 로 바로 조회 (항목마다 낙상 기록/사용자를 따로 읽지 않음)
+    // user 는 연관 조인(JOIN a.user) 대신 엔티티 조인으로 붙여 a.user = :user 가 alarm.user_pk 조건이 되도록 함 (아래 조회들도 같음, 인덱스 범위 탐색)
+    @Query(value = "SELECT new com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse(" +
+            "a.alarmId, a.title, a.content, a.createdAt, a.isRead, u.userId, f.fellId, f.isFell, COALESCE(a.videoPath, f.filePath)) " +
+            "FROM Alarm a JOIN User u ON u = a.user LEFT JOIN FellDetection f ON f.alarm = a " +
+            "WHERE a.user = :user AND a.alarmType = :alarmType",
+            countQuery = "SELECT COUNT(a) FROM Alarm a WHERE a.user = :user AND a.alarmType = :alarmType")
+    Page<AlarmDetailResponse> findDetailsByUserAndAlarmType(@Param("user") User user,
+                                                            @Param("alarmType") Alarm.AlarmType alarmType,
+                                                            Pageable pageable);
+
+    // 커서 기반 알림 목록 첫 페이지 (최신순, idx_alarm_user_type_created 를 따라 읽고 OFFSET/COUNT 없음)
+    @Query("SELECT new com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse(" +
+            "a.alarmId, a.title, a.content, a.createdAt, a.isRead, u.userId, f.fellId, f.isFell, COALESCE(a.videoPath, f.filePath)) " +
+            "FROM Alarm a JOIN User u ON u = a.user LEFT JOIN FellDetection f ON f.alarm = a " +
+            "WHERE a.user = :user AND a.alarmType = :alarmType " +
+            "ORDER BY a.createdAt DESC, a.alarmId DESC")
+    List<AlarmDetailResponse> findFeed(@Param("user") User user,
+                                       @Param("alarmType") Alarm.AlarmType alarmType,
+                                       Limit limit);
+
+    // 커서 다음 페이지: (createdAt, alarmId) < 커서. createdAt <= 조건은 인덱스 범위 탐색을 위해 중복으로 둠
+    @Query("SELECT new com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse(" +
+            "a.alarmId, a.title, a.content, a.createdAt, a.isRead, u.userId, f.fellId, f.isFell, COALESCE(a.videoPath, f.filePath)) " +
+            "FROM Alarm a JOIN User u ON u = a.user LEFT JOIN FellDetection f ON f.alarm = a " +
+            "WHERE a.user = :user AND a.alarmType = :alarmType AND a.createdAt <= :createdAt " +
+            "AND (a.createdAt < :createdAt OR a.alarmId < :alarmId) " +
+            "ORDER BY a.createdAt DESC, a.alarmId DESC")
+    List<AlarmDetailResponse> findFeedAfter(@Param("user") User user,
+                                            @Param("alarmType") Alarm.AlarmType alarmType,
+                                            @Param("createdAt") Timestamp createdAt,
+                                            @Param("alarmId") Long alarmId,
+                                            Limit limit);
+
+    // 실시간 스트림 재연결 시 놓친 알림 (Last-Event-ID 이후, 오래된 순)
+    @Query("SELECT new com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse(" +
+            "a.alarmId, a.title, a.content, a.createdAt, a.isRead, u.userId, f.fellId, f.isFell, COALESCE(a.videoPath, f.filePath)) " +
+            "FROM Alarm a JOIN User u ON u = a.user LEFT JOIN FellDetection f ON f.alarm = a " +
+            "WHERE a.user = :user AND a.alarmType = :alarmType AND a.alarmId > :alarmId " +
+            "ORDER BY a.alarmId ASC")
+    List<AlarmDetailResponse> findDetailsAfterId(@Param("user") User user,
+                                                 @Param("alarmType") Alarm.AlarmType alarmType,
+                                                 @Param("alarmId") Long alarmId,
+                                                 Limit limit);
+
+    // 증분 동기화에서 추가/변경된 알림 (사용자 소유인 것만, [AlarmType, AlarmDetailResponse])
+    @Query("SELECT a.alarmType, new com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse(" +
+            "a.alarmId, a.title, a.content, a.createdAt, a.isRead, u.userId, f.fellId, f.isFell, COALESCE(a.videoPath, f.filePath)) " +
+            "FROM Alarm a JOIN User u ON u = a.user LEFT JOIN FellDetection f ON f.alarm = a " +
+            "WHERE a.user = :user AND a.alarmId IN :alarmIds")
+    List<Object[]> findTypedDetailsByIds(@Param("user") User user, @Param("alarmIds") Collection<Long> alarmIds);
+
+    // 읽음 처리할 안 읽은 알림을 잠그며 조회 ([alarm_id, alarm_type]). 잠근 행만 UPDATE 하므로 안 읽은 수를 타입별로 정확히 뺄 수 있음
+    @Query(value = "SELECT alarm_id, alarm_type FROM alarm WHERE user_pk = :userPk AND alarm_id IN (:alarmIds) AND is_read = false FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockUnreadByIds(@Param("userPk") Long userPk, @Param("alarmIds") Collection<Long> alarmIds);
+
+    // 타입 전체 / 특정 시각 이전 일괄 읽음: 알림 id 를 읽어 오지 않고 한 문장으로 처리, 바뀐 행 수가 곧 줄어든 안 읽은 수
+    // (UPDATE 가 잡은 행 잠금이 커밋까지 유지되므로 동시에 같은 알림을 읽음/삭제 처리해도 카운터를 두 번 빼지 않음)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE alarm SET is_read = true WHERE user_pk = :userPk AND alarm_type = :alarmType AND is_read = false",
+            nativeQuery = true)
+    int markReadByType(@Param("userPk") Long userPk, @Param("alarmType") String alarmType);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE alarm SET is_read = true WHERE user_pk = :userPk AND alarm_type = :alarmType AND created_at <= :before AND is_read = false",
+            nativeQuery = true)
+    int markReadByTypeBefore(@Param("userPk") Long userPk, @Param("alarmType") String alarmType, @Param("before") Timestamp before);
+
+    // 일괄 읽음 처리 (UPDATE 한 문장)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Alarm a SET a.isRead = true WHERE a.alarmId IN :alarmIds AND a.isRead = false")
+    int markReadByIds(@Param("alarmIds") Collection<Long> alarmIds);
+
     // ✅ 추가: 특정 사용자의 모든 알림 삭제 및 삭제는 트랜잭션이 필요합니다.
     @Transactional
     void deleteByUser(User user);
@@ -0,0 +1,47 @@
+package com.project.kidsvaguard.domain.alarm.repository;
+
+import com.project.kidsvaguard.domain.alarm.entity.AlarmSyncVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlarmSyncVersionRepository extends JpaRepository<AlarmSyncVersion, Long> {
+
+    // 사용자 버전을 delta 만큼 올림 (없으면 생성). 커밋까지 행 잠금이 유지되어 같은 사용자의 변경 기록이 버전 순으로 커밋됨
+    @Modifying
+    @Query(value = "INSERT INTO alarm_sync_version (user_pk, version, pruned_version) VALUES (:userPk, :delta, 0) " +
+            "ON DUPLICATE KEY UPDATE version = version + :delta",
+            nativeQuery = true)
+    int increment(@Param("userPk") Long userPk, @Param("delta") long delta);
+
+    @Query(value = "SELECT version FROM alarm_sync_version WHERE user_pk = :userPk", nativeQuery = true)
+    Long findVersion(@Param("userPk") Long userPk);
+
+    // pruned_version 갱신을 사용자 batchSize 명씩 나누기 위한 PK 순 keyset 조회 (AlarmChangePruner)
+    @Query(value = "SELECT user_pk FROM alarm_sync_version WHERE user_pk > :afterPk ORDER BY user_pk LIMIT :batchSize",
+            nativeQuery = true)
+    List<Long> findUserPksAfter(@Param("afterPk") long afterPk, @Param("batchSize") int batchSize);
+
+    // 지울 변경 기록 중 가장 큰 version 을 사용자별 pruned_version 으로 남김 (AlarmChangePruner, 지정한 사용자들만 한 트랜잭션)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE alarm_sync_version s SET pruned_version = " +
+            "(SELECT MAX(c.version) FROM alarm_change c WHERE c.user_pk = s.user_pk AND c.created_at < :cutoff) " +
+            "WHERE s.user_pk IN (:userPks) " +
+            "AND EXISTS (SELECT 1 FROM alarm_change c WHERE c.user_pk = s.user_pk AND c.created_at < :cutoff)",
+            nativeQuery = true)
+    int raisePrunedVersions(@Param("cutoff") Timestamp cutoff, @Param("userPks") Collection<Long> userPks);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AlarmSyncVersion v WHERE v.userPk = :userPk")
+    int deleteByUserPk(@Param("userPk") Long userPk);
+}
@@ -0,0 +1,30 @@
+package com.project.kidsvaguard.domain.alarm.repository;
+
+import com.project.kidsvaguard.domain.alarm.entity.AlarmUnreadCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface AlarmUnreadCountRepository extends JpaRepository<AlarmUnreadCount, AlarmUnreadCount.Key> {
+
+    // 안 읽은 수를 delta 만큼 더함 (없으면 생성, 0 아래로 내려가지 않음). 호출한 쪽 트랜잭션에서 실행
+    @Modifying
+    @Query(value = "INSERT INTO alarm_unread_count (user_pk, alarm_type, unread_count) VALUES (:userPk, :alarmType, GREATEST(:delta, 0)) " +
+            "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + :delta, 0)",
+            nativeQuery = true)
+    int add(@Param("userPk") Long userPk, @Param("alarmType") String alarmType, @Param("delta") long delta);
+
+    // 배지 조회 (기본 키 범위, 알람 타입 수만큼의 행)
+    List<AlarmUnreadCount> findByUserPk(Long userPk);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AlarmUnreadCount c WHERE c.userPk = :userPk")
+    int deleteByUserPk(@Param("userPk") Long userPk);
+}
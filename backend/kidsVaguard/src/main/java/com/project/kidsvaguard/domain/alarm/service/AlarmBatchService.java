@@ -0,0 +1,252 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmBatchItemDto;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmBatchResultDto;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmEvent;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmBatchWriter;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.domain.user.service.UserDeviceTokenCache;
+import com.project.kidsvaguard.global.ratelimit.NotifyRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * /api/notify/batch 처리.
+ * 낙상/과밀 이벤트 배열을 받아 사용자를 한 번의 IN 쿼리로 조회하고,
+ * Alarm / FellDetection 을 JDBC 배치로 저장한 뒤 항목별 결과를 돌려줍니다.
+ *
+ * 수신 한도(NotifyRateLimiter)와 쿨다운(AlarmSuppressionService)은 단건 API 와 동일하게 항목마다 적용되며,
+ * 저장은 한 트랜잭션으로 묶여 실패하면 배치 전체가 롤백됩니다. FCM 은 커밋 후 발송합니다.
+ */
+@Service
+@Slf4j
+public class AlarmBatchService {
+
+    private final UserRepository userRepository;
+    private final AlarmBatchWriter alarmBatchWriter;
+    private final AlarmSuppressionService alarmSuppressionService;
+    private final AlarmPushCoalescer alarmPushCoalescer;
+    private final AlarmStreamService alarmStreamService;
+    private final AlarmChangeLog alarmChangeLog;
+    private final AlarmUnreadCounter alarmUnreadCounter;
+    private final UserDeviceTokenCache userDeviceTokenCache;
+    private final NotifyRateLimiter notifyRateLimiter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${alarm.batch.max-size:500}")
+    private int maxBatchSize;
+
+    public AlarmBatchService(UserRepository userRepository,
+                             AlarmBatchWriter alarmBatchWriter,
+                             AlarmSuppressionService alarmSuppressionService,
+                             AlarmPushCoalescer alarmPushCoalescer,
+                             AlarmStreamService alarmStreamService,
+                             AlarmChangeLog alarmChangeLog,
+                             AlarmUnreadCounter alarmUnreadCounter,
+                             UserDeviceTokenCache userDeviceTokenCache,
+                             NotifyRateLimiter notifyRateLimiter,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.alarmBatchWriter = alarmBatchWriter;
+        this.alarmSuppressionService = alarmSuppressionService;
+        this.alarmPushCoalescer = alarmPushCoalescer;
+        this.alarmStreamService = alarmStreamService;
+        this.alarmChangeLog = alarmChangeLog;
+        this.alarmUnreadCounter = alarmUnreadCounter;
+        this.userDeviceTokenCache = userDeviceTokenCache;
+        this.notifyRateLimiter = notifyRateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public List<AlarmBatchResultDto> ingest(List<AlarmBatchItemDto> items) {
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("한 번에 보낼 수 있는 이벤트는 최대 " + maxBatchSize + "개입니다.");
+        }
+
+        AlarmBatchResultDto[] results = new AlarmBatchResultDto[items.size()];
+
+        // 1. 사용자 일괄 조회 (항목 수와 관계없이 쿼리 1번)
+        Set<String> userIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(AlarmBatchItemDto::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, User> users = userIds.isEmpty() ? Map.of() : userRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity(), (a, b) -> a));
+
+        // 2. 항목별 검증 + 쿨다운 확인
+        List<Pending> pending = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            AlarmBatchItemDto item = items.get(i);
+            String error = validate(item);
+            if (error != null) {
+                results[i] = AlarmBatchResultDto.failed(i, error);
+                continue;
+            }
+            User user = users.get(item.getUserId());
+            if (user == null) {
+                results[i] = AlarmBatchResultDto.failed(i, "사용자를 찾을 수 없습니다.");
+                continue;
+            }
+            AlarmType alarmType = item.getType() == AlarmEvent.Type.FALL ? AlarmType.FELL_DETECTION : AlarmType.OVERCROWDING;
+            long retryAfterSeconds = notifyRateLimiter.tryAcquire(item.getUserId(), item.getCameraId(), alarmType);
+            if (retryAfterSeconds > 0) {
+                results[i] = AlarmBatchResultDto.rateLimited(i, retryAfterSeconds);
+                continue;
+            }
+            long acquiredAt = alarmSuppressionService.tryAcquire(item.getUserId(), item.getCameraId(), alarmType);
+            if (acquiredAt < 0) {
+                results[i] = AlarmBatchResultDto.suppressed(i);
+                continue;
+            }
+            pending.add(new Pending(i, item, user, alarmType, acquiredAt));
+        }
+
+        // 3. 배치 저장 (한 트랜잭션)
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(pending));
+        } catch (RuntimeException e) {
+            pending.forEach(p -> alarmSuppressionService.forget(
+                    p.item.getUserId(), p.item.getCameraId(), p.alarmType, p.acquiredAt));
+            throw e;
+        }
+        for (Pending p : pending) {
+            results[p.index] = AlarmBatchResultDto.created(p.index, p.alarm.getAlarmId());
+        }
+        log.info("✅ 배치 알림 저장 완료: 요청 {}건, 저장 {}건", items.size(), pending.size());
+
+        // 4. 실시간 스트림 + FCM 푸시 (커밋 후)
+        for (Pending p : pending) {
+            alarmStreamService.publish(p.user.getUserId(), p.alarmType, AlarmDetailResponse.from(p.alarm, p.detection));
+            sendFcmNotification(p);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void save(List<Pending> pending) {
+        List<Alarm> alarms = new ArrayList<>(pending.size());
+        for (Pending p : pending) {
+            AlarmBatchItemDto item = p.item;
+            p.alarm = Alarm.builder()
+                    .title(item.getTitle())
+                    .content(item.getContent())
+                    .isRead(false)
+                    .createdAt(convertToTimestamp(item.getTimeStr()))
+                    .user(p.user)
+                    .alarmType(p.alarmType)
+                    .videoPath(p.alarmType == AlarmType.OVERCROWDING ? item.getVideoUrl() : null)
+                    .build();
+            alarms.add(p.alarm);
+        }
+        alarmBatchWriter.insertAlarms(alarms);
+
+        List<FellDetection> detections = new ArrayList<>();
+        for (Pending p : pending) {
+            if (p.alarmType == AlarmType.FELL_DETECTION) {
+                p.detection = FellDetection.builder()
+                        .isFell(p.item.getIsFell())
+                        .filePath(p.item.getVideoUrl())
+                        .createdAt(p.alarm.getCreatedAt())
+                        .alarm(p.alarm)
+                        .build();
+                detections.add(p.detection);
+            }
+        }
+        alarmBatchWriter.insertFellDetections(detections);
+
+        // 증분 동기화용 변경 이력 (사용자별 version 을 한 번에 올림) + 안 읽은 알림 수
+        alarmChangeLog.recordInserted(alarms);
+        alarmUnreadCounter.addInserted(alarms);
+    }
+
+    private static String validate(AlarmBatchItemDto item) {
+        if (item == null) {
+            return "이벤트가 비어 있습니다.";
+        }
+        if (item.getType() == null) {
+            return "type 은 FALL 또는 OVERCROWD 여야 합니다.";
+        }
+        if (item.getUserId() == null || item.getUserId().isBlank()) {
+            return "userId 는 필수입니다.";
+        }
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "title 은 필수입니다.";
+        }
+        if (item.getTitle().length() > 100) {
+            return "title 은 100자 이하여야 합니다.";
+        }
+        return null;
+    }
+
+    // 시간 문자열을 Timestamp로 변환하는 유틸리티 메서드
+    private Timestamp convertToTimestamp(String timeStr) {
+        Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+        if (timeStr != null && !timeStr.isEmpty()) {
+            try {
+                timestamp = Timestamp.valueOf(timeStr.replace("T", " "));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid timestamp format received: {}. Using current time instead.", timeStr);
+            }
+        }
+        return timestamp;
+    }
+
+    // FCM 알림을 발송하는 유틸리티 메서드 (단건 API 와 같은 본문 형식, 과밀은 AlarmPushCoalescer 가 묶어서 발송)
+    private void sendFcmNotification(Pending p) {
+        User user = p.user;
+        List<String> fcmTokens = userDeviceTokenCache.tokensOf(user);
+        if (fcmTokens.isEmpty()) {
+            log.warn("⚠️ User ID {} does not have an FCM token. Skipping FCM notification for batch event.", user.getUserId());
+            return;
+        }
+        try {
+            String content = p.alarmType == AlarmType.FELL_DETECTION
+                    ? p.item.getContent() + " (User ID: " + user.getUserId() + ")"
+                    : p.item.getContent();
+            alarmPushCoalescer.submit(user, p.alarm, p.item.getTitle(), content);
+        } catch (Exception e) {
+            log.error("🔥 Failed to send FCM notification for batch event (User: {}), but DB operations were successful.", user.getUserId(), e);
+        }
+    }
+
+    private static final class Pending {
+        private final int index;
+        private final AlarmBatchItemDto item;
+        private final User user;
+        private final AlarmType alarmType;
+        private final long acquiredAt;
+        private Alarm alarm;
+        private FellDetection detection; // 배치 저장은 fellId 를 돌려받지 않으므로 스트림 이벤트의 fellDetectionId 는 null
+
+        private Pending(int index, AlarmBatchItemDto item, User user, AlarmType alarmType, long acquiredAt) {
+            this.index = index;
+            this.item = item;
+            this.user = user;
+            this.alarmType = alarmType;
+            this.acquiredAt = acquiredAt;
+        }
+    }
+}
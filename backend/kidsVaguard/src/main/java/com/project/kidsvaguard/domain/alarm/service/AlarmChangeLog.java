@@ -0,0 +1,225 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmChangesResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.ChangeType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.EntityType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmSyncVersion;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmBatchWriter;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmChangeRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmSyncVersionRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 알림 증분 동기화 (/api/alarms/changes?since=).
+ *
+ * 알림 추가/읽음 처리/삭제, 낙상 기록 삭제마다 같은 트랜잭션에서 사용자 version 을 올리고 alarm_change 에 한 줄을 남깁니다.
+ * version 은 사용자 행 잠금으로 매기므로 커밋 순서와 같고 빈 번호가 없어, 앱이 since 이후를 받으면 빠짐없이 따라잡습니다.
+ * 바뀐 것이 없는 사용자는 alarm_sync_version 기본 키 조회 한 번으로 끝납니다.
+ * 알림 쓰기가 모두 여기를 거치므로 목록 ETag 용 메모리 버전(AlarmListVersions)도 함께 올립니다.
+ */
+@Service
+public class AlarmChangeLog {
+
+    private final AlarmSyncVersionRepository alarmSyncVersionRepository;
+    private final AlarmChangeRepository alarmChangeRepository;
+    private final AlarmRepository alarmRepository;
+    private final AlarmBatchWriter alarmBatchWriter;
+    private final AlarmListVersions alarmListVersions;
+    private final int maxChanges;
+
+    public AlarmChangeLog(AlarmSyncVersionRepository alarmSyncVersionRepository,
+                          AlarmChangeRepository alarmChangeRepository,
+                          AlarmRepository alarmRepository,
+                          AlarmBatchWriter alarmBatchWriter,
+                          AlarmListVersions alarmListVersions,
+                          @Value("${alarm.changes.max-per-response:500}") int maxChanges) {
+        this.alarmSyncVersionRepository = alarmSyncVersionRepository;
+        this.alarmChangeRepository = alarmChangeRepository;
+        this.alarmRepository = alarmRepository;
+        this.alarmBatchWriter = alarmBatchWriter;
+        this.alarmListVersions = alarmListVersions;
+        this.maxChanges = Math.max(1, maxChanges);
+    }
+
+    /**
+     * 변경 한 건을 기록합니다. 데이터 변경과 같은 트랜잭션 안에서 호출해야 합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(User user, EntityType entityType, Long entityId, ChangeType changeType) {
+        Map<Long, List<Change>> byUser = new HashMap<>();
+        byUser.put(user.getUserPk(), List.of(new Change(entityType, entityId, changeType)));
+        write(byUser);
+        alarmListVersions.bump(user.getUserId());
+    }
+
+    /**
+     * 배치로 저장된 알람들의 추가를 기록합니다. (AlarmBatchService, 사용자별로 version 을 한 번에 올림)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInserted(List<Alarm> alarms) {
+        Map<Long, List<Change>> byUser = new HashMap<>();
+        Set<String> userIds = new HashSet<>();
+        for (Alarm alarm : alarms) {
+            byUser.computeIfAbsent(alarm.getUser().getUserPk(), k -> new ArrayList<>())
+                    .add(new Change(EntityType.ALARM, alarm.getAlarmId(), ChangeType.INSERTED));
+            userIds.add(alarm.getUser().getUserId());
+        }
+        write(byUser);
+        userIds.forEach(alarmListVersions::bump);
+    }
+
+    /**
+     * 읽음 처리된 알람들을 기록합니다. (일괄 읽음 처리, version 을 한 번에 올림)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRead(User user, List<Long> alarmIds) {
+        List<Change> changes = new ArrayList<>(alarmIds.size());
+        for (Long alarmId : alarmIds) {
+            changes.add(new Change(EntityType.ALARM, alarmId, ChangeType.UPDATED));
+        }
+        Map<Long, List<Change>> byUser = new HashMap<>();
+        byUser.put(user.getUserPk(), changes);
+        write(byUser);
+        alarmListVersions.bump(user.getUserId());
+    }
+
+    /**
+     * 타입 전체 / 특정 시각 이전 일괄 읽음을 타입마다 한 줄로 기록합니다. (읽은 알림 수와 무관하게 version 을 타입 수만큼만 올림)
+     *
+     * @param before null 이면 그 타입 전체
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReadRange(User user, Collection<AlarmType> alarmTypes, Timestamp before) {
+        List<Change> changes = new ArrayList<>(alarmTypes.size());
+        for (AlarmType alarmType : alarmTypes) {
+            changes.add(new Change(EntityType.ALARM, null, ChangeType.READ_RANGE, alarmType, before));
+        }
+        Map<Long, List<Change>> byUser = new HashMap<>();
+        byUser.put(user.getUserPk(), changes);
+        write(byUser);
+        alarmListVersions.bump(user.getUserId());
+    }
+
+    /**
+     * since 이후 변경을 돌려줍니다. 같은 알림이 여러 번 바뀌었으면 마지막 상태 하나로 합칩니다.
+     * (추가 후 읽음 → inserted, 추가/변경 후 삭제 → deleted)
+     */
+    @Transactional(readOnly = true)
+    public AlarmChangesResponse changesSince(User user, long since) {
+        AlarmSyncVersion state = alarmSyncVersionRepository.findById(user.getUserPk()).orElse(null);
+        long current = state != null ? state.getVersion() : 0;
+        long pruned = state != null ? state.getPrunedVersion() : 0;
+        if (since == current) {
+            return AlarmChangesResponse.unchanged(current);
+        }
+        if (since < pruned || since > current) {
+            return AlarmChangesResponse.reset(current);
+        }
+
+        List<AlarmChange> changes = alarmChangeRepository.findSince(user.getUserPk(), since, Limit.of(maxChanges + 1));
+        boolean hasMore = changes.size() > maxChanges;
+        if (hasMore) {
+            changes = changes.subList(0, maxChanges);
+        }
+        long version = changes.isEmpty() ? current : changes.get(changes.size() - 1).getVersion();
+
+        Map<Long, ChangeType> alarms = new LinkedHashMap<>();
+        List<Long> deletedFellDetections = new ArrayList<>();
+        List<AlarmChangesResponse.ReadRange> readRanges = new ArrayList<>();
+        for (AlarmChange change : changes) {
+            if (change.getChangeType() == ChangeType.READ_RANGE) {
+                readRanges.add(new AlarmChangesResponse.ReadRange(change.getAlarmType(), change.getReadBefore()));
+                continue;
+            }
+            if (change.getEntityType() == EntityType.FELL_DETECTION) {
+                if (change.getChangeType() == ChangeType.DELETED) {
+                    deletedFellDetections.add(change.getEntityId());
+                }
+                continue;
+            }
+            alarms.merge(change.getEntityId(), change.getChangeType(),
+                    (before, after) -> before == ChangeType.INSERTED && after == ChangeType.UPDATED ? before : after);
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>();
+        alarms.forEach((alarmId, changeType) -> (changeType == ChangeType.DELETED ? deleted : changedIds).add(alarmId));
+
+        List<AlarmChangesResponse.Item> inserted = new ArrayList<>();
+        List<AlarmChangesResponse.Item> updated = new ArrayList<>();
+        if (!changedIds.isEmpty()) {
+            for (Object[] row : alarmRepository.findTypedDetailsByIds(user, changedIds)) {
+                AlarmDetailResponse alarm = (AlarmDetailResponse) row[1];
+                AlarmChangesResponse.Item item = new AlarmChangesResponse.Item((AlarmType) row[0], alarm);
+                (alarms.get(alarm.getAlarmId()) == ChangeType.INSERTED ? inserted : updated).add(item);
+            }
+        }
+        return new AlarmChangesResponse(version, false, hasMore, inserted, updated, deleted, deletedFellDetections, readRanges);
+    }
+
+    // 사용자 순서로 잠가 동시에 여러 사용자를 기록하는 배치끼리 교착되지 않도록 함
+    private void write(Map<Long, List<Change>> byUser) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<AlarmChange> rows = new ArrayList<>();
+        for (Map.Entry<Long, List<Change>> entry : new TreeMap<>(byUser).entrySet()) {
+            Long userPk = entry.getKey();
+            List<Change> changes = entry.getValue();
+            alarmSyncVersionRepository.increment(userPk, changes.size());
+            long version = alarmSyncVersionRepository.findVersion(userPk) - changes.size();
+            for (Change change : changes) {
+                rows.add(AlarmChange.builder()
+                        .userPk(userPk)
+                        .version(++version)
+                        .entityType(change.entityType)
+                        .entityId(change.entityId)
+                        .changeType(change.changeType)
+                        .alarmType(change.alarmType)
+                        .readBefore(change.readBefore)
+                        .createdAt(now)
+                        .build());
+            }
+        }
+        alarmBatchWriter.insertChanges(rows);
+    }
+
+    private static final class Change {
+        private final EntityType entityType;
+        private final Long entityId;
+        private final ChangeType changeType;
+        private final AlarmType alarmType;
+        private final Timestamp readBefore;
+
+        private Change(EntityType entityType, Long entityId, ChangeType changeType) {
+            this(entityType, entityId, changeType, null, null);
+        }
+
+        private Change(EntityType entityType, Long entityId, ChangeType changeType, AlarmType alarmType, Timestamp readBefore) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.changeType = changeType;
+            this.alarmType = alarmType;
+            this.readBefore = readBefore;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.repository.AlarmChangeRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmSyncVersionRepository;
+import com.project.kidsvaguard.global.maintenance.ChunkedPurger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 보관 기간(retention-days)이 지난 알림 변경 기록(alarm_change)을 주기적으로 삭제합니다.
+ * 지우기 전에 사용자별 pruned_version 을 올려 두어, 그보다 오래된 since 로 요청한 앱은 reset 응답을 받고 전체를 다시 받습니다.
+ * pruned_version 갱신도 삭제와 같이 사용자 batch-size 명씩 나눠서 해, 자주 잠기는 alarm_sync_version 행을 한꺼번에 잡지 않습니다.
+ */
+@Component
+@Slf4j
+public class AlarmChangePruner {
+
+    private final AlarmChangeRepository alarmChangeRepository;
+    private final AlarmSyncVersionRepository alarmSyncVersionRepository;
+    private final long retentionMillis;
+    private final Counter purged;
+    private final ChunkedPurger purger;
+
+    public AlarmChangePruner(AlarmChangeRepository alarmChangeRepository,
+                             AlarmSyncVersionRepository alarmSyncVersionRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${alarm.changes.retention-days:30}") long retentionDays,
+                             @Value("${alarm.changes.prune-interval-minutes:60}") long intervalMinutes,
+                             @Value("${alarm.changes.prune-batch-size:1000}") int batchSize,
+                             @Value("${alarm.changes.prune-pause-millis:50}") long pauseMillis) {
+        this.alarmChangeRepository = alarmChangeRepository;
+        this.alarmSyncVersionRepository = alarmSyncVersionRepository;
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+        this.purged = meterRegistry.counter("alarm.changes.purged");
+        this.purger = new ChunkedPurger("alarm-change-pruner", batchSize, pauseMillis);
+        this.purger.schedule(this::prune, 5, intervalMinutes);
+    }
+
+    /**
+     * @return 삭제한 행 수
+     */
+    public int prune() {
+        int total = 0;
+        try {
+            Timestamp cutoff = new Timestamp(System.currentTimeMillis() - retentionMillis);
+            // pruned_version 을 모두 올린 뒤에만 삭제 (중간에 실패하면 이번 주기는 지우지 않음)
+            long[] afterPk = {0};
+            purger.drain(batchSize -> {
+                List<Long> userPks = alarmSyncVersionRepository.findUserPksAfter(afterPk[0], batchSize);
+                if (!userPks.isEmpty()) {
+                    alarmSyncVersionRepository.raisePrunedVersions(cutoff, userPks);
+                    afterPk[0] = userPks.get(userPks.size() - 1);
+                }
+                return userPks.size();
+            });
+            total = purger.drain(batchSize -> {
+                int deleted = alarmChangeRepository.deleteOlderThan(cutoff, batchSize);
+                purged.increment(deleted);
+                return deleted;
+            });
+            if (total > 0) {
+                log.info("🧹 오래된 알림 변경 기록 {}건 삭제", total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 알림 변경 기록 삭제 실패", e);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdown();
+    }
+}
@@ -0,0 +1,364 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmEvent;
+import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import com.project.kidsvaguard.global.exception.AlarmQueueFullException;
+import com.project.kidsvaguard.global.exception.UserNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 서버 알림(/api/notify/fall_cry, /api/alarms/overcrowd)을 비동기로 처리하는 파이프라인.
+ * 컨트롤러는 요청을 검증한 뒤 이벤트를 유한 큐에 넣고 바로 202 를 응답하고,
+ * 워커 스레드가 Alarm/FellDetection 저장과 FCM 발송을 수행합니다.
+ *
+ * 큐가 가득 찼을 때의 정책(alarm.async.full-policy)
+ *  - BLOCK  : block-timeout-ms 동안 자리가 날 때까지 대기, 그래도 없으면 429
+ *  - REJECT : 즉시 429
+ *  - SPILL  : 디스크(JSON Lines)에 기록해 두고, 큐에 여유가 생기면 다시 넣음
+ *
+ * 202 로 받은 이벤트는 처리 중 일시적 오류(DB 연결 등)가 나도 버리지 않고 spill 파일로 넘겨
+ * max-attempts 번까지 다시 처리합니다. 요청 자체가 잘못된 경우(사용자 없음 등)는 재시도하지 않습니다.
+ */
+@Service
+@Slf4j
+public class AlarmEventDispatcher {
+
+    public enum FullQueuePolicy {
+        BLOCK,
+        REJECT,
+        SPILL
+    }
+
+    private final FallAlarmHandlerService fallAlarmHandlerService;
+    private final OverNotifyService overNotifyService;
+    private final ObjectMapper objectMapper;
+    private final String spillFile;
+
+    @Value("${alarm.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${alarm.async.workers:4}")
+    private int workerCount;
+
+    @Value("${alarm.async.full-policy:REJECT}")
+    private FullQueuePolicy fullQueuePolicy;
+
+    @Value("${alarm.async.block-timeout-ms:2000}")
+    private long blockTimeoutMs;
+
+    @Value("${alarm.async.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${alarm.async.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private final BlockingQueue<AlarmEvent> queue;
+    private final Object spillLock = new Object();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean running;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService spillDrainer;
+
+    private final Timer lagTimer;
+    private final Timer processingTimer;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    public AlarmEventDispatcher(FallAlarmHandlerService fallAlarmHandlerService,
+                                OverNotifyService overNotifyService,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${alarm.async.queue-capacity:1000}") int queueCapacity,
+                                @Value("${alarm.async.spill-file:#{systemProperties['user.dir'] + '/spill/alarm-events.jsonl'}}") String spillFile) {
+        this.fallAlarmHandlerService = fallAlarmHandlerService;
+        this.overNotifyService = overNotifyService;
+        this.objectMapper = objectMapper;
+        this.spillFile = spillFile;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("alarm.queue.depth", queue, BlockingQueue::size)
+                .description("비동기 알람 큐에 대기 중인 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("alarm.queue.spilled", spilledCount, AtomicLong::get)
+                .description("디스크(spill 파일)에 대기 중인 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("alarm.queue.in.flight", inFlight, AtomicInteger::get)
+                .description("워커가 처리 중인 이벤트 수")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("alarm.queue.lag")
+                .description("이벤트 접수부터 워커가 처리를 시작할 때까지의 지연")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("alarm.queue.processing")
+                .description("이벤트 한 건의 저장 + FCM 발송 시간")
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("alarm.queue.events", "result", "accepted");
+        this.rejectedCounter = meterRegistry.counter("alarm.queue.events", "result", "rejected");
+        this.spilledCounter = meterRegistry.counter("alarm.queue.events", "result", "spilled");
+        this.failedCounter = meterRegistry.counter("alarm.queue.events", "result", "failed");
+        this.retriedCounter = meterRegistry.counter("alarm.queue.events", "result", "retried");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, namedThreadFactory("alarm-worker-"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workerLoop);
+        }
+        // 이전 실행에서 남은 spill 파일도 여기서 다시 큐로 넣어줍니다.
+        spillDrainer = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("alarm-spill-"));
+        spillDrainer.scheduleWithFixedDelay(this::drainSpillFile, 0, 1, TimeUnit.SECONDS);
+        log.info("🚀 비동기 알람 파이프라인 시작: workers={}, capacity={}, policy={}",
+                workerCount, queue.remainingCapacity(), fullQueuePolicy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        // 새 이벤트를 꺼내지 않도록 한 뒤, 처리 중인 이벤트(DB 저장 + FCM)는 끝까지 마치게 기다림
+        running = false;
+        spillDrainer.shutdown();
+        workers.shutdown();
+        try {
+            spillDrainer.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+            if (!workers.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("⚠️ 알람 워커가 {}초 안에 끝나지 않아 중단합니다. (처리 중 {}건)", shutdownTimeoutSeconds, inFlight.get());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // 아직 처리되지 않은 이벤트는 유실되지 않도록 디스크에 남겨 재시작 시 처리
+        List<AlarmEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("⚠️ 종료 시 미처리 알람 이벤트 {}건을 spill 파일에 기록합니다.", remaining.size());
+            remaining.forEach(this::spill);
+        }
+    }
+
+    /**
+     * 이벤트를 큐에 넣고 eventId 를 반환합니다.
+     * 큐가 가득 찼고 정책상 받을 수 없으면 AlarmQueueFullException(429) 을 던집니다.
+     */
+    public String submit(AlarmEvent event) {
+        event.setEventId(UUID.randomUUID().toString());
+        event.setEnqueuedAtMillis(System.currentTimeMillis());
+
+        boolean offered;
+        try {
+            offered = fullQueuePolicy == FullQueuePolicy.BLOCK
+                    ? queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS)
+                    : queue.offer(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+
+        if (offered) {
+            acceptedCounter.increment();
+            return event.getEventId();
+        }
+        if (fullQueuePolicy == FullQueuePolicy.SPILL && spill(event)) {
+            spilledCounter.increment();
+            return event.getEventId();
+        }
+        rejectedCounter.increment();
+        log.warn("🚨 알람 큐가 가득 찼습니다. 이벤트 거부: type={}, userId={}", event.getType(), event.getUserId());
+        throw new AlarmQueueFullException("알람 처리 큐가 가득 찼습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    private void workerLoop() {
+        while (running) {
+            AlarmEvent event;
+            try {
+                event = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event != null) {
+                process(event);
+            }
+        }
+    }
+
+    private void process(AlarmEvent event) {
+        lagTimer.record(System.currentTimeMillis() - event.getEnqueuedAtMillis(), TimeUnit.MILLISECONDS);
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            switch (event.getType()) {
+                case FALL -> fallAlarmHandlerService.handleFallNotification(event.getFall());
+                case OVERCROWD -> overNotifyService.handleOvercrowdingNotification(event.getOvercrowd());
+            }
+        } catch (Exception e) {
+            retryOrDrop(event, e);
+        } finally {
+            processingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // 일시적 실패는 spill 파일로 넘겨 spill drainer 가 다시 큐에 넣게 하고, 잘못된 요청이거나 시도 횟수를 다 쓰면 버림
+    private void retryOrDrop(AlarmEvent event, Exception e) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (!isPermanent(e) && event.getAttempts() < maxAttempts && spill(event)) {
+            retriedCounter.increment();
+            log.warn("⚠️ 비동기 알람 처리 실패, 다시 시도합니다: eventId={}, type={}, userId={}, attempts={}",
+                    event.getEventId(), event.getType(), event.getUserId(), event.getAttempts(), e);
+            return;
+        }
+        failedCounter.increment();
+        log.error("🔥 비동기 알람 처리 실패: eventId={}, type={}, userId={}, attempts={}",
+                event.getEventId(), event.getType(), event.getUserId(), event.getAttempts(), e);
+    }
+
+    // 다시 처리해도 결과가 같은 오류 (요청 값이 잘못됐거나 대상이 없음)
+    private static boolean isPermanent(Exception e) {
+        return e instanceof IllegalArgumentException
+                || e instanceof UserNotFoundException
+                || e instanceof AccessDeniedException
+                || e instanceof ResponseStatusException;
+    }
+
+    // 이벤트 한 건을 spill 파일 끝에 JSON 한 줄로 추가
+    private boolean spill(AlarmEvent event) {
+        synchronized (spillLock) {
+            try {
+                Path path = Paths.get(spillFile);
+                Files.createDirectories(path.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+                spilledCount.incrementAndGet();
+                return true;
+            } catch (IOException e) {
+                log.error("🔥 알람 이벤트 spill 실패: eventId={}", event.getEventId(), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * spill 파일의 이벤트를 큐에 여유가 있는 만큼 다시 넣고, 남은 것만 파일에 다시 씁니다.
+     * 읽을 수 없는 줄(비정상 종료로 반쯤 쓰인 줄 등)은 .bad 파일로 옮겨 건너뛰므로, 앞의 이벤트가 매번 다시 들어가거나
+     * 뒤의 이벤트가 막히지 않습니다.
+     */
+    void drainSpillFile() {
+        synchronized (spillLock) {
+            Path path = Paths.get(spillFile);
+            if (!Files.exists(path) || queue.remainingCapacity() == 0) {
+                return;
+            }
+            try {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                List<String> bad = new ArrayList<>();
+                int index = 0;
+                while (index < lines.size() && queue.remainingCapacity() > 0) {
+                    String line = lines.get(index);
+                    if (!line.isBlank()) {
+                        AlarmEvent event = parseSpilled(line);
+                        if (event == null) {
+                            bad.add(line);
+                        } else if (!queue.offer(event)) {
+                            break;
+                        }
+                    }
+                    index++;
+                }
+                if (!bad.isEmpty()) {
+                    moveToBadFile(path, bad);
+                }
+                List<String> rest = lines.subList(index, lines.size());
+                if (rest.isEmpty()) {
+                    Files.delete(path);
+                } else {
+                    Files.write(path, rest, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+                }
+                spilledCount.set(rest.size());
+                if (index > bad.size()) {
+                    log.info("♻️ spill 파일에서 알람 이벤트 {}건을 큐로 복구했습니다. (남은 건수: {})", index - bad.size(), rest.size());
+                }
+            } catch (IOException e) {
+                log.error("🔥 spill 파일 복구 실패: {}", spillFile, e);
+            }
+        }
+    }
+
+    private AlarmEvent parseSpilled(String line) {
+        try {
+            return objectMapper.readValue(line, AlarmEvent.class);
+        } catch (IOException e) {
+            log.error("🔥 읽을 수 없는 spill 항목을 .bad 파일로 옮깁니다: {}", line, e);
+            return null;
+        }
+    }
+
+    // 읽지 못한 줄은 버리지 않고 옆의 .bad 파일 끝에 추가 (수동 확인용). 실패해도 spill 파일은 index 까지 잘라야 하므로 예외를 넘기지 않음
+    private void moveToBadFile(Path path, List<String> lines) {
+        Path badFile = path.resolveSibling(path.getFileName() + ".bad");
+        try {
+            Files.write(badFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("🔥 spill .bad 파일 기록 실패: {} ({}줄)", badFile, lines.size(), e);
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
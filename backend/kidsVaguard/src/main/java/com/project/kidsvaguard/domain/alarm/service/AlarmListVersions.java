@@ -0,0 +1,107 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알림/낙상 목록 조건부 GET (ETag / If-None-Match -> 304) 용 사용자별 메모리 버전.
+ *
+ * 알림이 저장/읽음 처리/삭제될 때마다 (AlarmChangeLog) 사용자 버전을 전역 순번으로 올리고,
+ * 목록 API 는 버전 + 페이지 파라미터로 만든 약한 ETag 가 요청의 If-None-Match 와 같으면 DB 조회 없이 304 를 돌려줍니다.
+ * 트랜잭션 안에서 올리면 커밋 후에 한 번 더 올려, 커밋 전에 옛 데이터를 새 버전 ETag 로 내보낸 응답도 무효가 됩니다.
+ *
+ * 맵에 없는 사용자는 floor 버전을 쓰고, max-entries 를 넘으면 floor 를 현재 순번으로 올린 뒤 맵을 비웁니다.
+ * (순번은 계속 커지므로 지워진 사용자의 예전 ETag 가 다시 맞는 일은 없고, 남은 사용자는 한 번 전체 응답을 받음)
+ * 재시작하면 bootId 가 바뀌어 이전 ETag 는 모두 불일치합니다. 버전은 인스턴스 메모리에만 있으므로 단일 인스턴스 기준입니다.
+ */
+@Component
+public class AlarmListVersions {
+
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final int maxEntries;
+    private volatile long floor;
+
+    private final Counter notModified;
+    private final Counter modified;
+
+    public AlarmListVersions(MeterRegistry meterRegistry,
+                             @Value("${alarm.list.etag.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.notModified = meterRegistry.counter("alarm.list.conditional", "result", "not_modified");
+        this.modified = meterRegistry.counter("alarm.list.conditional", "result", "modified");
+        Gauge.builder("alarm.list.not_modified.ratio", this, AlarmListVersions::notModifiedRatio)
+                .description("목록 조회 중 304 로 끝난 비율")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 알림 목록이 바뀌었음을 알립니다. 트랜잭션 안이면 커밋/롤백 후에 한 번 더 올립니다.
+     */
+    public void bump(String userId) {
+        advance(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advance(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param params 페이지 번호/크기/정렬, 커서 등 응답 내용을 정하는 값 (같은 사용자의 다른 페이지끼리 ETag 가 겹치지 않도록)
+     */
+    public String etag(String userId, String... params) {
+        Long version = versions.get(userId);
+        long current = version != null ? version : floor;
+        return "W/\"" + bootId + "-" + Long.toString(current, 36) + "-" + Integer.toHexString(String.join("|", params).hashCode()) + "\"";
+    }
+
+    /**
+     * If-None-Match 에 etag 가 있으면 true (약한 비교, 여러 값 또는 * 허용). 결과를 304 비율 지표에 반영합니다.
+     */
+    public boolean notModified(String ifNoneMatch, String etag) {
+        boolean matched = ifNoneMatch != null && matches(ifNoneMatch, etag);
+        (matched ? notModified : modified).increment();
+        return matched;
+    }
+
+    private void advance(String userId) {
+        versions.put(userId, sequence.incrementAndGet());
+        if (versions.size() > maxEntries) {
+            floor = sequence.get(); // 비우기 전에 올려야 그 사이 조회가 옛 floor 를 보지 않음
+            versions.clear();
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private double notModifiedRatio() {
+        double total = notModified.count() + modified.count();
+        return total == 0 ? 0 : notModified.count() / total;
+    }
+}
@@ -0,0 +1,276 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.service.UserDeviceTokenCache;
+import com.project.kidsvaguard.global.fcm.FcmService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 과밀 알림 푸시 묶음(다이제스트).
+ *
+ * 혼잡한 교실에서는 과밀 알림이 몇 분 사이에 수십 건 들어오므로, (사용자, 알람 타입) 별로 첫 알림은 바로 보내고(leading edge)
+ * 그 뒤 window-seconds 동안 들어온 알림만 모았다가 창이 닫힐 때 한 번 더 보냅니다(trailing).
+ * 뒤따른 알림이 없으면 추가 푸시는 없고, 한 건이면 원래 제목/내용 그대로, 여러 건이면 "과밀 감지 5건, 최대 14명" 요약으로 보냅니다.
+ * 알람 자체는 건마다 저장되므로 알림 목록에는 모두 남고, 요약 푸시는 마지막 알람 ID 를 가리킵니다.
+ * FELL_DETECTION 은 묶지 않고 바로 보냅니다.
+ *
+ * 열린 창은 해시 타이머 휠(tick-millis 간격, wheel-size 칸)에 넣어 두므로 창이 수천 개여도 tick 마다 해당 칸만 확인합니다.
+ */
+@Service
+@Slf4j
+public class AlarmPushCoalescer {
+
+    // AI 서버가 보내는 과밀 내용 형식: "현재 인원: 14명 (최대 10명)"
+    private static final Pattern PERSON_COUNT = Pattern.compile("(\\d+)\\s*명");
+
+    private final FcmService fcmService;
+    private final UserDeviceTokenCache userDeviceTokenCache;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final long tickNanos;
+    private final long tickMillis;
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    private final ConcurrentHashMap<Key, Window> open = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Window> incoming = new ConcurrentLinkedQueue<>();
+    // 아래 필드는 휠 스레드만 사용
+    private final List<List<Window>> wheel;
+    private long currentTick;
+
+    private ScheduledExecutorService ticker;
+    private final Counter heldCounter;
+    private final Counter leadingCounter;
+    private final Counter singleCounter;
+    private final Counter summaryCounter;
+
+    @Autowired
+    public AlarmPushCoalescer(FcmService fcmService,
+                              UserDeviceTokenCache userDeviceTokenCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${push.coalesce.enabled:true}") boolean enabled,
+                              @Value("${push.coalesce.window-seconds:60}") long windowSeconds,
+                              @Value("${push.coalesce.tick-millis:100}") long tickMillis,
+                              @Value("${push.coalesce.wheel-size:512}") int wheelSize) {
+        this(fcmService, userDeviceTokenCache, meterRegistry, enabled, windowSeconds, tickMillis, wheelSize, System::nanoTime);
+    }
+
+    // 테스트에서 시계를 직접 움직이고 advance() 를 호출하기 위한 생성자 (start() 를 부르지 않으면 휠 스레드 없음)
+    AlarmPushCoalescer(FcmService fcmService,
+                       UserDeviceTokenCache userDeviceTokenCache,
+                       MeterRegistry meterRegistry,
+                       boolean enabled,
+                       long windowSeconds,
+                       long tickMillis,
+                       int wheelSize,
+                       LongSupplier nanoClock) {
+        this.fcmService = fcmService;
+        this.userDeviceTokenCache = userDeviceTokenCache;
+        this.enabled = enabled && windowSeconds > 0;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.tickMillis = Math.max(1, tickMillis);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(this.tickMillis);
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < Math.max(1, wheelSize); i++) {
+            wheel.add(new ArrayList<>());
+        }
+
+        this.heldCounter = meterRegistry.counter("push.coalesce.events", "result", "held");
+        this.leadingCounter = meterRegistry.counter("push.coalesce.pushes", "kind", "leading");
+        this.singleCounter = meterRegistry.counter("push.coalesce.pushes", "kind", "single");
+        this.summaryCounter = meterRegistry.counter("push.coalesce.pushes", "kind", "summary");
+        Gauge.builder("push.coalesce.open", open, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-push-coalescer");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 저장이 끝난 알람의 푸시를 넘깁니다. FELL_DETECTION 이거나 묶음이 꺼져 있거나 열린 창이 없으면 바로 보내고
+     * (없던 창은 이때 엶), 열린 창이 있으면 그 창에 합쳐 창이 닫힐 때 보냅니다.
+     */
+    public void submit(User user, Alarm alarm, String title, String content) {
+        if (!enabled || alarm.getAlarmType() == AlarmType.FELL_DETECTION) {
+            send(user, alarm.getAlarmId(), title, content);
+            return;
+        }
+        Key key = new Key(user.getUserPk(), alarm.getAlarmType());
+        Integer personCount = personCount(content);
+        boolean[] opened = new boolean[1];
+        open.compute(key, (k, window) -> {
+            if (window == null || !window.add(alarm.getAlarmId(), title, content, personCount)) {
+                // 없거나 방금 닫힌 창이면 이 알림이 새 창의 첫 알림 (바로 발송, 창에는 뒤따르는 알림만 쌓임)
+                window = new Window(k, user, tickOf(nanoClock.getAsLong() + windowNanos));
+                incoming.add(window);
+                opened[0] = true;
+            }
+            return window;
+        });
+        if (opened[0]) {
+            leadingCounter.increment();
+            send(user, alarm.getAlarmId(), title, content);
+        } else {
+            heldCounter.increment();
+        }
+    }
+
+    // 휠 스레드: 밀린 tick 까지 따라잡으며 해당 칸에서 마감된 창을 닫음
+    void advance() {
+        try {
+            for (Window window; (window = incoming.poll()) != null; ) {
+                slot(Math.max(window.deadlineTick, currentTick)).add(window);
+            }
+            long now = tickOf(nanoClock.getAsLong());
+            List<Window> due = new ArrayList<>();
+            for (; currentTick <= now; currentTick++) {
+                long tick = currentTick;
+                slot(tick).removeIf(window -> {
+                    if (window.deadlineTick <= tick) {
+                        due.add(window);
+                        return true;
+                    }
+                    return false;
+                });
+            }
+            due.forEach(this::emit);
+        } catch (RuntimeException e) {
+            log.error("🔥 과밀 푸시 묶음 처리 오류", e);
+        }
+    }
+
+    private void emit(Window window) {
+        if (!window.close()) {
+            return; // 이미 보냄 (종료 중 휠 스레드와 겹친 경우)
+        }
+        open.remove(window.key, window);
+        // close() 이후로는 add() 가 실패하므로 아래 값은 더 바뀌지 않음
+        if (window.count == 0) {
+            return; // 첫 알림만 있었던 창 (이미 보냄)
+        }
+        if (window.count == 1) {
+            singleCounter.increment();
+            send(window.user, window.lastAlarmId, window.lastTitle, window.lastContent);
+            return;
+        }
+        summaryCounter.increment();
+        String body = window.peak != null
+                ? String.format("과밀 감지 %d건, 최대 %d명", window.count, window.peak)
+                : String.format("과밀 감지 %d건", window.count);
+        log.info("📦 과밀 푸시 {}건을 1건으로 묶어 발송: user={}", window.count, window.user.getUserId());
+        send(window.user, window.lastAlarmId, window.lastTitle, body);
+    }
+
+    private void send(User user, Long alarmId, String title, String content) {
+        fcmService.sendAlarm(alarmId, userDeviceTokenCache.tokensOf(user), title, content);
+    }
+
+    private long tickOf(long nanos) {
+        return (nanos - startNanos) / tickNanos;
+    }
+
+    private List<Window> slot(long tick) {
+        return wheel.get((int) (tick % wheel.size()));
+    }
+
+    static Integer personCount(String content) {
+        if (content == null) {
+            return null;
+        }
+        Matcher matcher = PERSON_COUNT.matcher(content);
+        return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        // 열린 창은 기다리지 않고 바로 보냄
+        incoming.clear();
+        for (Window window : new ArrayList<>(open.values())) {
+            emit(window);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Long userPk;
+        private final AlarmType type;
+    }
+
+    // 첫 알림(이미 발송) 뒤에 들어온 알림들만 모으는 창
+    private static final class Window {
+        private final Key key;
+        private final User user;
+        private final long deadlineTick;
+        private Long lastAlarmId;
+        private String lastTitle;
+        private String lastContent;
+        private Integer peak;
+        private int count;
+        private boolean closed;
+
+        private Window(Key key, User user, long deadlineTick) {
+            this.key = key;
+            this.user = user;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // 이미 닫힌 창이면 false (호출한 쪽이 새 창을 엶)
+        private synchronized boolean add(Long alarmId, String title, String content, Integer personCount) {
+            if (closed) {
+                return false;
+            }
+            count++;
+            lastAlarmId = alarmId;
+            lastTitle = title;
+            lastContent = content;
+            if (personCount != null && (peak == null || personCount > peak)) {
+                peak = personCount;
+            }
+            return true;
+        }
+
+        private synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+    }
+}
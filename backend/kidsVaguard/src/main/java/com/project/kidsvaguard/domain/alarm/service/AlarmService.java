@@ -1,43 +1,60 @@
 package com.project.kidsvaguard.domain.alarm.service;
 
+import com.project.kidsvaguard.domain.alarm.dto.AlarmChangesResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmCursor;
 import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmFeedResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmReadRequest;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmUnreadCountResponse;
 import com.project.kidsvaguard.domain.alarm.entity.Alarm;
 import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.ChangeType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.EntityType;
 import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
-import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
 import com.project.kidsvaguard.domain.fell_detection.repository.FellDetectionRepository;
 import com.project.kidsvaguard.domain.user.entity.User;
 import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.domain.user.service.UserPrincipal;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AlarmService {
 
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int MAX_READ_IDS = 1000;
+
     private final AlarmRepository alarmRepository;
     private final FellDetectionRepository fellDetectionRepository;
     private final UserRepository userRepository;
+    private final VideoStorageService videoStorageService;
+    private final AlarmChangeLog alarmChangeLog;
+    private final AlarmUnreadCounter alarmUnreadCounter;
 
     @Transactional(readOnly = true)
     public Page<AlarmDetailResponse> getFellAlarmsByUser(String userId, Pageable pageable) {
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        return alarmRepository.findByUserAndAlarmType(user, AlarmType.FELL_DETECTION, pageable)
-                .map(alarm -> {
-                    FellDetection fellDetection = fellDetectionRepository.findByAlarm_AlarmId(alarm.getAlarmId())
-                            .orElse(null);
-                    // AlarmDetailResponse.from(alarm, fellDetection)이 이제 Alarm의 videoPath도 고려합니다.
-                    return AlarmDetailResponse.from(alarm, fellDetection);
-                });
+        // 낙상 기록/사용자까지 조인한 조회 1번 + count 1번 (페이지 크기와 무관), videoPath 는 Alarm 것을 우선 사용
+        return alarmRepository.findDetailsByUserAndAlarmType(user, AlarmType.FELL_DETECTION, pageable);
     }
 
     @Transactional(readOnly = true)
@@ -45,8 +62,153 @@ public class AlarmService {
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        return alarmRepository.findByUserAndAlarmType(user, AlarmType.OVERCROWDING, pageable)
-                .map(AlarmDetailResponse::from); // AlarmDetailResponse.from(Alarm alarm)이 Alarm의 videoPath를 사용합니다.
+        return alarmRepository.findDetailsByUserAndAlarmType(user, AlarmType.OVERCROWDING, pageable);
+    }
+
+    /**
+     * 커서 기반 알림 목록 (최신순). OFFSET/COUNT 없이 이전 페이지 마지막 항목 다음부터 size 개를 읽습니다.
+     *
+     * @param cursor 이전 응답의 nextCursor, 첫 페이지는 null
+     */
+    @Transactional(readOnly = true)
+    public AlarmFeedResponse getAlarmFeed(String userId, AlarmType alarmType, String cursor, int size) {
+        User user = userRepository.findByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        Limit limit = Limit.of(pageSize + 1); // 한 건 더 읽어 다음 페이지가 있는지 확인
+
+        List<AlarmDetailResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = alarmRepository.findFeed(user, alarmType, limit);
+        } else {
+            AlarmCursor after = AlarmCursor.decode(cursor);
+            rows = alarmRepository.findFeedAfter(user, alarmType, after.getCreatedAt(), after.getAlarmId(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<AlarmDetailResponse> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? AlarmCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new AlarmFeedResponse(items, nextCursor, hasNext);
+    }
+
+    /**
+     * since(이전 응답의 version) 이후 추가/읽음 처리/삭제된 알림. 바뀐 것이 없으면 버전 조회 한 번으로 끝납니다.
+     */
+    @Transactional(readOnly = true)
+    public AlarmChangesResponse getChanges(User user, long since) {
+        return alarmChangeLog.changesSince(user, since);
+    }
+
+    @Transactional(readOnly = true)
+    public AlarmChangesResponse getChanges(UserPrincipal principal, long since) {
+        return getChanges(userReference(principal), since);
+    }
+
+    @Transactional
+    public void markRead(Long alarmId, String userId) {
+        Alarm alarm = alarmRepository.findById(alarmId)
+                .orElseThrow(() -> new IllegalArgumentException("해당 알림을 찾을 수 없습니다."));
+
+        if (!alarm.getUser().getUserId().equals(userId)) {
+            throw new AccessDeniedException("이 알림을 읽음 처리할 권한이 없습니다.");
+        }
+
+        // 이미 읽은 알림이면 잠긴 행이 없으므로 변경 이력/카운터를 건드리지 않음
+        applyRead(alarm.getUser(), alarmRepository.lockUnreadByIds(alarm.getUser().getUserPk(), List.of(alarmId)));
+    }
+
+    /**
+     * 일괄 읽음 처리 (지정한 알림들 / 타입 전체 / 특정 시각 이전 전체).
+     * 지정한 알림들은 안 읽은 행을 잠가 읽은 뒤 UPDATE 한 번으로, 타입/시각 단위는 알림 id 를 읽어 오지 않고
+     * 타입마다 UPDATE 한 문장으로 처리하고 변경 기록도 타입마다 한 줄만 남깁니다.
+     *
+     * @return 새로 읽음 처리된 알림 수
+     */
+    @Transactional
+    public int markRead(UserPrincipal principal, AlarmReadRequest request) {
+        return markRead(userReference(principal), request);
+    }
+
+    @Transactional
+    public int markRead(User user, AlarmReadRequest request) {
+        boolean byIds = request.getAlarmIds() != null && !request.getAlarmIds().isEmpty();
+        boolean byType = request.getAlarmType() != null;
+        boolean byTime = request.getBefore() != null && !request.getBefore().isBlank();
+        if ((byIds ? 1 : 0) + (byType ? 1 : 0) + (byTime ? 1 : 0) != 1) {
+            throw new IllegalArgumentException("alarmIds, alarmType, before 중 하나만 지정해야 합니다.");
+        }
+
+        if (byIds) {
+            if (request.getAlarmIds().size() > MAX_READ_IDS) {
+                throw new IllegalArgumentException("한 번에 읽음 처리할 수 있는 알림은 최대 " + MAX_READ_IDS + "개입니다.");
+            }
+            // 다른 사용자의 알림 ID 는 조건(user_pk)에서 걸러짐
+            return applyRead(user, alarmRepository.lockUnreadByIds(user.getUserPk(), new HashSet<>(request.getAlarmIds())));
+        }
+        if (byType) {
+            return applyReadRange(user, List.of(request.getAlarmType()), null);
+        }
+        return applyReadRange(user, List.of(AlarmType.values()), parseTimestamp(request.getBefore()));
+    }
+
+    // 안 읽은 알림 배지 (카운터 행 조회만, alarm 테이블을 세지 않음)
+    @Transactional(readOnly = true)
+    public AlarmUnreadCountResponse getUnreadCount(User user) {
+        return alarmUnreadCounter.get(user);
+    }
+
+    @Transactional(readOnly = true)
+    public AlarmUnreadCountResponse getUnreadCount(UserPrincipal principal) {
+        return getUnreadCount(userReference(principal));
+    }
+
+    // 인증 정보(캐시된 스냅샷)로 User 참조만 만듦 (userPk 외의 값을 읽을 때만 SELECT)
+    private User userReference(UserPrincipal principal) {
+        return userRepository.getReferenceById(principal.getUserPk());
+    }
+
+    private int applyRead(User user, List<Object[]> unread) {
+        if (unread.isEmpty()) {
+            return 0;
+        }
+        List<Long> alarmIds = new ArrayList<>(unread.size());
+        Map<AlarmType, Long> readByType = new EnumMap<>(AlarmType.class);
+        for (Object[] row : unread) {
+            alarmIds.add(((Number) row[0]).longValue());
+            readByType.merge(AlarmType.valueOf(row[1].toString()), 1L, Long::sum);
+        }
+
+        int updated = alarmRepository.markReadByIds(alarmIds);
+        alarmChangeLog.recordRead(user, alarmIds);
+        readByType.forEach((alarmType, count) -> alarmUnreadCounter.add(user, alarmType, -count));
+        return updated;
+    }
+
+    // 잠금 순서: alarm 행(UPDATE) -> alarm_sync_version -> alarm_unread_count
+    private int applyReadRange(User user, List<AlarmType> alarmTypes, Timestamp before) {
+        Map<AlarmType, Integer> readByType = new EnumMap<>(AlarmType.class);
+        for (AlarmType alarmType : alarmTypes) {
+            int updated = before == null
+                    ? alarmRepository.markReadByType(user.getUserPk(), alarmType.name())
+                    : alarmRepository.markReadByTypeBefore(user.getUserPk(), alarmType.name(), before);
+            if (updated > 0) {
+                readByType.put(alarmType, updated);
+            }
+        }
+        if (readByType.isEmpty()) {
+            return 0;
+        }
+        alarmChangeLog.recordReadRange(user, readByType.keySet(), before);
+        readByType.forEach((alarmType, count) -> alarmUnreadCounter.add(user, alarmType, -count));
+        return readByType.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static Timestamp parseTimestamp(String value) {
+        try {
+            return Timestamp.valueOf(value.replace("T", " "));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("before 는 yyyy-MM-dd HH:mm:ss 형식이어야 합니다.");
+        }
     }
 
     @Transactional
@@ -59,10 +221,21 @@ public class AlarmService {
             throw new AccessDeniedException("이 알림을 삭제할 권한이 없습니다.");
         }
 
-        // 관련 FellDetection 데이터도 삭제할지 여부 결정 (비즈니스 로직에 따라)
-        // 예를 들어, Alarm이 삭제되면 해당 FellDetection도 삭제해야 한다면:
-        // fellDetectionRepository.findByAlarm_AlarmId(alarmId).ifPresent(fellDetectionRepository::delete);
+        // 관련 FellDetection 도 함께 삭제하고, 참조하던 비디오 파일의 참조 수를 돌려놓습니다.
+        // (같은 클립을 다른 알림이 참조하고 있으면 파일은 남습니다)
+        User owner = alarm.getUser();
+        boolean unread = !alarmRepository.lockUnreadByIds(owner.getUserPk(), List.of(alarmId)).isEmpty(); // 동시에 읽음 처리되면 한쪽만 카운터를 뺌
+        fellDetectionRepository.findByAlarm_AlarmId(alarmId).ifPresent(fellDetection -> {
+            videoStorageService.release(fellDetection.getFilePath());
+            fellDetectionRepository.delete(fellDetection);
+            alarmChangeLog.record(owner, EntityType.FELL_DETECTION, fellDetection.getFellId(), ChangeType.DELETED);
+        });
+        videoStorageService.release(alarm.getVideoPath());
 
         alarmRepository.delete(alarm);
+        alarmChangeLog.record(owner, EntityType.ALARM, alarmId, ChangeType.DELETED);
+        if (unread) {
+            alarmUnreadCounter.add(owner, alarm.getAlarmType(), -1);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,409 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 앱으로 보내는 실시간 알림 스트림 (GET /api/alarms/stream, Server-Sent Events).
+ *
+ * 앱이 /api/alarms/fell, /api/alarms/overcrowding 을 주기적으로 조회하는 대신 연결을 열어 두면,
+ * 알람이 커밋되는 즉시 "id: alarmId / event: FELL_DETECTION|OVERCROWDING / data: AlarmDetailResponse" 로 보냅니다.
+ *
+ *  - 연결은 서블릿 비동기 요청(SseEmitter)이라 유휴 연결은 스레드를 점유하지 않음
+ *  - 보낼 이벤트는 연결마다 queue-capacity 개짜리 큐에 넣기만 하고, 큐에 쌓인 것이 있는 연결만 sender-threads 개 스레드 중 하나가 비움
+ *    (한 연결은 한 번에 한 스레드만 씀). SseEmitter.send 는 블로킹 쓰기라 느린 앱 하나가 스레드 하나를 잡을 수는 있어도
+ *    다른 사용자의 알림/하트비트는 다른 연결의 큐로 따로 나감
+ *  - 큐가 가득 찬 연결(읽지 못하는 앱)과 한 번 쓰기가 write-timeout-seconds 를 넘긴 연결은 닫음. 앱은 Last-Event-ID 로 재연결해 놓친 것을 받음
+ *  - heartbeat-seconds 마다 주석 줄(": ping")을 보내 프록시/통신사 NAT 가 유휴 연결을 끊지 않게 하고 끊긴 연결을 정리
+ *  - 재연결 시 Last-Event-ID 이후 알림을 DB 에서 replay-limit 건까지 다시 보냄. 그보다 많이 놓쳤으면 "resync" 이벤트로 목록 재조회를 요청
+ *    (재전송과 실시간 전송이 겹치면 같은 id 가 두 번 갈 수 있으므로 앱은 alarmId 로 중복 제거)
+ *  - 사용자별 연결은 max-per-user 개(기기 수)까지, 넘으면 가장 오래된 연결을 닫음
+ */
+@Service
+@Slf4j
+public class AlarmStreamService {
+
+    private final UserRepository userRepository;
+    private final AlarmRepository alarmRepository;
+    private final long timeoutMillis;
+    private final long reconnectMillis;
+    private final int maxConnections;
+    private final int maxPerUser;
+    private final int replayLimit;
+    private final int queueCapacity;
+    private final long writeTimeoutNanos;
+
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Connection>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService scheduler; // 하트비트, 막힌 쓰기 감시 (쓰기는 하지 않음)
+    private final ExecutorService sender;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+    private final Counter replayedCounter;
+
+    public AlarmStreamService(UserRepository userRepository,
+                              AlarmRepository alarmRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${alarm.stream.timeout-minutes:30}") long timeoutMinutes,
+                              @Value("${alarm.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+                              @Value("${alarm.stream.reconnect-millis:3000}") long reconnectMillis,
+                              @Value("${alarm.stream.max-connections:50000}") int maxConnections,
+                              @Value("${alarm.stream.max-per-user:5}") int maxPerUser,
+                              @Value("${alarm.stream.replay-limit:100}") int replayLimit,
+                              @Value("${alarm.stream.sender-threads:8}") int senderThreads,
+                              @Value("${alarm.stream.queue-capacity:32}") int queueCapacity,
+                              @Value("${alarm.stream.write-timeout-seconds:10}") long writeTimeoutSeconds) {
+        this.userRepository = userRepository;
+        this.alarmRepository = alarmRepository;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.reconnectMillis = reconnectMillis;
+        this.maxConnections = maxConnections;
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.replayLimit = Math.max(1, replayLimit);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.writeTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1, writeTimeoutSeconds));
+
+        this.sentCounter = meterRegistry.counter("alarm.stream.events", "result", "sent");
+        this.failedCounter = meterRegistry.counter("alarm.stream.events", "result", "failed");
+        this.droppedCounter = meterRegistry.counter("alarm.stream.events", "result", "dropped");
+        this.replayedCounter = meterRegistry.counter("alarm.stream.replayed");
+        Gauge.builder("alarm.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), r -> {
+            Thread t = new Thread(r, "alarm-stream-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-stream-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::closeStalled, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 사용자의 스트림 연결을 등록하고, Last-Event-ID 가 있으면 그 이후 알림을 먼저 다시 보냅니다.
+     *
+     * @throws ResponseStatusException 서버 전체 연결 수가 max-connections 에 도달한 경우 (503, 앱은 retry 간격 뒤 재시도)
+     */
+    public SseEmitter connect(String userId, String lastEventId) {
+        if (connections.get() >= maxConnections) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "실시간 알림 연결 수가 가득 찼습니다.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter, queueCapacity);
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(emitter::complete); // 앱은 Last-Event-ID 로 재연결
+        emitter.onError(e -> unregister(connection));
+
+        Connection oldest = register(connection);
+        if (oldest != null) {
+            log.info("📴 사용자별 스트림 연결 한도({}) 초과, 가장 오래된 연결 종료: user={}", maxPerUser, userId);
+            close(oldest, null);
+        }
+
+        // 컨트롤러가 emitter 를 돌려주기 전의 send 는 메모리에 쌓였다가 응답이 시작될 때 나가므로 요청 스레드가 막히지 않음
+        // 응답 헤더를 바로 내보내고 재연결 간격을 알려 줌
+        if (!send(connection, SseEmitter.event().reconnectTime(reconnectMillis).comment("connected"))) {
+            return emitter;
+        }
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            replay(connection, lastEventId);
+        }
+        return emitter;
+    }
+
+    /**
+     * 저장된 알람을 사용자의 열린 스트림으로 보냅니다. 트랜잭션 안에서 호출되면 커밋 후에 보내고,
+     * 연결별 큐에 넣기만 하므로 호출한 스레드는 쓰기를 기다리지 않습니다. 연결이 없으면 아무것도 하지 않습니다.
+     */
+    public void publish(String userId, AlarmType alarmType, AlarmDetailResponse alarm) {
+        if (!emitters.containsKey(userId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(userId, alarmType, alarm);
+                }
+            });
+            return;
+        }
+        deliver(userId, alarmType, alarm);
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void deliver(String userId, AlarmType alarmType, AlarmDetailResponse alarm) {
+        List<Connection> targets = emitters.get(userId);
+        if (targets == null) {
+            return;
+        }
+        for (Connection connection : targets) {
+            enqueue(connection, event(alarmType, alarm));
+        }
+    }
+
+    // 큐가 가득 찼으면 앱이 따라오지 못하는 연결이므로 닫음 (재연결하면 Last-Event-ID 로 이어 받음)
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.queue.offer(event)) {
+            droppedCounter.increment();
+            log.info("📴 스트림 전송 큐({}) 가득 참, 연결 종료: user={}", queueCapacity, connection.userId);
+            close(connection, null);
+            return;
+        }
+        schedule(connection);
+    }
+
+    // 연결마다 비우는 작업은 하나만 돌도록 함 (이벤트 순서 유지, 느린 연결이 스레드를 여러 개 잡지 않음)
+    private void schedule(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+            log.debug("종료 중이라 스트림 전송 생략: user={}", connection.userId);
+        }
+    }
+
+    // sender 스레드: 연결의 큐를 비움
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed && (event = connection.queue.poll()) != null) {
+                if (!send(connection, event)) {
+                    return;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+            // 마지막 poll 과 draining 해제 사이에 들어온 이벤트
+            if (!connection.closed && !connection.queue.isEmpty()) {
+                schedule(connection);
+            }
+        }
+    }
+
+    private void replay(Connection connection, String lastEventId) {
+        String userId = connection.userId;
+        long afterId;
+        try {
+            afterId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.debug("잘못된 Last-Event-ID 무시: {}", lastEventId);
+            return;
+        }
+        User user = userRepository.findByUserId(userId).orElse(null);
+        if (user == null) {
+            return;
+        }
+        // 타입별로 (user_pk, alarmType) 인덱스를 따라 읽고 alarmId 순으로 합침
+        List<Replayed> missed = new ArrayList<>();
+        boolean truncated = false;
+        for (AlarmType alarmType : AlarmType.values()) {
+            List<AlarmDetailResponse> rows = alarmRepository.findDetailsAfterId(user, alarmType, afterId, Limit.of(replayLimit));
+            truncated |= rows.size() >= replayLimit;
+            rows.forEach(row -> missed.add(new Replayed(alarmType, row)));
+        }
+        if (truncated) {
+            log.info("🔁 놓친 알림이 {}건 이상이라 목록 재조회 요청: user={}, lastEventId={}", replayLimit, userId, afterId);
+            send(connection, SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        missed.sort(Comparator.comparing(replayed -> replayed.alarm.getAlarmId()));
+        for (Replayed replayed : missed) {
+            if (!send(connection, event(replayed.alarmType, replayed.alarm))) {
+                return;
+            }
+            replayedCounter.increment();
+        }
+    }
+
+    // 타이머 스레드: 보낼 것이 밀려 있지 않은 연결에만 주석 줄을 넣음 (끊긴 연결은 전송 실패로 정리됨)
+    void heartbeat() {
+        try {
+            emitters.forEach((userId, targets) -> {
+                for (Connection connection : targets) {
+                    if (connection.queue.isEmpty()) {
+                        enqueue(connection, SseEmitter.event().comment("ping"));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("🔥 스트림 하트비트 처리 오류", e);
+        }
+    }
+
+    // 타이머 스레드: 한 번 쓰기가 write-timeout 을 넘긴 연결을 닫음
+    // (응답이 닫히면 막혀 있던 쓰기는 IOException 으로 풀리고, 늦어도 톰캣 소켓 쓰기 제한 시간에 끝남)
+    void closeStalled() {
+        try {
+            long now = System.nanoTime();
+            emitters.forEach((userId, targets) -> {
+                for (Connection connection : targets) {
+                    long since = connection.writingSince;
+                    if (since != 0 && now - since > writeTimeoutNanos) {
+                        log.info("📴 스트림 쓰기가 {}초 넘게 막힘, 연결 종료: user={}",
+                                TimeUnit.NANOSECONDS.toSeconds(writeTimeoutNanos), userId);
+                        close(connection, new IOException("stream write timed out"));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("🔥 스트림 쓰기 감시 오류", e);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(AlarmType alarmType, AlarmDetailResponse alarm) {
+        return SseEmitter.event()
+                .id(String.valueOf(alarm.getAlarmId()))
+                .name(alarmType.name())
+                .data(alarm, MediaType.APPLICATION_JSON);
+    }
+
+    private boolean send(Connection connection, SseEmitter.SseEventBuilder event) {
+        connection.writingSince = System.nanoTime();
+        try {
+            connection.emitter.send(event);
+            sentCounter.increment();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 앱이 연결을 끊었거나 이미 완료된(닫힌) 연결
+            failedCounter.increment();
+            close(connection, e);
+            return false;
+        } finally {
+            connection.writingSince = 0;
+        }
+    }
+
+    private void close(Connection connection, Throwable error) {
+        connection.closed = true;
+        connection.queue.clear();
+        unregister(connection);
+        try {
+            if (error == null) {
+                connection.emitter.complete();
+            } else {
+                connection.emitter.completeWithError(error);
+            }
+        } catch (IllegalStateException e) {
+            // 이미 완료된 연결
+        }
+    }
+
+    // 새 연결 추가, 사용자별 한도를 넘으면 밀려난 가장 오래된 연결을 돌려줌 (닫기는 호출한 쪽에서)
+    private Connection register(Connection connection) {
+        Connection[] evicted = new Connection[1];
+        emitters.compute(connection.userId, (key, targets) -> {
+            if (targets == null) {
+                targets = new CopyOnWriteArrayList<>();
+            }
+            targets.add(connection);
+            connections.incrementAndGet();
+            if (targets.size() > maxPerUser) {
+                evicted[0] = targets.remove(0);
+                connections.decrementAndGet();
+            }
+            return targets;
+        });
+        return evicted[0];
+    }
+
+    private void unregister(Connection connection) {
+        emitters.computeIfPresent(connection.userId, (key, targets) -> {
+            if (targets.remove(connection)) {
+                connections.decrementAndGet();
+            }
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        // 앱은 retry 간격 뒤 재연결 (재기동 후 Last-Event-ID 로 이어 받음)
+        emitters.values().forEach(targets -> targets.forEach(connection -> {
+            connection.closed = true;
+            try {
+                connection.emitter.complete();
+            } catch (IllegalStateException e) {
+                // 웹 서버가 먼저 멈춰 응답이 이미 정리된 연결
+            }
+        }));
+        emitters.clear();
+        connections.set(0);
+    }
+
+    // 스트림 연결 하나: 보낼 이벤트 큐와 쓰기 상태
+    private static final class Connection {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long writingSince; // 쓰는 중이면 시작 시각(nanoTime), 아니면 0
+        private volatile boolean closed;
+
+        private Connection(String userId, SseEmitter emitter, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private static final class Replayed {
+        private final AlarmType alarmType;
+        private final AlarmDetailResponse alarm;
+
+        private Replayed(AlarmType alarmType, AlarmDetailResponse alarm) {
+            this.alarmType = alarmType;
+            this.alarm = alarm;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서버 측 알림 억제(쿨다운) 엔진.
+ * AI 서버(yolo_inference.py)의 전역 쿨다운은 모든 사용자가 공유하고 재시작하면 사라지므로,
+ * (userId, cameraId, 알람 타입) 별로 "마지막으로 전달된 알림 시각"을 기준으로 쿨다운을 적용합니다.
+ *
+ * - 판단은 ConcurrentHashMap 조회 + AtomicLong CAS 한 번으로 끝나며 락을 잡지 않습니다.
+ * - 쿨다운이 지난 항목은 주기적으로 제거되고, 항목 수가 max-entries 에 도달하면
+ *   새 키는 억제하지 않고 통과시킵니다. (안전 알림이므로 상태를 못 만들면 보내는 쪽으로)
+ * - 억제된 이벤트는 저장/푸시 대신 alarm.suppressed 카운터만 올립니다.
+ */
+@Service
+@Slf4j
+public class AlarmSuppressionService {
+
+    public static final String DEFAULT_CAMERA = "default";
+
+    private final boolean enabled;
+    private final long maxEntries;
+    private final Map<AlarmType, Long> cooldownMillis = new EnumMap<>(AlarmType.class);
+    private final ConcurrentHashMap<Key, AtomicLong> lastDelivered = new ConcurrentHashMap<>();
+
+    private final Map<AlarmType, Counter> suppressedCounters = new EnumMap<>(AlarmType.class);
+    private final Counter overflowCounter;
+    private final ScheduledExecutorService sweeper;
+
+    public AlarmSuppressionService(MeterRegistry meterRegistry,
+                                   @Value("${alarm.suppression.enabled:true}") boolean enabled,
+                                   @Value("${alarm.suppression.fall-cooldown-seconds:30}") long fallCooldownSeconds,
+                                   @Value("${alarm.suppression.overcrowd-cooldown-seconds:30}") long overcrowdCooldownSeconds,
+                                   @Value("${alarm.suppression.max-entries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.cooldownMillis.put(AlarmType.FELL_DETECTION, TimeUnit.SECONDS.toMillis(fallCooldownSeconds));
+        this.cooldownMillis.put(AlarmType.OVERCROWDING, TimeUnit.SECONDS.toMillis(overcrowdCooldownSeconds));
+
+        for (AlarmType type : AlarmType.values()) {
+            suppressedCounters.put(type, meterRegistry.counter("alarm.suppressed", "type", type.name()));
+        }
+        this.overflowCounter = meterRegistry.counter("alarm.suppression.overflow");
+        Gauge.builder("alarm.suppression.entries", lastDelivered, Map::size).register(meterRegistry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alarm-suppression-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepMillis = Math.max(1000, cooldownMillis.values().stream().mapToLong(Long::longValue).min().orElse(1000));
+        this.sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 이번 알림을 저장/푸시해도 되는지 판단하고, 보낸다면 그 시각을 기록합니다.
+     *
+     * @return 보낼 수 있으면 기록한 시각(ms), 쿨다운 중이라 억제되었으면 -1
+     */
+    public long tryAcquire(String userId, String cameraId, AlarmType type) {
+        return tryAcquire(userId, cameraId, type, System.currentTimeMillis());
+    }
+
+    long tryAcquire(String userId, String cameraId, AlarmType type, long now) {
+        if (!enabled) {
+            return now;
+        }
+        Key key = new Key(userId, normalizeCamera(cameraId), type);
+        long cooldown = cooldownMillis.getOrDefault(type, 0L);
+
+        AtomicLong last = lastDelivered.get(key);
+        if (last == null) {
+            if (lastDelivered.size() >= maxEntries) {
+                overflowCounter.increment();
+                return now;
+            }
+            AtomicLong created = new AtomicLong(now);
+            last = lastDelivered.putIfAbsent(key, created);
+            if (last == null) {
+                return now; // 이 키의 첫 알림
+            }
+        }
+
+        while (true) {
+            long previous = last.get();
+            if (now - previous < cooldown) {
+                suppressedCounters.get(type).increment();
+                log.debug("🔕 쿨다운 중이라 알림 억제: user={}, camera={}, type={}", userId, cameraId, type);
+                return -1;
+            }
+            if (last.compareAndSet(previous, now)) {
+                return now;
+            }
+        }
+    }
+
+    /**
+     * tryAcquire 로 자리를 잡았지만 저장에 실패한 경우 호출합니다.
+     * 기록이 그 사이 바뀌지 않았다면 지워서 다음 알림이 바로 전달되도록 합니다.
+     */
+    public void forget(String userId, String cameraId, AlarmType type, long acquiredAt) {
+        if (!enabled) {
+            return;
+        }
+        Key key = new Key(userId, normalizeCamera(cameraId), type);
+        AtomicLong last = lastDelivered.get(key);
+        if (last != null && last.get() == acquiredAt) {
+            lastDelivered.remove(key, last);
+        }
+    }
+
+    void sweep() {
+        long now = System.currentTimeMillis();
+        lastDelivered.entrySet().removeIf(e -> now - e.getValue().get() >= cooldownMillis.getOrDefault(e.getKey().type, 0L));
+    }
+
+    int size() {
+        return lastDelivered.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private static String normalizeCamera(String cameraId) {
+        return cameraId == null || cameraId.isBlank() ? DEFAULT_CAMERA : cameraId;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String userId;
+        private final String cameraId;
+        private final AlarmType type;
+    }
+}
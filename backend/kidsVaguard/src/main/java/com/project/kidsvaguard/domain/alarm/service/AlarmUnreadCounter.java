@@ -0,0 +1,69 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmUnreadCountResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmUnreadCount;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmUnreadCountRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 사용자 + 알람 타입별 안 읽은 알림 수 (alarm_unread_count).
+ *
+ * 알림 저장(+1), 읽음 처리(-읽은 수), 안 읽은 알림 삭제(-1) 때 데이터 변경과 같은 트랜잭션에서 갱신하므로
+ * 배지 조회는 기본 키로 알람 타입 수만큼의 행만 읽고 alarm 테이블을 세지 않습니다.
+ * 잠금 순서: alarm 행 -> alarm_sync_version -> alarm_unread_count (호출하는 쪽에서 변경 기록 뒤에 부름)
+ * 카운터 도입 전에 쌓인 알림은 마이그레이션 V4 가 요청을 받기 전에 집계해 둡니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class AlarmUnreadCounter {
+
+    private final AlarmUnreadCountRepository alarmUnreadCountRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(User user, AlarmType alarmType, long delta) {
+        if (delta != 0) {
+            alarmUnreadCountRepository.add(user.getUserPk(), alarmType.name(), delta);
+        }
+    }
+
+    /**
+     * 배치로 저장된 알람들 중 안 읽은 것을 사용자/타입별로 묶어 더합니다. (AlarmBatchService)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addInserted(List<Alarm> alarms) {
+        Map<Long, Map<AlarmType, Long>> byUser = new TreeMap<>(); // 사용자 순서로 잠가 배치끼리 교착되지 않도록
+        for (Alarm alarm : alarms) {
+            if (!Boolean.TRUE.equals(alarm.getIsRead())) {
+                byUser.computeIfAbsent(alarm.getUser().getUserPk(), k -> new EnumMap<>(AlarmType.class))
+                        .merge(alarm.getAlarmType(), 1L, Long::sum);
+            }
+        }
+        byUser.forEach((userPk, counts) ->
+                counts.forEach((alarmType, count) -> alarmUnreadCountRepository.add(userPk, alarmType.name(), count)));
+    }
+
+    @Transactional(readOnly = true)
+    public AlarmUnreadCountResponse get(User user) {
+        long fell = 0;
+        long overcrowding = 0;
+        for (AlarmUnreadCount count : alarmUnreadCountRepository.findByUserPk(user.getUserPk())) {
+            if (count.getAlarmType() == AlarmType.FELL_DETECTION) {
+                fell = count.getUnreadCount();
+            } else if (count.getAlarmType() == AlarmType.OVERCROWDING) {
+                overcrowding = count.getUnreadCount();
+            }
+        }
+        return new AlarmUnreadCountResponse(fell, overcrowding, fell + overcrowding);
+    }
+}
@@ -1,27 +1,24 @@
 package com.project.kidsvaguard.domain.alarm.service;
 
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
 import com.project.kidsvaguard.domain.alarm.dto.OvercrowdNotificationRequestDto;
 import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange;
 import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
 import com.project.kidsvaguard.domain.user.entity.User;
 import com.project.kidsvaguard.domain.user.repository.UserRepository;
-import com.project.kidsvaguard.global.fcm.FcmService;
+import com.project.kidsvaguard.domain.user.service.UserDeviceTokenCache;
+import com.project.kidsvaguard.global.storage.StoredVideo;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.sql.Timestamp;
-import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -30,58 +27,45 @@ public class OverNotifyService {
 
     private final UserRepository userRepository;
     private final AlarmRepository alarmRepository;
-    private final FcmService fcmService;
-
-    private static final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/";
-
-    private static final List<String> ALLOWED_VIDEO_TYPES = Arrays.asList(
-            MediaType.APPLICATION_OCTET_STREAM_VALUE,
-            "video/mp4",
-            "video/quicktime",
-            "video/x-msvideo",
-            "video/x-matroska"
-    );
+    private final AlarmPushCoalescer alarmPushCoalescer;
+    private final UserDeviceTokenCache userDeviceTokenCache;
+    private final AlarmSuppressionService alarmSuppressionService;
+    private final AlarmStreamService alarmStreamService;
+    private final AlarmChangeLog alarmChangeLog;
+    private final AlarmUnreadCounter alarmUnreadCounter;
+    private final VideoStorageService videoStorageService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * JSON Body를 통해 과밀 감지 알림을 처리합니다. (/api/alarms/overcrowd 엔드포인트용)
      */
-    public void handleOvercrowdingNotification(OvercrowdNotificationRequestDto dto) {
+    public boolean handleOvercrowdingNotification(OvercrowdNotificationRequestDto dto) {
         log.info("Handling overcrowding notification with JSON data: {}", dto.toString());
         // JSON 요청에서는 비디오 경로가 없으므로 null 전달
-        processOvercrowding(dto.getUserId(), dto.getTitle(), dto.getContent(), dto.getTimeStr(), null);
-        log.info("🏁 Overcrowding notification processing finished successfully for user: {}", dto.getUserId());
+        boolean delivered = processOvercrowding(dto.getUserId(), dto.getCameraId(), dto.getTitle(),
+                dto.getContent(), dto.getTimeStr(), null);
+        log.info("🏁 Overcrowding notification processing finished successfully for user: {} (delivered={})", dto.getUserId(), delivered);
+        return delivered;
     }
 
     /**
-     * MultipartFile을 통해 비디오 파일과 함께 과밀 감지 알림을 처리합니다. (/api/alarms/overcrowd_file 엔드포인트용)
+     * 스트리밍으로 저장이 끝난 비디오 파일과 함께 과밀 감지 알림을 처리합니다. (/api/alarms/overcrowd_file 엔드포인트용)
+     * 파일 유효성 검사와 저장은 MultipartVideoIngestor / VideoStorageService 에서 이미 끝난 상태입니다.
+     *
+     * @return 저장된 파일 경로, 쿨다운으로 억제되었으면 null (이 경우 파일 참조는 여기서 해제됨)
      */
-    public String handleOvercrowdingNotificationWithFile(MultipartFile videoFile, OvercrowdNotificationRequestDto dto) throws IOException {
-        log.info("Handling overcrowding notification with file upload for DTO: {}", dto.toString());
+    public String handleOvercrowdingNotificationWithFile(StoredVideo video, OvercrowdNotificationRequestDto dto) {
+        log.info("Handling overcrowding notification with file upload for DTO: {}, video: {}", dto.toString(), video);
 
-        // 1. 파일 유효성 검사 (MIME 타입 기반)
-        if (videoFile.isEmpty() || !ALLOWED_VIDEO_TYPES.contains(getVideoContentType(videoFile))) {
-            throw new IllegalArgumentException("유효하지 않은 비디오 파일입니다. (비어있거나 지원하지 않는 형식)");
-        }
-
-        // 2. 파일 저장
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        String relativeFilePath = video.getRelativePath();
 
-        String originalFilename = videoFile.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        // 공통 로직을 호출합니다. 저장된 파일 경로를 videoPath로 전달합니다.
+        boolean delivered = processOvercrowding(dto.getUserId(), dto.getCameraId(), dto.getTitle(),
+                dto.getContent(), dto.getTimeStr(), relativeFilePath);
+        if (!delivered) {
+            videoStorageService.release(video); // 알람이 저장되지 않으므로 클립도 참조하지 않음
+            return null;
         }
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-        Path filePath = uploadPath.resolve(uniqueFileName);
-        Files.copy(videoFile.getInputStream(), filePath);
-
-        String relativeFilePath = "/uploads/" + uniqueFileName;
-
-        // 3. 공통 로직을 호출합니다. 저장된 파일 경로를 videoPath로 전달합니다.
-        processOvercrowding(dto.getUserId(), dto.getTitle(), dto.getContent(), dto.getTimeStr(), relativeFilePath);
 
         log.info("🏁 Overcrowding notification (file) processing finished successfully for user: {}", dto.getUserId());
 
@@ -91,12 +75,37 @@ public class OverNotifyService {
     /**
      * 과밀 감지 알림 처리의 핵심 로직을 담당하는 공통 메서드.
      * videoPath는 파일 업로드 시에만 사용되며, 그렇지 않은 경우 null입니다.
+     *
+     * @return 저장/푸시했으면 true, 같은 사용자·카메라의 쿨다운 중이라 억제되었으면 false
      */
-    private void processOvercrowding(String userId, String title, String content, String timeStr, String videoPath) {
+    private boolean processOvercrowding(String userId, String cameraId, String title, String content,
+                                        String timeStr, String videoPath) {
         // 1. 사용자 조회
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "사용자를 찾을 수 없습니다."));
 
+        // 1-1. 쿨다운 확인 (억제되면 저장/푸시 없이 카운트만)
+        long acquiredAt = alarmSuppressionService.tryAcquire(userId, cameraId, Alarm.AlarmType.OVERCROWDING);
+        if (acquiredAt < 0) {
+            log.info("🔕 과밀 알림 억제 (쿨다운): user={}, camera={}", userId, cameraId);
+            return false;
+        }
+        Alarm alarm;
+        try {
+            // 알람 + 변경 이력을 한 트랜잭션으로 저장
+            alarm = transactionTemplate.execute(status -> saveOvercrowding(user, title, content, timeStr, videoPath));
+        } catch (RuntimeException e) {
+            alarmSuppressionService.forget(userId, cameraId, Alarm.AlarmType.OVERCROWDING, acquiredAt);
+            throw e;
+        }
+
+        // 4. FCM 푸시 알림 발송
+        sendFcmNotification(user, alarm, title, content);
+        return true;
+    }
+
+    private Alarm saveOvercrowding(User user, String title, String content, String timeStr, String videoPath) {
+
         // 2. 타임스탬프 처리
         Timestamp timestamp = convertToTimestamp(timeStr);
 
@@ -113,8 +122,13 @@ public class OverNotifyService {
         alarmRepository.save(alarm);
         log.info("✅ 알람 정보 저장 성공: {}", alarm.getAlarmId());
 
-        // 4. FCM 푸시 알림 발송
-        sendFcmNotification(user, title, content);
+        // 3-1. 증분 동기화용 변경 이력 (/api/alarms/changes) + 안 읽은 알림 수
+        alarmChangeLog.record(user, AlarmChange.EntityType.ALARM, alarm.getAlarmId(), AlarmChange.ChangeType.INSERTED);
+        alarmUnreadCounter.add(user, Alarm.AlarmType.OVERCROWDING, 1);
+
+        // 3-2. 실시간 스트림에 연결된 앱으로 전송 (커밋 후, 푸시와 달리 묶지 않고 건마다, 연결이 없으면 생략)
+        alarmStreamService.publish(user.getUserId(), Alarm.AlarmType.OVERCROWDING, AlarmDetailResponse.from(alarm));
+        return alarm;
     }
 
     // 시간 문자열을 Timestamp로 변환하는 유틸리티 메서드
@@ -130,13 +144,13 @@ public class OverNotifyService {
         return timestamp;
     }
 
-    // FCM 알림을 발송하는 유틸리티 메서드
-    private void sendFcmNotification(User user, String title, String content) {
-        String fcmToken = user.getFcmToken();
-        if (fcmToken != null && !fcmToken.isBlank()) {
-            log.info("   - Preparing to send FCM notification for overcrowding to User ID: {}", user.getUserId());
+    // FCM 알림을 발송하는 유틸리티 메서드 (AlarmPushCoalescer 가 창 동안 모아 요약 1건으로 발송, 결과는 FcmServiceImpl 에서 로깅)
+    private void sendFcmNotification(User user, Alarm alarm, String title, String content) {
+        List<String> fcmTokens = userDeviceTokenCache.tokensOf(user);
+        if (!fcmTokens.isEmpty()) {
+            log.info("   - Preparing to send FCM notification for overcrowding to User ID: {} ({} devices)", user.getUserId(), fcmTokens.size());
             try {
-                fcmService.sendMessageTo(fcmToken, title, content);
+                alarmPushCoalescer.submit(user, alarm, title, content);
             } catch (Exception e) {
                 log.error("🔥 Failed to send FCM notification for overcrowding (User: {}), but DB operations were successful.", user.getUserId(), e);
             }
@@ -144,10 +158,4 @@ public class OverNotifyService {
             log.warn("⚠️ User ID {} does not have an FCM token. Skipping FCM notification for overcrowding.", user.getUserId());
         }
     }
-
-    // MultipartFile의 ContentType을 가져오는 유틸리티 메서드
-    private String getVideoContentType(MultipartFile videoFile) {
-        String contentType = videoFile.getContentType();
-        return contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.project.kidsvaguard.domain.fell_detection.controller;
+
+import com.project.kidsvaguard.domain.alarm.dto.OvercrowdNotificationRequestDto;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.service.OverNotifyService;
+import com.project.kidsvaguard.domain.fell_detection.dto.ChunkedUploadCreateRequestDto;
+import com.project.kidsvaguard.domain.fell_detection.dto.FallCryFileRequestDto;
+import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import com.project.kidsvaguard.global.ratelimit.NotifyRateLimiter;
+import com.project.kidsvaguard.global.storage.ChunkedUploadService;
+import com.project.kidsvaguard.global.storage.UploadSession;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 낙상/울음, 과밀 비디오 클립용 재개 가능한 청크 업로드 API.
+ * 불안정한 현장 회선에서 업로드가 90% 에서 끊겨도 빠진 범위만 다시 보내면 됩니다.
+ *
+ *  POST /api/notify/uploads                       세션 생성 -> uploadId
+ *  PUT  /api/notify/uploads/{uploadId}            Content-Range: bytes s-e/total, 본문 = 청크 (순서 무관)
+ *  GET  /api/notify/uploads/{uploadId}            수신/누락 범위 조회
+ *  POST /api/notify/uploads/{uploadId}/fall_cry   완료 + FellDetection/Alarm 에 파일 연결
+ *  POST /api/notify/uploads/{uploadId}/overcrowd  완료 + 과밀 Alarm 에 파일 연결
+ */
+@RestController
+@RequestMapping("/api/notify/uploads")
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final FallAlarmHandlerService fallAlarmHandlerService;
+    private final OverNotifyService overNotifyService;
+    private final NotifyRateLimiter notifyRateLimiter;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createUpload(@RequestBody ChunkedUploadCreateRequestDto request) throws IOException {
+        log.info("Received chunked upload create request: {}", request.toString());
+        if (request.getTotalSize() == null) {
+            throw new IllegalArgumentException("totalSize 는 필수입니다.");
+        }
+        UploadSession session = chunkedUploadService.createSession(
+                request.getFileName(), request.getContentType(), request.getTotalSize());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                "status", "success",
+                "uploadId", session.getUploadId(),
+                "totalSize", session.getTotalSize()
+        ));
+    }
+
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> uploadChunk(@PathVariable String uploadId,
+                                                           @RequestHeader(HttpHeaders.CONTENT_RANGE) String contentRange,
+                                                           HttpServletRequest request) throws IOException {
+        UploadSession session = chunkedUploadService.writeChunk(uploadId, contentRange, request.getInputStream());
+        return ResponseEntity.ok(status(session));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUploadStatus(@PathVariable String uploadId) {
+        return ResponseEntity.ok(status(chunkedUploadService.getSession(uploadId)));
+    }
+
+    @PostMapping("/{uploadId}/fall_cry")
+    public ResponseEntity<Map<String, Object>> completeFallUpload(@PathVariable String uploadId,
+                                                                  @RequestBody FallCryFileRequestDto dto) throws IOException {
+        log.info("Completing chunked upload {} for fall DTO: {}", uploadId, dto.toString());
+        // 완료 전에 확인하므로 429 를 받아도 업로드 세션은 남고, Retry-After 뒤 완료 요청만 다시 보내면 됨
+        notifyRateLimiter.acquire(dto.getUserId(), dto.getCameraId(), AlarmType.FELL_DETECTION);
+        // 알람 저장이 실패하면 세션과 partial 파일이 남으므로 완료 요청만 다시 보내면 됨
+        String filePath = chunkedUploadService.complete(uploadId,
+                video -> fallAlarmHandlerService.handleFallNotificationWithFile(video, dto));
+        if (filePath == null) {
+            return ResponseEntity.ok(Map.of(
+                    "status", "suppressed",
+                    "message", "쿨다운 중이라 알림이 억제되었습니다."
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Fall_Crying 감지 (청크 업로드 방식) 수신 완료.",
+                "videoUrl", filePath
+        ));
+    }
+
+    @PostMapping("/{uploadId}/overcrowd")
+    public ResponseEntity<Map<String, Object>> completeOvercrowdUpload(@PathVariable String uploadId,
+                                                                       @RequestBody OvercrowdNotificationRequestDto dto) throws IOException {
+        log.info("Completing chunked upload {} for overcrowd DTO: {}", uploadId, dto.toString());
+        notifyRateLimiter.acquire(dto.getUserId(), dto.getCameraId(), AlarmType.OVERCROWDING);
+        String filePath = chunkedUploadService.complete(uploadId,
+                video -> overNotifyService.handleOvercrowdingNotificationWithFile(video, dto));
+        if (filePath == null) {
+            return ResponseEntity.ok(Map.of(
+                    "status", "suppressed",
+                    "message", "쿨다운 중이라 알림이 억제되었습니다."
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Overcrowding 감지 (청크 업로드 방식) 수신 완료.",
+                "videoUrl", filePath
+        ));
+    }
+
+    private Map<String, Object> status(UploadSession session) {
+        return Map.of(
+                "uploadId", session.getUploadId(),
+                "totalSize", session.getTotalSize(),
+                "receivedBytes", session.receivedBytes(),
+                "receivedRanges", session.receivedRanges(),
+                "missingRanges", session.missingRanges(),
+                "complete", session.isComplete()
+        );
+    }
+}
@@ -1,14 +1,24 @@
 package com.project.kidsvaguard.domain.fell_detection.controller;
 
+import com.project.kidsvaguard.domain.alarm.dto.AlarmEvent;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.service.AlarmEventDispatcher;
 import com.project.kidsvaguard.domain.fell_detection.dto.FallCryRequestDto; // JSON용 DTO
 import com.project.kidsvaguard.domain.fell_detection.dto.FallCryFileRequestDto; // 파일용 DTO
 import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import com.project.kidsvaguard.global.exception.NotifyRateLimitedException;
+import com.project.kidsvaguard.global.idempotency.IdempotencyService;
+import com.project.kidsvaguard.global.ratelimit.NotifyRateLimiter;
+import com.project.kidsvaguard.global.storage.MultipartVideoIngestor;
+import com.project.kidsvaguard.global.storage.MultipartVideoIngestor.IngestedVideo;
+import com.project.kidsvaguard.global.storage.StoredVideo;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
@@ -21,16 +31,52 @@ import java.util.Map;
 public class FallNotifyController {
 
     private final FallAlarmHandlerService fallAlarmHandlerService;
+    private final AlarmEventDispatcher alarmEventDispatcher;
+    private final MultipartVideoIngestor multipartVideoIngestor;
+    private final VideoStorageService videoStorageService;
+    private final IdempotencyService idempotencyService;
+    private final NotifyRateLimiter notifyRateLimiter;
 
     /**
      * JSON Body를 통해 넘어짐 감지 알림을 수신하는 엔드포인트
+     * 같은 Idempotency-Key(없으면 userId+cameraId+timeStr) 로 재시도하면 최초 응답을 그대로 돌려줍니다.
      */
     @PostMapping("/fall_cry")
-    public ResponseEntity<Map<String, Object>> notifyFall(@RequestBody FallCryRequestDto payload) {
+    public ResponseEntity<Map<String, Object>> notifyFall(@RequestBody FallCryRequestDto payload,
+                                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Received /fall_cry request: {}", payload.toString());
+        String key = IdempotencyService.deriveKey(idempotencyKey, payload.getUserId(), payload.getCameraId(),
+                payload.getTimeStr(), String.valueOf(payload.getIsFell()));
+        // 메모리에 응답이 남은 재시도는 429 없이 바로 돌려주고, 나머지는 멱등 키 조회(JPA) 전에 한도 확인
+        return idempotencyService.execute(IdempotencyService.Scope.FALL, key,
+                () -> notifyRateLimiter.acquire(payload.getUserId(), payload.getCameraId(), AlarmType.FELL_DETECTION),
+                () -> processFall(payload));
+    }
+
+    private ResponseEntity<Map<String, Object>> processFall(FallCryRequestDto payload) {
+        if (alarmEventDispatcher.isEnabled()) {
+            // 비동기 모드: 검증 후 큐에 넣고 바로 202 + eventId 응답 (저장/FCM 은 워커가 처리)
+            if (payload.getUserId() == null || payload.getUserId().isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "status", "fail",
+                        "message", "userId 는 필수입니다."
+                ));
+            }
+            String eventId = alarmEventDispatcher.submit(AlarmEvent.builder()
+                    .type(AlarmEvent.Type.FALL)
+                    .fall(payload)
+                    .build());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "status", "accepted",
+                    "message", "Fall_Crying detection queued.",
+                    "eventId", eventId
+            ));
+        }
 
         // 서비스 계층으로 모든 데이터 전달
-        fallAlarmHandlerService.handleFallNotification(payload);
+        if (!fallAlarmHandlerService.handleFallNotification(payload)) {
+            return suppressedResponse();
+        }
 
         Map<String, Object> response = Map.of(
                 "status", "success",
@@ -42,32 +88,35 @@ public class FallNotifyController {
     }
 
     /**
-     * MultipartFile을 통해 비디오 파일과 함께 넘어짐 감지 알림을 수신하는 엔드포인트
+     * multipart/form-data 로 비디오 파일과 함께 넘어짐 감지 알림을 수신하는 엔드포인트
+     * videoFile 파트는 톰캣 임시 파일을 거치지 않고 uploads/ 로 바로 스트리밍 저장됩니다.
      */
     @PostMapping(value = "/fall_cry_file", consumes = "multipart/form-data")
-    public ResponseEntity<Map<String, Object>> notifyFallWithFile(
-            @RequestPart("videoFile") MultipartFile videoFile,
-            @RequestPart("dto") FallCryFileRequestDto dto // FallCryFileRequestDto 사용
-    ) {
-        log.info("Received /fall_cry_file request for DTO: {}", dto.toString());
-
-        // 컨트롤러 레벨에서 기본적인 파일 유효성 검사 (선택 사항, 서비스에서 더 상세히 진행)
-        if (videoFile.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of(
-                    "status", "fail",
-                    "message", "비디오 파일이 없습니다."
-            ));
-        }
-
+    public ResponseEntity<Map<String, Object>> notifyFallWithFile(HttpServletRequest request) {
+        StoredVideo video = null;
         try {
-            // 서비스 계층으로 파일과 DTO 데이터 모두 전달
-            String filePath = fallAlarmHandlerService.handleFallNotificationWithFile(videoFile, dto);
+            // 파트 순서와 관계없이 videoFile 은 디스크로, dto 는 FallCryFileRequestDto 로 파싱
+            IngestedVideo<FallCryFileRequestDto> upload =
+                    multipartVideoIngestor.ingest(request, "videoFile", "dto", FallCryFileRequestDto.class);
+            video = upload.getVideo();
+            log.info("Received /fall_cry_file request for DTO: {}", upload.getDto().toString());
+            // userId/cameraId 는 dto 파트에 있으므로 파싱 직후, 알람 저장(JPA) 전에 한도 확인
+            notifyRateLimiter.acquire(upload.getDto().getUserId(), upload.getDto().getCameraId(), AlarmType.FELL_DETECTION);
+
+            // 서비스 계층으로 저장된 파일 정보와 DTO 데이터 모두 전달
+            String filePath = fallAlarmHandlerService.handleFallNotificationWithFile(video, upload.getDto());
+            if (filePath == null) {
+                return suppressedResponse(); // 파일 참조는 서비스에서 이미 해제됨
+            }
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "message", "Fall_Crying 감지 (파일 업로드 방식) 수신 완료.",
                     "videoUrl", filePath
             ));
+        } catch (NotifyRateLimitedException e) {
+            videoStorageService.release(video); // 429 + Retry-After 는 GlobalExceptionHandler 에서 응답
+            throw e;
         } catch (IllegalArgumentException e) {
             log.warn("File validation failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of(
@@ -76,6 +125,7 @@ public class FallNotifyController {
             ));
         } catch (ResponseStatusException e) {
             log.error("User not found or other service error: {}", e.getMessage());
+            videoStorageService.release(video); // 알람이 저장되지 않았으므로 파일도 정리
             return ResponseEntity.status(e.getStatusCode()).body(Map.of(
                     "status", "fail",
                     "message", e.getReason()
@@ -89,6 +139,7 @@ public class FallNotifyController {
             ));
         } catch (Exception e) {
             log.error("An unexpected error occurred: {}", e.getMessage(), e);
+            videoStorageService.release(video);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "status", "fail",
                     "message", "서버 내부 오류 발생",
@@ -96,4 +147,12 @@ public class FallNotifyController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    // 같은 사용자·카메라의 쿨다운 중이라 저장/푸시하지 않은 경우의 응답
+    private ResponseEntity<Map<String, Object>> suppressedResponse() {
+        return ResponseEntity.ok(Map.of(
+                "status", "suppressed",
+                "message", "Fall_Crying 알림이 쿨다운 중이라 억제되었습니다."
+        ));
+    }
+}
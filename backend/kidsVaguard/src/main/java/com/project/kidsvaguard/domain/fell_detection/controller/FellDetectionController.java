@@ -1,16 +1,19 @@
 package com.project.kidsvaguard.domain.fell_detection.controller;
 
+import com.project.kidsvaguard.domain.alarm.service.AlarmListVersions;
 import com.project.kidsvaguard.domain.fell_detection.dto.FellDetectionResponse;
 import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
 import com.project.kidsvaguard.domain.fell_detection.service.FellDetectionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import org.springframework.security.access.AccessDeniedException;
 @RestController
 @RequestMapping("/api/fell-detection")
@@ -18,26 +21,21 @@ import org.springframework.security.access.AccessDeniedException;
 public class FellDetectionController {
 
     private final FellDetectionService fellDetectionService;
+    private final AlarmListVersions alarmListVersions;
 
-    // ✅ 사용자별 낙상 감지 기록 조회
+    // ✅ 사용자별 낙상 감지 기록 조회 (알림이 바뀌지 않았으면 If-None-Match 로 조회 없이 304)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<FellDetectionResponse>> getFallDetectionsByUser(@PathVariable String userId) {
-        List<FellDetection> detections = fellDetectionService.findByAlarmUserUserId(userId);
-
-        List<FellDetectionResponse> response = detections.stream()
-                .map(f -> new FellDetectionResponse(
-                        f.getFellId(),
-                        f.getIsFell(),
-                        f.getFilePath(),
-                        f.getData(),
-                        f.getCreatedAt().toString(),
-                        f.getAlarm() != null ? f.getAlarm().getAlarmId() : null,
-                        f.getAlarm() != null ? f.getAlarm().getTitle() : null,
-                        f.getAlarm() != null ? f.getAlarm().getContent() : null
-                ))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<FellDetectionResponse>> getFallDetectionsByUser(
+            @PathVariable String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = alarmListVersions.etag(userId, "fell-detections");
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (alarmListVersions.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        List<FellDetectionResponse> response = fellDetectionService.findResponsesByUserId(userId);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(response);
     }
 
     // ✅ 특정 낙상 ID 조회
@@ -0,0 +1,17 @@
+package com.project.kidsvaguard.domain.fell_detection.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+// 청크 업로드 세션 생성 요청
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ChunkedUploadCreateRequestDto {
+    private String fileName;     // 확장자 추출용 원본 파일명 (예: clip.mp4)
+    private String contentType;  // 예: video/mp4
+    private Long totalSize;      // 전체 파일 크기 (bytes)
+}
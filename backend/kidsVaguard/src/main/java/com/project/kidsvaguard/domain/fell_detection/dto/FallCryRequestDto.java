@@ -17,4 +17,5 @@ public class FallCryRequestDto {
     private String content;
     private String userId;
     private String timeStr;
+    private String cameraId; // 선택: 카메라(CCTV) 식별자, 알림 쿨다운을 카메라별로 적용할 때 사용
 }
\ No newline at end of file
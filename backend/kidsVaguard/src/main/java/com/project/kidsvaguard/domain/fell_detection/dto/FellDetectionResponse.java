@@ -3,6 +3,8 @@ package com.project.kidsvaguard.domain.fell_detection.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.sql.Timestamp;
+
 @Data
 @AllArgsConstructor
 public class FellDetectionResponse {
@@ -14,4 +16,10 @@ public class FellDetectionResponse {
     private Long alarmId;
     private String alarmTitle;
     private String alarmContent;
+
+    // JPQL 생성자 조회용 (FellDetectionRepository.findResponsesByUserId)
+    public FellDetectionResponse(Long fellId, Boolean isFell, String filePath, String data, Timestamp createdAt,
+                                 Long alarmId, String alarmTitle, String alarmContent) {
+        this(fellId, isFell, filePath, data, createdAt != null ? createdAt.toString() : null, alarmId, alarmTitle, alarmContent);
+    }
 }
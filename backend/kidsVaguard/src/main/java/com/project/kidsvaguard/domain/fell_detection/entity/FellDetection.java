@@ -7,7 +7,9 @@ import java.sql.Timestamp;
 
 
 @Entity
-@Table(name = "fell_detection")
+@Table(name = "fell_detection", indexes = {
+        @Index(name = "idx_fell_detection_alarm", columnList = "alarm_id") // 알람 -> 낙상 기록 조회/조인용
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
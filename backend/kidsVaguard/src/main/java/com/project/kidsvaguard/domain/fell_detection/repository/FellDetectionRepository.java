@@ -1,7 +1,10 @@
 package com.project.kidsvaguard.domain.fell_detection.repository;
 
+import com.project.kidsvaguard.domain.fell_detection.dto.FellDetectionResponse;
 import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,9 +12,17 @@ import java.util.Optional;
 
 @Repository
 public interface FellDetectionRepository extends JpaRepository<FellDetection, Long> {
-    // ✅ Alarm의 ID로 FellDetection 찾기
-    Optional<FellDetection> findByAlarm_AlarmId(Long alarmId);
+    // ✅ Alarm의 ID로 FellDetection 찾기 (메소드 이름 쿼리는 alarm 을 LEFT JOIN 해서 fell_detection 전체를 훑으므로 외래 키 컬럼으로 바로 조회)
+    @Query("SELECT f FROM FellDetection f WHERE f.alarm.alarmId = :alarmId")
+    Optional<FellDetection> findByAlarm_AlarmId(@Param("alarmId") Long alarmId);
 
-    // ✅ 수정: User 엔티티의 userId 경로로 접근
-    List<FellDetection> findByAlarm_User_UserId(String userId);
+    // ✅ 수정: User 엔티티의 userId 경로로 접근 (user_id 인덱스에서 시작하도록 내부 조인)
+    @Query("SELECT f FROM FellDetection f JOIN f.alarm a JOIN a.user u WHERE u.userId = :userId")
+    List<FellDetection> findByAlarm_User_UserId(@Param("userId") String userId);
+
+    // 사용자별 낙상 기록을 alarm + user 조인 한 번으로 응답 DTO 로 조회 (기록마다 알람/사용자를 따로 읽지 않음)
+    @Query("SELECT new com.project.kidsvaguard.domain.fell_detection.dto.FellDetectionResponse(" +
+            "f.fellId, f.isFell, f.filePath, f.data, f.createdAt, a.alarmId, a.title, a.content) " +
+            "FROM FellDetection f JOIN f.alarm a JOIN a.user u WHERE u.userId = :userId")
+    List<FellDetectionResponse> findResponsesByUserId(@Param("userId") String userId);
 }
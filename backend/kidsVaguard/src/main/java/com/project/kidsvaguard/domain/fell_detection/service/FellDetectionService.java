@@ -1,7 +1,13 @@
 package com.project.kidsvaguard.domain.fell_detection.service;
 
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.ChangeType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.EntityType;
+import com.project.kidsvaguard.domain.alarm.service.AlarmChangeLog;
+import com.project.kidsvaguard.domain.fell_detection.dto.FellDetectionResponse;
 import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
 import com.project.kidsvaguard.domain.fell_detection.repository.FellDetectionRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -15,6 +21,8 @@ import java.util.Optional;
 public class FellDetectionService {
 
     private final FellDetectionRepository fellDetectionRepository;
+    private final VideoStorageService videoStorageService;
+    private final AlarmChangeLog alarmChangeLog;
 
     // ✅ 단일 조회
     public Optional<FellDetection> findById(Long fellId) {
@@ -25,6 +33,11 @@ public class FellDetectionService {
     public List<FellDetection> findByAlarmUserUserId(String userId) {
         return fellDetectionRepository.findByAlarm_User_UserId(userId);
     }
+
+    // ✅ 사용자별 조회 (응답 DTO 로 바로, 쿼리 1번)
+    public List<FellDetectionResponse> findResponsesByUserId(String userId) {
+        return fellDetectionRepository.findResponsesByUserId(userId);
+    }
     // ✅ 개별 낙상 감지 기록 삭제 로직 추가
     @Transactional
     public void deleteFellDetection(Long fellId, String userId) throws AccessDeniedException {
@@ -37,7 +50,13 @@ public class FellDetectionService {
             throw new AccessDeniedException("이 낙상 감지 기록을 삭제할 권한이 없습니다.");
         }
 
-        // 낙상 감지 기록 삭제
+        // 낙상 감지 기록 삭제 (비디오 파일은 마지막 참조일 때만 삭제됨)
+        videoStorageService.release(fellDetection.getFilePath());
         fellDetectionRepository.delete(fellDetection);
+
+        // 증분 동기화: 낙상 기록 삭제 + 알림의 낙상 정보(fellDetectionId/isFell) 변경
+        User owner = fellDetection.getAlarm().getUser();
+        alarmChangeLog.record(owner, EntityType.FELL_DETECTION, fellId, ChangeType.DELETED);
+        alarmChangeLog.record(owner, EntityType.ALARM, fellDetection.getAlarm().getAlarmId(), ChangeType.UPDATED);
     }
 }
@@ -5,9 +5,11 @@ import com.project.kidsvaguard.domain.place.dto.ToggleAnalysisRequest;
 import com.project.kidsvaguard.domain.place.entity.Place;
 import com.project.kidsvaguard.domain.place.service.PlaceService;
 import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.service.UserPrincipal;
 import com.project.kidsvaguard.domain.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // Logger 대신 @Slf4j 사용
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.*;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +18,8 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/place")
@@ -26,6 +30,7 @@ public class PlaceController {
     private final PlaceService placeService;
     private final RestTemplate restTemplate;
     private final UserService userService;
+    private final AsyncTaskExecutor outboundExecutor; // ThreadingConfig 의 outboundExecutor (이름으로 주입)
 
     /**
      * 장소 생성 API: 로그인된 사용자의 CCTV 주소와 장소 이름을 등록합니다.
@@ -35,7 +40,7 @@ public class PlaceController {
      */
     @PostMapping
     public ResponseEntity<?> createPlace(@RequestBody PlaceCreateRequest request,
-                                         @AuthenticationPrincipal User currentUser) {
+                                         @AuthenticationPrincipal UserPrincipal currentUser) {
         // @AuthenticationPrincipal을 통해 현재 로그인된 사용자의 ID를 안전하게 가져옵니다.
         String userId = currentUser.getUserId();
         String cctvAddress = request.getCctvAddress();
@@ -59,6 +64,8 @@ public class PlaceController {
                 .cctvAddress(cctvAddress)
                 .placeName(placeName)
                 .action(action != null ? action : Place.Action.STOP) // action이 null이면 기본값 STOP
+                .notifyRatePerMinute(request.getNotifyRatePerMinute())
+                .notifyBurst(request.getNotifyBurst())
                 .build();
 
         // 서비스 계층을 통해 장소 저장 (중복 검사 및 업데이트 로직 포함)
@@ -76,7 +83,7 @@ public class PlaceController {
      */
     @GetMapping("/{placeName}")
     public ResponseEntity<?> getPlaceByName(@PathVariable String placeName,
-                                            @AuthenticationPrincipal User currentUser) {
+                                            @AuthenticationPrincipal UserPrincipal currentUser) {
         log.info("장소 검색 요청 수신: placeName={}, userId={}", placeName, currentUser.getUserId());
         String userId = currentUser.getUserId();
         log.info("PlaceController: toggleAnalysis 호출. Extracted userId from principal = '{}'", userId); // <<-- 추가
@@ -101,7 +108,7 @@ public class PlaceController {
      */
     @PostMapping("/toggle-analysis")
     public ResponseEntity<?> toggleAnalysis(@RequestBody ToggleAnalysisRequest request,
-                                            @AuthenticationPrincipal User currentUser) {
+                                            @AuthenticationPrincipal UserPrincipal currentUser) {
 
         if (currentUser == null) {
             throw new IllegalArgumentException("User not authenticated");
@@ -119,37 +126,48 @@ public class PlaceController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("이 사용자에게 연결된 CCTV 장소가 없습니다. 먼저 장소를 등록해주세요.");
         }
 
-        for (Place place : places) {
-            String cctvAddress = place.getCctvAddress();
-            // TODO: 실제 FastAPI 서버의 정확한 IP 주소와 포트로 변경해야 합니다.
-            // 예: "http://192.168.0.XXX:8000/control_camera" (XXX는 FastAPI 서버의 실제 IP)
-            String fastapiUrl = "http://127.0.0.1:8000/control_camera"; // 기본값
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> fastapiRequest = new HashMap<>();
-            fastapiRequest.put("userId", userId);
-            fastapiRequest.put("cctvAddress", cctvAddress);
-            fastapiRequest.put("action", action); // "START" 또는 "STOP"
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(fastapiRequest, headers);
-
-            try {
-                log.info("FastAPI로 AI 분석 명령 전송: userId={}, cctvAddress={}, action={}", userId, cctvAddress, action);
-                restTemplate.postForEntity(fastapiUrl, entity, String.class);
-                log.info("FastAPI 전송 성공: userId={}, cctvAddress={}", userId, cctvAddress);
-            } catch (Exception e) {
-                System.out.println("AI 서버 전송 실패 발생! userId=" + userId + ", cctvAddress=" + cctvAddress);
-                log.error("AI 서버(FastAPI) 전송 실패: userId={}, cctvAddress={}, 에러: {}", userId, cctvAddress, e.getMessage(), e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("AI 서버 전송 실패: " + e.getMessage());
-            }
+        // 장소(CCTV)별 FastAPI 호출을 외부 호출 실행기에서 동시에 보내고 모두 끝날 때까지 기다림
+        // (virtual 프로필에서는 호출마다 가상 스레드 하나)
+        List<CompletableFuture<Void>> calls = places.stream()
+                .map(place -> CompletableFuture.runAsync(() -> sendControlCommand(userId, place.getCctvAddress(), action), outboundExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("AI 서버 전송 실패: " + cause.getMessage());
         }
 
         log.info("AI 분석 토글 요청 전체 처리 완료: userId={}", userId);
         return ResponseEntity.ok("AI 분석 전송 완료");
     }
 
+    // FastAPI 서버로 AI 분석 시작/정지 명령 전송 (실패 시 예외)
+    private void sendControlCommand(String userId, String cctvAddress, String action) {
+        // TODO: 실제 FastAPI 서버의 정확한 IP 주소와 포트로 변경해야 합니다.
+        // 예: "http://192.168.0.XXX:8000/control_camera" (XXX는 FastAPI 서버의 실제 IP)
+        String fastapiUrl = "http://127.0.0.1:8000/control_camera"; // 기본값
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> fastapiRequest = new HashMap<>();
+        fastapiRequest.put("userId", userId);
+        fastapiRequest.put("cctvAddress", cctvAddress);
+        fastapiRequest.put("action", action); // "START" 또는 "STOP"
+
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(fastapiRequest, headers);
+
+        try {
+            log.info("FastAPI로 AI 분석 명령 전송: userId={}, cctvAddress={}, action={}", userId, cctvAddress, action);
+            restTemplate.postForEntity(fastapiUrl, entity, String.class);
+            log.info("FastAPI 전송 성공: userId={}, cctvAddress={}", userId, cctvAddress);
+        } catch (Exception e) {
+            log.error("AI 서버(FastAPI) 전송 실패: userId={}, cctvAddress={}, 에러: {}", userId, cctvAddress, e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * 장소 삭제 API
      * TODO: 이 API 또한 현재 로그인된 사용자만 자신의 장소를 삭제할 수 있도록 보안 로직을 추가해야 합니다.
@@ -158,7 +176,7 @@ public class PlaceController {
      */
     @DeleteMapping("/{placeId}")
     public ResponseEntity<?> deletePlace(@PathVariable Long placeId,
-                                         @AuthenticationPrincipal User currentUser) {
+                                         @AuthenticationPrincipal UserPrincipal currentUser) {
         log.info("장소 삭제 요청 수신: placeId={}, userId={}", placeId, currentUser.getUserId());
 
         Place place = placeService.getPlaceById(placeId)
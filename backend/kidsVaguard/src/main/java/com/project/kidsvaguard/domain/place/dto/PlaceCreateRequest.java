@@ -21,4 +21,8 @@ public class PlaceCreateRequest {
     // 하지만 명시적으로 두어도 무방합니다.
     @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Place.Action action;
+
+    // 선택: 알림 수신 한도 (분당 허용 수 / 순간 허용 수), 없으면 서버 기본값
+    private Integer notifyRatePerMinute;
+    private Integer notifyBurst;
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ import lombok.*;
 import java.sql.Timestamp;
 
 @Entity
-@Table(name = "place")
+@Table(name = "place", indexes = {
+        @Index(name = "idx_place_user_name", columnList = "user_pk, placeName") // 사용자별 장소 조회용
+})
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,6 +26,10 @@ public class Place {
     @Enumerated(EnumType.STRING)
     private Action action;
 
+    // 이 장소(CCTV)에서 받을 알림 수신 한도, null 이면 notify.rate-limit.* 기본값 사용
+    private Integer notifyRatePerMinute;
+    private Integer notifyBurst;
+
     @Column(columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private Timestamp createdAt;
 
@@ -3,6 +3,7 @@ package com.project.kidsvaguard.domain.place.repository;
 import com.project.kidsvaguard.domain.place.entity.Place;
 import com.project.kidsvaguard.domain.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,8 @@ public interface PlaceRepository extends JpaRepository<Place, Long> {
     List<Place> findByUser(User user);
     Optional<Place> findByUserAndPlaceName(User user, String placeName);
 
+    // 알림 수신 한도용 등록 장소 전체 [userId, cctvAddress, notifyRatePerMinute, notifyBurst] (엔티티 미로딩, 한도 미지정이면 null)
+    @Query("select p.user.userId, p.cctvAddress, p.notifyRatePerMinute, p.notifyBurst from Place p")
+    List<Object[]> findNotifyRateLimits();
+
 }
@@ -4,6 +4,7 @@ import com.project.kidsvaguard.domain.place.entity.Place;
 import com.project.kidsvaguard.domain.place.repository.PlaceRepository;
 import com.project.kidsvaguard.domain.user.entity.User;
 import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.global.ratelimit.NotifyRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // Logger 대신 @Slf4j 사용
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ public class PlaceService {
 
     private final PlaceRepository placeRepository;
     private final UserRepository userRepository;
+    private final NotifyRateLimiter notifyRateLimiter;
 
     /**
      * 장소 저장 또는 업데이트: 동일한 사용자가 동일한 장소 이름으로 등록하려 하면 기존 장소를 업데이트합니다.
@@ -40,11 +42,15 @@ public class PlaceService {
             existingPlace.setPlaceName(place.getPlaceName());
             existingPlace.setCctvAddress(place.getCctvAddress());
             existingPlace.setAction(place.getAction());
+            existingPlace.setNotifyRatePerMinute(place.getNotifyRatePerMinute());
+            existingPlace.setNotifyBurst(place.getNotifyBurst());
             log.info("기존 장소 업데이트 완료: placeId={}", existingPlace.getPlaceId());
+            notifyRateLimiter.reloadPlaceLimitsAfterCommit();
             return placeRepository.save(existingPlace);
         } else {
             // 없으면 새로 저장
             log.info("새로운 장소 저장 완료: placeName={}", place.getPlaceName());
+            notifyRateLimiter.reloadPlaceLimitsAfterCommit();
             return placeRepository.save(place);
         }
     }
@@ -65,6 +71,7 @@ public class PlaceService {
                     return new IllegalArgumentException("해당 장소가 존재하지 않습니다.");
                 });
         placeRepository.delete(place); // 장소 삭제
+        notifyRateLimiter.reloadPlaceLimitsAfterCommit();
         log.info("장소 삭제 완료: placeId={}", placeId);
     }
 
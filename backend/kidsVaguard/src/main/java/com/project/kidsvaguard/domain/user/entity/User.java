@@ -13,7 +13,10 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "user")
+@Table(name = "user", indexes = {
+        @Index(name = "idx_user_fcm_token", columnList = "fcmToken"), // 만료 토큰 일괄 정리(FcmTokenPruner)용
+        @Index(name = "uk_user_user_id", columnList = "userId", unique = true) // 로그인/알림 수신 시 userId 조회용
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
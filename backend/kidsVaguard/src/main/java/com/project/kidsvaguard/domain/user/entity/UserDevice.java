@@ -0,0 +1,35 @@
+package com.project.kidsvaguard.domain.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.sql.Timestamp;
+
+// 사용자의 푸시 수신 기기 (휴대폰, 태블릿 등). 같은 FCM 토큰은 한 사용자에게만 속함
+@Entity
+@Table(name = "user_device",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_device_token", columnNames = "fcm_token"),
+        indexes = @Index(name = "idx_user_device_user", columnList = "user_pk"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class UserDevice {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long deviceId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_pk", nullable = false)
+    private User user;
+
+    @Column(name = "fcm_token", nullable = false, length = 255)
+    private String fcmToken;
+
+    // 앱이 마지막으로 토큰을 등록한 시각 (앱 실행 시마다 갱신)
+    @Column(nullable = false)
+    private Timestamp lastSeenAt;
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp createdAt;
+}
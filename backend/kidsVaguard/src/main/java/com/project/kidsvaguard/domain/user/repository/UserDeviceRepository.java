@@ -0,0 +1,46 @@
+package com.project.kidsvaguard.domain.user.repository;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.entity.UserDevice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDeviceRepository extends JpaRepository<UserDevice, Long> {
+
+    @Query("SELECT d.fcmToken FROM UserDevice d WHERE d.user.userPk = :userPk")
+    List<String> findTokensByUserPk(@Param("userPk") Long userPk);
+
+    @Query("SELECT d.user.userPk FROM UserDevice d WHERE d.fcmToken = :fcmToken")
+    Optional<Long> findUserPkByFcmToken(@Param("fcmToken") String fcmToken);
+
+    /**
+     * 기기 등록/갱신 (INSERT ... ON DUPLICATE KEY UPDATE 1번).
+     * 다른 계정으로 로그인했던 기기의 토큰이면 현재 사용자에게 옮깁니다.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_device (user_pk, fcm_token, last_seen_at, created_at) " +
+            "VALUES (:userPk, :fcmToken, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE user_pk = VALUES(user_pk), last_seen_at = VALUES(last_seen_at)",
+            nativeQuery = true)
+    int upsert(@Param("userPk") Long userPk, @Param("fcmToken") String fcmToken, @Param("now") Timestamp now);
+
+    // FCM 이 거절한 토큰의 기기 일괄 삭제
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserDevice d WHERE d.fcmToken IN :tokens")
+    int deleteByFcmTokenIn(@Param("tokens") Collection<String> tokens);
+
+    @Modifying
+    @Query("DELETE FROM UserDevice d WHERE d.user = :user")
+    int deleteByUser(@Param("user") User user);
+}
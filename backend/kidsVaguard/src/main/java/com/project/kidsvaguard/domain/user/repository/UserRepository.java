@@ -2,8 +2,13 @@ package com.project.kidsvaguard.domain.user.repository;
 
 import com.project.kidsvaguard.domain.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,8 +17,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUserId(String userId);
 
+    // 배치 알림 수신 시 사용자 일괄 조회 (IN 쿼리 1번)
+    List<User> findByUserIdIn(Collection<String> userIds);
+
     boolean existsByUserId(String userId);
 
+    // FCM 이 UNREGISTERED/INVALID_ARGUMENT 를 돌려준 토큰 일괄 해제 (그 사이 새 토큰으로 바꾼 사용자는 영향 없음)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.fcmToken = NULL WHERE u.fcmToken IN :tokens")
+    int clearFcmTokens(@Param("tokens") Collection<String> tokens);
+
+    // 기기가 다른 계정으로 옮겨 가면 이전 계정들의 기존 fcmToken 컬럼에서 지움 (남아 있으면 UserDeviceTokenCache.tokensOf 가 다시 합쳐 이전 계정 알림이 그 기기로 감)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.fcmToken = NULL WHERE u.fcmToken = :token AND u.userPk <> :userPk")
+    int clearFcmTokenOfOthers(@Param("token") String token, @Param("userPk") Long userPk);
+
     //이메일 중복체크
     boolean existsByEmail(String email);
 
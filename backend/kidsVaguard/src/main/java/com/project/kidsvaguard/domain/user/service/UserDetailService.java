@@ -15,16 +15,27 @@ import org.springframework.stereotype.Service;
 public class UserDetailService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
 
     @Override
     public UserDetails loadUserByUsername(String userid) throws UsernameNotFoundException {
-        log.info("🔍 요청된 사용자 ID: {}", userid); // 여기에 로그 추가
+        log.debug("🔍 요청된 사용자 ID: {}", userid);
         return userRepository.findByUserId(userid)
                 .map(this::createUserDetails)
                 .orElseThrow(() -> new UsernameNotFoundException("해당하는 사용자 ID를 찾을 수 없습니다."));
     }
 
+    /**
+     * JWT 인증 필터용: 캐시에 있으면 DB 조회 없이 반환합니다. 엔티티가 아닌 불변 UserPrincipal 을 돌려줍니다.
+     * (로그인 시 비밀번호 검증은 항상 loadUserByUsername 으로 DB 를 읽음)
+     */
+    public UserPrincipal loadCachedUserByUsername(String userid) throws UsernameNotFoundException {
+        return userPrincipalCache.get(userid, id -> userRepository.findByUserId(id)
+                .map(UserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("해당하는 사용자 ID를 찾을 수 없습니다.")));
+    }
+
     // User 엔티티를 UserDetails 객체로 변환
     private UserDetails createUserDetails(User user) {
         return user;
@@ -0,0 +1,104 @@
+package com.project.kidsvaguard.domain.user.service;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserDeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * userPk -> 푸시 받을 FCM 토큰 목록 캐시.
+ * 낙상/과밀 알림마다 user_device 를 조회하지 않도록 TTL 동안 재사용하며, 기기 등록/회원탈퇴 시 invalidate 합니다.
+ * (FCM 이 거절한 토큰은 FcmTokenPruner 네거티브 캐시가 발송 단계에서 걸러내므로 TTL 동안 남아 있어도 무방)
+ */
+@Component
+@Slf4j
+public class UserDeviceTokenCache {
+
+    private final UserDeviceRepository userDeviceRepository;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserDeviceTokenCache(UserDeviceRepository userDeviceRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${push.device-cache.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${push.device-cache.max-entries:50000}") int maxEntries) {
+        this.userDeviceRepository = userDeviceRepository;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("user.device.cache", "result", "hit");
+        this.misses = meterRegistry.counter("user.device.cache", "result", "miss");
+        Gauge.builder("user.device.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 모든 기기 토큰. 기기 테이블 도입 전에 등록된 User.fcmToken 도 포함합니다.
+     */
+    public List<String> tokensOf(User user) {
+        List<String> tokens = deviceTokens(user.getUserPk());
+        String legacyToken = user.getFcmToken();
+        if (legacyToken == null || legacyToken.isBlank() || tokens.contains(legacyToken)) {
+            return tokens;
+        }
+        List<String> merged = new ArrayList<>(tokens.size() + 1);
+        merged.addAll(tokens);
+        merged.add(legacyToken);
+        return merged;
+    }
+
+    public void invalidate(Long userPk) {
+        entries.remove(userPk);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(userPk);
+                }
+            });
+        }
+    }
+
+    private List<String> deviceTokens(Long userPk) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userPk);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.tokens;
+        }
+
+        misses.increment();
+        List<String> tokens = List.copyOf(userDeviceRepository.findTokensByUserPk(userPk));
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.expiresAt >= 0);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(userPk, new Entry(tokens, now + ttlNanos));
+        }
+        return tokens;
+    }
+
+    private static final class Entry {
+        private final List<String> tokens;
+        private final long expiresAt;
+
+        private Entry(List<String> tokens, long expiresAt) {
+            this.tokens = tokens;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.kidsvaguard.domain.user.service;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JWT 인증에 쓰는 불변 사용자 정보 (UserPrincipalCache 에 보관, 요청 간에 공유됨).
+ * User 엔티티를 그대로 캐시하면 비밀번호 해시/FCM 토큰까지 여러 요청 스레드가 같은 가변 객체를 나눠 쓰게 되므로
+ * 인증/인가에 필요한 값만 복사해 둡니다. 엔티티가 필요하면 userPk 로 다시 조회합니다.
+ */
+@Getter
+@ToString
+public final class UserPrincipal implements UserDetails {
+
+    private final Long userPk;
+    private final String userId;
+    private final User.Role role;
+    private final List<GrantedAuthority> authorities;
+
+    private UserPrincipal(Long userPk, String userId, User.Role role, Collection<? extends GrantedAuthority> authorities) {
+        this.userPk = userPk;
+        this.userId = userId;
+        this.role = role;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getUserPk(), user.getUserId(), user.getRole(), user.getAuthorities());
+    }
+
+    @Override
+    public String getUsername() {
+        return userId;
+    }
+
+    // 토큰으로 인증된 요청이므로 비밀번호는 보관하지 않음
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.kidsvaguard.domain.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * JWT 인증 필터에서 쓰는 userId -> UserPrincipal 캐시.
+ * 앱이 알림 목록을 폴링할 때마다 findByUserId SELECT 가 나가지 않도록 TTL 동안 재사용합니다.
+ * 여러 요청이 같은 객체를 나눠 쓰므로 엔티티가 아니라 불변 스냅샷(UserPrincipal)만 보관합니다.
+ *
+ * 비밀번호/이름/FCM 토큰 변경, 회원탈퇴 시 invalidate(userId) 로 즉시 비우며,
+ * 트랜잭션 안에서 호출되면 커밋 후에도 한 번 더 비워서 커밋 전에 다른 요청이 옛 값을 다시 채우는 경우를 막습니다.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+
+    public UserPrincipalCache(MeterRegistry meterRegistry,
+                              @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("user.principal.cache", "result", "hit");
+        this.misses = meterRegistry.counter("user.principal.cache", "result", "miss");
+        this.loadTimer = Timer.builder("user.principal.load")
+                .description("캐시 miss 시 DB 에서 사용자 정보를 읽는 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("user.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public UserPrincipal get(String userId, Function<String, UserPrincipal> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.user;
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        UserPrincipal user = loader.apply(userId);
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.expiresAt >= 0);
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(userId, new Entry(user, now + ttlNanos));
+        }
+        return user;
+    }
+
+    public void invalidate(String userId) {
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(userId);
+                }
+            });
+        }
+        log.debug("사용자 인증 정보 캐시 무효화: {}", userId);
+    }
+
+    private static final class Entry {
+        private final UserPrincipal user;
+        private final long expiresAt;
+
+        private Entry(UserPrincipal user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.UUID;
 public class UserProfileService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Transactional
     public void changePassword(String userId, ChangePasswordRequestDto requestDto) {
@@ -31,6 +32,7 @@ public class UserProfileService {
 
         // ✅ 기존 객체의 필드만 변경 (변경 감지 사용)
         existingUser.changePassword(passwordEncoder, requestDto.getNewPassword());
+        userPrincipalCache.invalidate(userId);
 
         log.info("사용자 {} 비밀번호 변경 완료.", userId);
     }
@@ -42,6 +44,7 @@ public class UserProfileService {
 
         // ✅ 기존 객체의 필드만 변경 (변경 감지 사용)
         existingUser.changeUsername(requestDto.getNewUsername());
+        userPrincipalCache.invalidate(userId);
 
         log.info("사용자 {} 이름 변경 완료.", userId);
     }
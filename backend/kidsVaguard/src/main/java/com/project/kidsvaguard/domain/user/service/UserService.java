@@ -1,13 +1,18 @@
 package com.project.kidsvaguard.domain.user.service;
 
+import com.project.kidsvaguard.domain.alarm.repository.AlarmChangeRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmSyncVersionRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmUnreadCountRepository;
+import com.project.kidsvaguard.domain.alarm.service.AlarmListVersions;
 import com.project.kidsvaguard.domain.user.dto.SignInDto;
 import com.project.kidsvaguard.domain.user.dto.SignUpDto;
 import com.project.kidsvaguard.domain.user.dto.UserDto;
 import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserDeviceRepository;
 import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.global.fcm.FcmTokenPruner;
 import com.project.kidsvaguard.global.jwtToken.JwtToken;
 import com.project.kidsvaguard.global.jwtToken.JwtTokenProvider;
-import com.project.kidsvaguard.global.jwtToken.RefreshToken;
 import com.project.kidsvaguard.global.jwtToken.RefreshTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +24,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +39,14 @@ public class UserService {
     private final JwtTokenProvider jwtTokenProvider;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final FcmTokenPruner fcmTokenPruner;
+    private final UserDeviceRepository userDeviceRepository;
+    private final UserDeviceTokenCache userDeviceTokenCache;
+    private final AlarmChangeRepository alarmChangeRepository;
+    private final AlarmSyncVersionRepository alarmSyncVersionRepository;
+    private final AlarmUnreadCountRepository alarmUnreadCountRepository;
+    private final AlarmListVersions alarmListVersions;
 
 
     @Transactional
@@ -50,23 +64,9 @@ public class UserService {
             JwtToken jwtToken = jwtTokenProvider.generateToken(authentication);
             User user = (User) authentication.getPrincipal();
 
-            // 1. 기존 Refresh Token 조회
-            Optional<RefreshToken> existingTokenOpt = refreshTokenRepository.findByUser(user);
-
-            // 2. 만약 존재하면 삭제
-            existingTokenOpt.ifPresent(existingToken -> {
-                log.debug("기존 Refresh Token 삭제 (User PK: {}): {}", user.getUserPk(), existingToken.getId());
-                refreshTokenRepository.delete(existingToken);
-            });
-
-            // 3. 새 Refresh Token 저장
-            log.debug("새 Refresh Token 저장 (User PK: {})", user.getUserPk());
-            refreshTokenRepository.save(
-                    RefreshToken.builder()
-                            .refreshToken(jwtToken.getRefreshToken())
-                            .user(user)
-                            .build()
-            );
+            // 기존 Refresh Token 이 있으면 교체, 없으면 저장 (upsert 1번)
+            log.debug("Refresh Token 저장 (User PK: {})", user.getUserPk());
+            jwtTokenProvider.saveRefreshToken(user, jwtToken.getRefreshToken());
 
             // 최종 생성된 JWT 토큰 반환
             return jwtToken;
@@ -126,6 +126,20 @@ public class UserService {
         log.info("🔄 Updating FCM token for user: {}", userId);
         // User 엔티티의 fcmToken 필드 업데이트 (Setter 사용)
         user.setFcmToken(newFcmToken);
+        userPrincipalCache.invalidate(userId);
+        fcmTokenPruner.forget(newFcmToken); // 다시 등록된 토큰이면 네거티브 캐시에서 제외
+
+        // 기기 테이블에도 등록 (같은 토큰이면 last_seen_at 만 갱신, 다른 계정의 기기였다면 이 사용자로 옮김)
+        // 기기 테이블 도입 전 다른 계정의 fcmToken 컬럼에 남은 같은 토큰도 지움
+        int released = userRepository.clearFcmTokenOfOthers(newFcmToken, user.getUserPk());
+        if (released > 0) {
+            log.info("📱 다른 계정에 등록돼 있던 FCM 토큰 해제: {}개 계정", released);
+        }
+        userDeviceRepository.findUserPkByFcmToken(newFcmToken)
+                .filter(previousOwner -> !previousOwner.equals(user.getUserPk()))
+                .ifPresent(userDeviceTokenCache::invalidate);
+        userDeviceRepository.upsert(user.getUserPk(), newFcmToken, new Timestamp(System.currentTimeMillis()));
+        userDeviceTokenCache.invalidate(user.getUserPk());
 
         // @Transactional 환경에서는 변경 감지(dirty checking)에 의해
         // 메소드 종료 시 자동으로 UPDATE 쿼리가 실행됩니다.
@@ -147,9 +161,17 @@ public class UserService {
 
         // 해당 유저의 Refresh Token 모두 삭제 (로그아웃 처리)
         refreshTokenRepository.deleteByUser(user);
+        userDeviceRepository.deleteByUser(user);
+        // 알림 증분 동기화 기록, 안 읽은 알림 카운터 삭제
+        alarmChangeRepository.deleteByUserPk(user.getUserPk());
+        alarmSyncVersionRepository.deleteByUserPk(user.getUserPk());
+        alarmUnreadCountRepository.deleteByUserPk(user.getUserPk());
 
         // 유저 삭제
         userRepository.delete(user);
+        userPrincipalCache.invalidate(userId);
+        userDeviceTokenCache.invalidate(user.getUserPk());
+        alarmListVersions.bump(userId); // 같은 userId 로 재가입해도 탈퇴 전 목록 ETag 가 맞지 않도록
 
         log.info("회원탈퇴 처리 완료 - userId: {}", userId);
     }
@@ -0,0 +1,108 @@
+package com.project.kidsvaguard.global.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 커넥션을 쥐고 있거나 풀에서 기다리는 스레드 수의 합을 제한하는 DataSource.
+ *
+ * 커넥션 수 자체와 대기 시간은 Hikari 가 (maximum-pool-size, connection-timeout) 이미 제한하지만,
+ * 풀 앞에서 기다리는 스레드 수에는 제한이 없습니다. 가상 스레드 모드에서는 요청마다 스레드가 생기므로
+ * DB 가 느려지면 수천 개의 요청이 connection-timeout 동안 줄지어 기다리다 한꺼번에 실패합니다.
+ * 풀 크기 + 대기 허용 수(max-waiting)를 넘는 요청은 기다리지 않고 바로 실패시켜(load shedding) 대기열이 쌓이지 않게 합니다.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // 커넥션을 쥐고 있거나 풀에서 기다리는 스레드 수
+    public int getAdmittedThreads() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        if (!permits.tryAcquire()) {
+            throw new SQLTransientConnectionException("DB 동시 접근 한도 초과 (커넥션 사용 + 대기 " + maxConcurrency + ")");
+        }
+    }
+
+    // close() 가 처음 호출될 때 한 번만 permit 반환
+    // equals/hashCode/toString 은 프록시 자신 기준 (대상에 넘기면 풀 내부 컬렉션 등에서 프록시와 원본이 같은 것으로 취급됨)
+    private Connection releaseOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            if (method.getParameterCount() == 1) {
+                                return proxy == args[0];
+                            }
+                            break;
+                        case "hashCode":
+                            if (method.getParameterCount() == 0) {
+                                return System.identityHashCode(proxy);
+                            }
+                            break;
+                        case "toString":
+                            if (method.getParameterCount() == 0) {
+                                return "ConcurrencyLimited[" + target + "]";
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -6,13 +6,16 @@ import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
 import java.io.InputStream;
 
+// push.transport=stub 이면 Firebase 를 초기화하지 않음 (StubPushTransport)
 @Configuration
+@ConditionalOnProperty(name = "push.transport", havingValue = "firebase", matchIfMissing = true)
 @Slf4j
 public class FirebaseConfig {
 
@@ -29,6 +32,11 @@ public class FirebaseConfig {
 
                 // ClassPathResource를 사용하여 classpath에서 리소스 로드
                 ClassPathResource resource = new ClassPathResource(serviceAccountPath.replaceFirst("classpath:", ""));
+                if (!resource.exists()) {
+                    // 키 없이 뜨면 모든 푸시가 조용히 실패하므로 기동을 멈춤 (키 없는 로컬/CI 는 push.transport=stub)
+                    throw new IllegalStateException("Firebase service account file not found: " + serviceAccountPath
+                            + " (use push.transport=stub for local testing)");
+                }
                 InputStream serviceAccountStream = resource.getInputStream();
 
                 FirebaseOptions options = FirebaseOptions.builder()
@@ -47,6 +47,7 @@ public class SecurityConfig {
                         // ✅ 관리자 접근 제한 추가
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/admin/**").access(ipOrAdminAuthorizationManager)
+                        .requestMatchers("/actuator/**").access(ipOrAdminAuthorizationManager) // 운영 지표는 로컬 또는 관리자만
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,78 @@
+package com.project.kidsvaguard.global.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+
+/**
+ * 실행 스레드 설정.
+ *
+ * 기본(Java 17): 톰캣 플랫폼 스레드 풀 + 외부 호출(FastAPI 등)용 고정 크기 풀
+ * virtual 프로필(Java 21, --spring.profiles.active=virtual):
+ *  - spring.threads.virtual.enabled=true 로 톰캣 요청 처리를 가상 스레드에서 수행
+ *  - 외부 호출도 가상 스레드(작업당 1개)에서 수행, 동시 실행 수만 outbound.max-concurrency 로 제한
+ *  - DataSource 를 ConcurrencyLimitedDataSource 로 감싸 커넥션 풀 앞에서 기다리는 스레드 수를 제한 (넘으면 바로 실패)
+ */
+@Configuration
+@Slf4j
+public class ThreadingConfig {
+
+    @Bean(name = "outboundExecutor")
+    public AsyncTaskExecutor outboundExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                              @Value("${outbound.max-concurrency:64}") int maxConcurrency) {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            log.warn("⚠️ 가상 스레드는 Java 21 이상에서만 사용할 수 있습니다. 플랫폼 스레드 풀로 실행합니다. (현재 Java {})",
+                    Runtime.version().feature());
+            virtualThreads = false;
+        }
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbound-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            log.info("🧵 외부 호출 실행기: 가상 스레드 (동시 {}개)", maxConcurrency);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("outbound-");
+        executor.setCorePoolSize(Math.min(8, maxConcurrency));
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(1000);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            @Value("${db.concurrency-limit.max-waiting:256}") int maxWaiting,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                // 커넥션을 쥔 스레드(풀 크기) + 풀에서 기다릴 수 있는 스레드
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int permits = poolSize + maxWaiting;
+                ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(dataSource, permits);
+                meterRegistry.ifAvailable(registry -> Gauge.builder("db.concurrency.admitted", limited,
+                        ConcurrencyLimitedDataSource::getAdmittedThreads).register(registry));
+                log.info("🚧 DataSource '{}' 동시 접근 한도 {} 적용 (풀 {} + 대기 {})", beanName, permits, poolSize, maxWaiting);
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.kidsvaguard.global.exception;
+
+public class AlarmQueueFullException extends RuntimeException {
+    public AlarmQueueFullException(String message) {
+        super(message);
+    }
+}
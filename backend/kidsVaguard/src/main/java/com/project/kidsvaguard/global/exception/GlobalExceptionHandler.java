@@ -1,12 +1,15 @@
 package com.project.kidsvaguard.global.exception;
 
 import org.apache.http.auth.InvalidCredentialsException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -42,12 +45,40 @@ public class GlobalExceptionHandler {
         return new ErrorResponse(ex.getMessage(), "USER_NOT_FOUND");
     }
 
+    // 비동기 알람 큐가 가득 찬 경우 (AI 서버가 잠시 후 재시도)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(AlarmQueueFullException.class)
+    public ErrorResponse handleAlarmQueueFull(AlarmQueueFullException ex) {
+        return new ErrorResponse(ex.getMessage(), "ALARM_QUEUE_FULL");
+    }
+
+    // 카메라별 알림 수신 한도 초과 (Retry-After 초 뒤 재시도)
+    @ExceptionHandler(NotifyRateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleNotifyRateLimited(NotifyRateLimitedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(ex.getMessage(), "NOTIFY_RATE_LIMITED"));
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(IllegalArgumentException.class)
     public ErrorResponse handleIllegalArgument(IllegalArgumentException ex) {
         return new ErrorResponse(ex.getMessage(), "BAD_REQUEST");
     }
 
+    // 서비스에서 상태 코드를 지정해 던진 예외는 그 상태 코드 그대로 응답 (아래 Exception 핸들러에 잡히지 않도록)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException ex) {
+        return ResponseEntity.status(ex.getStatusCode())
+                .body(new ErrorResponse(ex.getReason(), String.valueOf(ex.getStatusCode().value())));
+    }
+
+    // SSE(/api/alarms/stream) 등 비동기 요청 시간 초과/서버 종료: 이미 text/event-stream 으로 응답 중이라 본문 없이 종료
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public void handleAsyncRequestTimeout(AsyncRequestTimeoutException ex) {
+    }
+
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleOtherExceptions(Exception ex) {
@@ -0,0 +1,13 @@
+package com.project.kidsvaguard.global.exception;
+
+import lombok.Getter;
+
+@Getter
+public class NotifyRateLimitedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public NotifyRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
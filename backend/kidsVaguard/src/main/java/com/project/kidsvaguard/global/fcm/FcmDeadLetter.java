@@ -0,0 +1,26 @@
+package com.project.kidsvaguard.global.fcm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 재시도를 다 써도 보내지 못한 푸시 (dead-letter 파일에 JSON 한 줄로 기록, 재시작 시 다시 발송)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FcmDeadLetter {
+
+    private Long alarmId;
+    private String token;
+    private String title;
+    private String body;
+    private long firstAttemptAtMillis;
+    private int attempts;
+    private String lastErrorCode;
+
+    public PushMessage toMessage() {
+        return new PushMessage(alarmId, token, title, body);
+    }
+}
@@ -0,0 +1,191 @@
+package com.project.kidsvaguard.global.fcm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 스레드 대신 FCM 발송을 맡는 디스패처.
+ *
+ * submit() 은 큐에 넣고 바로 돌아오며, 발송 스레드가 메시지를 최대 batch-size 개 또는 linger-millis 동안 모아
+ * PushTransport 로 한 번에(sendEachAsync) 보냅니다. 결과는 메시지별 CompletableFuture 로 돌려주어 알람 단위로 확인할 수 있습니다.
+ * submitAll() 로 넣은 한 알람의 기기별 메시지는 묶음 사이에서 나뉘지 않아 멀티캐스트처럼 한 번의 호출로 나갑니다.
+ * 동시에 보내는 묶음 수는 max-in-flight 로 제한하고, 큐가 가득 차면 QUEUE_FULL 로 즉시 실패시킵니다 (요청 스레드를 막지 않음).
+ */
+@Component
+@Slf4j
+public class FcmDispatcher {
+
+    private final PushTransport transport;
+    private final BlockingQueue<List<Pending>> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Semaphore inFlight;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer sendTimer;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public FcmDispatcher(PushTransport transport,
+                         MeterRegistry meterRegistry,
+                         @Value("${push.dispatcher.queue-capacity:10000}") int queueCapacity,
+                         @Value("${push.dispatcher.batch-size:100}") int batchSize,
+                         @Value("${push.dispatcher.linger-millis:20}") long lingerMillis,
+                         @Value("${push.dispatcher.max-in-flight:8}") int maxInFlight) {
+        this.transport = transport;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, Math.min(batchSize, transport.maxBatchSize()));
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.batchSizeSummary = DistributionSummary.builder("fcm.batch.size")
+                .description("한 번에 보낸 메시지 수")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("fcm.send.latency")
+                .description("묶음 하나를 보내고 결과를 받기까지 걸린 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.succeeded = meterRegistry.counter("fcm.messages", "result", "success");
+        this.failed = meterRegistry.counter("fcm.messages", "result", "failure");
+        this.rejected = meterRegistry.counter("fcm.messages", "result", "rejected");
+        Gauge.builder("fcm.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.worker = new Thread(this::run, "fcm-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 메시지를 발송 큐에 넣습니다. 반환된 future 는 예외 없이 항상 PushResult 로 완료됩니다.
+     */
+    public CompletableFuture<PushResult> submit(PushMessage message) {
+        return submitAll(List.of(message)).get(0);
+    }
+
+    /**
+     * 한 알람의 여러 기기 메시지처럼 함께 보내야 하는 묶음을 넣습니다. 묶음은 나뉘지 않고 같은 전송 호출에 실립니다.
+     *
+     * @return messages 와 같은 순서의 결과 future 목록
+     */
+    public List<CompletableFuture<PushResult>> submitAll(List<PushMessage> messages) {
+        List<CompletableFuture<PushResult>> futures = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<Pending> group = new ArrayList<>();
+            for (PushMessage message : messages.subList(from, Math.min(messages.size(), from + batchSize))) {
+                Pending pending = new Pending(message);
+                group.add(pending);
+                futures.add(pending.future);
+            }
+            if (!running || !queue.offer(group)) {
+                rejected.increment(group.size());
+                for (Pending pending : group) {
+                    pending.future.complete(PushResult.failure(pending.message, PushResult.QUEUE_FULL, "FCM 발송 큐가 가득 찼습니다."));
+                }
+            }
+        }
+        return futures;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        List<Pending> carry = null; // 이전 묶음에 다 들어가지 않아 다음 묶음 맨 앞에 실을 그룹
+        while (running || !queue.isEmpty() || carry != null) {
+            try {
+                List<Pending> first = carry != null ? carry : queue.poll(1, TimeUnit.SECONDS);
+                carry = null;
+                if (first == null) {
+                    continue;
+                }
+                batch.addAll(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    List<Pending> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (batch.size() + next.size() > batchSize) {
+                        carry = next;
+                        break;
+                    }
+                    batch.addAll(next);
+                }
+                inFlight.acquire();
+                dispatch(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("🔥 FCM 디스패처 오류", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        List<PushMessage> messages = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            messages.add(pending.message);
+        }
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+
+        CompletableFuture<List<PushResult>> future;
+        try {
+            future = transport.send(messages);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((results, error) -> {
+            inFlight.release();
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                PushResult result = error == null && results != null && i < results.size()
+                        ? results.get(i)
+                        : PushResult.failure(pending.message, "TRANSPORT_ERROR", error != null ? error.getMessage() : "결과 누락");
+                (result.isSuccess() ? succeeded : failed).increment();
+                pending.future.complete(result);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false; // 큐에 남은 메시지는 보내고 종료
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static final class Pending {
+        private final PushMessage message;
+        private final CompletableFuture<PushResult> future = new CompletableFuture<>();
+
+        private Pending(PushMessage message) {
+            this.message = message;
+        }
+    }
+}
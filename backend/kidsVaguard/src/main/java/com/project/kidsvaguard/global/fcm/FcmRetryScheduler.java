@@ -0,0 +1,301 @@
+package com.project.kidsvaguard.global.fcm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FCM 발송 재시도.
+ *
+ * FcmDispatcher 결과가 일시적인 오류(UNAVAILABLE, INTERNAL, QUOTA_EXCEEDED, 네트워크 오류 등)이면
+ * 지수 백오프 + 지터 후 다시 보내고, 토큰/메시지 문제처럼 다시 보내도 같은 오류는 바로 포기합니다.
+ * max-attempts 를 다 써도 실패하면 dead-letter 파일(JSON Lines, 추가만 함)에 기록하고,
+ * 서버가 다시 뜨면 파일을 읽어 재발송합니다 (max-age-hours 보다 오래된 알림은 버림).
+ * 대기 중인 재시도는 타이머 스레드에서만 실행되므로 요청 스레드를 막지 않으며, 종료 시에는 dead-letter 로 넘깁니다.
+ */
+@Component
+@Slf4j
+public class FcmRetryScheduler {
+
+    private final FcmDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadLetterMaxAgeMillis;
+    private final String deadLetterFile;
+
+    private final Object fileLock = new Object();
+    private final Map<Delivery, Boolean> waiting = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean running = true;
+
+    private final Timer deliveryTimer;
+    private final DistributionSummary attemptsSummary;
+    private final Counter deadLettered;
+    private final Counter replayed;
+    private final Counter expired;
+
+    public FcmRetryScheduler(FcmDispatcher dispatcher,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${push.retry.max-attempts:5}") int maxAttempts,
+                             @Value("${push.retry.initial-backoff-millis:500}") long initialBackoffMillis,
+                             @Value("${push.retry.max-backoff-millis:60000}") long maxBackoffMillis,
+                             @Value("${push.retry.dead-letter-max-age-hours:24}") long deadLetterMaxAgeHours,
+                             @Value("${push.retry.dead-letter-file:#{systemProperties['user.dir'] + '/spill/fcm-dead-letter.jsonl'}}") String deadLetterFile) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.deadLetterMaxAgeMillis = TimeUnit.HOURS.toMillis(deadLetterMaxAgeHours);
+        this.deadLetterFile = deadLetterFile;
+
+        this.deliveryTimer = Timer.builder("fcm.delivery.time")
+                .description("첫 발송 시도부터 최종 성공까지 걸린 시간 (재시도 포함)")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.attemptsSummary = DistributionSummary.builder("fcm.delivery.attempts")
+                .description("성공까지 시도한 횟수")
+                .register(meterRegistry);
+        this.deadLettered = meterRegistry.counter("fcm.dead_letter", "result", "written");
+        this.replayed = meterRegistry.counter("fcm.dead_letter", "result", "replayed");
+        this.expired = meterRegistry.counter("fcm.dead_letter", "result", "expired");
+        Gauge.builder("fcm.retry.waiting", waiting, Map::size).register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fcm-retry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 재시도를 포함해 최종 결과가 나오면 완료되는 future 를 돌려줍니다 (예외로 완료되지 않음).
+     */
+    public CompletableFuture<PushResult> deliver(PushMessage message) {
+        Delivery delivery = new Delivery(message, System.currentTimeMillis());
+        attempt(delivery);
+        return delivery.future;
+    }
+
+    /**
+     * 한 알람의 기기별 메시지를 함께 보냅니다. 첫 시도는 디스패처의 같은 전송 호출에 실리고, 재시도는 기기별로 따로 합니다.
+     *
+     * @return messages 와 같은 순서의 결과 future 목록
+     */
+    public List<CompletableFuture<PushResult>> deliverAll(List<PushMessage> messages) {
+        long now = System.currentTimeMillis();
+        List<Delivery> deliveries = new ArrayList<>(messages.size());
+        List<CompletableFuture<PushResult>> futures = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            Delivery delivery = new Delivery(message, now);
+            delivery.attempts++;
+            deliveries.add(delivery);
+            futures.add(delivery.future);
+        }
+        List<CompletableFuture<PushResult>> submitted = dispatcher.submitAll(messages);
+        for (int i = 0; i < deliveries.size(); i++) {
+            Delivery delivery = deliveries.get(i);
+            submitted.get(i).whenComplete((result, error) -> onResult(delivery, result));
+        }
+        return futures;
+    }
+
+    // 이전 실행에서 남은 dead-letter 를 다시 보냄
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        scheduler.execute(this::replayDeadLetters);
+    }
+
+    private void attempt(Delivery delivery) {
+        delivery.attempts++;
+        dispatcher.submit(delivery.message).whenComplete((result, error) -> onResult(delivery, result));
+    }
+
+    private void onResult(Delivery delivery, PushResult result) {
+        if (result.isSuccess()) {
+            deliveryTimer.record(System.currentTimeMillis() - delivery.firstAttemptAtMillis, TimeUnit.MILLISECONDS);
+            attemptsSummary.record(delivery.attempts);
+            delivery.future.complete(result);
+            return;
+        }
+        if (!result.isRetryable()) {
+            delivery.future.complete(result);
+            return;
+        }
+        delivery.lastErrorCode = result.getErrorCode();
+        if (delivery.attempts >= maxAttempts || !running) {
+            deadLetter(delivery);
+            delivery.future.complete(result);
+            return;
+        }
+
+        long delay = backoffMillis(delivery.attempts);
+        meterRegistry.counter("fcm.retries", "code", result.getErrorCode()).increment();
+        log.warn("🔁 FCM 발송 재시도 예정 (alarm {}, {}회 실패, {}): {}ms 후", delivery.message.getAlarmId(),
+                delivery.attempts, result.getErrorCode(), delay);
+        waiting.put(delivery, Boolean.TRUE);
+        try {
+            scheduler.schedule(() -> {
+                if (waiting.remove(delivery) != null) {
+                    attempt(delivery);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (waiting.remove(delivery) != null) {
+                deadLetter(delivery);
+                delivery.future.complete(result);
+            }
+        }
+    }
+
+    // 지수 백오프 (initial * 2^(n-1), 최대 max) 의 절반 ~ 전체 사이에서 무작위로 고름 (동시에 실패한 재시도가 한꺼번에 몰리지 않도록)
+    long backoffMillis(int failedAttempts) {
+        long cap = initialBackoffMillis << Math.min(failedAttempts - 1, 30);
+        if (cap <= 0 || cap > maxBackoffMillis) {
+            cap = maxBackoffMillis;
+        }
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+
+    // 한 건을 dead-letter 파일 끝에 JSON 한 줄로 추가
+    private void deadLetter(Delivery delivery) {
+        PushMessage m = delivery.message;
+        FcmDeadLetter entry = new FcmDeadLetter(m.getAlarmId(), m.getToken(), m.getTitle(), m.getBody(),
+                delivery.firstAttemptAtMillis, delivery.attempts, delivery.lastErrorCode);
+        synchronized (fileLock) {
+            try {
+                Path path = Paths.get(deadLetterFile);
+                Files.createDirectories(path.getParent());
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(objectMapper.writeValueAsString(entry));
+                    writer.newLine();
+                }
+                deadLettered.increment();
+                log.error("☠️ FCM 발송 최종 실패, dead-letter 에 기록 (alarm {}, {}회 시도, {})",
+                        m.getAlarmId(), delivery.attempts, delivery.lastErrorCode);
+            } catch (IOException e) {
+                log.error("🔥 FCM dead-letter 기록 실패: alarm {}", m.getAlarmId(), e);
+            }
+        }
+    }
+
+    /**
+     * dead-letter 파일을 .replaying 으로 옮긴 뒤 다시 보냅니다. 모든 건이 끝나야(성공/포기/다시 dead-letter) .replaying 을 지우므로
+     * 도중에 서버가 죽어도 다음 기동 때 이어서 보냅니다 (중복 발송 가능, 유실 없음).
+     */
+    void replayDeadLetters() {
+        Path path = Paths.get(deadLetterFile);
+        Path replaying = path.resolveSibling(path.getFileName() + ".replaying");
+        List<String> lines;
+        synchronized (fileLock) {
+            try {
+                if (Files.exists(path)) {
+                    if (Files.exists(replaying)) {
+                        Files.write(replaying, Files.readAllLines(path, StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+                                StandardOpenOption.APPEND);
+                        Files.delete(path);
+                    } else {
+                        Files.move(path, replaying, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                }
+                if (!Files.exists(replaying)) {
+                    return;
+                }
+                lines = Files.readAllLines(replaying, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                log.error("🔥 FCM dead-letter 파일 읽기 실패: {}", deadLetterFile, e);
+                return;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        List<CompletableFuture<PushResult>> futures = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                FcmDeadLetter entry = objectMapper.readValue(line, FcmDeadLetter.class);
+                if (now - entry.getFirstAttemptAtMillis() > deadLetterMaxAgeMillis) {
+                    expired.increment(); // 너무 늦은 알림은 보내지 않음
+                    continue;
+                }
+                Delivery delivery = new Delivery(entry.toMessage(), entry.getFirstAttemptAtMillis());
+                futures.add(delivery.future);
+                replayed.increment();
+                attempt(delivery);
+            } catch (IOException e) {
+                log.warn("⚠️ 읽을 수 없는 FCM dead-letter 항목을 건너뜁니다: {}", line);
+            }
+        }
+        log.info("♻️ FCM dead-letter {}건 재발송 시작 (만료로 제외 {}건)", futures.size(), lines.size() - futures.size());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            try {
+                Files.deleteIfExists(replaying);
+            } catch (IOException ex) {
+                log.warn("⚠️ {} 삭제 실패", replaying, ex);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        scheduler.shutdownNow();
+        // 타이머에서 기다리던 재시도는 다음 기동 때 보내도록 기록
+        for (Delivery delivery : new ArrayList<>(waiting.keySet())) {
+            if (waiting.remove(delivery) != null) {
+                deadLetter(delivery);
+            }
+        }
+    }
+
+    private static final class Delivery {
+        private final PushMessage message;
+        private final long firstAttemptAtMillis;
+        private final CompletableFuture<PushResult> future = new CompletableFuture<>();
+        private volatile int attempts;
+        private volatile String lastErrorCode;
+
+        private Delivery(PushMessage message, long firstAttemptAtMillis) {
+            this.message = message;
+            this.firstAttemptAtMillis = firstAttemptAtMillis;
+        }
+    }
+}
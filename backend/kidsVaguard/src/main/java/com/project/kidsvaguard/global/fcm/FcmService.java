@@ -1,5 +1,9 @@
 package com.project.kidsvaguard.global.fcm;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * FCM 메시지 발송 기능을 정의하는 인터페이스
  */
@@ -14,7 +18,23 @@ public interface FcmService {
      */
     void sendMessageTo(String targetToken, String title, String body);
 
+    /**
+     * 알람 푸시를 발송 큐에 넣고 바로 돌아옵니다. 실제 발송은 FcmDispatcher 가 묶어서 처리합니다.
+     *
+     * @param alarmId 결과를 연결할 알람 ID (없으면 null)
+     * @return 발송 결과 (실패해도 예외 대신 PushResult.failure 로 완료)
+     */
+    CompletableFuture<PushResult> sendAlarm(Long alarmId, String targetToken, String title, String body);
+
+    /**
+     * 한 알람을 사용자의 모든 기기로 보냅니다. 기기별 메시지는 한 번의 전송 호출(멀티캐스트)에 실립니다.
+     *
+     * @param targetTokens 사용자의 기기 토큰 목록 (UserDeviceTokenCache)
+     * @return 토큰별 발송 결과 (토큰이 없으면 빈 목록)
+     */
+    CompletableFuture<List<PushResult>> sendAlarm(Long alarmId, Collection<String> targetTokens, String title, String body);
+
     // 필요에 따라 다른 FCM 관련 기능 메소드를 추가할 수 있습니다.
     // 예: 특정 주제(topic) 구독자 전체에게 메시지 보내기 등
     // void sendMessageToTopic(String topic, String title, String body);
-}
\ No newline at end of file
+}
@@ -1,57 +1,82 @@
 package com.project.kidsvaguard.global.fcm;
 
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
-import com.google.firebase.messaging.Notification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor // 생성자 주입 (필요시)
 public class FcmServiceImpl implements FcmService {
 
-    // FirebaseMessaging 인스턴스는 FirebaseApp 초기화 후 getInstance()로 얻어옴
-    // 별도 주입 없이 getInstance() 사용 가능
+    // 실제 발송은 FcmDispatcher 가 요청 스레드 밖에서 묶어서(sendEachAsync) 처리, 일시적 오류는 FcmRetryScheduler 가 재시도
+    private final FcmRetryScheduler fcmRetryScheduler;
+    private final FcmTokenPruner fcmTokenPruner;
 
     @Override
     public void sendMessageTo(String targetToken, String title, String body) {
+        sendAlarm(null, targetToken, title, body);
+    }
+
+    @Override
+    public CompletableFuture<PushResult> sendAlarm(Long alarmId, String targetToken, String title, String body) {
+        PushMessage message = new PushMessage(alarmId, targetToken, title, body);
         if (targetToken == null || targetToken.isBlank()) {
             log.warn("⚠️ FCM Target token is missing or empty. Cannot send notification.");
-            return;
+            return CompletableFuture.completedFuture(PushResult.failure(message, "MISSING_TOKEN", "FCM 토큰이 없습니다."));
+        }
+        if (fcmTokenPruner.isKnownDead(targetToken)) {
+            log.debug("FCM 이 최근 거절한 토큰이라 발송을 건너뜁니다 (alarm {}): [{}]", alarmId, maskToken(targetToken));
+            return CompletableFuture.completedFuture(PushResult.failure(message, "UNREGISTERED", "최근 FCM 이 거절한 토큰입니다."));
         }
 
-        // 알림(Notification) 객체 생성
-        Notification notification = Notification.builder()
-                .setTitle(title)
-                .setBody(body)
-                .build();
-
-        // 메시지(Message) 객체 생성
-        Message message = Message.builder()
-                .setNotification(notification) // 사용자에게 보여질 알림 설정
-                .setToken(targetToken)        // 특정 기기로 보낼 때 사용
-                // .putData("alarmId", "123") // 앱이 백그라운드/포그라운드에서 추가 데이터 처리 필요 시 사용
-                // .putData("type", "CRYING_ALERT")
-                .build();
+        return fcmRetryScheduler.deliver(message).whenComplete((result, error) -> logResult(result));
+    }
 
-        try {
-            // FirebaseMessaging 인스턴스를 통해 메시지 발송 요청
-            String response = FirebaseMessaging.getInstance().send(message);
-            log.info("✅ Successfully sent FCM message to token [{}]: {}", maskToken(targetToken), response);
-        } catch (FirebaseMessagingException e) {
-            log.error("🔥 Failed to send FCM message to token [{}]: {}", maskToken(targetToken), e.getMessage());
-            // 에러 코드에 따른 처리 가능 (예: UNREGISTERED 이면 DB에서 해당 토큰 삭제)
-            if ("UNREGISTERED".equals(e.getErrorCode()) || "INVALID_ARGUMENT".equals(e.getErrorCode())) {
-                log.warn("   -> FCM token seems invalid or unregistered. Consider removing it for the user.");
-                // TODO: DB에서 해당 사용자의 fcmToken을 삭제하거나 비활성화하는 로직 추가 필요
+    @Override
+    public CompletableFuture<List<PushResult>> sendAlarm(Long alarmId, Collection<String> targetTokens, String title, String body) {
+        List<CompletableFuture<PushResult>> futures = new ArrayList<>(targetTokens.size());
+        List<PushMessage> messages = new ArrayList<>(targetTokens.size());
+        for (String token : targetTokens) {
+            if (token == null || token.isBlank()) {
+                continue;
             }
-            // 다른 종류의 오류(네트워크 문제 등)는 재시도 로직을 고려해 볼 수 있음
-        } catch (Exception e) {
-            // Firebase 외 다른 예외 발생 가능성
-             log.error("🔥 Unexpected error during FCM message sending to token [{}]", maskToken(targetToken), e);
+            PushMessage message = new PushMessage(alarmId, token, title, body);
+            if (fcmTokenPruner.isKnownDead(token)) {
+                futures.add(CompletableFuture.completedFuture(PushResult.failure(message, "UNREGISTERED", "최근 FCM 이 거절한 토큰입니다.")));
+            } else {
+                messages.add(message);
+            }
+        }
+        if (futures.isEmpty() && messages.isEmpty()) {
+            log.warn("⚠️ 알람 {} 을 받을 FCM 토큰이 없습니다.", alarmId);
+        }
+        if (!messages.isEmpty()) {
+            for (CompletableFuture<PushResult> future : fcmRetryScheduler.deliverAll(messages)) {
+                futures.add(future.whenComplete((result, error) -> logResult(result)));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private void logResult(PushResult result) {
+        fcmTokenPruner.onResult(result);
+        String token = maskToken(result.getMessage().getToken());
+        if (result.isSuccess()) {
+            log.info("✅ Successfully sent FCM message (alarm {}) to token [{}]: {}", result.getAlarmId(), token, result.getMessageId());
+            return;
+        }
+        log.error("🔥 Failed to send FCM message (alarm {}) to token [{}]: {} {}", result.getAlarmId(), token,
+                result.getErrorCode(), result.getErrorMessage());
+        // UNREGISTERED/INVALID_ARGUMENT 토큰은 FcmTokenPruner 가 네거티브 캐시에 넣고 User.fcmToken 을 일괄 해제
+        if ("UNREGISTERED".equals(result.getErrorCode()) || "INVALID_ARGUMENT".equals(result.getErrorCode())) {
+            log.warn("   -> FCM token seems invalid or unregistered. It will be removed for the user.");
         }
     }
 
@@ -62,4 +87,4 @@ public class FcmServiceImpl implements FcmService {
         }
         return token.substring(0, 5) + "..." + token.substring(token.length() - 5);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+package com.project.kidsvaguard.global.fcm;
+
+import com.project.kidsvaguard.domain.user.repository.UserDeviceRepository;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FCM 이 UNREGISTERED/INVALID_ARGUMENT 로 거절한 토큰 정리.
+ *
+ *  - 거절된 토큰은 네거티브 캐시에 넣어, 이후 같은 토큰으로 가는 푸시는 FCM 호출 없이 바로 실패 처리합니다.
+ *  - User.fcmToken 해제와 user_device 행 삭제는 요청/발송 스레드가 아니라 정리 스레드가 flush-interval 마다 모아서 UPDATE ... IN (...) 한 번으로 처리합니다.
+ *  - 사용자가 같은 토큰을 다시 등록하면(UserService.updateFcmToken) forget 으로 캐시에서 뺍니다.
+ *    forget 과 배치 해제(꺼내기 ~ 커밋)는 같은 락 안에서 일어나므로, 다시 등록된 토큰이 해제 배치에 섞여 지워지지 않습니다.
+ *    (updateFcmToken 은 DB 쓰기 전에 forget 을 부르므로 이 락과 행 잠금이 서로 기다리는 일은 없음)
+ * 하루 단위로 발송 수 대비 stale 토큰 비율을 집계해 날짜가 바뀔 때 로그로 남깁니다.
+ */
+@Component
+@Slf4j
+public class FcmTokenPruner {
+
+    private static final Set<String> DEAD_TOKEN_ERRORS = Set.of("UNREGISTERED", "INVALID_ARGUMENT");
+
+    private final UserRepository userRepository;
+    private final UserDeviceRepository userDeviceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long negativeTtlMillis;
+    private final int negativeMaxEntries;
+
+    // token -> 거절된 시각
+    private final ConcurrentHashMap<String, Long> deadTokens = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> pendingClear = new ConcurrentLinkedQueue<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter staleCounter;
+    private final Counter skippedCounter;
+    private final Counter clearedCounter;
+
+    // 오늘 집계 (날짜가 바뀌면 로그 후 초기화)
+    private volatile LocalDate day = LocalDate.now();
+    private final AtomicLong daySends = new AtomicLong();
+    private final AtomicLong dayStale = new AtomicLong();
+
+    public FcmTokenPruner(UserRepository userRepository,
+                          UserDeviceRepository userDeviceRepository,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${push.token-prune.flush-interval-seconds:5}") long flushIntervalSeconds,
+                          @Value("${push.token-prune.batch-size:500}") int batchSize,
+                          @Value("${push.token-prune.negative-cache-ttl-hours:24}") long negativeTtlHours,
+                          @Value("${push.token-prune.negative-cache-max-entries:100000}") int negativeMaxEntries) {
+        this.userRepository = userRepository;
+        this.userDeviceRepository = userDeviceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.negativeTtlMillis = TimeUnit.HOURS.toMillis(negativeTtlHours);
+        this.negativeMaxEntries = negativeMaxEntries;
+
+        this.staleCounter = meterRegistry.counter("fcm.tokens", "result", "stale");
+        this.skippedCounter = meterRegistry.counter("fcm.tokens", "result", "skipped");
+        this.clearedCounter = meterRegistry.counter("fcm.tokens", "result", "cleared");
+        Gauge.builder("fcm.tokens.negative.cache.size", deadTokens, Map::size).register(meterRegistry);
+        Gauge.builder("fcm.tokens.stale.ratio.today", this, FcmTokenPruner::todayStaleRatio)
+                .description("오늘 발송 결과 중 stale 토큰(UNREGISTERED/INVALID_ARGUMENT) 비율")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fcm-token-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::rollDay, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 최근에 FCM 이 거절한 토큰이면 true (이 토큰으로는 보내지 않음).
+     */
+    public boolean isKnownDead(String token) {
+        Long markedAt = deadTokens.get(token);
+        if (markedAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - markedAt > negativeTtlMillis) {
+            deadTokens.remove(token, markedAt);
+            return false;
+        }
+        skippedCounter.increment();
+        return true;
+    }
+
+    /**
+     * FCM 발송 최종 결과를 받아 stale 토큰이면 캐시에 넣고 DB 해제 대상으로 올립니다.
+     */
+    public void onResult(PushResult result) {
+        daySends.incrementAndGet();
+        if (result.isSuccess() || !DEAD_TOKEN_ERRORS.contains(result.getErrorCode())) {
+            return;
+        }
+        String token = result.getMessage().getToken();
+        dayStale.incrementAndGet();
+        staleCounter.increment();
+        if (deadTokens.size() >= negativeMaxEntries) {
+            pendingClear.add(token); // 캐시는 가득 찼어도 DB 정리는 함
+            return;
+        }
+        if (deadTokens.put(token, System.currentTimeMillis()) == null) {
+            pendingClear.add(token);
+        }
+    }
+
+    public void forget(String token) {
+        if (token != null) {
+            synchronized (flushLock) { // 진행 중인 해제 배치가 커밋될 때까지 기다렸다가 취소
+                deadTokens.remove(token);
+                pendingClear.remove(token); // 아직 DB 해제 전이면 취소
+            }
+        }
+    }
+
+    void flush() {
+        while (!pendingClear.isEmpty()) {
+            if (!flushBatch()) {
+                return;
+            }
+        }
+        long now = System.currentTimeMillis();
+        deadTokens.values().removeIf(markedAt -> now - markedAt > negativeTtlMillis);
+    }
+
+    // 한 배치를 꺼내 한 트랜잭션으로 해제, 실패하면 꺼낸 토큰을 큐에 되돌려 다음 주기에 다시 처리
+    private boolean flushBatch() {
+        synchronized (flushLock) {
+            List<String> tokens = new ArrayList<>(batchSize);
+            String token;
+            while (tokens.size() < batchSize && (token = pendingClear.poll()) != null) {
+                tokens.add(token);
+            }
+            if (tokens.isEmpty()) {
+                return true;
+            }
+            try {
+                int[] result = transactionTemplate.execute(status -> new int[]{
+                        userRepository.clearFcmTokens(tokens),
+                        userDeviceRepository.deleteByFcmTokenIn(tokens)});
+                clearedCounter.increment(result[0] + result[1]);
+                log.info("🧹 만료된 FCM 토큰 {}개 확인, 사용자 {}명의 토큰 해제, 기기 {}대 삭제", tokens.size(), result[0], result[1]);
+                return true;
+            } catch (RuntimeException e) {
+                pendingClear.addAll(tokens);
+                log.warn("⚠️ 만료된 FCM 토큰 해제 실패 ({}개는 다음 주기에 다시 처리)", tokens.size(), e);
+                return false;
+            }
+        }
+    }
+
+    void rollDay() {
+        LocalDate today = LocalDate.now();
+        if (today.equals(day)) {
+            return;
+        }
+        long sends = daySends.getAndSet(0);
+        long stale = dayStale.getAndSet(0);
+        log.info("📊 {} FCM stale 토큰: {}/{}건 ({}%)", day, stale, sends,
+                sends == 0 ? 0 : String.format("%.2f", stale * 100.0 / sends));
+        day = today;
+    }
+
+    private double todayStaleRatio() {
+        long sends = daySends.get();
+        return sends == 0 ? 0 : (double) dayStale.get() / sends;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+}
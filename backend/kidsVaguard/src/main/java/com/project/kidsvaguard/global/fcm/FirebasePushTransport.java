@@ -0,0 +1,94 @@
+package com.project.kidsvaguard.global.fcm;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Firebase Admin SDK 의 sendEachAsync 로 메시지 묶음을 보내는 기본 전송 구현.
+ */
+@Component
+@ConditionalOnProperty(name = "push.transport", havingValue = "firebase", matchIfMissing = true)
+public class FirebasePushTransport implements PushTransport {
+
+    @Override
+    public CompletableFuture<List<PushResult>> send(List<PushMessage> messages) {
+        List<Message> fcmMessages = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            fcmMessages.add(toFcmMessage(message));
+        }
+
+        CompletableFuture<List<PushResult>> result = new CompletableFuture<>();
+        ApiFuture<BatchResponse> future;
+        try {
+            future = FirebaseMessaging.getInstance().sendEachAsync(fcmMessages);
+        } catch (RuntimeException e) {
+            result.complete(failAll(messages, e));
+            return result;
+        }
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(BatchResponse response) {
+                List<SendResponse> responses = response.getResponses();
+                List<PushResult> results = new ArrayList<>(messages.size());
+                for (int i = 0; i < messages.size(); i++) {
+                    SendResponse r = responses.get(i);
+                    results.add(r.isSuccessful()
+                            ? PushResult.success(messages.get(i), r.getMessageId())
+                            : failure(messages.get(i), r.getException()));
+                }
+                result.complete(results);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.complete(failAll(messages, t));
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private static Message toFcmMessage(PushMessage message) {
+        Message.Builder builder = Message.builder()
+                .setNotification(Notification.builder()
+                        .setTitle(message.getTitle())
+                        .setBody(message.getBody())
+                        .build())
+                .setToken(message.getToken());
+        if (message.getAlarmId() != null) {
+            builder.putData("alarmId", String.valueOf(message.getAlarmId()));
+        }
+        return builder.build();
+    }
+
+    private static List<PushResult> failAll(List<PushMessage> messages, Throwable t) {
+        List<PushResult> results = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            results.add(failure(message, t));
+        }
+        return results;
+    }
+
+    // 네트워크/서버 오류도 SDK 가 FirebaseMessagingException 으로 돌려주므로, 그 밖의 예외는 재시도해도 소용없는 설정 문제로 봄
+    static PushResult failure(PushMessage message, Throwable t) {
+        if (t instanceof FirebaseMessagingException e) {
+            String code = e.getMessagingErrorCode() != null ? e.getMessagingErrorCode().name()
+                    : e.getErrorCode() != null ? e.getErrorCode().name() : "UNKNOWN";
+            return PushResult.failure(message, code, t.getMessage());
+        }
+        return PushResult.failure(message, PushResult.TRANSPORT_MISCONFIGURED, t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+}
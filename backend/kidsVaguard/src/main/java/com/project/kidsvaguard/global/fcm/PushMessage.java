@@ -0,0 +1,15 @@
+package com.project.kidsvaguard.global.fcm;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 발송할 푸시 한 건 (alarmId 는 결과를 알람과 연결하기 위한 값, 없으면 null)
+@Getter
+@AllArgsConstructor
+public class PushMessage {
+
+    private final Long alarmId;
+    private final String token;
+    private final String title;
+    private final String body;
+}
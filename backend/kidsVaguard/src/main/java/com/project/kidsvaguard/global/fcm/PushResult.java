@@ -0,0 +1,44 @@
+package com.project.kidsvaguard.global.fcm;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+// 푸시 한 건의 발송 결과. 실패 시 errorCode 는 FCM MessagingErrorCode/ErrorCode 이름 (예: UNREGISTERED, UNAVAILABLE)
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PushResult {
+
+    public static final String QUEUE_FULL = "QUEUE_FULL";
+    // FCM 응답이 아닌 예외 (FirebaseApp 미초기화 등 서버 설정 문제)
+    public static final String TRANSPORT_MISCONFIGURED = "TRANSPORT_MISCONFIGURED";
+
+    // 다시 보내도 결과가 같은 오류 (토큰/메시지/인증/설정 문제). 나머지(UNAVAILABLE, INTERNAL, QUOTA_EXCEEDED, 네트워크 오류 등)는 재시도
+    private static final Set<String> PERMANENT_ERRORS = Set.of(
+            "UNREGISTERED", "INVALID_ARGUMENT", "SENDER_ID_MISMATCH", "THIRD_PARTY_AUTH_ERROR",
+            "PERMISSION_DENIED", "UNAUTHENTICATED", "NOT_FOUND", "MISSING_TOKEN", TRANSPORT_MISCONFIGURED);
+
+    private final PushMessage message;
+    private final boolean success;
+    private final String messageId;
+    private final String errorCode;
+    private final String errorMessage;
+
+    public static PushResult success(PushMessage message, String messageId) {
+        return new PushResult(message, true, messageId, null, null);
+    }
+
+    public static PushResult failure(PushMessage message, String errorCode, String errorMessage) {
+        return new PushResult(message, false, null, errorCode, errorMessage);
+    }
+
+    public boolean isRetryable() {
+        return !success && !PERMANENT_ERRORS.contains(errorCode);
+    }
+
+    public Long getAlarmId() {
+        return message.getAlarmId();
+    }
+}
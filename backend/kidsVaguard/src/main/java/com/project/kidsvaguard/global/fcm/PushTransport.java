@@ -0,0 +1,21 @@
+package com.project.kidsvaguard.global.fcm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 푸시를 실제로 내보내는 부분. FcmDispatcher 가 모은 메시지 묶음을 한 번에 넘깁니다.
+ * 기본 구현은 FirebasePushTransport 이며, 부하 테스트에서는 네트워크 없는 구현으로 바꿔 끼울 수 있습니다.
+ */
+public interface PushTransport {
+
+    /**
+     * @return messages 와 같은 순서의 결과 목록. 묶음 전체가 실패해도 예외 대신 항목별 failure 로 완료합니다.
+     */
+    CompletableFuture<List<PushResult>> send(List<PushMessage> messages);
+
+    // 한 번에 보낼 수 있는 최대 메시지 수 (FCM sendEach 제한 500)
+    default int maxBatchSize() {
+        return 500;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.kidsvaguard.global.fcm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 네트워크 없이 FCM 을 흉내 내는 전송 구현 (push.transport=stub).
+ * Firebase 키 없이 로컬/CI 에서 알림 → 저장 → 푸시 경로를 돌리거나 처리량/지연을 잴 때 사용합니다.
+ *
+ *  - 묶음 하나마다 latency-millis ± jitter-millis 후에 결과를 돌려줌 (sendEachAsync 한 번의 왕복)
+ *  - error-rate 비율의 메시지는 UNAVAILABLE (재시도 대상)
+ *  - unregistered-prefix 로 시작하는 토큰과 unregistered-rate 비율의 메시지는 UNREGISTERED (토큰 정리 대상)
+ */
+@Component
+@ConditionalOnProperty(name = "push.transport", havingValue = "stub")
+@Slf4j
+public class StubPushTransport implements PushTransport {
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double unregisteredRate;
+    private final String unregisteredPrefix;
+
+    public StubPushTransport(@Value("${push.stub.latency-millis:20}") long latencyMillis,
+                             @Value("${push.stub.jitter-millis:10}") long jitterMillis,
+                             @Value("${push.stub.error-rate:0.0}") double errorRate,
+                             @Value("${push.stub.unregistered-rate:0.0}") double unregisteredRate,
+                             @Value("${push.stub.unregistered-prefix:unregistered-}") String unregisteredPrefix) {
+        this.latencyMillis = Math.max(0, latencyMillis);
+        this.jitterMillis = Math.max(0, Math.min(jitterMillis, this.latencyMillis));
+        this.errorRate = errorRate;
+        this.unregisteredRate = unregisteredRate;
+        this.unregisteredPrefix = unregisteredPrefix;
+        log.warn("🧪 FCM 스텁 전송 사용 중 (실제 푸시는 나가지 않음): latency={}±{}ms, error-rate={}, unregistered-rate={}",
+                latencyMillis, jitterMillis, errorRate, unregisteredRate);
+    }
+
+    @Override
+    public CompletableFuture<List<PushResult>> send(List<PushMessage> messages) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (jitterMillis == 0 ? 0 : random.nextLong(-jitterMillis, jitterMillis + 1));
+        List<PushResult> results = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            results.add(resultOf(message, random));
+        }
+        if (delay == 0) {
+            return CompletableFuture.completedFuture(results);
+        }
+        return CompletableFuture.supplyAsync(() -> results, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+    }
+
+    private PushResult resultOf(PushMessage message, ThreadLocalRandom random) {
+        String token = message.getToken();
+        if ((token != null && token.startsWith(unregisteredPrefix)) || random.nextDouble() < unregisteredRate) {
+            return PushResult.failure(message, "UNREGISTERED", "Requested entity was not found. (stub)");
+        }
+        if (random.nextDouble() < errorRate) {
+            return PushResult.failure(message, "UNAVAILABLE", "The service is currently unavailable. (stub)");
+        }
+        return PushResult.success(message, "projects/stub/messages/" + UUID.randomUUID());
+    }
+}
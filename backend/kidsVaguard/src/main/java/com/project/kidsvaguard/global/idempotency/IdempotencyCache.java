@@ -0,0 +1,72 @@
+package com.project.kidsvaguard.global.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 멱등 키 -> 최초 응답 을 담는 크기 제한 LRU.
+ *
+ * 하나의 LinkedHashMap(access-order) 에 락을 걸면 재시도가 몰릴 때 모든 요청이 같은 락에서 줄을 서므로,
+ * 키의 hashCode 로 세그먼트를 나눠 세그먼트마다 따로 잠급니다.
+ * 조회(hit) 경로는 키 해시 계산 + 세그먼트 get 뿐이라 새 객체를 만들지 않습니다.
+ * (요청마다 헤더에서 새 키 문자열이 만들어지므로 해시는 조회마다 한 번 계산됨, 같은 문자열 안에서만 재사용)
+ */
+public class IdempotencyCache<V> {
+
+    private final Segment<V>[] segments;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyCache(int maxEntries, int segmentCount) {
+        int count = Integer.highestOneBit(Math.max(1, segmentCount));
+        int perSegment = Math.max(1, maxEntries / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+        this.mask = count - 1;
+    }
+
+    public V get(String key) {
+        Segment<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public void put(String key, V value) {
+        Segment<V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Segment<V> extends LinkedHashMap<String, V> {
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(capacity * 4 / 3 + 1, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.kidsvaguard.global.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.sql.Timestamp;
+
+/**
+ * 처리가 끝난 멱등 키와 그때의 응답.
+ * 서버가 재시작되거나 LRU 에서 밀려난 뒤에 재시도가 와도 같은 응답을 돌려주기 위해 저장합니다.
+ * 키 원문 대신 SHA-256(scope:key) 만 저장해 행 크기를 고정합니다.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_created_at", columnList = "createdAt")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String keyHash;
+
+    @Column(nullable = false)
+    private int statusCode;
+
+    @Column(nullable = false, length = 1000)
+    private String responseBody; // JSON
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp createdAt;
+
+    // 항상 새로 INSERT 되는 레코드이므로 save() 가 merge(SELECT) 를 거치지 않도록 함
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord(String keyHash, int statusCode, String responseBody) {
+        this.keyHash = keyHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.createdAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    @Override
+    public String getId() {
+        return keyHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+}
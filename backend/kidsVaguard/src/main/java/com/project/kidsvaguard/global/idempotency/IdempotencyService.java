@@ -0,0 +1,209 @@
+package com.project.kidsvaguard.global.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * AI 서버 재시도로 같은 알림이 두 번 저장/발송되지 않도록 하는 멱등 처리.
+ *
+ * 요청의 Idempotency-Key(없으면 이벤트 내용에서 만든 키) 로
+ *  1) 메모리 LRU 에 최초 응답이 있으면 그대로 돌려주고 (JPA/FCM 미접근, 수신 한도도 쓰지 않음)
+ *  2) 없으면 admission(알림 수신 한도)을 확인해 초과면 여기서 429 로 끝내고 (DB 미접근)
+ *  3) idempotency_key 테이블을 확인한 뒤
+ *  4) 처음 보는 키면 실제 처리를 하고 2xx 응답을 LRU + 테이블에 기록합니다.
+ * 같은 키가 아직 처리 중이면 409 를 돌려주어 재시도가 원 요청과 겹쳐 실행되지 않게 합니다.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    public enum Scope {
+        FALL,
+        OVERCROWD
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Map<Scope, IdempotencyCache<ResponseEntity<Map<String, Object>>>> caches = new EnumMap<>(Scope.class);
+    private final ConcurrentHashMap<String, Boolean> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService purger;
+
+    private final Counter memoryHits;
+    private final Counter dbHits;
+    private final Counter misses;
+    private final Counter conflicts;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.cache.max-entries:10000}") int maxEntries,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        for (Scope scope : Scope.values()) {
+            caches.put(scope, new IdempotencyCache<>(maxEntries, 16));
+        }
+        this.memoryHits = meterRegistry.counter("idempotency.lookups", "result", "memory_hit");
+        this.dbHits = meterRegistry.counter("idempotency.lookups", "result", "db_hit");
+        this.misses = meterRegistry.counter("idempotency.lookups", "result", "miss");
+        this.conflicts = meterRegistry.counter("idempotency.lookups", "result", "in_flight");
+
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-purger");
+            t.setDaemon(true);
+            return t;
+        });
+        long ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.purger.scheduleWithFixedDelay(() -> purge(ttlMillis), 1, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * key 가 null 이면 멱등 처리 없이 admission 후 action 을 그대로 실행합니다.
+     *
+     * @param admission 메모리 LRU 에 없는 요청만, DB 를 보기 전에 실행할 확인 (알림 수신 한도, 초과면 예외)
+     */
+    public ResponseEntity<Map<String, Object>> execute(Scope scope, String key, Runnable admission,
+                                                       Supplier<ResponseEntity<Map<String, Object>>> action) {
+        if (key == null) {
+            admission.run();
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " 는 " + MAX_KEY_LENGTH + "자 이하여야 합니다.");
+        }
+
+        // 1. 메모리 LRU (재시도 폭주 시 대부분 여기서 끝남)
+        IdempotencyCache<ResponseEntity<Map<String, Object>>> cache = caches.get(scope);
+        ResponseEntity<Map<String, Object>> cached = cache.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        // 2. 수신 한도 (서로 다른 이벤트로 폭주해도 JPA 까지 가지 않음)
+        admission.run();
+
+        String keyHash = hash(scope, key);
+        if (inFlight.putIfAbsent(keyHash, Boolean.TRUE) != null) {
+            conflicts.increment();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 " + HEADER + " 요청이 처리 중입니다.");
+        }
+        try {
+            // 3. DB (재시작/LRU 밀려남 이후의 재시도)
+            Optional<ResponseEntity<Map<String, Object>>> stored = load(keyHash);
+            if (stored.isPresent()) {
+                dbHits.increment();
+                cache.put(key, stored.get());
+                return stored.get();
+            }
+
+            // 4. 최초 요청 -> 실제 처리
+            misses.increment();
+            ResponseEntity<Map<String, Object>> response = action.get();
+            if (response.getStatusCode().is2xxSuccessful()) {
+                remember(scope, key, keyHash, response);
+            }
+            return response;
+        } finally {
+            inFlight.remove(keyHash);
+        }
+    }
+
+    /**
+     * Idempotency-Key 헤더가 없을 때 이벤트 내용으로 키를 만듭니다.
+     * AI 서버는 감지 시각(timeStr)을 재시도에도 그대로 보내므로, timeStr 이 없으면 만들지 않습니다.
+     */
+    public static String deriveKey(String headerKey, String userId, String cameraId, String timeStr, String detail) {
+        if (headerKey != null && !headerKey.isBlank()) {
+            return headerKey;
+        }
+        if (userId == null || timeStr == null || timeStr.isBlank()) {
+            return null;
+        }
+        return "derived:" + userId + "|" + (cameraId == null ? "" : cameraId) + "|" + timeStr + "|" + (detail == null ? "" : detail);
+    }
+
+    private void remember(Scope scope, String key, String keyHash, ResponseEntity<Map<String, Object>> response) {
+        ResponseEntity<Map<String, Object>> replay = ResponseEntity.status(response.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+        caches.get(scope).put(key, replay);
+        try {
+            String body = objectMapper.writeValueAsString(response.getBody());
+            repository.save(new IdempotencyRecord(keyHash, response.getStatusCode().value(), body));
+        } catch (JsonProcessingException | DataIntegrityViolationException e) {
+            // 메모리에는 남아 있으므로 치명적이지 않음
+            log.warn("⚠️ 멱등 키 저장 실패 (메모리 캐시만 사용): {}", e.getMessage());
+        }
+    }
+
+    private Optional<ResponseEntity<Map<String, Object>>> load(String keyHash) {
+        return repository.findById(keyHash).map(record -> {
+            Map<String, Object> body;
+            try {
+                body = objectMapper.readValue(record.getResponseBody(), new TypeReference<Map<String, Object>>() {});
+            } catch (JsonProcessingException e) {
+                body = Map.of("status", "success");
+            }
+            return ResponseEntity.status(record.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        });
+    }
+
+    private void purge(long ttlMillis) {
+        try {
+            int deleted = repository.deleteOlderThan(new Timestamp(System.currentTimeMillis() - ttlMillis));
+            if (deleted > 0) {
+                log.info("🧹 만료된 멱등 키 {}건 삭제", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 만료된 멱등 키 삭제 실패", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    private static String hash(Scope scope, String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
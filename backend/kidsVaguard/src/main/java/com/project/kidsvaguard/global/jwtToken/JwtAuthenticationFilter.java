@@ -27,7 +27,8 @@ public class JwtAuthenticationFilter extends GenericFilterBean {
         String token = resolveToken(httpRequest);
 
         try {
-            if (token != null && jwtTokenProvider.validateToken(token)) {
+            if (token != null) {
+                // 검증 + Claims 추출을 한 번에 (실패 시 JwtException)
                 Authentication auth = jwtTokenProvider.getAuthentication(token);
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
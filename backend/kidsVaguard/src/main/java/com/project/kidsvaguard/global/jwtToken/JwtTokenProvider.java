@@ -12,11 +12,14 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.security.Key;
 // import java.util.Arrays; // 미사용 import 제거
 // import java.util.Collection; // 미사용 import 제거
+import java.sql.Timestamp;
 import java.util.Date;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,6 +27,8 @@ import java.util.stream.Collectors;
 public class JwtTokenProvider {
 
     private final Key key;
+    private final JwtParser jwtParser; // 스레드 안전, 요청마다 parserBuilder() 로 새로 만들지 않음
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailService userDetailService;
     private final RefreshTokenRepository refreshTokenRepository; // Repository 주입
 
@@ -37,9 +42,12 @@ public class JwtTokenProvider {
 
     public JwtTokenProvider(@Value("${jwt.secret}") String secretKey,
                             UserDetailService userDetailService,
-                            RefreshTokenRepository refreshTokenRepository) { // 생성자에 Repository 추가
+                            RefreshTokenRepository refreshTokenRepository, // 생성자에 Repository 추가
+                            VerifiedTokenCache verifiedTokenCache) {
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailService = userDetailService;
         this.refreshTokenRepository = refreshTokenRepository; // Repository 할당
     }
@@ -64,11 +72,8 @@ public class JwtTokenProvider {
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
 
-        // Refresh Token은 DB 검증에 의존하므로, Claim 최소화 (만료 시간만 설정)
-        String refreshToken = Jwts.builder()
-                .setExpiration(refreshTokenExpiresIn)
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        // Refresh Token은 DB 검증에 의존하므로, Claim 최소화 (만료 시간 + 고유 ID)
+        String refreshToken = createRefreshToken(refreshTokenExpiresIn);
 
         return JwtToken.builder()
                 .grantType("Bearer")
@@ -78,9 +83,10 @@ public class JwtTokenProvider {
     }
 
     // AccessToken -> Authentication (엑세스 토큰으로 인증)
+    // 서명/만료 검증과 Claims 추출을 한 번에 수행 (검증 실패 시 JwtException)
     public Authentication getAuthentication(String accessToken) {
-        Claims claims = parseClaims(accessToken);
-        log.info("토큰에서 추출된 subject(userId): {}", claims.getSubject());
+        Claims claims = verifyAccessToken(accessToken);
+        log.debug("토큰에서 추출된 subject(userId): {}", claims.getSubject());
         if (claims.get("auth") == null) {
             // SecurityContextHolder에 저장된 Authentication 객체가 없거나 권한 정보가 없는 경우 예외 발생
             // 실제로는 UserDetailsService에서 loadUserByUsername 호출 시 UsernameNotFoundException 등이 발생할 수 있음
@@ -88,83 +94,105 @@ public class JwtTokenProvider {
         }
 
         String userId = claims.getSubject();
-        // UserDetailService를 통해 UserDetails 객체를 가져옴
-        UserDetails userDetails = userDetailService.loadUserByUsername(userId);
-        log.info("로드된 사용자 정보: {}", userDetails.getUsername());
+        // UserDetailService를 통해 UserDetails 객체를 가져옴 (UserPrincipalCache 경유, TTL 동안 DB 조회 생략)
+        UserDetails userDetails = userDetailService.loadCachedUserByUsername(userId);
+        log.debug("로드된 사용자 정보: {}", userDetails.getUsername());
         // UserDetails 객체와 권한 정보를 기반으로 Authentication 객체 생성
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
     // === Refresh Token을 사용하여 새로운 Access Token 발급 (DB 검증 방식) ===
+    @Transactional
     public JwtToken refreshAccessToken(String refreshToken) {
         // 1. Refresh Token 유효성 검증
-        // 만약 여기서도 검증하려면:
         if (!validateToken(refreshToken)) {
             throw new JwtException("유효하지 않은 Refresh Token");
         }
 
-        // 2. DB에서 Refresh Token 조회 및 존재 유무 확인
-        RefreshToken foundRefreshToken = refreshTokenRepository.findByRefreshToken(refreshToken)
+        // 2. DB에서 Refresh Token 조회 (해시 unique 인덱스) 및 연결된 User 정보 가져오기
+        String tokenHash = RefreshToken.hash(refreshToken);
+        RefreshToken foundRefreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> new JwtException("Refresh Token을 DB에서 찾을 수 없습니다."));
-
-        // 3. Refresh Token에 연결된 User 정보 가져오기
         User user = foundRefreshToken.getUser();
-        if (user == null) {
-            log.error("Refresh Token ID {} 에 연결된 사용자가 없습니다.", foundRefreshToken.getId());
-            throw new JwtException("Refresh Token에 연결된 사용자 정보가 없습니다.");
+
+        // 3. 새로운 Access Token / Refresh Token 생성
+        long now = System.currentTimeMillis();
+        String newAccessToken = createAccessToken(user, new Date(now + accessTokenValidityInMilliseconds));
+        Date newRefreshTokenExpiresIn = new Date(now + refreshTokenValidityInMilliseconds);
+        String newRefreshTokenString = createRefreshToken(newRefreshTokenExpiresIn);
+
+        // 4. 기존 Refresh Token 을 새 토큰으로 교체 (Rotation, UPDATE 1번)
+        //    다른 요청이 먼저 같은 토큰으로 재발급했다면 0건 -> 재사용된 토큰으로 보고 거부
+        int rotated = refreshTokenRepository.rotate(tokenHash, RefreshToken.hash(newRefreshTokenString),
+                new Timestamp(now), new Timestamp(newRefreshTokenExpiresIn.getTime()));
+        if (rotated == 0) {
+            throw new JwtException("이미 사용되었거나 만료된 Refresh Token입니다.");
         }
-        // 4. 기존 Refresh Token 삭제 (Rotation)
-        refreshTokenRepository.delete(foundRefreshToken);
 
-        // 5. User 정보를 기반으로 Authentication 객체 생성
-        Authentication authentication = new UsernamePasswordAuthenticationToken(
-                user,
-                "",
-                user.getAuthorities()
-        );
+        // 5. 결과 반환: 새로운 Access Token과 새로운 Refresh Token
+        return JwtToken.builder()
+                .grantType("Bearer")
+                .accessToken(newAccessToken)
+                .refreshToken(newRefreshTokenString) // 새로운 Refresh Token 반환
+                .build();
+    }
 
-        // 6. 새로운 Access Token 생성
-        String authorities = authentication.getAuthorities().stream()
-                .map(auth -> auth.getAuthority())
-                .collect(Collectors.joining(","));
+    /**
+     * 로그인 시 발급한 Refresh Token 을 저장합니다. 사용자당 1개이며 기존 토큰은 같은 문장에서 교체됩니다.
+     */
+    @Transactional
+    public void saveRefreshToken(User user, String refreshToken) {
         long now = System.currentTimeMillis();
-        Date accessTokenExpiresIn = new Date(now + accessTokenValidityInMilliseconds);
+        refreshTokenRepository.upsert(user.getUserPk(), RefreshToken.hash(refreshToken),
+                new Timestamp(now), new Timestamp(now + refreshTokenValidityInMilliseconds));
+    }
 
-        String newAccessToken = Jwts.builder()
+    private String createAccessToken(User user, Date expiresIn) {
+        String authorities = user.getAuthorities().stream()
+                .map(auth -> auth.getAuthority())
+                .collect(Collectors.joining(","));
+        return Jwts.builder()
                 .setSubject(user.getUserId())
                 .claim("auth", authorities)
-                .setExpiration(accessTokenExpiresIn)
+                .setExpiration(expiresIn)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
+    }
 
-        // 7. 새로운 Refresh Token 생성 및 DB 저장
-        Date newRefreshTokenExpiresIn = new Date(now + refreshTokenValidityInMilliseconds);
-        String newRefreshTokenString = Jwts.builder()
-                .setExpiration(newRefreshTokenExpiresIn)
+    // 같은 초에 발급된 토큰끼리 값(=해시)이 겹치지 않도록 jti 를 넣음
+    private String createRefreshToken(Date expiresIn) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setExpiration(expiresIn)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
-
-        RefreshToken newRefreshToken = RefreshToken.builder()
-                .refreshToken(newRefreshTokenString)
-                .user(user)
-                .build();
-        refreshTokenRepository.save(newRefreshToken);
-
-        // 8. 결과 반환: 새로운 Access Token과 새로운 Refresh Token
-        return JwtToken.builder()
-                .grantType("Bearer")
-                .accessToken(newAccessToken)
-                .refreshToken(newRefreshTokenString) // 새로운 Refresh Token 반환
-                .build();
     }
+
     // 토큰 유효성 검증
     public boolean validateToken(String token) {
+        verify(token);
+        return true;
+    }
+
+    /**
+     * Access Token 검증 후 Claims 반환. 최근에 검증한 토큰이면 VerifiedTokenCache 에서 바로 돌려주어
+     * 같은 토큰으로 반복되는 폴링 요청은 HMAC 검증/JSON 디코딩을 하지 않습니다.
+     */
+    public Claims verifyAccessToken(String token) {
+        if (token != null) {
+            Claims cached = verifiedTokenCache.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Claims claims = verify(token);
+        verifiedTokenCache.put(token, claims);
+        return claims;
+    }
+
+    private Claims verify(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (SecurityException | MalformedJwtException e) {
             log.error("잘못된 JWT 서명입니다.", e);
             // 실제 운영에서는 예외를 그대로 던지기보다, 커스텀 예외나 에러 코드를 사용하는 것이 좋습니다.
@@ -185,11 +213,7 @@ public class JwtTokenProvider {
     // 토큰에서 Claims 추출 (만료 시에도 추출 시도)
     private Claims parseClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             // 만료된 토큰에서도 Claim 정보가 필요할 수 있으므로 반환
             // (예: 만료되었지만 어떤 사용자의 토큰이었는지 확인)
@@ -4,12 +4,21 @@ import com.project.kidsvaguard.domain.user.entity.User;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Timestamp;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "refresh_token", indexes = { // 인덱스 추가
-        @Index(name = "idx_refresh_token", columnList = "refreshToken")
-})
+@Table(name = "refresh_token",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "refresh_token"),
+                @UniqueConstraint(name = "uk_refresh_token_user", columnNames = "user_pk") // 사용자당 1개 (upsert 기준)
+        },
+        indexes = {
+                @Index(name = "idx_refresh_token_expires_at", columnList = "expiresAt") // 만료 토큰 정리용
+        })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -20,9 +29,9 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // unique = true 제거, 길이 명시 (JWT 길이는 가변적이므로 넉넉하게)
-    @Column(nullable = false, length = 512)
-    private String refreshToken;
+    // 토큰 원문 대신 SHA-256 hex(64자)를 저장. 컬럼명은 기존 스키마 호환을 위해 refresh_token 유지
+    @Column(name = "refresh_token", nullable = false, length = 64)
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_pk", nullable = false)
@@ -31,8 +40,20 @@ public class RefreshToken {
     @Column(nullable = false, updatable = false) // 생성 시에만 설정되도록 updatable=false 추가
     private Timestamp createdAt;
 
+    // 기존 행(원문 저장 시절)은 null -> RefreshTokenSweeper 가 함께 정리
+    private Timestamp expiresAt;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = new Timestamp(System.currentTimeMillis());
     }
-}
\ No newline at end of file
+
+    public static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -2,18 +2,52 @@ package com.project.kidsvaguard.global.jwtToken;
 
 import com.project.kidsvaguard.domain.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByUser(User user); // 기존 메소드 (필요시 사용)
 
-    // Refresh Token 문자열 값으로 엔티티 조회 메소드 추가
-    Optional<RefreshToken> findByRefreshToken(String refreshToken);
+    // 토큰 해시(unique 인덱스)로 조회, 재발급에 필요한 사용자까지 한 번에 가져옴
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
 
     void deleteByUser(User user); // 로그아웃 등에서 사용
 
-    boolean existsByRefreshToken(String refreshToken); // 기존 메소드
+    /**
+     * 로그인 시 사용자의 Refresh Token 을 교체 (조회/삭제/저장 3번 대신 INSERT ... ON DUPLICATE KEY UPDATE 1번)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO refresh_token (user_pk, refresh_token, created_at, expires_at) " +
+            "VALUES (:userPk, :tokenHash, :createdAt, :expiresAt) " +
+            "ON DUPLICATE KEY UPDATE refresh_token = VALUES(refresh_token), created_at = VALUES(created_at), expires_at = VALUES(expires_at)",
+            nativeQuery = true)
+    int upsert(@Param("userPk") Long userPk,
+               @Param("tokenHash") String tokenHash,
+               @Param("createdAt") Timestamp createdAt,
+               @Param("expiresAt") Timestamp expiresAt);
 
-    void deleteByRefreshToken(String refreshToken); // Refresh Token Rotation 등에서 사용 가능
-}
\ No newline at end of file
+    /**
+     * Refresh Token Rotation. 기존 해시인 행만 새 해시로 바꾸므로, 같은 토큰으로 동시에 재발급해도 한 요청만 1 을 받습니다.
+     */
+    @Modifying
+    @Query(value = "UPDATE refresh_token SET refresh_token = :newHash, created_at = :createdAt, expires_at = :expiresAt " +
+            "WHERE refresh_token = :oldHash AND expires_at > :createdAt",
+            nativeQuery = true)
+    int rotate(@Param("oldHash") String oldHash,
+               @Param("newHash") String newHash,
+               @Param("createdAt") Timestamp createdAt,
+               @Param("expiresAt") Timestamp expiresAt);
+
+    // 만료(또는 만료 시각이 없는 예전 형식) 토큰을 최대 batchSize 개 삭제
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_token WHERE expires_at IS NULL OR expires_at < :now LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteExpired(@Param("now") Timestamp now, @Param("batchSize") int batchSize);
+}
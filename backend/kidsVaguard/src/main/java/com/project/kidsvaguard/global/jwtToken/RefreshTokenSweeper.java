@@ -0,0 +1,63 @@
+package com.project.kidsvaguard.global.jwtToken;
+
+import com.project.kidsvaguard.global.maintenance.ChunkedPurger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * 만료된 Refresh Token 을 주기적으로 삭제합니다.
+ * 한 번에 batch-size 행씩 나눠 지우고 청크 사이에 잠깐 쉽니다. (ChunkedPurger)
+ */
+@Component
+@Slf4j
+public class RefreshTokenSweeper {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Counter purged;
+    private final ChunkedPurger purger;
+
+    public RefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-token.sweep-interval-minutes:60}") long intervalMinutes,
+                               @Value("${jwt.refresh-token.sweep-batch-size:1000}") int batchSize,
+                               @Value("${jwt.refresh-token.sweep-pause-millis:50}") long pauseMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.purged = meterRegistry.counter("jwt.refresh_token.purged");
+        this.purger = new ChunkedPurger("refresh-token-sweeper", batchSize, pauseMillis);
+        this.purger.schedule(this::sweep, 1, intervalMinutes);
+    }
+
+    /**
+     * @return 삭제한 행 수
+     */
+    public int sweep() {
+        int total = 0;
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            total = purger.drain(batchSize -> {
+                int deleted = refreshTokenRepository.deleteExpired(now, batchSize);
+                purged.increment(deleted);
+                return deleted;
+            });
+            if (total > 0) {
+                log.info("🧹 만료된 Refresh Token {}건 삭제", total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 만료된 Refresh Token 삭제 실패", e);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdown();
+    }
+}
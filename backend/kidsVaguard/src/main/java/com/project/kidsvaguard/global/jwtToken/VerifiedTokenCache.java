@@ -0,0 +1,106 @@
+package com.project.kidsvaguard.global.jwtToken;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 서명 검증을 마친 Access Token -> Claims 캐시.
+ * 앱은 같은 토큰으로 알림 목록을 계속 폴링하므로, 한 번 검증한 토큰은 exp 까지 HMAC 검증과 JSON 디코딩을 생략합니다.
+ *
+ * 토큰 원문 대신 SHA-256 해시를 키로 쓰며, 만료 시각(exp)이 지난 항목은 조회 시 버립니다.
+ * max-entries 에 도달하면 만료된 항목을 정리하고, 그래도 가득 차 있으면 새 토큰은 캐시하지 않습니다.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongSupplier millisClock;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.verified-cache.max-entries:10000}") int maxEntries) {
+        this(meterRegistry, maxEntries, System::currentTimeMillis);
+    }
+
+    // 테스트에서 시계를 직접 움직여 exp 에 맞춰 버려지는지 확인하기 위한 생성자
+    VerifiedTokenCache(MeterRegistry meterRegistry, int maxEntries, LongSupplier millisClock) {
+        this.maxEntries = maxEntries;
+        this.millisClock = millisClock;
+        this.hits = meterRegistry.counter("jwt.verified.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.verified.cache", "result", "miss");
+        Gauge.builder("jwt.verified.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return 검증된 적 있고 아직 만료되지 않은 토큰의 Claims, 없으면 null
+     */
+    public Claims get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= millisClock.getAsLong()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.claims;
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return; // exp 없는 토큰은 언제 버려야 할지 모르므로 캐시하지 않음
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        long now = millisClock.getAsLong();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(hash(token), new Entry(claims, expiresAt));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.kidsvaguard.global.maintenance;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 주기 정리 작업(AlarmChangePruner, RefreshTokenSweeper)이 함께 쓰는 청크 실행기.
+ * 한 번에 batch-size 행씩 별도 트랜잭션(각 저장소 메서드의 @Transactional)으로 처리해서 긴 락/큰 undo 로그가 생기지 않게 하고,
+ * 가득 찬 청크 사이에는 pause-millis 만큼 쉬어 요청 처리와 DB 를 나눠 씁니다. 주기 실행용 데몬 스레드도 여기서 관리합니다.
+ */
+public class ChunkedPurger {
+
+    private final int batchSize;
+    private final long pauseMillis;
+    private final ScheduledExecutorService scheduler;
+
+    public ChunkedPurger(String threadName, int batchSize, long pauseMillis) {
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void schedule(Runnable task, long initialDelayMinutes, long intervalMinutes) {
+        scheduler.scheduleWithFixedDelay(task, initialDelayMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * chunk 를 처리한 행 수가 batch-size 보다 작아질 때까지 반복합니다. (chunk 는 batch-size 를 받아 처리한 행 수를 반환)
+     * 청크가 실패하면 그 예외를 그대로 던지며, 이미 커밋된 청크는 그대로 남습니다.
+     *
+     * @return 처리한 전체 행 수
+     */
+    public int drain(IntUnaryOperator chunk) throws InterruptedException {
+        int total = 0;
+        int done;
+        do {
+            done = chunk.applyAsInt(batchSize);
+            total += done;
+            if (done >= batchSize && pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        } while (done >= batchSize);
+        return total;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
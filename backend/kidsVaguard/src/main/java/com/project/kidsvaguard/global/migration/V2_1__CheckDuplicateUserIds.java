@@ -0,0 +1,43 @@
+package com.project.kidsvaguard.global.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * V3 의 user(user_id) 유니크 인덱스 전 사전 점검.
+ *
+ * 기준 스키마는 user_id 중복을 DB 에서 막지 않았고 가입 시 existsByUserId 검사만 있어서, 동시에 가입한 요청이 같은 아이디로 두 행을 남겼을 수 있습니다.
+ * 중복이 있으면 인덱스 생성이 MySQL 의 Duplicate entry 오류로 멈추므로, 그 전에 어떤 아이디가 몇 행인지 알려 주고 마이그레이션을 중단합니다.
+ *
+ * 수동 조치:
+ * 1. 중복 계정 확인: SELECT user_id, COUNT(*), GROUP_CONCAT(user_pk) FROM user GROUP BY user_id HAVING COUNT(*) > 1;
+ * 2. 남길 계정을 정해 나머지의 user_id 를 바꾸거나 (회원탈퇴와 같은 순서로) 삭제
+ * 3. MySQL 은 DDL 트랜잭션이 없어 Flyway 가 실패 기록을 남기므로 지운 뒤 재기동 (또는 flyway repair)
+ *    DELETE FROM flyway_schema_history WHERE version = '2.1' AND success = 0;
+ */
+public class V2_1__CheckDuplicateUserIds extends BaseJavaMigration {
+
+    private static final int MAX_REPORTED = 20;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT user_id, COUNT(*) FROM user GROUP BY user_id HAVING COUNT(*) > 1 ORDER BY user_id")) {
+            while (rs.next() && duplicates.size() < MAX_REPORTED) {
+                duplicates.add(rs.getString(1) + " (" + rs.getLong(2) + "행)");
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException("user_id 가 중복된 계정이 있어 uk_user_user_id 를 만들 수 없습니다: " + duplicates
+                    + " (최대 " + MAX_REPORTED + "개 표시). 중복 계정을 정리하고 flyway_schema_history 의 실패 기록(version 2.1)을 지운 뒤 다시 기동하세요. 절차는 V2_1__CheckDuplicateUserIds 주석 참고");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.kidsvaguard.global.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/notifyratelimit          활성 키 수 + 거절이 많은 상위 100개 키의 허용/거절 수
+ * GET /actuator/notifyratelimit/{key}    특정 키(userId|cameraId, 낙상은 fall:userId|cameraId) 의 허용/거절 수
+ *
+ * 키별 값을 Micrometer 태그로 올리면 카메라 수만큼 시계열이 늘어나므로 전용 엔드포인트로 노출합니다.
+ * (전체 합계는 notify.ratelimit.requests{result} 메트릭)
+ */
+@Component
+@Endpoint(id = "notifyratelimit")
+@RequiredArgsConstructor
+public class NotifyRateLimitEndpoint {
+
+    private static final int TOP_KEYS = 100;
+
+    private final NotifyRateLimiter notifyRateLimiter;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return Map.of(
+                "activeKeys", notifyRateLimiter.keyCount(),
+                "overflow", notifyRateLimiter.overflowStats(),
+                "fallOverflow", notifyRateLimiter.fallOverflowStats(),
+                "topKeys", notifyRateLimiter.topKeys(TOP_KEYS)
+        );
+    }
+
+    @ReadOperation
+    public NotifyRateLimiter.KeyStats key(@Selector String key) {
+        return notifyRateLimiter.stats(key);
+    }
+}
@@ -0,0 +1,346 @@
+package com.project.kidsvaguard.global.ratelimit;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.place.repository.PlaceRepository;
+import com.project.kidsvaguard.global.exception.NotifyRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * /api/notify/**, /api/alarms/** 알림 수신 한도 (userId + cameraId 별 토큰 버킷).
+ * 한 탐지기가 폭주해도 다른 사용자의 알림이 톰캣 스레드/DB 커넥션을 빼앗기지 않도록
+ * JPA 작업 전에 확인하고, 초과하면 429 + Retry-After 를 돌려줍니다. (멱등 키가 있는 요청은 재시도 응답을 먼저 확인한 뒤)
+ *
+ * 버킷은 GCRA(토큰 버킷과 동일한 동작)로 구현해 "다음 토큰이 생기는 이론적 시각" long 하나만 CAS 로 갱신하므로 락이 없습니다.
+ * 한도는 Place.notifyRatePerMinute / notifyBurst 로 장소별 지정할 수 있으며, 요청 경로에서 DB 를 읽지 않도록
+ * 장소 목록은 메모리 스냅샷으로 들고 있다가 장소 변경 시 / 주기적으로 다시 읽습니다.
+ *
+ *  - 낙상은 과밀과 토큰을 나눠 쓰지 않도록 따로 버킷(fall-per-minute / fall-burst)을 둠. 과밀이 폭주해도 낙상은 429 를 받지 않음
+ *  - 요청 본문의 userId/cameraId 는 인증되지 않은 값이라, 등록된 장소(userId + cctvAddress)만 카메라별 버킷을 만들고
+ *    등록된 사용자의 모르는 카메라는 사용자 버킷 하나, 모르는 사용자는 공용 버킷을 씀 (아무 id 나 뿌려 키를 채울 수 없음)
+ */
+@Component
+@Slf4j
+public class NotifyRateLimiter {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String OVERFLOW_KEY = "*overflow*";
+    private static final String FALL_OVERFLOW_KEY = "*fall-overflow*";
+    private static final String FALL_PREFIX = "fall:";
+
+    private final PlaceRepository placeRepository;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Limit defaultLimit;
+    private final Limit fallLimit;
+    private final LongSupplier nanoClock;
+
+    // 등록된 장소 "userId|cctvAddress" 와 사용자 "userId|" -> Limit. 처음 읽기 전(null)에는 모든 키에 버킷을 만듦
+    private volatile Map<String, Limit> placeLimits;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflowBucket;
+    private final Bucket fallOverflowBucket;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public NotifyRateLimiter(PlaceRepository placeRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${notify.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${notify.rate-limit.default-per-minute:60}") int defaultPerMinute,
+                             @Value("${notify.rate-limit.default-burst:20}") int defaultBurst,
+                             @Value("${notify.rate-limit.fall-per-minute:60}") int fallPerMinute,
+                             @Value("${notify.rate-limit.fall-burst:20}") int fallBurst,
+                             @Value("${notify.rate-limit.max-entries:50000}") int maxEntries,
+                             @Value("${notify.rate-limit.place-reload-seconds:60}") long placeReloadSeconds) {
+        this(placeRepository, meterRegistry, enabled, defaultPerMinute, defaultBurst, fallPerMinute, fallBurst,
+                maxEntries, placeReloadSeconds, System::nanoTime);
+    }
+
+    // 테스트에서 시계를 직접 움직여 버킷이 비고 다시 차는 것을 확인하기 위한 생성자
+    NotifyRateLimiter(PlaceRepository placeRepository,
+                      MeterRegistry meterRegistry,
+                      boolean enabled,
+                      int defaultPerMinute,
+                      int defaultBurst,
+                      int fallPerMinute,
+                      int fallBurst,
+                      int maxEntries,
+                      long placeReloadSeconds,
+                      LongSupplier nanoClock) {
+        this.placeRepository = placeRepository;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.defaultLimit = new Limit(defaultPerMinute, defaultBurst);
+        this.fallLimit = new Limit(fallPerMinute, fallBurst);
+        this.nanoClock = nanoClock;
+        this.overflowBucket = new Bucket(OVERFLOW_KEY, defaultLimit, nanoClock.getAsLong());
+        this.fallOverflowBucket = new Bucket(FALL_OVERFLOW_KEY, fallLimit, nanoClock.getAsLong());
+
+        this.acceptedCounter = meterRegistry.counter("notify.ratelimit.requests", "result", "accepted");
+        this.rejectedCounter = meterRegistry.counter("notify.ratelimit.requests", "result", "rejected");
+        Gauge.builder("notify.ratelimit.keys", buckets, Map::size).register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notify-rate-limit");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+        this.scheduler.scheduleWithFixedDelay(this::reloadPlaceLimits, placeReloadSeconds, placeReloadSeconds, TimeUnit.SECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reloadPlaceLimits();
+    }
+
+    /**
+     * 한도 안이면 토큰 하나를 쓰고 돌아오고, 초과면 NotifyRateLimitedException(429) 을 던집니다.
+     */
+    public void acquire(String userId, String cameraId, AlarmType alarmType) {
+        long retryAfterSeconds = tryAcquire(userId, cameraId, alarmType);
+        if (retryAfterSeconds > 0) {
+            throw new NotifyRateLimitedException("알림 수신 한도를 초과했습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * 항목별로 결과를 돌려주는 배치용. 한도 안이면 토큰 하나를 쓰고 0, 초과면 다시 시도할 수 있을 때까지의 초를 돌려줍니다.
+     */
+    public long tryAcquire(String userId, String cameraId, AlarmType alarmType) {
+        if (!enabled || userId == null) {
+            return 0;
+        }
+        boolean fall = alarmType == AlarmType.FELL_DETECTION;
+        String camera = cameraId == null || cameraId.isBlank() ? "" : cameraId;
+        Bucket bucket = bucketFor(userId, camera, fall);
+
+        long retryAfterNanos = bucket.tryConsume(nanoClock.getAsLong());
+        if (retryAfterNanos == 0) {
+            acceptedCounter.increment();
+            return 0;
+        }
+        rejectedCounter.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.warn("🚦 알림 수신 한도 초과: user={}, camera={}, type={}, retryAfter={}s", userId, camera, alarmType, retryAfterSeconds);
+        return retryAfterSeconds;
+    }
+
+    private Bucket bucketFor(String userId, String camera, boolean fall) {
+        Bucket overflow = fall ? fallOverflowBucket : overflowBucket;
+        Map<String, Limit> limits = placeLimits;
+        String key = userId + "|" + camera;
+        Limit limit = defaultLimit;
+        if (limits != null) {
+            limit = limits.get(key);
+            if (limit == null) {
+                key = userId + "|"; // 등록된 사용자의 모르는 카메라 -> 사용자 버킷
+                limit = limits.get(key);
+            }
+            if (limit == null) {
+                return overflow; // 등록되지 않은 사용자
+            }
+        }
+        if (fall) {
+            key = FALL_PREFIX + key;
+            limit = fallLimit;
+        }
+
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                return overflow; // 키가 너무 많으면 새 키는 공용 버킷을 같이 씀
+            }
+            Limit initial = limit;
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(k, initial, nanoClock.getAsLong()));
+        }
+        if (bucket.limit != limit) {
+            bucket.limit = limit; // 장소 한도가 바뀐 경우
+        }
+        return bucket;
+    }
+
+    /**
+     * 장소 저장/삭제 트랜잭션이 커밋된 뒤 장소 한도를 다시 읽습니다.
+     */
+    public void reloadPlaceLimitsAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduler.execute(NotifyRateLimiter.this::reloadPlaceLimits);
+                }
+            });
+        } else {
+            scheduler.execute(this::reloadPlaceLimits);
+        }
+    }
+
+    void reloadPlaceLimits() {
+        try {
+            Map<String, Limit> limits = new HashMap<>();
+            for (Object[] row : placeRepository.findNotifyRateLimits()) {
+                String userId = (String) row[0];
+                String cctvAddress = (String) row[1];
+                Integer perMinute = (Integer) row[2];
+                Integer burst = (Integer) row[3];
+                boolean custom = perMinute != null || burst != null;
+                Limit limit = custom
+                        ? new Limit(perMinute != null ? perMinute : defaultLimit.perMinute, burst != null ? burst : defaultLimit.burst)
+                        : defaultLimit;
+                if (cctvAddress != null) {
+                    limits.put(userId + "|" + cctvAddress, limit);
+                }
+                // 사용자 버킷: 한도를 지정한 장소가 있으면 그 한도
+                String userKey = userId + "|";
+                Limit current = limits.get(userKey);
+                if (current == null || (custom && current == defaultLimit)) {
+                    limits.put(userKey, limit);
+                }
+            }
+            placeLimits = limits;
+            log.debug("장소별 알림 수신 한도 {}건 로드", limits.size());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 장소별 알림 수신 한도 로드 실패 (이전 값 유지)", e);
+        }
+    }
+
+    // 완전히 채워진(= 한동안 요청이 없던) 버킷은 지워도 동작이 같으므로 정리
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.tat.get() - now <= 0);
+    }
+
+    /**
+     * actuator(notifyratelimit) 용 스냅샷. 거절이 많은 순으로 최대 limit 개.
+     */
+    public List<KeyStats> topKeys(int limit) {
+        return buckets.values().stream()
+                .map(Bucket::stats)
+                .sorted(Comparator.comparingLong(KeyStats::getRejected).reversed()
+                        .thenComparing(Comparator.comparingLong(KeyStats::getAccepted).reversed()))
+                .limit(limit)
+                .toList();
+    }
+
+    public KeyStats stats(String key) {
+        Bucket bucket = OVERFLOW_KEY.equals(key) ? overflowBucket
+                : FALL_OVERFLOW_KEY.equals(key) ? fallOverflowBucket
+                : buckets.get(key);
+        return bucket == null ? null : bucket.stats();
+    }
+
+    public KeyStats overflowStats() {
+        return overflowBucket.stats();
+    }
+
+    public KeyStats fallOverflowStats() {
+        return fallOverflowBucket.stats();
+    }
+
+    public int keyCount() {
+        return buckets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    static final class Limit {
+        final int perMinute;
+        final int burst;
+        final long intervalNanos;   // 토큰 하나가 다시 생기는 간격
+        final long capacityNanos;   // burst 개를 연달아 쓸 수 있는 여유
+
+        Limit(int perMinute, int burst) {
+            this.perMinute = Math.max(1, perMinute);
+            this.burst = Math.max(1, burst);
+            this.intervalNanos = MINUTE_NANOS / this.perMinute;
+            this.capacityNanos = this.intervalNanos * this.burst;
+        }
+    }
+
+    static final class Bucket {
+        private final String key;
+        private final AtomicLong tat;   // theoretical arrival time: 이 시각이 되면 버킷이 가득 참
+        private volatile Limit limit;
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        Bucket(String key, Limit limit, long now) {
+            this.key = key;
+            this.limit = limit;
+            this.tat = new AtomicLong(now); // 가득 찬 상태로 시작
+        }
+
+        /**
+         * @return 0 이면 허용, 아니면 다시 시도할 수 있을 때까지 남은 나노초
+         */
+        long tryConsume(long now) {
+            Limit l = limit;
+            while (true) {
+                long current = tat.get();
+                long base = current - now > 0 ? current : now;
+                long next = base + l.intervalNanos;
+                long over = next - now - l.capacityNanos;
+                if (over > 0) {
+                    rejected.increment();
+                    return over;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    accepted.increment();
+                    return 0;
+                }
+            }
+        }
+
+        KeyStats stats() {
+            Limit l = limit;
+            return new KeyStats(key, accepted.sum(), rejected.sum(), l.perMinute, l.burst);
+        }
+    }
+
+    @Getter
+    public static class KeyStats {
+        private final String key;
+        private final long accepted;
+        private final long rejected;
+        private final int perMinute;
+        private final int burst;
+
+        KeyStats(String key, long accepted, long rejected, int perMinute, int burst) {
+            this.key = key;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.perMinute = perMinute;
+            this.burst = burst;
+        }
+    }
+}
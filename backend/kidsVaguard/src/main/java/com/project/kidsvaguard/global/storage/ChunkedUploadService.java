@@ -0,0 +1,180 @@
+package com.project.kidsvaguard.global.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 재개 가능한(resumable) 청크 업로드 세션 관리.
+ * 1) 세션 생성 -> 2) 바이트 범위(Content-Range)별 PUT (순서 무관) -> 3) 수신 범위 조회 -> 4) 완료
+ * 청크는 partial 파일의 해당 위치에 바로 기록되므로 완료 시 재조립 복사가 필요 없습니다.
+ * 마지막 접근 후 session-ttl-minutes 가 지난 세션은 1분마다 partial 파일과 함께 정리합니다.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    // 예: "bytes 0-1048575/5242880"
+    private static final Pattern CONTENT_RANGE = Pattern.compile("^bytes (\\d+)-(\\d+)/(\\d+)$");
+
+    private final VideoStorageService videoStorageService;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final long sessionTtlMillis;
+    private final ScheduledExecutorService purger;
+
+    public ChunkedUploadService(VideoStorageService videoStorageService,
+                                @Value("${video.upload.session-ttl-minutes:60}") long sessionTtlMinutes) {
+        this.videoStorageService = videoStorageService;
+        this.sessionTtlMillis = TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chunk-upload-purger");
+            t.setDaemon(true);
+            return t;
+        });
+        this.purger.scheduleWithFixedDelay(this::purgeExpiredSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public UploadSession createSession(String fileName, String contentType, long totalSize) throws IOException {
+        if (totalSize <= 0 || totalSize > videoStorageService.getMaxBytes()) {
+            throw new IllegalArgumentException("totalSize 가 올바르지 않습니다. (1 ~ " + videoStorageService.getMaxBytes() + " bytes)");
+        }
+        if (!videoStorageService.isAllowedContentType(contentType)) {
+            throw new IllegalArgumentException("유효하지 않은 비디오 파일입니다. (비어있거나 지원하지 않는 형식)");
+        }
+        String uploadId = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(uploadId, fileName, contentType, totalSize,
+                videoStorageService.createPartialFile(uploadId));
+        sessions.put(uploadId, session);
+        log.info("📦 청크 업로드 세션 생성: uploadId={}, totalSize={}", uploadId, totalSize);
+        return session;
+    }
+
+    public UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "업로드 세션을 찾을 수 없습니다: " + uploadId);
+        }
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Content-Range 로 지정된 범위의 청크를 기록합니다. 같은 범위를 다시 보내도 결과는 같습니다.
+     */
+    public UploadSession writeChunk(String uploadId, String contentRange, InputStream body) throws IOException {
+        UploadSession session = getSession(uploadId);
+        if (!session.beginWrite()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "완료 처리 중인 업로드입니다: " + uploadId);
+        }
+        try {
+            return writeRange(session, contentRange, body);
+        } finally {
+            session.endWrite();
+        }
+    }
+
+    private UploadSession writeRange(UploadSession session, String contentRange, InputStream body) throws IOException {
+        Matcher matcher = contentRange != null ? CONTENT_RANGE.matcher(contentRange.trim()) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Content-Range 헤더 형식이 올바르지 않습니다. (예: bytes 0-1048575/5242880)");
+        }
+        long start = Long.parseLong(matcher.group(1));
+        long end = Long.parseLong(matcher.group(2));
+        long total = Long.parseLong(matcher.group(3));
+        if (total != session.getTotalSize() || start > end || end >= total) {
+            throw new IllegalArgumentException("Content-Range 범위가 세션 정보와 맞지 않습니다: " + contentRange);
+        }
+
+        long expected = end - start + 1;
+        long written = videoStorageService.writeChunk(session.getPartialFile(), start, expected, body);
+        if (written != expected) {
+            // 중간에 끊긴 청크는 범위로 인정하지 않음 (다시 보내면 같은 위치에 덮어씀)
+            throw new IllegalArgumentException("청크 길이가 Content-Range 와 다릅니다. (expected=" + expected + ", actual=" + written + ")");
+        }
+        session.addRange(start, end + 1);
+        return session;
+    }
+
+    /**
+     * 모든 범위가 수신된 세션을 최종 파일로 만들어 linkAlarm(알람 저장)에 넘기고, 그 결과를 돌려줍니다.
+     * 세션은 linkAlarm 이 정상적으로 끝난 뒤(알람 트랜잭션 커밋 후)에만 닫으며, 그 전까지는 완료 처리 중이라 청크 PUT 은 409 를 받습니다.
+     * 최종 파일로 옮기지 못했거나 알람 저장이 실패하면 partial 파일을 되살리고 세션을 남기므로 완료 요청만 다시 보내면 됩니다.
+     */
+    public <T> T complete(String uploadId, Function<StoredVideo, T> linkAlarm) throws IOException {
+        UploadSession session = getSession(uploadId);
+        if (!session.isComplete()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "아직 받지 못한 범위가 있습니다. (" + session.receivedBytes() + "/" + session.getTotalSize() + " bytes)");
+        }
+        if (!session.beginCompleting()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 완료 처리 중이거나 청크를 기록 중인 업로드입니다: " + uploadId);
+        }
+        try {
+            StoredVideo video = videoStorageService.promotePartial(session.getPartialFile(), session.getFileName(),
+                    session.getContentType(), System.nanoTime() - session.getCreatedAtNanos());
+            T result;
+            try {
+                result = linkAlarm.apply(video);
+            } catch (RuntimeException e) {
+                restorePartial(session, video);
+                throw e;
+            }
+            sessions.remove(uploadId);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            session.abortCompleting();
+            throw e;
+        }
+    }
+
+    // 알람이 저장되지 않았으므로 최종 파일을 partial 로 되돌려 놓고 참조를 해제 (다른 알람이 같은 파일을 쓰면 파일은 남음)
+    private void restorePartial(UploadSession session, StoredVideo video) {
+        try {
+            videoStorageService.restorePartial(video, session.getPartialFile());
+        } catch (IOException | RuntimeException e) {
+            // 되살리지 못하면 다시 완료할 수 없으므로 세션을 닫음 (카메라는 404 를 받고 처음부터 다시 업로드)
+            sessions.remove(session.getUploadId());
+            log.error("🔥 partial 파일 복구 실패, 업로드 세션을 닫습니다: uploadId={}", session.getUploadId(), e);
+        } finally {
+            videoStorageService.release(video);
+        }
+    }
+
+    // 만료된 세션과 partial 파일 정리 (완료 처리 중인 세션은 제외)
+    void purgeExpiredSessions() {
+        long expireBefore = System.currentTimeMillis() - sessionTtlMillis;
+        sessions.values().removeIf(session -> {
+            if (session.getLastTouchedMillis() >= expireBefore || session.isCompleting()) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(session.getPartialFile());
+            } catch (IOException e) {
+                log.warn("⚠️ 만료된 partial 파일 삭제 실패: {}", session.getPartialFile(), e);
+            }
+            log.info("🧹 만료된 청크 업로드 세션 정리: uploadId={}", session.getUploadId());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+}
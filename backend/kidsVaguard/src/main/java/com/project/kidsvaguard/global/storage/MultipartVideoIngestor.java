@@ -0,0 +1,98 @@
+package com.project.kidsvaguard.global.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * multipart/form-data 요청 본문을 스트리밍으로 파싱합니다.
+ * 비디오 파트는 임시 파일을 거치지 않고 VideoStorageService 로 바로 흘려보내고,
+ * JSON dto 파트는 메모리에서 역직렬화합니다. (파트 순서는 상관 없음)
+ *
+ * 주의: spring.servlet.multipart.resolve-lazily=true 여야 스프링이 먼저 본문을 읽어버리지 않습니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MultipartVideoIngestor {
+
+    private static final int MAX_DTO_BYTES = 64 * 1024;
+
+    private final VideoStorageService videoStorageService;
+    private final ObjectMapper objectMapper;
+
+    public <T> IngestedVideo<T> ingest(HttpServletRequest request, String videoPartName,
+                                       String dtoPartName, Class<T> dtoType) throws IOException {
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new IllegalArgumentException("multipart/form-data 요청이 아닙니다.");
+        }
+
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(videoStorageService.getMaxBytes());
+
+        T dto = null;
+        StoredVideo video = null;
+        try {
+            FileItemInputIterator iterator = upload.getItemIterator(request);
+            while (iterator.hasNext()) {
+                FileItemInput item = iterator.next();
+                String fieldName = item.getFieldName();
+
+                if (videoPartName.equals(fieldName) && video == null) {
+                    // 본문을 읽기 전에 파트 헤더의 Content-Type 으로 먼저 검사
+                    if (!videoStorageService.isAllowedContentType(item.getContentType())) {
+                        throw new IllegalArgumentException("유효하지 않은 비디오 파일입니다. (비어있거나 지원하지 않는 형식)");
+                    }
+                    try (InputStream in = item.getInputStream()) {
+                        video = videoStorageService.store(in, item.getName(), item.getContentType());
+                    }
+                } else if (dtoPartName.equals(fieldName)) {
+                    try (InputStream in = item.getInputStream()) {
+                        byte[] json = in.readNBytes(MAX_DTO_BYTES + 1);
+                        if (json.length > MAX_DTO_BYTES) {
+                            throw new IllegalArgumentException("dto 파트가 너무 큽니다.");
+                        }
+                        dto = objectMapper.readValue(json, dtoType);
+                    }
+                } else {
+                    log.debug("알 수 없는 multipart 파트 무시: {}", fieldName);
+                }
+            }
+        } catch (FileUploadSizeException e) {
+            videoStorageService.release(video);
+            throw new IllegalArgumentException("비디오 파일이 허용된 최대 크기를 초과했습니다.", e);
+        } catch (IOException | RuntimeException e) {
+            videoStorageService.release(video);
+            throw e;
+        }
+
+        if (video == null) {
+            throw new IllegalArgumentException("비디오 파일이 없습니다.");
+        }
+        if (dto == null) {
+            videoStorageService.release(video);
+            throw new IllegalArgumentException("dto 파트가 없습니다.");
+        }
+        return new IngestedVideo<>(dto, video);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IngestedVideo<T> {
+        private T dto;
+        private StoredVideo video;
+    }
+}
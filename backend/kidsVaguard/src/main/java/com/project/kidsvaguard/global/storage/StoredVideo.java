@@ -0,0 +1,22 @@
+package com.project.kidsvaguard.global.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 디스크에 저장이 끝난 비디오 파일 정보
+ * relativePath 는 DB(FellDetection.filePath, Alarm.videoPath)에 저장되고 /uploads/** 로 서빙되는 경로입니다.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class StoredVideo {
+    private String relativePath;   // 예: /uploads/xxxx.mp4
+    private String contentType;
+    private long sizeBytes;
+    private long elapsedNanos;     // 스트림 시작 ~ 마지막 바이트 기록까지
+    private long firstByteNanos;   // 스트림 시작 ~ 첫 바이트 기록까지 (바이트가 없으면 -1)
+    private String sha256;
+    private boolean duplicate;     // 이미 같은 내용의 파일이 있어 새 파일을 만들지 않은 경우
+}
@@ -0,0 +1,143 @@
+package com.project.kidsvaguard.global.storage;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 청크 업로드 세션 한 건의 상태.
+ * 수신한 바이트 범위는 시작 위치 기준으로 정렬된 [start, end) 구간들로 병합해서 보관합니다.
+ */
+@Getter
+public class UploadSession {
+
+    private final String uploadId;
+    private final String fileName;
+    private final String contentType;
+    private final long totalSize;
+    private final Path partialFile;
+    private final long createdAtNanos;
+    private volatile long lastTouchedMillis;
+    // 최종 파일로 옮기고 알람을 저장하는 중 (그 사이 청크 기록/중복 완료/만료 정리를 막음)
+    @Getter(lombok.AccessLevel.NONE)
+    private boolean completing;
+    // partial 파일에 기록 중인 청크 PUT 수 (기록 중에는 완료 처리를 시작하지 않음)
+    @Getter(lombok.AccessLevel.NONE)
+    private int writers;
+
+    // start -> end(exclusive), 서로 겹치거나 맞닿는 구간은 항상 병합된 상태
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    public UploadSession(String uploadId, String fileName, String contentType, long totalSize, Path partialFile) {
+        this.uploadId = uploadId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.partialFile = partialFile;
+        this.createdAtNanos = System.nanoTime();
+        this.lastTouchedMillis = System.currentTimeMillis();
+    }
+
+    public void touch() {
+        this.lastTouchedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 청크 기록을 시작합니다. 완료 처리 중이면 false (partial 파일이 옮겨지는 중이므로 기록하지 않음)
+     */
+    public synchronized boolean beginWrite() {
+        if (completing) {
+            return false;
+        }
+        writers++;
+        return true;
+    }
+
+    public synchronized void endWrite() {
+        writers--;
+    }
+
+    /**
+     * 완료 처리를 시작합니다. 이미 완료 처리 중이거나 기록 중인 청크가 있으면 false
+     */
+    public synchronized boolean beginCompleting() {
+        if (completing || writers > 0) {
+            return false;
+        }
+        completing = true;
+        return true;
+    }
+
+    public synchronized void abortCompleting() {
+        touch();
+        completing = false;
+    }
+
+    public synchronized boolean isCompleting() {
+        return completing;
+    }
+
+    public synchronized void addRange(long start, long endExclusive) {
+        long newStart = start;
+        long newEnd = endExclusive;
+
+        // 왼쪽에서 겹치거나 맞닿는 구간 병합
+        Map.Entry<Long, Long> floor = ranges.floorEntry(newStart);
+        if (floor != null && floor.getValue() >= newStart) {
+            newStart = floor.getKey();
+            newEnd = Math.max(newEnd, floor.getValue());
+            ranges.remove(floor.getKey());
+        }
+        // 오른쪽으로 이어지는 구간 병합
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(newStart);
+        while (next != null && next.getKey() <= newEnd) {
+            newEnd = Math.max(newEnd, next.getValue());
+            ranges.remove(next.getKey());
+            next = ranges.ceilingEntry(newStart);
+        }
+        ranges.put(newStart, newEnd);
+    }
+
+    public synchronized boolean isComplete() {
+        return ranges.size() == 1 && ranges.firstKey() == 0 && ranges.firstEntry().getValue() == totalSize;
+    }
+
+    public synchronized long receivedBytes() {
+        long sum = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            sum += range.getValue() - range.getKey();
+        }
+        return sum;
+    }
+
+    /**
+     * 수신한 구간 목록 ([start, endInclusive] 형태, HTTP Range 표기와 동일)
+     */
+    public synchronized List<long[]> receivedRanges() {
+        List<long[]> result = new ArrayList<>();
+        ranges.forEach((start, end) -> result.add(new long[]{start, end - 1}));
+        return result;
+    }
+
+    /**
+     * 아직 받지 못한 구간 목록 ([start, endInclusive] 형태)
+     */
+    public synchronized List<long[]> missingRanges() {
+        List<long[]> result = new ArrayList<>();
+        long cursor = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            if (range.getKey() > cursor) {
+                result.add(new long[]{cursor, range.getKey() - 1});
+            }
+            cursor = range.getValue();
+        }
+        if (cursor < totalSize) {
+            result.add(new long[]{cursor, totalSize - 1});
+        }
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.kidsvaguard.global.storage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.sql.Timestamp;
+
+/**
+ * 내용(SHA-256) 기준으로 저장된 비디오 파일 한 개.
+ * 같은 클립이 여러 번 업로드되어도 파일은 하나만 두고,
+ * FellDetection.filePath / Alarm.videoPath 에서 참조하는 수를 refCount 로 관리합니다.
+ */
+@Entity
+@Table(name = "video_blob", indexes = {
+        @Index(name = "idx_video_blob_path", columnList = "relativePath", unique = true)
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class VideoBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256; // hex
+
+    @Column(nullable = false, length = 255)
+    private String relativePath; // 예: /uploads/ab/cd/abcd....mp4
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.kidsvaguard.global.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface VideoBlobRepository extends JpaRepository<VideoBlob, String> {
+
+    Optional<VideoBlob> findByRelativePath(String relativePath);
+
+    // 참조 수 증감은 읽고-쓰기 대신 한 번의 UPDATE 로 (동시 요청에서도 안전)
+    @Modifying(clearAutomatically = true)
+    @Query("update VideoBlob b set b.refCount = b.refCount + 1 where b.sha256 = :sha256")
+    int incrementRefCount(@Param("sha256") String sha256);
+
+    @Modifying
+    @Query("update VideoBlob b set b.refCount = b.refCount - 1 where b.sha256 = :sha256 and b.refCount > 0")
+    int decrementRefCount(@Param("sha256") String sha256);
+
+    // 마지막 참조가 사라진 경우에만 삭제됨
+    @Modifying
+    @Query("delete from VideoBlob b where b.sha256 = :sha256 and b.refCount = 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
@@ -0,0 +1,167 @@
+package com.project.kidsvaguard.global.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * 내용 주소(content-addressed) 방식의 비디오 저장소.
+ * 파일은 SHA-256 앞부분으로 디렉토리를 나눠(uploads/ab/cd/abcd....mp4) 한 디렉토리에 파일이 몰리지 않게 하고,
+ * video_blob.refCount 로 참조 수를 관리해 마지막 참조가 사라질 때만 파일을 지웁니다.
+ *
+ * 같은 해시에 대한 "참조 획득 + 파일 배치"와 "마지막 참조 해제 후 파일 삭제"가 엇갈리지 않도록
+ * 해시별 스트라이프 락 안에서 DB 확인과 파일 작업을 함께 수행합니다. (단일 인스턴스 기준)
+ */
+@Service
+@Slf4j
+public class VideoBlobStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final VideoBlobRepository videoBlobRepository;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate required;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final Counter storedCounter;
+    private final Counter dedupCounter;
+    private final Counter freedCounter;
+
+    public VideoBlobStore(VideoBlobRepository videoBlobRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.videoBlobRepository = videoBlobRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.required = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.storedCounter = meterRegistry.counter("video.blob.events", "result", "stored");
+        this.dedupCounter = meterRegistry.counter("video.blob.events", "result", "deduplicated");
+        this.freedCounter = meterRegistry.counter("video.blob.events", "result", "freed");
+    }
+
+    /**
+     * 해시가 계산된 임시 파일을 저장소에 넣고 참조 1개를 획득합니다.
+     * 이미 같은 내용의 파일이 있으면 임시 파일은 지우고 기존 파일을 그대로 사용합니다.
+     *
+     * @return 참조를 획득한 blob (호출한 쪽은 이 경로를 DB 에 저장하거나, 실패 시 release 해야 함)
+     */
+    public BlobRef acquire(Path tempFile, String sha256, String extension, long sizeBytes) throws IOException {
+        synchronized (lockFor(sha256)) {
+            VideoBlob blob = requiresNew.execute(status -> {
+                if (videoBlobRepository.incrementRefCount(sha256) == 1) {
+                    return videoBlobRepository.findById(sha256).orElseThrow();
+                }
+                return videoBlobRepository.save(VideoBlob.builder()
+                        .sha256(sha256)
+                        .relativePath(relativePathFor(sha256, extension))
+                        .sizeBytes(sizeBytes)
+                        .refCount(1)
+                        .build());
+            });
+
+            Path target = toFilePath(blob.getRelativePath());
+            boolean duplicate = Files.exists(target);
+            if (duplicate) {
+                Files.deleteIfExists(tempFile);
+                dedupCounter.increment();
+                log.info("♻️ 중복 비디오 감지 - 기존 파일 재사용: {} (refCount={})", blob.getRelativePath(), blob.getRefCount());
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                storedCounter.increment();
+            }
+            return new BlobRef(sha256, blob.getRelativePath(), duplicate);
+        }
+    }
+
+    /**
+     * relativePath 로 참조하던 레코드가 삭제될 때 호출합니다. 마지막 참조였다면 트랜잭션 커밋 후 파일을 지웁니다.
+     * 저장소 밖의 경로(외부 URL, 예전 방식 파일 등)는 무시합니다.
+     */
+    public void release(String relativePath) {
+        if (relativePath == null || !relativePath.startsWith(VideoStorageService.UPLOAD_URL_PREFIX)) {
+            return;
+        }
+        required.executeWithoutResult(status -> {
+            Optional<VideoBlob> blob = videoBlobRepository.findByRelativePath(relativePath);
+            if (blob.isEmpty()) {
+                return;
+            }
+            String sha256 = blob.get().getSha256();
+            videoBlobRepository.decrementRefCount(sha256);
+            if (videoBlobRepository.deleteIfUnreferenced(sha256) == 1) {
+                runAfterCommit(() -> deleteFileIfUnreferenced(sha256, relativePath));
+            }
+        });
+    }
+
+    private void deleteFileIfUnreferenced(String sha256, String relativePath) {
+        synchronized (lockFor(sha256)) {
+            // 커밋과 삭제 사이에 같은 내용이 다시 업로드되었다면 row 가 다시 생겼으므로 지우지 않음
+            if (videoBlobRepository.existsById(sha256)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(toFilePath(relativePath));
+                freedCounter.increment();
+                log.info("🗑️ 마지막 참조가 사라져 비디오 파일 삭제: {}", relativePath);
+            } catch (IOException e) {
+                log.warn("⚠️ 비디오 파일 삭제 실패: {}", relativePath, e);
+            }
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // /uploads/ab/cd/<sha256><ext>
+    static String relativePathFor(String sha256, String extension) {
+        return VideoStorageService.UPLOAD_URL_PREFIX
+                + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + extension;
+    }
+
+    static Path toFilePath(String relativePath) {
+        return Paths.get(VideoStorageService.UPLOAD_DIR)
+                .resolve(relativePath.substring(VideoStorageService.UPLOAD_URL_PREFIX.length()));
+    }
+
+    private Object lockFor(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BlobRef {
+        private String sha256;
+        private String relativePath;
+        private boolean duplicate;
+    }
+}
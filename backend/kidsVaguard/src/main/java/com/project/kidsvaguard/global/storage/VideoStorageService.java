@@ -0,0 +1,322 @@
+package com.project.kidsvaguard.global.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import com.project.kidsvaguard.global.storage.VideoBlobStore.BlobRef;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드된 비디오를 uploads/ 디렉토리에 한 번만 기록하는 저장소.
+ * 요청 본문 스트림 -> FileChannel 로 direct ByteBuffer 를 통해 바로 복사하므로
+ * 톰캣 임시 파일(스풀) + Files.copy 로 두 번 쓰던 디스크 I/O 가 절반으로 줄어듭니다.
+ *
+ * 기록하면서 SHA-256 을 함께 계산하고, 최종 파일은 VideoBlobStore 가 내용 주소(uploads/ab/cd/<hash>) 로 배치합니다.
+ * 같은 클립이 다시 올라오면 해시 계산 한 번으로 끝나고 파일은 하나만 남습니다.
+ */
+@Service
+@Slf4j
+public class VideoStorageService {
+
+    public static final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/";
+    public static final String UPLOAD_URL_PREFIX = "/uploads/";
+    // /uploads/** 로 서빙되지 않도록 uploads/ 바깥(같은 파일시스템)에 둡니다.
+    private static final String PARTIAL_DIR = System.getProperty("user.dir") + "/uploads-partial/";
+
+    public static final List<String> ALLOWED_VIDEO_TYPES = Arrays.asList(
+            MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            "video/mp4",
+            "video/quicktime",
+            "video/x-msvideo",
+            "video/x-matroska"
+    );
+
+    private final int bufferSize;
+    private final long maxBytes;
+    // direct buffer 는 할당 비용이 크므로 풀로 재사용하고, 개수로 메모리 사용량을 제한합니다.
+    // (허가 하나당 버퍼 하나, 풀이 모두 사용 중이면 buffer-wait-millis 까지 기다린 뒤 503)
+    private final BlockingQueue<ByteBuffer> bufferPool;
+    private final Semaphore bufferPermits;
+    private final long bufferWaitMillis;
+
+    private final Timer firstByteTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary throughput;
+    private final Counter diskBytesWritten;
+
+    private final VideoBlobStore videoBlobStore;
+
+    public VideoStorageService(MeterRegistry meterRegistry,
+                               VideoBlobStore videoBlobStore,
+                               @Value("${video.ingest.buffer-size:65536}") int bufferSize,
+                               @Value("${video.ingest.buffer-pool-size:16}") int bufferPoolSize,
+                               @Value("${video.ingest.buffer-wait-millis:5000}") long bufferWaitMillis,
+                               @Value("${video.ingest.max-bytes:524288000}") long maxBytes) { // 500MB (기본값)
+        this.videoBlobStore = videoBlobStore;
+        this.bufferSize = bufferSize;
+        this.maxBytes = maxBytes;
+        this.bufferPool = new ArrayBlockingQueue<>(bufferPoolSize);
+        this.bufferPermits = new Semaphore(bufferPoolSize);
+        this.bufferWaitMillis = bufferWaitMillis;
+
+        this.firstByteTimer = Timer.builder("video.ingest.first.byte")
+                .description("요청 스트림 시작부터 첫 바이트가 디스크에 기록될 때까지의 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("video.ingest.write")
+                .description("비디오 한 건을 디스크에 기록하는 데 걸린 전체 시간")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("video.ingest.throughput")
+                .description("비디오 기록 속도")
+                .baseUnit("bytes/sec")
+                .register(meterRegistry);
+        this.diskBytesWritten = Counter.builder("video.ingest.disk.bytes")
+                .description("비디오 저장으로 디스크에 기록된 총 바이트 수")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public boolean isAllowedContentType(String contentType) {
+        return ALLOWED_VIDEO_TYPES.contains(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    /**
+     * 입력 스트림을 uploads/ 아래의 고유한 파일로 저장합니다.
+     * 중간에 실패하면 부분적으로 기록된 파일은 삭제됩니다.
+     */
+    public StoredVideo store(InputStream in, String originalFilename, String contentType) throws IOException {
+        Path partialDir = Paths.get(PARTIAL_DIR);
+        Files.createDirectories(partialDir);
+        Path tempFile = partialDir.resolve(UUID.randomUUID().toString() + ".tmp");
+
+        MessageDigest digest = newSha256();
+        long start = System.nanoTime();
+        long firstByteAt = -1;
+        long written = 0;
+
+        ByteBuffer buffer = acquireBuffer();
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate()); // 같은 버퍼를 해시에도 흘려 추가 읽기 없이 해시 계산
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer);
+                }
+                buffer.clear();
+                if (firstByteAt < 0 && written > 0) {
+                    firstByteAt = System.nanoTime();
+                }
+                if (written > maxBytes) {
+                    throw new IllegalArgumentException("비디오 파일이 허용된 최대 크기(" + maxBytes + " bytes)를 초과했습니다.");
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        } finally {
+            releaseBuffer(buffer);
+        }
+
+        if (written == 0) {
+            Files.deleteIfExists(tempFile);
+            throw new IllegalArgumentException("유효하지 않은 비디오 파일입니다. (비어있거나 지원하지 않는 형식)");
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long firstByteNanos = firstByteAt - start;
+        recordMetrics(written, elapsed, firstByteNanos);
+
+        BlobRef blob = videoBlobStore.acquire(tempFile, HexFormat.of().formatHex(digest.digest()),
+                extractExtension(originalFilename), written);
+
+        log.info("📼 비디오 저장 완료: {} ({} bytes, {} MB/s, 첫 바이트 {} ms, 중복={})",
+                blob.getRelativePath(), written, String.format("%.1f", mbPerSec(written, elapsed)),
+                TimeUnit.NANOSECONDS.toMillis(firstByteNanos), blob.isDuplicate());
+
+        return new StoredVideo(blob.getRelativePath(), contentType, written, elapsed, firstByteNanos,
+                blob.getSha256(), blob.isDuplicate());
+    }
+
+    /**
+     * 청크 업로드용 임시 파일(uploads-partial/{uploadId}.part)을 만듭니다.
+     * 최종 파일과 같은 파일시스템에 두어 완료 시 복사 없이 rename 만 하면 되도록 합니다.
+     */
+    public Path createPartialFile(String uploadId) throws IOException {
+        Path partialDir = Paths.get(PARTIAL_DIR);
+        Files.createDirectories(partialDir);
+        Path partial = partialDir.resolve(uploadId + ".part");
+        Files.createFile(partial);
+        return partial;
+    }
+
+    /**
+     * 청크 한 개를 partial 파일의 position 위치에 그대로 기록합니다. (positional write, 재조립 복사 없음)
+     * 서로 다른 범위의 청크가 동시에 들어와도 FileChannel 의 위치 지정 쓰기는 서로 간섭하지 않습니다.
+     *
+     * @return 실제로 기록된 바이트 수
+     */
+    public long writeChunk(Path partial, long position, long maxLength, InputStream in) throws IOException {
+        long written = 0;
+        ByteBuffer buffer = acquireBuffer();
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > maxLength) {
+                    throw new IllegalArgumentException("청크 본문이 Content-Range 로 지정한 길이보다 깁니다.");
+                }
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer, position + written);
+                }
+                buffer.clear();
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+        diskBytesWritten.increment(written);
+        return written;
+    }
+
+    /**
+     * 모든 청크가 모인 partial 파일의 해시를 한 번 읽어 계산한 뒤 내용 주소 경로로 옮깁니다.
+     * (같은 파일시스템 안의 rename 이므로 재조립 복사 없음, 중복이면 partial 파일만 삭제)
+     */
+    public StoredVideo promotePartial(Path partial, String originalFilename, String contentType,
+                                      long elapsedNanos) throws IOException {
+        MessageDigest digest = newSha256();
+        long size = 0;
+        ByteBuffer buffer = acquireBuffer();
+        try (FileChannel source = FileChannel.open(partial, StandardOpenOption.READ)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+
+        BlobRef blob = videoBlobStore.acquire(partial, HexFormat.of().formatHex(digest.digest()),
+                extractExtension(originalFilename), size);
+        log.info("📼 청크 업로드 비디오 저장 완료: {} ({} bytes, 중복={})", blob.getRelativePath(), size, blob.isDuplicate());
+        return new StoredVideo(blob.getRelativePath(), contentType, size, elapsedNanos, -1,
+                blob.getSha256(), blob.isDuplicate());
+    }
+
+    /**
+     * promotePartial() 로 옮긴 파일을 partial 경로에 다시 복사합니다. 알람 저장이 실패해 완료 요청을 다시 받아야 할 때 쓰며,
+     * 파일이 지워지기 전(release 전)에 호출해야 합니다.
+     */
+    public void restorePartial(StoredVideo video, Path partial) throws IOException {
+        Files.copy(VideoBlobStore.toFilePath(video.getRelativePath()), partial, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * store()/promotePartial() 로 얻은 참조를 돌려놓습니다. (알람 저장 등 후속 처리 실패 시 정리용)
+     * 다른 알람이 같은 파일을 참조하고 있으면 파일은 그대로 남습니다.
+     */
+    public void release(StoredVideo video) {
+        if (video == null) {
+            return;
+        }
+        release(video.getRelativePath());
+    }
+
+    /**
+     * FellDetection.filePath / Alarm.videoPath 를 가진 레코드를 삭제할 때 호출합니다.
+     */
+    public void release(String relativePath) {
+        try {
+            videoBlobStore.release(relativePath);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 비디오 참조 해제 실패: {}", relativePath, e);
+        }
+    }
+
+    private void recordMetrics(long bytes, long elapsedNanos, long firstByteNanos) {
+        diskBytesWritten.increment(bytes);
+        writeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (firstByteNanos >= 0) {
+            firstByteTimer.record(firstByteNanos, TimeUnit.NANOSECONDS);
+        }
+        if (elapsedNanos > 0) {
+            throughput.record(bytes * 1_000_000_000d / elapsedNanos);
+        }
+    }
+
+    // 허가를 얻은 요청만 버퍼를 가지므로 direct buffer 는 최대 buffer-pool-size 개까지만 만들어집니다.
+    private ByteBuffer acquireBuffer() {
+        try {
+            if (!bufferPermits.tryAcquire(bufferWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "동시에 처리 중인 비디오 업로드가 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "비디오 업로드 처리가 중단되었습니다.");
+        }
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        bufferPool.offer(buffer);
+        bufferPermits.release();
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private static String extractExtension(String originalFilename) {
+        if (originalFilename != null && originalFilename.contains(".")) {
+            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            // 확장자에 경로 문자가 섞여 들어오는 경우 방지
+            return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension : "";
+        }
+        return "";
+    }
+
+    private static double mbPerSec(long bytes, long elapsedNanos) {
+        return elapsedNanos > 0 ? (bytes / 1_048_576d) / (elapsedNanos / 1_000_000_000d) : 0d;
+    }
+}
@@ -0,0 +1,66 @@
+-- 기준 스키마: Flyway 도입 전 운영 DB (ddl-auto=update 가 처음 배포된 엔티티로 만든 테이블/인덱스 그대로)
+-- 이미 테이블이 있는 DB 는 spring.flyway.baseline-on-migrate 로 이 버전을 적용된 것으로 표시하고 V2 부터 실행합니다.
+-- 제약 조건 이름도 Hibernate 가 운영 DB 에 붙인 이름과 같게 두어, 새 DB 와 기존 DB 에서 이후 마이그레이션이 똑같이 동작합니다.
+-- MySQL 8 과 H2(MODE=MySQL, 테스트/벤치마크) 양쪽에서 실행되는 문법만 사용 (lob_text 자리표시자: MySQL longtext, H2 clob)
+
+create table user (
+    user_pk bigint not null auto_increment,
+    user_id varchar(20) not null,
+    password varchar(100) not null,
+    username varchar(15) not null,
+    phone varchar(13) not null,
+    email varchar(30) not null,
+    fcm_token varchar(255),
+    alarm_setting bit,
+    role enum ('ADMIN','STAFF','USER'),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP null,
+    primary key (user_pk)
+) engine=InnoDB;
+
+create table refresh_token (
+    id bigint not null auto_increment,
+    user_pk bigint not null,
+    refresh_token varchar(512) not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table place (
+    place_id bigint not null auto_increment,
+    user_pk bigint not null,
+    place_name varchar(100) not null,
+    cctv_address varchar(255),
+    action enum ('START','STOP'),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP null,
+    primary key (place_id)
+) engine=InnoDB;
+
+create table alarm (
+    alarm_id bigint not null auto_increment,
+    user_pk bigint,
+    alarm_type enum ('FELL_DETECTION','OVERCROWDING') not null,
+    title varchar(100) not null,
+    content varchar(255),
+    video_path varchar(255),
+    is_read bit,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP null,
+    primary key (alarm_id)
+) engine=InnoDB;
+
+create table fell_detection (
+    fell_id bigint not null auto_increment,
+    alarm_id bigint,
+    is_fell bit,
+    file_path varchar(255),
+    data ${lob_text},
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP null,
+    primary key (fell_id)
+) engine=InnoDB;
+
+create index idx_refresh_token on refresh_token (refresh_token);
+alter table user add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email);
+
+alter table alarm add constraint FK5r2fiod478xxrqc41ksscvb9v foreign key (user_pk) references user (user_pk);
+alter table fell_detection add constraint FKgxvadrnggn9waoqdgix6dsfql foreign key (alarm_id) references alarm (alarm_id);
+alter table place add constraint FK9nlct61xcnj8rmm8373u95yru foreign key (user_pk) references user (user_pk);
+alter table refresh_token add constraint FKo8h5i6ejksm3hhuwkgrxlu96a foreign key (user_pk) references user (user_pk);
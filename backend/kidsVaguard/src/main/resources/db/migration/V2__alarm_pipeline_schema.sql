@@ -0,0 +1,86 @@
+-- 기준 스키마 이후 추가된 테이블/컬럼 (영상 저장소, 멱등 키, 알림 수신 한도, 리프레시 토큰 해시, 기기 토큰, 알림 증분 동기화, 안 읽은 수)
+
+-- 영상 내용 주소 저장 (VideoBlobStore)
+create table video_blob (
+    sha256 varchar(64) not null,
+    relative_path varchar(255) not null,
+    size_bytes bigint not null,
+    ref_count integer not null,
+    created_at datetime(6) not null,
+    primary key (sha256)
+) engine=InnoDB;
+alter table video_blob add constraint idx_video_blob_path unique (relative_path);
+
+-- 알림 수신 Idempotency-Key (IdempotencyService)
+create table idempotency_key (
+    key_hash varchar(64) not null,
+    status_code integer not null,
+    response_body varchar(1000) not null,
+    created_at datetime(6) not null,
+    primary key (key_hash)
+) engine=InnoDB;
+create index idx_idempotency_key_created_at on idempotency_key (created_at);
+
+-- 장소(CCTV)별 알림 수신 한도 (NotifyRateLimiter, null 이면 기본값)
+alter table place add column notify_rate_per_minute integer;
+alter table place add column notify_burst integer;
+
+-- 리프레시 토큰: 원문 대신 SHA-256 hex 저장, 사용자당 1개, 만료 시각
+-- 원문으로 저장된 기존 행은 해시와 맞을 수 없고 사용자당 여러 개일 수 있으므로 지움 (해당 사용자는 한 번 다시 로그인)
+delete from refresh_token;
+alter table refresh_token add column expires_at datetime(6);
+alter table refresh_token modify column refresh_token varchar(64) not null;
+alter table refresh_token drop index idx_refresh_token;
+alter table refresh_token add constraint uk_refresh_token_hash unique (refresh_token);
+alter table refresh_token add constraint uk_refresh_token_user unique (user_pk);
+create index idx_refresh_token_expires_at on refresh_token (expires_at);
+
+-- FCM 토큰 일괄 해제 (FcmTokenPruner)
+create index idx_user_fcm_token on user (fcm_token);
+
+-- 사용자별 기기 토큰 (UserDevice)
+create table user_device (
+    device_id bigint not null auto_increment,
+    user_pk bigint not null,
+    fcm_token varchar(255) not null,
+    last_seen_at datetime(6) not null,
+    created_at datetime(6) not null,
+    primary key (device_id)
+) engine=InnoDB;
+alter table user_device add constraint uk_user_device_token unique (fcm_token);
+create index idx_user_device_user on user_device (user_pk);
+alter table user_device add constraint FKm71pvgrmgpnn739fiij22wk58 foreign key (user_pk) references user (user_pk);
+
+-- 커서 기반 알림 목록
+create index idx_alarm_user_type_created on alarm (user_pk, alarm_type, created_at, alarm_id);
+
+-- 알림 증분 동기화 (AlarmChangeLog)
+create table alarm_change (
+    change_id bigint not null auto_increment,
+    user_pk bigint not null,
+    version bigint not null,
+    entity_type enum ('ALARM','FELL_DETECTION') not null,
+    entity_id bigint,
+    change_type enum ('DELETED','INSERTED','READ_RANGE','UPDATED') not null,
+    alarm_type enum ('FELL_DETECTION','OVERCROWDING'),
+    read_before datetime(6),
+    created_at datetime(6) not null,
+    primary key (change_id)
+) engine=InnoDB;
+create index idx_alarm_change_user_version on alarm_change (user_pk, version);
+create index idx_alarm_change_created on alarm_change (created_at);
+
+create table alarm_sync_version (
+    user_pk bigint not null,
+    version bigint not null,
+    pruned_version bigint not null,
+    primary key (user_pk)
+) engine=InnoDB;
+
+-- 사용자 + 알람 타입별 안 읽은 수 (AlarmUnreadCounter)
+create table alarm_unread_count (
+    user_pk bigint not null,
+    alarm_type enum ('FELL_DETECTION','OVERCROWDING') not null,
+    unread_count bigint not null,
+    primary key (user_pk, alarm_type)
+) engine=InnoDB;
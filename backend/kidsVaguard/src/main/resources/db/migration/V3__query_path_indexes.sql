@@ -0,0 +1,13 @@
+-- 저장소 조회 경로에 맞춘 인덱스 (RepositoryQueryPlanTest 가 각 쿼리의 실행 계획에 전체 스캔이 없는지 확인)
+-- alarm(user_pk, alarm_type, created_at) 은 V2 의 idx_alarm_user_type_created 가 이미 맡음
+-- (findByUserAndAlarmType, findDetailsByUserAndAlarmType, findFeed/findFeedAfter, findDetailsAfterId, markReadByType/markReadByTypeBefore)
+
+-- 알람 -> 낙상 기록: findByAlarm_AlarmId, 알림 목록/낙상 목록의 fell_detection 조인
+create index idx_fell_detection_alarm on fell_detection (alarm_id);
+
+-- findByUser, findByUserAndPlaceName
+create index idx_place_user_name on place (user_pk, place_name);
+
+-- findByUserId, findByUserIdIn, existsByUserId, 낙상 목록의 user_id 조건 (가입 시 중복 검사만 하던 것을 DB 에서도 보장)
+-- 기준 스키마는 user_id 중복을 막지 않았으므로 V2_1(CheckDuplicateUserIds)이 먼저 중복을 찾아 있으면 마이그레이션을 멈춤
+create unique index uk_user_user_id on user (user_id);
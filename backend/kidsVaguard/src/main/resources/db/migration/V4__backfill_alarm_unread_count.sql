@@ -0,0 +1,7 @@
+-- 카운터(alarm_unread_count) 도입 전에 쌓인 안 읽은 알림을 한 번 집계해서 채움
+-- Flyway 는 애플리케이션이 요청을 받기 전에 실행되므로 이 사이에 알림 저장/읽음 처리가 끼어들지 않음
+insert into alarm_unread_count (user_pk, alarm_type, unread_count)
+select user_pk, alarm_type, count(*)
+from alarm
+where is_read = false and user_pk is not null
+group by user_pk, alarm_type;
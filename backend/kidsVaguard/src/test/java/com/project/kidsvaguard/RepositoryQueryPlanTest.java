@@ -0,0 +1,257 @@
+package com.project.kidsvaguard;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmChangeRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmSyncVersionRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmUnreadCountRepository;
+import com.project.kidsvaguard.domain.alarm.service.TestUsers;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import com.project.kidsvaguard.domain.fell_detection.repository.FellDetectionRepository;
+import com.project.kidsvaguard.domain.place.entity.Place;
+import com.project.kidsvaguard.domain.place.repository.PlaceRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserDeviceRepository;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import com.project.kidsvaguard.global.jwtToken.RefreshTokenRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway 마이그레이션으로 만든 스키마에서 각 저장소 쿼리가 실제로 보내는 SQL 을 모아 EXPLAIN 하고,
+ * 실행 계획에 전체 스캔(H2 의 tableScan, MySQL 로 치면 type=ALL)이 없는지 확인합니다.
+ * 인덱스를 빠뜨린 마이그레이션이나 인덱스를 타지 못하는 새 쿼리가 여기서 걸립니다.
+ *
+ * 전체를 읽는 것이 의도인 쿼리는 제외: PlaceRepository.findNotifyRateLimits (시작 시 한도 전체 로드),
+ * UserRepository.findByUserIdContainingIgnoreCase / countByRole (관리자 페이지),
+ * 주기 정리 작업 (RefreshTokenRepository.deleteExpired)
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.project.kidsvaguard.RepositoryQueryPlanTest$CapturedSql")
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    @Autowired
+    private AlarmRepository alarmRepository;
+
+    @Autowired
+    private AlarmChangeRepository alarmChangeRepository;
+
+    @Autowired
+    private AlarmSyncVersionRepository alarmSyncVersionRepository;
+
+    @Autowired
+    private AlarmUnreadCountRepository alarmUnreadCountRepository;
+
+    @Autowired
+    private FellDetectionRepository fellDetectionRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDeviceRepository userDeviceRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Alarm alarm;
+
+    @BeforeEach
+    void setUp() {
+        // 빈 테이블이면 옵티마이저가 전체 스캔을 골라도 비용이 같으므로 사용자 여러 명 분량을 넣어 둠
+        for (int u = 0; u < 5; u++) {
+            User saved = TestUsers.persist(entityManager, "plan-" + u);
+            for (int i = 0; i < 4; i++) {
+                Alarm fall = saveAlarm(saved, AlarmType.FELL_DETECTION);
+                entityManager.persist(FellDetection.builder()
+                        .isFell(true)
+                        .filePath("clips/" + saved.getUserId() + "-" + i + ".mp4")
+                        .createdAt(fall.getCreatedAt())
+                        .alarm(fall)
+                        .build());
+                saveAlarm(saved, AlarmType.OVERCROWDING);
+            }
+            entityManager.persist(Place.builder()
+                    .placeName("거실")
+                    .cctvAddress("rtsp://" + saved.getUserId())
+                    .createdAt(new Timestamp(System.currentTimeMillis()))
+                    .user(saved)
+                    .build());
+            if (u == 0) {
+                user = saved;
+                alarm = saveAlarm(saved, AlarmType.FELL_DETECTION);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturedSql.clear();
+    }
+
+    @Test
+    void alarmQueriesUseIndexes() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        alarmRepository.findByUserAndAlarmType(user, AlarmType.FELL_DETECTION, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")));
+        alarmRepository.findDetailsByUserAndAlarmType(user, AlarmType.FELL_DETECTION, PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+        alarmRepository.findFeed(user, AlarmType.OVERCROWDING, Limit.of(20));
+        alarmRepository.findFeedAfter(user, AlarmType.OVERCROWDING, now, alarm.getAlarmId(), Limit.of(20));
+        alarmRepository.findDetailsAfterId(user, AlarmType.FELL_DETECTION, 0L, Limit.of(20));
+        alarmRepository.findTypedDetailsByIds(user, List.of(alarm.getAlarmId()));
+        alarmRepository.lockUnreadByIds(user.getUserPk(), List.of(alarm.getAlarmId()));
+        alarmRepository.markReadByType(user.getUserPk(), AlarmType.FELL_DETECTION.name());
+        alarmRepository.markReadByTypeBefore(user.getUserPk(), AlarmType.OVERCROWDING.name(), now);
+        alarmRepository.markReadByIds(List.of(alarm.getAlarmId()));
+        alarmChangeRepository.findSince(user.getUserPk(), 0, Limit.of(10));
+        alarmChangeRepository.deleteByUserPk(user.getUserPk());
+        alarmSyncVersionRepository.findVersion(user.getUserPk());
+        alarmSyncVersionRepository.findUserPksAfter(user.getUserPk(), 100);
+        alarmSyncVersionRepository.raisePrunedVersions(now, List.of(user.getUserPk()));
+        alarmSyncVersionRepository.deleteByUserPk(user.getUserPk());
+        alarmUnreadCountRepository.findByUserPk(user.getUserPk());
+        alarmUnreadCountRepository.deleteByUserPk(user.getUserPk());
+        entityManager.flush();
+
+        assertNoFullScan(CapturedSql.drain());
+    }
+
+    @Test
+    void fellDetectionQueriesUseIndexes() {
+        fellDetectionRepository.findByAlarm_AlarmId(alarm.getAlarmId());
+        fellDetectionRepository.findByAlarm_User_UserId(user.getUserId());
+        fellDetectionRepository.findResponsesByUserId(user.getUserId());
+
+        assertNoFullScan(CapturedSql.drain());
+    }
+
+    @Test
+    void placeQueriesUseIndexes() {
+        placeRepository.findByUser(user);
+        placeRepository.findByUserAndPlaceName(user, "거실");
+
+        assertNoFullScan(CapturedSql.drain());
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        userRepository.findByUserId(user.getUserId());
+        userRepository.findByUserIdIn(List.of("plan-1", "plan-2"));
+        userRepository.existsByUserId(user.getUserId());
+        userRepository.existsByEmail(user.getEmail());
+        userRepository.clearFcmTokens(List.of("expired-token"));
+        userRepository.clearFcmTokenOfOthers("device-token", user.getUserPk());
+        userDeviceRepository.findTokensByUserPk(user.getUserPk());
+        userDeviceRepository.findUserPkByFcmToken("device-token");
+        userDeviceRepository.deleteByFcmTokenIn(List.of("expired-token"));
+        userDeviceRepository.deleteByUser(user);
+        refreshTokenRepository.findByTokenHash("hash");
+        refreshTokenRepository.deleteByUser(user);
+        refreshTokenRepository.rotate("old", "new", new Timestamp(System.currentTimeMillis()), new Timestamp(System.currentTimeMillis()));
+
+        assertNoFullScan(CapturedSql.drain());
+    }
+
+    private void assertNoFullScan(List<String> statements) {
+        assertThat(statements).as("EXPLAIN 할 SQL").isNotEmpty();
+        List<String> fullScans = new ArrayList<>();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (plan.contains(".tableScan")) {
+                fullScans.add(sql + "\n  -> " + plan);
+            }
+        }
+        assertThat(fullScans).as("전체 스캔하는 쿼리").isEmpty();
+    }
+
+    // 파라미터를 바인딩하지 않아도 H2 는 ?1, ?2 로 두고 실행 계획을 보여줌
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1).replaceAll("\\s+", " "));
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private Alarm saveAlarm(User owner, AlarmType alarmType) {
+        Alarm saved = Alarm.builder()
+                .title(alarmType == AlarmType.FELL_DETECTION ? "낙상 감지" : "과밀 감지")
+                .content("테스트 알림")
+                .isRead(false)
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .user(owner)
+                .alarmType(alarmType)
+                .build();
+        entityManager.persist(saved);
+        return saved;
+    }
+
+    /**
+     * Hibernate 가 보내는 SELECT/UPDATE/DELETE 를 모아 둡니다. (INSERT 는 실행 계획이 없으므로 제외)
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        private static final Set<String> statements = new LinkedHashSet<>();
+
+        @Override
+        public String inspect(String sql) {
+            String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (head.startsWith("select") || head.startsWith("update") || head.startsWith("delete")) {
+                synchronized (statements) {
+                    statements.add(sql);
+                }
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (statements) {
+                statements.clear();
+            }
+        }
+
+        static List<String> drain() {
+            synchronized (statements) {
+                List<String> drained = new ArrayList<>(statements);
+                statements.clear();
+                return drained;
+            }
+        }
+    }
+}
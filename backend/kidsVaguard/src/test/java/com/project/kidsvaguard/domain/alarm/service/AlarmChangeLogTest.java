@@ -0,0 +1,206 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmChangesResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmReadRequest;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.ChangeType;
+import com.project.kidsvaguard.domain.alarm.entity.AlarmChange.EntityType;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmBatchWriter;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmChangeRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmSyncVersionRepository;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import com.project.kidsvaguard.domain.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 알림 증분 동기화(/api/alarms/changes) 확인: 사용자별 version, 변경 합치기, 삭제 기록, 보관 기간이 지난 since 의 reset,
+ * 그리고 바뀐 것이 없는 사용자는 SQL 1번으로 끝나는지.
+ */
+@AlarmJpaTest
+class AlarmChangeLogTest {
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private AlarmChangeLog alarmChangeLog;
+
+    @Autowired
+    private AlarmChangeRepository alarmChangeRepository;
+
+    @Autowired
+    private AlarmSyncVersionRepository alarmSyncVersionRepository;
+
+    @Autowired
+    private AlarmRepository alarmRepository;
+
+    @Autowired
+    private AlarmBatchWriter alarmBatchWriter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AlarmListVersions alarmListVersions;
+
+    @Test
+    void returnsOnlyChangesSinceVersionCollapsedPerAlarm() {
+        User user = TestUsers.persist(entityManager, "sync");
+        Alarm kept = saveFall(user);
+        Alarm removed = saveFall(user);
+        long firstSync = alarmChangeLog.changesSince(user, 0).getVersion();
+        assertThat(firstSync).isEqualTo(2);
+
+        Alarm added = saveFall(user);
+        alarmService.markRead(added.getAlarmId(), "sync");
+        alarmService.markRead(kept.getAlarmId(), "sync");
+        alarmService.markRead(kept.getAlarmId(), "sync"); // 이미 읽음, 기록 안 함
+        alarmService.deleteAlarm(removed.getAlarmId(), "sync");
+        entityManager.flush();
+        entityManager.clear(); // 요청마다 새 트랜잭션인 것처럼 버전 행을 다시 읽도록
+
+        AlarmChangesResponse changes = alarmChangeLog.changesSince(user, firstSync);
+
+        assertThat(changes.getVersion()).isEqualTo(7); // 추가 1 + 읽음 2 + 낙상 기록 삭제 1 + 알림 삭제 1
+        assertThat(changes.isReset()).isFalse();
+        assertThat(changes.getInserted()).singleElement().satisfies(item -> {
+            assertThat(item.getAlarm().getAlarmId()).isEqualTo(added.getAlarmId());
+            assertThat(item.getAlarm().isRead()).isTrue();
+            assertThat(item.getAlarmType()).isEqualTo(AlarmType.FELL_DETECTION);
+        });
+        assertThat(changes.getUpdated()).singleElement()
+                .satisfies(item -> assertThat(item.getAlarm().getAlarmId()).isEqualTo(kept.getAlarmId()));
+        assertThat(changes.getDeleted()).containsExactly(removed.getAlarmId());
+        assertThat(changes.getDeletedFellDetections()).hasSize(1);
+    }
+
+    @Test
+    void bulkReadIsOneRangeChangeRegardlessOfCount() {
+        User user = TestUsers.persist(entityManager, "bulk");
+        for (int i = 0; i < 5; i++) {
+            saveFall(user);
+        }
+        long synced = alarmChangeLog.changesSince(user, 0).getVersion();
+
+        AlarmReadRequest request = new AlarmReadRequest();
+        request.setAlarmType(AlarmType.FELL_DETECTION);
+        assertThat(alarmService.markRead(user, request)).isEqualTo(5);
+        assertThat(alarmService.markRead(user, request)).isZero(); // 더 읽을 것이 없으면 기록 안 함
+        entityManager.flush();
+        entityManager.clear();
+
+        AlarmChangesResponse changes = alarmChangeLog.changesSince(user, synced);
+
+        assertThat(changes.getVersion()).isEqualTo(synced + 1);
+        assertThat(changes.getUpdated()).isEmpty();
+        assertThat(changes.getReadRanges()).singleElement().satisfies(range -> {
+            assertThat(range.getAlarmType()).isEqualTo(AlarmType.FELL_DETECTION);
+            assertThat(range.getBefore()).isNull();
+        });
+    }
+
+    @Test
+    void idleUserCostsOneStatement() {
+        User user = TestUsers.persist(entityManager, "idle");
+        saveFall(user);
+        long version = alarmChangeLog.changesSince(user, 0).getVersion();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AlarmChangesResponse changes = alarmChangeLog.changesSince(user, version);
+
+        assertThat(changes.getVersion()).isEqualTo(version);
+        assertThat(changes.getInserted()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesLargeBacklogAndResetsAfterPruning() {
+        User user = TestUsers.persist(entityManager, "pruned");
+        for (int i = 0; i < 3; i++) {
+            saveFall(user);
+        }
+
+        AlarmChangeLog smallPages = new AlarmChangeLog(alarmSyncVersionRepository, alarmChangeRepository,
+                alarmRepository, alarmBatchWriter, alarmListVersions, 2);
+        AlarmChangesResponse first = smallPages.changesSince(user, 0);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getInserted()).hasSize(2);
+        entityManager.clear();
+        AlarmChangesResponse second = smallPages.changesSince(user, first.getVersion());
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getVersion()).isEqualTo(3);
+
+        Timestamp future = new Timestamp(System.currentTimeMillis() + 60_000);
+        alarmSyncVersionRepository.raisePrunedVersions(future, List.of(user.getUserPk()));
+        assertThat(alarmChangeRepository.deleteOlderThan(future, 2)).isEqualTo(2);
+        assertThat(alarmChangeRepository.deleteOlderThan(future, 2)).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(alarmChangeLog.changesSince(user, 1).isReset()).isTrue();
+        assertThat(alarmChangeLog.changesSince(user, 99).isReset()).isTrue();
+        assertThat(alarmChangeLog.changesSince(user, 3).isReset()).isFalse();
+    }
+
+    @Test
+    void batchInsertAssignsConsecutiveVersionsPerUser() {
+        User a = TestUsers.persist(entityManager, "batch-a");
+        User b = TestUsers.persist(entityManager, "batch-b");
+        saveFall(a);
+        List<Alarm> batch = List.of(newFall(a), newFall(b), newFall(a));
+        batch.forEach(entityManager::persist);
+        entityManager.flush();
+
+        alarmChangeLog.recordInserted(batch);
+        entityManager.clear();
+
+        AlarmChangesResponse changes = alarmChangeLog.changesSince(a, 1);
+        assertThat(changes.getVersion()).isEqualTo(3);
+        assertThat(changes.getInserted()).hasSize(2);
+        assertThat(alarmChangeLog.changesSince(b, 0).getVersion()).isEqualTo(1);
+        verify(alarmListVersions).bump("batch-b"); // 목록 ETag 도 무효화
+    }
+
+    private Alarm saveFall(User user) {
+        Alarm alarm = newFall(user);
+        entityManager.persist(alarm);
+        entityManager.persist(FellDetection.builder()
+                .isFell(true)
+                .filePath("clips/" + user.getUserId() + ".mp4")
+                .createdAt(alarm.getCreatedAt())
+                .alarm(alarm)
+                .build());
+        entityManager.flush();
+        alarmChangeLog.record(user, EntityType.ALARM, alarm.getAlarmId(), ChangeType.INSERTED);
+        return alarm;
+    }
+
+    private static Alarm newFall(User user) {
+        return Alarm.builder()
+                .title("낙상 감지")
+                .content("아이가 넘어졌습니다.")
+                .isRead(false)
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .user(user)
+                .alarmType(AlarmType.FELL_DETECTION)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmEvent;
+import com.project.kidsvaguard.domain.fell_detection.dto.FallCryRequestDto;
+import com.project.kidsvaguard.domain.fell_detection.service.FallAlarmHandlerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * spill 파일 복구: 반쯤 쓰인 줄이 섞여 있어도 앞뒤 이벤트는 한 번씩만 큐로 돌아오고, 깨진 줄은 .bad 파일로 옮겨집니다.
+ * 워커를 띄우지 않고(start() 미호출) drainSpillFile() 을 직접 불러 큐 깊이 게이지로 확인합니다.
+ */
+class AlarmEventDispatcherSpillTest {
+
+    private static final String CORRUPT = "{\"eventId\":\"half-writ";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void corruptLineIsMovedAsideAndOtherEventsAreRecoveredOnce() throws Exception {
+        AlarmEventDispatcher dispatcher = dispatcher(10);
+        Files.write(spillFile(), List.of(event("kid-1"), CORRUPT, event("kid-2"), "", event("kid-3")), StandardCharsets.UTF_8);
+
+        dispatcher.drainSpillFile();
+
+        assertThat(gauge("alarm.queue.depth")).isEqualTo(3);
+        assertThat(gauge("alarm.queue.spilled")).isZero();
+        assertThat(spillFile()).doesNotExist();
+        assertThat(Files.readAllLines(badFile(), StandardCharsets.UTF_8)).containsExactly(CORRUPT);
+
+        // 다음 주기에 같은 이벤트가 다시 들어가지 않음
+        dispatcher.drainSpillFile();
+        assertThat(gauge("alarm.queue.depth")).isEqualTo(3);
+    }
+
+    @Test
+    void fileIsTruncatedUpToWhatFitsInTheQueue() throws Exception {
+        AlarmEventDispatcher dispatcher = dispatcher(2);
+        Files.write(spillFile(), List.of(event("kid-1"), CORRUPT, event("kid-2"), event("kid-3")), StandardCharsets.UTF_8);
+
+        dispatcher.drainSpillFile();
+
+        assertThat(gauge("alarm.queue.depth")).isEqualTo(2);
+        assertThat(gauge("alarm.queue.spilled")).isEqualTo(1);
+        assertThat(Files.readAllLines(spillFile(), StandardCharsets.UTF_8)).containsExactly(event("kid-3"));
+        assertThat(Files.readAllLines(badFile(), StandardCharsets.UTF_8)).containsExactly(CORRUPT);
+
+        // 큐가 가득 찬 동안에는 파일을 건드리지 않음
+        dispatcher.drainSpillFile();
+        assertThat(Files.readAllLines(spillFile(), StandardCharsets.UTF_8)).hasSize(1);
+    }
+
+    private AlarmEventDispatcher dispatcher(int queueCapacity) {
+        return new AlarmEventDispatcher(mock(FallAlarmHandlerService.class), mock(OverNotifyService.class),
+                objectMapper, meterRegistry, queueCapacity, spillFile().toString());
+    }
+
+    private String event(String userId) throws Exception {
+        FallCryRequestDto fall = new FallCryRequestDto();
+        fall.setUserId(userId);
+        fall.setIsFell(true);
+        return objectMapper.writeValueAsString(AlarmEvent.builder()
+                .eventId("event-" + userId)
+                .type(AlarmEvent.Type.FALL)
+                .fall(fall)
+                .enqueuedAtMillis(1_700_000_000_000L)
+                .build());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private Path spillFile() {
+        return dir.resolve("alarm-events.jsonl");
+    }
+
+    private Path badFile() {
+        return dir.resolve("alarm-events.jsonl.bad");
+    }
+}
@@ -0,0 +1,160 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmDetailResponse;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmFeedResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.fell_detection.dto.FellDetectionResponse;
+import com.project.kidsvaguard.domain.fell_detection.entity.FellDetection;
+import com.project.kidsvaguard.domain.fell_detection.repository.FellDetectionRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 낙상/과밀 알림 목록(페이지/커서)과 사용자별 낙상 기록 조회가 항목 수와 관계없이 같은 수의 SQL 로 끝나는지 확인합니다.
+ * (이전에는 항목마다 fell_detection, user 조회가 붙어 20건 페이지가 40번 넘게 조회)
+ */
+@AlarmJpaTest
+class AlarmFeedQueryCountTest {
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private FellDetectionRepository fellDetectionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void fellFeedUsesSameStatementCountForAnyPageSize() {
+        User user = TestUsers.persist(entityManager, "feed");
+        saveFalls(user, 40);
+
+        long smallPage = countStatements(() -> alarmService.getFellAlarmsByUser("feed", page(5)));
+        long largePage = countStatements(() -> alarmService.getFellAlarmsByUser("feed", page(20)));
+
+        assertThat(largePage).isEqualTo(smallPage);
+        assertThat(largePage).isLessThanOrEqualTo(3); // 사용자 조회 + 목록 + count
+    }
+
+    @Test
+    void fellFeedMapsDetectionAndVideoPath() {
+        User user = TestUsers.persist(entityManager, "mapped");
+        saveFalls(user, 3);
+
+        Page<AlarmDetailResponse> page = alarmService.getFellAlarmsByUser("mapped", page(20));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).allSatisfy(row -> {
+            assertThat(row.getUserId()).isEqualTo("mapped");
+            assertThat(row.getFellDetectionId()).isNotNull();
+            assertThat(row.getIsFell()).isTrue();
+            assertThat(row.getVideoPath()).startsWith("clips/");
+        });
+    }
+
+    @Test
+    void cursorFeedWalksEveryAlarmOnceWithoutCountQuery() {
+        User user = TestUsers.persist(entityManager, "cursor");
+        saveFalls(user, 45);
+        Timestamp sameInstant = new Timestamp(System.currentTimeMillis() - 1000);
+        for (int i = 0; i < 5; i++) { // createdAt 이 같은 알림은 alarmId 로 순서가 정해짐
+            saveFall(user, sameInstant, i);
+        }
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String current = cursor;
+            AlarmFeedResponse[] feed = new AlarmFeedResponse[1];
+            long statements = countStatements(() -> feed[0] = alarmService.getAlarmFeed("cursor", AlarmType.FELL_DETECTION, current, 20));
+            assertThat(statements).isEqualTo(2); // 사용자 조회 + 목록 (count 없음)
+            feed[0].getItems().forEach(row -> assertThat(seen.add(row.getAlarmId())).isTrue());
+            cursor = feed[0].getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(50);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void fellDetectionListUsesSingleStatement() {
+        User small = TestUsers.persist(entityManager, "few");
+        User large = TestUsers.persist(entityManager, "many");
+        saveFalls(small, 2);
+        saveFalls(large, 20);
+
+        long smallList = countStatements(() -> fellDetectionRepository.findResponsesByUserId("few"));
+        long largeList = countStatements(() -> {
+            List<FellDetectionResponse> rows = fellDetectionRepository.findResponsesByUserId("many");
+            assertThat(rows).hasSize(20);
+        });
+
+        assertThat(largeList).isEqualTo(smallList).isEqualTo(1);
+    }
+
+    private long countStatements(Runnable query) {
+        entityManager.flush();
+        entityManager.clear(); // 영속성 컨텍스트에 남은 엔티티로 조회가 생략되지 않도록
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static PageRequest page(int size) {
+        return PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    private void saveFalls(User user, int count) {
+        for (int i = 0; i < count; i++) {
+            saveFall(user, new Timestamp(System.currentTimeMillis() + i), i);
+        }
+    }
+
+    private void saveFall(User user, Timestamp createdAt, int i) {
+        Alarm alarm = Alarm.builder()
+                .title("낙상 감지")
+                .content("아이가 넘어졌습니다.")
+                .isRead(false)
+                .createdAt(createdAt)
+                .user(user)
+                .alarmType(AlarmType.FELL_DETECTION)
+                .build();
+        entityManager.persist(alarm);
+        entityManager.persist(FellDetection.builder()
+                .isFell(true)
+                .filePath("clips/" + user.getUserId() + "-" + i + ".mp4")
+                .createdAt(createdAt)
+                .alarm(alarm)
+                .build());
+    }
+}
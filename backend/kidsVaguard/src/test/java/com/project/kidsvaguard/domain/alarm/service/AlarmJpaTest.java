@@ -0,0 +1,30 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.repository.AlarmBatchWriter;
+import com.project.kidsvaguard.global.storage.VideoStorageService;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 알림 서비스 + 저장소를 H2(application-h2.properties, Flyway 스키마)에서 돌리는 테스트 공용 설정.
+ * 영상 저장소와 목록 ETag 버전은 목으로 두며, 필요한 테스트는 @Autowired 로 받아 검증합니다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AlarmService.class, AlarmChangeLog.class, AlarmUnreadCounter.class, AlarmBatchWriter.class})
+@MockitoBean(types = {VideoStorageService.class, AlarmListVersions.class})
+public @interface AlarmJpaTest {
+}
@@ -0,0 +1,55 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 목록 ETag 용 메모리 버전: 쓰기 후 ETag 가 바뀌는지, 맵을 비워도 예전 ETag 가 다시 맞지 않는지, 304 비율 지표.
+ */
+class AlarmListVersionsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void bumpChangesOnlyThatUsersEtag() {
+        AlarmListVersions versions = new AlarmListVersions(meterRegistry, 100);
+        String mine = versions.etag("kid", "fell", "page0");
+        String other = versions.etag("other", "fell", "page0");
+
+        versions.bump("kid");
+
+        assertThat(versions.etag("kid", "fell", "page0")).isNotEqualTo(mine);
+        assertThat(versions.etag("other", "fell", "page0")).isEqualTo(other);
+        assertThat(versions.etag("kid", "fell", "page1")).isNotEqualTo(versions.etag("kid", "fell", "page0"));
+    }
+
+    @Test
+    void evictionNeverRevivesAStaleEtag() {
+        AlarmListVersions versions = new AlarmListVersions(meterRegistry, 2);
+        String before = versions.etag("kid", "fell");
+        versions.bump("kid");
+        String afterWrite = versions.etag("kid", "fell");
+
+        versions.bump("a");
+        versions.bump("b"); // max-entries 초과 -> 맵 비움
+
+        String afterEviction = versions.etag("kid", "fell");
+        assertThat(afterEviction).isNotEqualTo(before).isNotEqualTo(afterWrite);
+    }
+
+    @Test
+    void weakComparisonAndNotModifiedRatio() {
+        AlarmListVersions versions = new AlarmListVersions(meterRegistry, 100);
+        String etag = versions.etag("kid", "fell");
+        String strong = etag.substring(2);
+
+        assertThat(versions.notModified(etag, etag)).isTrue();
+        assertThat(versions.notModified("\"other\", " + strong, etag)).isTrue();
+        assertThat(versions.notModified("*", etag)).isTrue();
+        assertThat(versions.notModified(null, etag)).isFalse();
+
+        assertThat(meterRegistry.get("alarm.list.not_modified.ratio").gauge().value()).isEqualTo(0.75);
+    }
+}
@@ -0,0 +1,195 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.service.UserDeviceTokenCache;
+import com.project.kidsvaguard.global.fcm.FcmService;
+import com.project.kidsvaguard.global.fcm.PushResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 과밀 푸시 묶음: 첫 알림은 즉시, 뒤따른 알림은 창이 닫힐 때 요약 1건.
+ * 시계를 직접 움직이며 advance() 를 호출해 타이머 휠(칸 수보다 긴 창, 밀린 tick 따라잡기)과 닫힘/추가 경합을 확인합니다.
+ */
+class AlarmPushCoalescerTest {
+
+    private static final long TICK_MILLIS = 100;
+    private static final long WINDOW_SECONDS = 60;
+    private static final Pattern SUMMARY = Pattern.compile("과밀 감지 (\\d+)건");
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final RecordingFcm fcm = new RecordingFcm();
+    private final User user = User.builder().userPk(1L).userId("kid").build();
+    private final User other = User.builder().userPk(2L).userId("other").build();
+    private AlarmPushCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        UserDeviceTokenCache tokens = mock(UserDeviceTokenCache.class);
+        when(tokens.tokensOf(any(User.class))).thenReturn(List.of("token"));
+        // 휠 8칸 < 창 600 tick: 같은 칸을 여러 번 돌아도 마감 tick 전에는 닫히지 않아야 함
+        coalescer = new AlarmPushCoalescer(fcm, tokens, new SimpleMeterRegistry(), true,
+                WINDOW_SECONDS, TICK_MILLIS, 8, clock::get);
+    }
+
+    @Test
+    void firstAlarmIsSentAtOnceAndFollowersAreSummarized() {
+        submit(user, 1, AlarmType.OVERCROWDING, "현재 인원: 12명 (최대 10명)");
+        assertThat(fcm.sent()).containsExactly(new Sent(1L, "현재 인원: 12명 (최대 10명)"));
+
+        submit(user, 2, AlarmType.OVERCROWDING, "현재 인원: 15명 (최대 10명)");
+        submit(user, 3, AlarmType.OVERCROWDING, "현재 인원: 13명 (최대 10명)");
+        elapse(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS) - TICK_MILLIS);
+        assertThat(fcm.sent()).hasSize(1);
+
+        elapse(TICK_MILLIS);
+        assertThat(fcm.sent()).containsExactly(
+                new Sent(1L, "현재 인원: 12명 (최대 10명)"),
+                new Sent(3L, "과밀 감지 2건, 최대 15명"));
+    }
+
+    @Test
+    void lonelyAlarmSendsNothingMoreAndSingleFollowerKeepsItsText() {
+        submit(user, 1, AlarmType.OVERCROWDING, "현재 인원: 12명");
+        submit(other, 2, AlarmType.OVERCROWDING, "현재 인원: 11명");
+        submit(other, 3, AlarmType.OVERCROWDING, "현재 인원: 14명");
+
+        elapse(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS));
+
+        assertThat(fcm.sent()).containsExactly(
+                new Sent(1L, "현재 인원: 12명"),
+                new Sent(2L, "현재 인원: 11명"),
+                new Sent(3L, "현재 인원: 14명"));
+    }
+
+    @Test
+    void fallAlarmsBypassTheWindow() {
+        submit(user, 1, AlarmType.FELL_DETECTION, "낙상");
+        submit(user, 2, AlarmType.FELL_DETECTION, "낙상");
+
+        assertThat(fcm.sent()).extracting(Sent::alarmId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void staggeredWindowsCloseOnTheirOwnDeadlineEvenAfterACatchUp() {
+        submit(user, 1, AlarmType.OVERCROWDING, "a");
+        submit(user, 2, AlarmType.OVERCROWDING, "b");
+        elapse(30_000);
+        submit(other, 3, AlarmType.OVERCROWDING, "c");
+        submit(other, 4, AlarmType.OVERCROWDING, "d");
+
+        // 틱을 건너뛰고 한 번에 따라잡아도 첫 창만 닫힘
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(35_000));
+        coalescer.advance();
+        assertThat(fcm.sent()).extracting(Sent::alarmId).containsExactly(1L, 3L, 2L);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(30_000));
+        coalescer.advance();
+        assertThat(fcm.sent()).extracting(Sent::alarmId).containsExactly(1L, 3L, 2L, 4L);
+    }
+
+    @Test
+    void alarmArrivingAfterCloseOpensANewWindow() {
+        submit(user, 1, AlarmType.OVERCROWDING, "a");
+        submit(user, 2, AlarmType.OVERCROWDING, "b");
+        elapse(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS));
+        submit(user, 3, AlarmType.OVERCROWDING, "c");
+
+        assertThat(fcm.sent()).extracting(Sent::alarmId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void everyAlarmIsCountedOnceWhileWindowsCloseConcurrently() throws InterruptedException {
+        int threads = 4;
+        int perThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong ids = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        submit(user, ids.incrementAndGet(), AlarmType.OVERCROWDING, "현재 인원: 11명");
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        // 제출과 동시에 창을 계속 닫음 (닫히는 창에 add 하려던 알림은 새 창의 첫 알림이 되어야 함)
+        while (done.getCount() > 0) {
+            elapse(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS));
+        }
+        pool.shutdown();
+        elapse(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS));
+
+        long delivered = 0;
+        for (Sent sent : fcm.sent()) {
+            Matcher summary = SUMMARY.matcher(sent.content());
+            delivered += summary.find() ? Long.parseLong(summary.group(1)) : 1;
+        }
+        assertThat(delivered).isEqualTo((long) threads * perThread);
+    }
+
+    private void submit(User owner, long alarmId, AlarmType type, String content) {
+        Alarm alarm = Alarm.builder().alarmId(alarmId).alarmType(type).build();
+        coalescer.submit(owner, alarm, "과밀 감지", content);
+    }
+
+    // tick 단위로 시계를 움직이며 매 tick advance()
+    private void elapse(long millis) {
+        for (long t = 0; t < millis; t += TICK_MILLIS) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS));
+            coalescer.advance();
+        }
+    }
+
+    record Sent(Long alarmId, String content) {
+    }
+
+    private static final class RecordingFcm implements FcmService {
+
+        private final List<Sent> sent = new ArrayList<>();
+
+        synchronized List<Sent> sent() {
+            return new ArrayList<>(sent);
+        }
+
+        @Override
+        public void sendMessageTo(String targetToken, String title, String body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<PushResult> sendAlarm(Long alarmId, String targetToken, String title, String body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized CompletableFuture<List<PushResult>> sendAlarm(Long alarmId, Collection<String> targetTokens,
+                                                                          String title, String body) {
+            sent.add(new Sent(alarmId, body));
+            return CompletableFuture.completedFuture(List.of());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 알림 억제: 쿨다운 판단, 같은 시각 동시 요청 중 한 건만 통과하는 CAS, 저장 실패 시 forget, 항목 수 한도와 정리.
+ * 시각은 tryAcquire(..., now) 로 직접 넘깁니다.
+ */
+class AlarmSuppressionServiceTest {
+
+    private static final long COOLDOWN_MILLIS = 30_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AlarmSuppressionService> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(AlarmSuppressionService::shutdown);
+    }
+
+    @Test
+    void cooldownIsPerUserCameraAndType() {
+        AlarmSuppressionService suppression = service(100);
+
+        assertThat(suppression.tryAcquire("kid", "cam1", AlarmType.FELL_DETECTION, 1_000)).isEqualTo(1_000);
+        assertThat(suppression.tryAcquire("kid", "cam1", AlarmType.FELL_DETECTION, 1_000 + COOLDOWN_MILLIS - 1)).isEqualTo(-1);
+        assertThat(suppression.tryAcquire("kid", "cam2", AlarmType.FELL_DETECTION, 2_000)).isEqualTo(2_000);
+        assertThat(suppression.tryAcquire("kid", "cam1", AlarmType.OVERCROWDING, 2_000)).isEqualTo(2_000);
+        assertThat(suppression.tryAcquire("other", "cam1", AlarmType.FELL_DETECTION, 2_000)).isEqualTo(2_000);
+        assertThat(suppression.tryAcquire("kid", "cam1", AlarmType.FELL_DETECTION, 1_000 + COOLDOWN_MILLIS))
+                .isEqualTo(1_000 + COOLDOWN_MILLIS);
+
+        // 카메라 없음은 "default" 카메라와 같은 키
+        assertThat(suppression.tryAcquire("kid", null, AlarmType.FELL_DETECTION, 5_000)).isEqualTo(5_000);
+        assertThat(suppression.tryAcquire("kid", AlarmSuppressionService.DEFAULT_CAMERA, AlarmType.FELL_DETECTION, 5_001)).isEqualTo(-1);
+
+        assertThat(meterRegistry.get("alarm.suppressed").tag("type", "FELL_DETECTION").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void onlyOneConcurrentCallerWinsTheSameWindow() throws Exception {
+        AlarmSuppressionService suppression = service(100);
+        suppression.tryAcquire("kid", "cam", AlarmType.OVERCROWDING, 0);
+
+        int threads = 16;
+        for (int round = 1; round <= 50; round++) {
+            long now = round * COOLDOWN_MILLIS;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<Long>> results = new ArrayList<>();
+            Callable<Long> call = () -> {
+                start.await();
+                return suppression.tryAcquire("kid", "cam", AlarmType.OVERCROWDING, now);
+            };
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(call));
+            }
+            start.countDown();
+            int passed = 0;
+            for (Future<Long> result : results) {
+                if (result.get() != -1) {
+                    passed++;
+                }
+            }
+            pool.shutdown();
+            assertThat(passed).as("round %d", round).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void forgetOnlyClearsTheCallersOwnSlot() {
+        AlarmSuppressionService suppression = service(100);
+        long acquired = suppression.tryAcquire("kid", "cam", AlarmType.FELL_DETECTION, 1_000);
+
+        suppression.forget("kid", "cam", AlarmType.FELL_DETECTION, acquired); // 저장 실패
+        assertThat(suppression.tryAcquire("kid", "cam", AlarmType.FELL_DETECTION, 1_001)).isEqualTo(1_001);
+
+        suppression.forget("kid", "cam", AlarmType.FELL_DETECTION, acquired); // 이미 다른 알림이 자리를 잡음
+        assertThat(suppression.tryAcquire("kid", "cam", AlarmType.FELL_DETECTION, 1_002)).isEqualTo(-1);
+    }
+
+    @Test
+    void fullTablePassesNewKeysAndSweepDropsExpiredOnes() {
+        AlarmSuppressionService suppression = service(1);
+        long longAgo = System.currentTimeMillis() - 2 * COOLDOWN_MILLIS;
+        suppression.tryAcquire("kid", "cam", AlarmType.FELL_DETECTION, longAgo);
+
+        // 한도가 차면 새 키는 기록 없이 통과 (억제하지 않음)
+        long now = System.currentTimeMillis();
+        assertThat(suppression.tryAcquire("other", "cam", AlarmType.FELL_DETECTION, now)).isEqualTo(now);
+        assertThat(suppression.tryAcquire("other", "cam", AlarmType.FELL_DETECTION, now)).isEqualTo(now);
+        assertThat(suppression.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("alarm.suppression.overflow").counter().count()).isEqualTo(2);
+
+        suppression.sweep();
+        assertThat(suppression.size()).isZero();
+    }
+
+    private AlarmSuppressionService service(long maxEntries) {
+        AlarmSuppressionService service = new AlarmSuppressionService(meterRegistry, true,
+                COOLDOWN_MILLIS / 1000, COOLDOWN_MILLIS / 1000, maxEntries);
+        created.add(service);
+        return service;
+    }
+}
@@ -0,0 +1,142 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.alarm.dto.AlarmReadRequest;
+import com.project.kidsvaguard.domain.alarm.dto.AlarmUnreadCountResponse;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm;
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.alarm.repository.AlarmRepository;
+import com.project.kidsvaguard.domain.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 일괄 읽음 처리(아이디 / 타입 / 시각 이전)와 사용자·타입별 안 읽은 알림 카운터,
+ * 배지 조회가 alarm 테이블을 세지 않고 카운터 조회 1번으로 끝나는지 확인합니다.
+ * (카운터 도입 전 알림의 집계는 SchemaMigrationTest)
+ */
+@AlarmJpaTest
+class AlarmUnreadCounterTest {
+
+    private static final long BASE = System.currentTimeMillis() - 60_000;
+
+    @Autowired
+    private AlarmService alarmService;
+
+    @Autowired
+    private AlarmUnreadCounter alarmUnreadCounter;
+
+    @Autowired
+    private AlarmRepository alarmRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkReadKeepsCountersInStep() {
+        User user = TestUsers.persist(entityManager, "reader");
+        User other = TestUsers.persist(entityManager, "other");
+        List<Alarm> falls = insert(user, AlarmType.FELL_DETECTION, 3);
+        List<Alarm> crowds = insert(user, AlarmType.OVERCROWDING, 2);
+        List<Alarm> foreign = insert(other, AlarmType.FELL_DETECTION, 1);
+        assertBadge(user, 3, 2);
+
+        int byIds = alarmService.markRead(user, request(List.of(falls.get(0).getAlarmId(), crowds.get(0).getAlarmId(),
+                foreign.get(0).getAlarmId()), null, null));
+        assertThat(byIds).isEqualTo(2); // 다른 사용자의 알림은 제외
+        assertBadge(user, 2, 1);
+        assertBadge(other, 1, 0);
+
+        assertThat(alarmService.markRead(user, request(null, AlarmType.OVERCROWDING, null))).isEqualTo(1);
+        assertBadge(user, 2, 0);
+
+        String before = new Timestamp(falls.get(1).getCreatedAt().getTime()).toString();
+        assertThat(alarmService.markRead(user, request(null, null, before))).isEqualTo(1); // falls[0] 은 이미 읽음
+        assertBadge(user, 1, 0);
+
+        alarmService.markRead(falls.get(1).getAlarmId(), "reader"); // 이미 읽음, 카운터 그대로
+        alarmService.deleteAlarm(falls.get(2).getAlarmId(), "reader"); // 안 읽은 알림 삭제
+        alarmService.deleteAlarm(crowds.get(1).getAlarmId(), "reader"); // 읽은 알림 삭제
+        assertBadge(user, 0, 0);
+        assertThat(alarmRepository.findById(falls.get(1).getAlarmId()).orElseThrow().getIsRead()).isTrue();
+    }
+
+    @Test
+    void badgeIsOneCounterLookup() {
+        User user = TestUsers.persist(entityManager, "badge");
+        insert(user, AlarmType.FELL_DETECTION, 50);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AlarmUnreadCountResponse badge = alarmService.getUnreadCount(user);
+
+        assertThat(badge.getTotal()).isEqualTo(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAmbiguousOrEmptyRequests() {
+        User user = TestUsers.persist(entityManager, "bad");
+        assertThatThrownBy(() -> alarmService.markRead(user, request(null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> alarmService.markRead(user, request(List.of(1L), AlarmType.OVERCROWDING, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> alarmService.markRead(user, request(null, null, "yesterday")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertBadge(User user, long fell, long overcrowding) {
+        entityManager.flush();
+        entityManager.clear();
+        AlarmUnreadCountResponse badge = alarmService.getUnreadCount(user);
+        assertThat(badge.getFellDetection()).isEqualTo(fell);
+        assertThat(badge.getOvercrowding()).isEqualTo(overcrowding);
+        assertThat(badge.getTotal()).isEqualTo(fell + overcrowding);
+    }
+
+    private List<Alarm> insert(User user, AlarmType alarmType, int count) {
+        List<Alarm> alarms = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Alarm alarm = alarm(user, alarmType, i);
+            entityManager.persist(alarm);
+            alarms.add(alarm);
+        }
+        entityManager.flush();
+        alarmUnreadCounter.addInserted(alarms);
+        return alarms;
+    }
+
+    private static Alarm alarm(User user, AlarmType alarmType, int i) {
+        return Alarm.builder()
+                .title("알림")
+                .content("내용")
+                .isRead(false)
+                .createdAt(new Timestamp(BASE + i * 1000L))
+                .user(user)
+                .alarmType(alarmType)
+                .build();
+    }
+
+    private static AlarmReadRequest request(List<Long> alarmIds, AlarmType alarmType, String before) {
+        AlarmReadRequest request = new AlarmReadRequest();
+        request.setAlarmIds(alarmIds);
+        request.setAlarmType(alarmType);
+        request.setBefore(before);
+        return request;
+    }
+}
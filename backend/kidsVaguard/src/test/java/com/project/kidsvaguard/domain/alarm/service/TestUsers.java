@@ -0,0 +1,35 @@
+package com.project.kidsvaguard.domain.alarm.service;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import jakarta.persistence.EntityManager;
+
+import java.sql.Timestamp;
+
+/**
+ * H2 저장소 테스트 공용 사용자 픽스처 (@AlarmJpaTest / @DataJpaTest).
+ * userId 만 다르고 나머지 필수 컬럼은 고정값으로 채웁니다.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    public static User build(String userId) {
+        return User.builder()
+                .userId(userId)
+                .password("{noop}password")
+                .username(userId)
+                .phone("010-0000-0000")
+                .email(userId + "@test.local")
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .alarmSetting(true)
+                .role(User.Role.USER)
+                .build();
+    }
+
+    public static User persist(EntityManager entityManager, String userId) {
+        User user = build(userId);
+        entityManager.persist(user);
+        return user;
+    }
+}
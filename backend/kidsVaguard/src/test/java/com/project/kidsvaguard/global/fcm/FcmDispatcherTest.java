@@ -0,0 +1,185 @@
+package com.project.kidsvaguard.global.fcm;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FCM 디스패처: submitAll 로 넣은 그룹은 묶음 사이에서 나뉘지 않고, 넘치는 그룹은 다음 묶음 맨 앞으로 넘어감(carry),
+ * batch-size 보다 큰 그룹은 batch-size 단위로 나뉨, 큐가 차면 QUEUE_FULL, 전송 예외는 메시지별 실패로 완료.
+ * 전송은 보낸 묶음을 기록하고 gate 가 열릴 때까지 결과를 미루는 스텁을 씁니다.
+ */
+class FcmDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingTransport transport = new RecordingTransport();
+    private final List<FcmDispatcher> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transport.gate.complete(null);
+        for (FcmDispatcher dispatcher : created) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void groupThatDoesNotFitIsCarriedToTheNextBatch() throws Exception {
+        transport.gate = new CompletableFuture<>();
+        FcmDispatcher dispatcher = dispatcher(100, 5, 500, 1);
+
+        // 첫 묶음이 끝나지 않아 다음 묶음은 모인 채로 발송 슬롯을 기다림
+        dispatcher.submit(message("warm"));
+        assertThat(transport.firstSend.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<CompletableFuture<PushResult>> futures = new ArrayList<>();
+        futures.addAll(dispatcher.submitAll(messages("a", 3)));
+        futures.addAll(dispatcher.submitAll(messages("b", 3)));
+        futures.addAll(dispatcher.submitAll(messages("c", 2)));
+        transport.gate.complete(null);
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(transport.batches()).containsExactly(
+                List.of("warm"),
+                List.of("a0", "a1", "a2"),
+                List.of("b0", "b1", "b2", "c0", "c1"));
+        assertThat(futures).allSatisfy(future -> assertThat(future.join().isSuccess()).isTrue());
+    }
+
+    @Test
+    void groupLargerThanBatchSizeIsSplitAndResultsKeepOrder() throws Exception {
+        FcmDispatcher dispatcher = dispatcher(100, 5, 0, 8);
+
+        List<CompletableFuture<PushResult>> futures = dispatcher.submitAll(messages("d", 12));
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).join().getMessage().getToken()).isEqualTo("d" + i);
+        }
+        assertThat(transport.batches()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(5));
+        assertThat(transport.batches().stream().mapToInt(List::size).sum()).isEqualTo(12);
+        assertThat(meterRegistry.get("fcm.messages").tag("result", "success").counter().count()).isEqualTo(12);
+    }
+
+    @Test
+    void fullQueueFailsImmediatelyWithQueueFull() throws Exception {
+        transport.gate = new CompletableFuture<>();
+        FcmDispatcher dispatcher = dispatcher(1, 1, 0, 1);
+
+        CompletableFuture<PushResult> sending = dispatcher.submit(message("sending"));
+        assertThat(transport.firstSend.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<PushResult> waitingForSlot = dispatcher.submit(message("waiting"));
+        awaitQueueDepth(dispatcher, 0);
+        CompletableFuture<PushResult> queued = dispatcher.submit(message("queued"));
+
+        CompletableFuture<PushResult> overflow = dispatcher.submit(message("overflow"));
+        assertThat(overflow).isDone();
+        assertThat(overflow.join().getErrorCode()).isEqualTo(PushResult.QUEUE_FULL);
+        assertThat(overflow.join().isRetryable()).isTrue();
+
+        transport.gate.complete(null);
+        assertThat(sending.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(waitingForSlot.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(meterRegistry.get("fcm.messages").tag("result", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void transportExceptionCompletesEveryMessageAsFailure() throws Exception {
+        transport.failWith = new IllegalStateException("boom");
+        FcmDispatcher dispatcher = dispatcher(100, 5, 0, 1);
+
+        List<CompletableFuture<PushResult>> futures = dispatcher.submitAll(messages("e", 3));
+
+        for (CompletableFuture<PushResult> future : futures) {
+            PushResult result = future.get(5, TimeUnit.SECONDS);
+            assertThat(result.isSuccess()).isFalse();
+            assertThat(result.getErrorCode()).isEqualTo("TRANSPORT_ERROR");
+        }
+        assertThat(meterRegistry.get("fcm.messages").tag("result", "failure").counter().count()).isEqualTo(3);
+
+        // 예외 후에도 발송 슬롯이 돌아와 다음 묶음을 보냄
+        transport.failWith = null;
+        assertThat(dispatcher.submit(message("after")).get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+    }
+
+    @Test
+    void shutdownSendsWhatIsAlreadyQueued() throws Exception {
+        transport.gate = new CompletableFuture<>();
+        FcmDispatcher dispatcher = dispatcher(100, 1, 0, 1);
+
+        List<CompletableFuture<PushResult>> futures = dispatcher.submitAll(messages("s", 3));
+        assertThat(transport.firstSend.await(5, TimeUnit.SECONDS)).isTrue();
+        transport.gate.complete(null);
+        dispatcher.shutdown();
+
+        assertThat(futures).allSatisfy(future -> assertThat(future.get(5, TimeUnit.SECONDS).isSuccess()).isTrue());
+        assertThat(dispatcher.submit(message("late")).join().getErrorCode()).isEqualTo(PushResult.QUEUE_FULL);
+    }
+
+    private FcmDispatcher dispatcher(int queueCapacity, int batchSize, long lingerMillis, int maxInFlight) {
+        FcmDispatcher dispatcher = new FcmDispatcher(transport, meterRegistry, queueCapacity, batchSize, lingerMillis, maxInFlight);
+        created.add(dispatcher);
+        return dispatcher;
+    }
+
+    private static void awaitQueueDepth(FcmDispatcher dispatcher, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.queueDepth() != depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(dispatcher.queueDepth()).isEqualTo(depth);
+    }
+
+    private static PushMessage message(String token) {
+        return new PushMessage(1L, token, "제목", "내용");
+    }
+
+    private static List<PushMessage> messages(String prefix, int count) {
+        List<PushMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(message(prefix + i));
+        }
+        return messages;
+    }
+
+    /**
+     * 보낸 묶음의 토큰을 순서대로 기록하고, gate 가 완료될 때 모두 성공으로 돌려줍니다.
+     */
+    private static final class RecordingTransport implements PushTransport {
+
+        private final List<List<String>> sent = new ArrayList<>();
+        private final CountDownLatch firstSend = new CountDownLatch(1);
+        private volatile CompletableFuture<Void> gate = CompletableFuture.completedFuture(null);
+        private volatile RuntimeException failWith;
+
+        @Override
+        public CompletableFuture<List<PushResult>> send(List<PushMessage> messages) {
+            synchronized (sent) {
+                sent.add(messages.stream().map(PushMessage::getToken).toList());
+            }
+            firstSend.countDown();
+            if (failWith != null) {
+                throw failWith;
+            }
+            List<PushResult> results = messages.stream()
+                    .map(message -> PushResult.success(message, "id-" + message.getToken()))
+                    .toList();
+            return gate.thenApply(ignored -> results);
+        }
+
+        List<List<String>> batches() {
+            synchronized (sent) {
+                return new ArrayList<>(sent);
+            }
+        }
+    }
+}
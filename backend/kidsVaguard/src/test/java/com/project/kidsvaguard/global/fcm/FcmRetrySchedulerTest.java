@@ -0,0 +1,233 @@
+package com.project.kidsvaguard.global.fcm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FCM 재시도: 백오프 범위(지수 증가, 최대값, 지터), 일시 오류만 재시도, 다 쓰면 dead-letter 기록, 재기동 시 재발송(오래된/깨진 항목 제외),
+ * 종료 시 대기 중인 재시도를 dead-letter 로 넘김. 전송은 토큰별로 정해 둔 오류를 차례로 돌려주는 스텁을 씁니다.
+ */
+class FcmRetrySchedulerTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScriptedTransport transport = new ScriptedTransport();
+    private final List<FcmDispatcher> dispatchers = new ArrayList<>();
+    private final List<FcmRetryScheduler> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        created.forEach(FcmRetryScheduler::shutdown);
+        for (FcmDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void backoffGrowsExponentiallyWithinJitterAndCap() {
+        FcmRetryScheduler retry = scheduler(5, 100, 1_000);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(retry.backoffMillis(1)).isBetween(50L, 100L);
+            assertThat(retry.backoffMillis(2)).isBetween(100L, 200L);
+            assertThat(retry.backoffMillis(4)).isBetween(400L, 800L);
+            assertThat(retry.backoffMillis(5)).isBetween(500L, 1_000L); // 1600 -> 최대값
+            assertThat(retry.backoffMillis(64)).isBetween(500L, 1_000L); // 시프트 넘침도 최대값
+        }
+    }
+
+    @Test
+    void transientFailuresAreRetriedUntilSuccess() throws Exception {
+        transport.fail("flaky", "UNAVAILABLE", "INTERNAL");
+        FcmRetryScheduler retry = scheduler(5, 1, 5);
+
+        PushResult result = retry.deliver(message("flaky")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(transport.sentCount("flaky")).isEqualTo(3);
+        assertThat(meterRegistry.get("fcm.retries").tag("code", "UNAVAILABLE").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fcm.retries").tag("code", "INTERNAL").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fcm.delivery.attempts").summary().max()).isEqualTo(3);
+        assertThat(deadLetterFile()).doesNotExist();
+    }
+
+    @Test
+    void permanentFailureIsNotRetried() throws Exception {
+        transport.fail("gone", "UNREGISTERED");
+        FcmRetryScheduler retry = scheduler(5, 1, 5);
+
+        List<CompletableFuture<PushResult>> futures = retry.deliverAll(List.of(message("gone"), message("ok")));
+
+        assertThat(futures.get(0).get(5, TimeUnit.SECONDS).getErrorCode()).isEqualTo("UNREGISTERED");
+        assertThat(futures.get(1).get(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(transport.sentCount("gone")).isEqualTo(1);
+        assertThat(deadLetterFile()).doesNotExist();
+    }
+
+    @Test
+    void exhaustedRetriesAreDeadLetteredAndReplayedOnRestart() throws Exception {
+        transport.fail("down", "UNAVAILABLE", "UNAVAILABLE", "QUOTA_EXCEEDED");
+        FcmRetryScheduler retry = scheduler(3, 1, 5);
+
+        PushResult result = retry.deliver(message("down")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getErrorCode()).isEqualTo("QUOTA_EXCEEDED");
+        List<String> lines = Files.readAllLines(deadLetterFile(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(1);
+        FcmDeadLetter entry = objectMapper.readValue(lines.get(0), FcmDeadLetter.class);
+        assertThat(entry.getToken()).isEqualTo("down");
+        assertThat(entry.getAlarmId()).isEqualTo(7L);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+        assertThat(entry.getLastErrorCode()).isEqualTo("QUOTA_EXCEEDED");
+
+        // 다음 기동: 같은 파일을 읽어 다시 보내고, 모두 끝나면 파일을 지움
+        FcmRetryScheduler restarted = scheduler(3, 1, 5);
+        restarted.replayDeadLetters();
+
+        await(() -> transport.sentCount("down") == 4);
+        await(() -> !Files.exists(replayingFile()));
+        assertThat(deadLetterFile()).doesNotExist();
+        assertThat(meterRegistry.get("fcm.dead_letter").tag("result", "written").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fcm.dead_letter").tag("result", "replayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void replaySkipsExpiredAndUnreadableEntries() throws Exception {
+        long now = System.currentTimeMillis();
+        Files.write(deadLetterFile(), List.of(
+                objectMapper.writeValueAsString(new FcmDeadLetter(1L, "stale", "제목", "내용",
+                        now - TimeUnit.HOURS.toMillis(25), 5, "UNAVAILABLE")),
+                "{not json",
+                "",
+                objectMapper.writeValueAsString(new FcmDeadLetter(2L, "fresh", "제목", "내용",
+                        now - TimeUnit.MINUTES.toMillis(5), 5, "UNAVAILABLE"))), StandardCharsets.UTF_8);
+        FcmRetryScheduler retry = scheduler(5, 1, 5);
+
+        retry.replayDeadLetters();
+
+        await(() -> !Files.exists(replayingFile()));
+        assertThat(transport.sentCount("fresh")).isEqualTo(1);
+        assertThat(transport.sentCount("stale")).isZero();
+        assertThat(meterRegistry.get("fcm.dead_letter").tag("result", "expired").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fcm.dead_letter").tag("result", "replayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void replayPicksUpAnUnfinishedReplayFile() throws Exception {
+        long now = System.currentTimeMillis();
+        Files.write(replayingFile(), List.of(objectMapper.writeValueAsString(
+                new FcmDeadLetter(1L, "interrupted", "제목", "내용", now, 5, "UNAVAILABLE"))), StandardCharsets.UTF_8);
+        Files.write(deadLetterFile(), List.of(objectMapper.writeValueAsString(
+                new FcmDeadLetter(2L, "newer", "제목", "내용", now, 5, "UNAVAILABLE"))), StandardCharsets.UTF_8);
+        FcmRetryScheduler retry = scheduler(5, 1, 5);
+
+        retry.replayDeadLetters();
+
+        await(() -> !Files.exists(replayingFile()));
+        assertThat(transport.sentCount("interrupted")).isEqualTo(1);
+        assertThat(transport.sentCount("newer")).isEqualTo(1);
+        assertThat(deadLetterFile()).doesNotExist();
+    }
+
+    @Test
+    void shutdownDeadLettersRetriesStillWaitingForTheirBackoff() throws Exception {
+        transport.fail("later", "UNAVAILABLE");
+        FcmRetryScheduler retry = scheduler(5, 60_000, 60_000);
+
+        retry.deliver(message("later"));
+        await(() -> meterRegistry.get("fcm.retry.waiting").gauge().value() == 1);
+        retry.shutdown();
+
+        assertThat(meterRegistry.get("fcm.retry.waiting").gauge().value()).isZero();
+        List<String> lines = Files.readAllLines(deadLetterFile(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(1);
+        assertThat(objectMapper.readValue(lines.get(0), FcmDeadLetter.class).getAttempts()).isEqualTo(1);
+        assertThat(transport.sentCount("later")).isEqualTo(1);
+    }
+
+    private FcmRetryScheduler scheduler(int maxAttempts, long initialBackoffMillis, long maxBackoffMillis) {
+        FcmDispatcher dispatcher = new FcmDispatcher(transport, meterRegistry, 100, 10, 0, 4);
+        dispatchers.add(dispatcher);
+        FcmRetryScheduler retry = new FcmRetryScheduler(dispatcher, objectMapper, meterRegistry,
+                maxAttempts, initialBackoffMillis, maxBackoffMillis, 24, deadLetterFile().toString());
+        created.add(retry);
+        return retry;
+    }
+
+    private Path deadLetterFile() {
+        return dir.resolve("fcm-dead-letter.jsonl");
+    }
+
+    private Path replayingFile() {
+        return dir.resolve("fcm-dead-letter.jsonl.replaying");
+    }
+
+    private static PushMessage message(String token) {
+        return new PushMessage(7L, token, "낙상 감지", "테스트 알림");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * 토큰마다 정해 둔 오류 코드를 보낼 때마다 하나씩 돌려주고, 다 쓰면 성공을 돌려줍니다.
+     */
+    private static final class ScriptedTransport implements PushTransport {
+
+        private final Map<String, Deque<String>> failures = new ConcurrentHashMap<>();
+        private final Map<String, Integer> sent = new ConcurrentHashMap<>();
+
+        void fail(String token, String... errorCodes) {
+            failures.put(token, new ArrayDeque<>(List.of(errorCodes)));
+        }
+
+        int sentCount(String token) {
+            return sent.getOrDefault(token, 0);
+        }
+
+        @Override
+        public CompletableFuture<List<PushResult>> send(List<PushMessage> messages) {
+            List<PushResult> results = new ArrayList<>(messages.size());
+            for (PushMessage message : messages) {
+                sent.merge(message.getToken(), 1, Integer::sum);
+                Deque<String> script = failures.get(message.getToken());
+                String errorCode;
+                synchronized (failures) {
+                    errorCode = script == null ? null : script.poll();
+                }
+                results.add(errorCode == null
+                        ? PushResult.success(message, "id-" + message.getToken())
+                        : PushResult.failure(message, errorCode, "scripted"));
+            }
+            return CompletableFuture.completedFuture(results);
+        }
+    }
+}
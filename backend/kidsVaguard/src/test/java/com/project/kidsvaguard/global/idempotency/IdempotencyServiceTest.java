@@ -0,0 +1,79 @@
+package com.project.kidsvaguard.global.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.kidsvaguard.global.exception.NotifyRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 멱등 처리 순서: 메모리 LRU hit 은 한도를 쓰지 않고, 한도 초과는 멱등 키 테이블(JPA)을 보기 전에 끝납니다.
+ */
+class IdempotencyServiceTest {
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyService service =
+            new IdempotencyService(repository, new ObjectMapper(), new SimpleMeterRegistry(), 100, 24);
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger processed = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void retryAnsweredFromMemoryDoesNotUseTheLimiter() {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        ResponseEntity<Map<String, Object>> first = service.execute(IdempotencyService.Scope.FALL, "event-1", this::admit, this::process);
+        ResponseEntity<Map<String, Object>> retry = service.execute(IdempotencyService.Scope.FALL, "event-1", this::reject, this::process);
+
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(admitted).hasValue(1);
+        assertThat(processed).hasValue(1);
+        verify(repository, times(1)).findById(anyString());
+    }
+
+    @Test
+    void rateLimitedNewKeyNeverReachesTheDatabase() {
+        for (int i = 0; i < 5; i++) {
+            String key = "flood-" + i;
+            assertThatThrownBy(() -> service.execute(IdempotencyService.Scope.OVERCROWD, key, this::reject, this::process))
+                    .isInstanceOf(NotifyRateLimitedException.class);
+        }
+        assertThatThrownBy(() -> service.execute(IdempotencyService.Scope.OVERCROWD, null, this::reject, this::process))
+                .isInstanceOf(NotifyRateLimitedException.class);
+
+        assertThat(processed).hasValue(0);
+        verify(repository, never()).findById(anyString());
+    }
+
+    private void admit() {
+        admitted.incrementAndGet();
+    }
+
+    private void reject() {
+        throw new NotifyRateLimitedException("limited", 1);
+    }
+
+    private ResponseEntity<Map<String, Object>> process() {
+        return ResponseEntity.ok(Map.of("status", "success", "n", processed.incrementAndGet()));
+    }
+}
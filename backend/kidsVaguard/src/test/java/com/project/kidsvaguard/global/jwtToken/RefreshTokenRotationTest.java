@@ -0,0 +1,154 @@
+package com.project.kidsvaguard.global.jwtToken;
+
+import com.project.kidsvaguard.domain.user.entity.User;
+import com.project.kidsvaguard.domain.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refresh Token Rotation: 기존 해시인 행만 한 번 바뀌고, 같은 토큰으로 다시(또는 동시에) 재발급하면 0 건.
+ * 동시 재발급은 요청마다 따로 커밋해야 하므로 테스트 트랜잭션 없이 돌리고 끝나면 직접 지웁니다.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenRotationTest {
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        user = userRepository.save(User.builder()
+                .userId("rotation-user")
+                .password("{noop}password")
+                .username("rotation-user")
+                .phone("010-0000-0000")
+                .email("rotation-user@test.local")
+                .createdAt(new Timestamp(System.currentTimeMillis()))
+                .alarmSetting(true)
+                .role(User.Role.USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rotateReplacesTheHashOnlyOnce() {
+        long now = System.currentTimeMillis();
+        login("old", now);
+
+        assertThat(rotate("old", "new", now)).isEqualTo(1);
+        assertThat(refreshTokenRepository.findByTokenHash("old")).isEmpty();
+        assertThat(refreshTokenRepository.findByTokenHash("new"))
+                .hasValueSatisfying(token -> assertThat(token.getUser().getUserPk()).isEqualTo(user.getUserPk()));
+
+        // 이미 교체된 토큰을 다시 쓰면 0 건 (재사용)
+        assertThat(rotate("old", "other", now)).isZero();
+        assertThat(refreshTokenRepository.findByTokenHash("new")).isPresent();
+    }
+
+    @Test
+    void expiredTokenIsNotRotated() {
+        long now = System.currentTimeMillis();
+        login("old", now - 2 * HOUR_MILLIS); // 한 시간 전에 만료
+
+        assertThat(rotate("old", "new", now)).isZero();
+        assertThat(refreshTokenRepository.findByTokenHash("new")).isEmpty();
+    }
+
+    @Test
+    void loginReplacesThePreviousTokenOfTheUser() {
+        long now = System.currentTimeMillis();
+        login("first", now);
+        login("second", now);
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+        assertThat(rotate("first", "new", now)).isZero();
+        assertThat(rotate("second", "new", now)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReuseRotatesOnlyOnce() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                long now = System.currentTimeMillis();
+                String old = "old-" + round;
+                login(old, now);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    String next = "new-" + round + "-" + i;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return rotate(old, next, now);
+                    }));
+                }
+                start.countDown();
+
+                List<Integer> winners = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    if (results.get(i).get(10, TimeUnit.SECONDS) == 1) {
+                        winners.add(i);
+                    }
+                }
+                assertThat(winners).as("round %d", round).hasSize(1);
+                assertThat(refreshTokenRepository.findByTokenHash("new-" + round + "-" + winners.get(0))).isPresent();
+                assertThat(refreshTokenRepository.findByTokenHash(old)).isEmpty();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void login(String tokenHash, long now) {
+        tx.executeWithoutResult(status -> refreshTokenRepository.upsert(user.getUserPk(), tokenHash,
+                new Timestamp(now), new Timestamp(now + HOUR_MILLIS)));
+    }
+
+    private int rotate(String oldHash, String newHash, long now) {
+        Integer rotated = tx.execute(status -> refreshTokenRepository.rotate(oldHash, newHash,
+                new Timestamp(now), new Timestamp(now + HOUR_MILLIS)));
+        return rotated == null ? 0 : rotated;
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.kidsvaguard.global.jwtToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검증된 토큰 캐시: exp 까지만 hit, exp 없는/지난 토큰은 넣지 않음, 가득 차면 만료된 항목부터 정리하고 그래도 차 있으면 새 토큰은 건너뜀.
+ * 시계는 생성자로 넘긴 AtomicLong 을 직접 움직입니다.
+ */
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hitsUntilExpirationThenDropsTheEntry() {
+        VerifiedTokenCache cache = cache(10);
+        Claims claims = claims("kid", 60_000);
+
+        assertThat(cache.get("token-a")).isNull();
+        cache.put("token-a", claims);
+        assertThat(cache.get("token-a")).isSameAs(claims);
+        assertThat(cache.get("token-b")).isNull();
+
+        clock.addAndGet(59_999);
+        assertThat(cache.get("token-a")).isSameAs(claims);
+        clock.addAndGet(1);
+        assertThat(cache.get("token-a")).isNull();
+
+        assertThat(count("hit")).isEqualTo(2);
+        assertThat(count("miss")).isEqualTo(3);
+        assertThat(size()).isZero();
+    }
+
+    @Test
+    void tokensWithoutOrPastExpirationAreNotCached() {
+        VerifiedTokenCache cache = cache(10);
+
+        cache.put("no-exp", Jwts.claims().setSubject("kid"));
+        cache.put("expired", claims("kid", 0));
+        cache.put("past", claims("kid", -1_000));
+
+        assertThat(cache.get("no-exp")).isNull();
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("past")).isNull();
+        assertThat(size()).isZero();
+    }
+
+    @Test
+    void fullCacheEvictsExpiredEntriesBeforeSkippingNewTokens() {
+        VerifiedTokenCache cache = cache(2);
+        cache.put("short", claims("a", 1_000));
+        cache.put("long", claims("b", 60_000));
+
+        // 만료된 항목이 없으면 새 토큰은 캐시하지 않음 (기존 항목은 그대로)
+        cache.put("skipped", claims("c", 60_000));
+        assertThat(cache.get("skipped")).isNull();
+        assertThat(cache.get("short")).isNotNull();
+
+        clock.addAndGet(1_000);
+        Claims fresh = claims("d", 60_000);
+        cache.put("fresh", fresh);
+        assertThat(cache.get("fresh")).isSameAs(fresh);
+        assertThat(cache.get("long")).isNotNull();
+        assertThat(size()).isEqualTo(2);
+    }
+
+    @Test
+    void zeroCapacityNeverCaches() {
+        VerifiedTokenCache cache = cache(0);
+
+        cache.put("token", claims("kid", 60_000));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(size()).isZero();
+    }
+
+    private VerifiedTokenCache cache(int maxEntries) {
+        return new VerifiedTokenCache(meterRegistry, maxEntries, clock::get);
+    }
+
+    private Claims claims(String subject, long ttlMillis) {
+        return Jwts.claims().setSubject(subject).setExpiration(new Date(clock.get() + ttlMillis));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("jwt.verified.cache").tag("result", result).counter().count();
+    }
+
+    private double size() {
+        return meterRegistry.get("jwt.verified.cache.size").gauge().value();
+    }
+}
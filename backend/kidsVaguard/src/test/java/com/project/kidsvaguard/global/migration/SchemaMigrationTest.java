@@ -0,0 +1,102 @@
+package com.project.kidsvaguard.global.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Flyway 도입 전 운영 DB(기준 스키마, 이력 테이블 없음)를 application.properties 와 같은 설정(baseline-on-migrate, baseline-version=1)으로
+ * 올렸을 때 V2 이후가 모두 적용되고 기존 알림으로 안 읽은 수 카운터가 채워지는지, user_id 중복이 있으면 유니크 인덱스 전에 멈추는지 확인합니다.
+ */
+class SchemaMigrationTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @Test
+    void upgradesBaselineDatabaseWithoutHistory() {
+        DataSource dataSource = baselineDatabase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO user (user_id, password, username, phone, email, role) VALUES ('kid', 'pw', 'kid', '010', 'kid@test.local', 'USER')");
+        Long userPk = jdbc.queryForObject("SELECT user_pk FROM user WHERE user_id = 'kid'", Long.class);
+        // 원문 토큰 시절 행: 사용자당 여러 개, 64자보다 김
+        jdbc.update("INSERT INTO refresh_token (user_pk, refresh_token, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)", userPk, "a".repeat(300));
+        jdbc.update("INSERT INTO refresh_token (user_pk, refresh_token, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)", userPk, "b".repeat(300));
+        // 카운터 도입 전 알림: 안 읽은 과밀 2건, 읽은 낙상 1건
+        for (String alarm : new String[]{"'OVERCROWDING', false", "'OVERCROWDING', false", "'FELL_DETECTION', true"}) {
+            jdbc.update("INSERT INTO alarm (title, content, created_at, alarm_type, is_read, user_pk) VALUES ('알림', '내용', CURRENT_TIMESTAMP, "
+                    + alarm + ", ?)", userPk);
+        }
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        assertThat(result.migrations).extracting(migration -> migration.version).containsExactly("2", "2.1", "3", "4");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class)).isZero();
+        assertThat(jdbc.queryForList("SELECT alarm_type, unread_count FROM alarm_unread_count WHERE user_pk = ?", userPk))
+                .containsExactly(Map.of("ALARM_TYPE", "OVERCROWDING", "UNREAD_COUNT", 2L));
+        jdbc.update("INSERT INTO refresh_token (user_pk, refresh_token, created_at, expires_at) VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", userPk, "c".repeat(64));
+        jdbc.update("INSERT INTO alarm_unread_count (user_pk, alarm_type, unread_count) VALUES (?, 'FELL_DETECTION', 0)", userPk);
+        jdbc.update("UPDATE place SET notify_rate_per_minute = 1, notify_burst = 1 WHERE user_pk = ?", userPk);
+        for (String table : new String[]{"video_blob", "idempotency_key", "user_device", "alarm_change", "alarm_sync_version"}) {
+            assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class)).as(table).isZero();
+        }
+        assertThat(indexExists(jdbc, "USER", "UK_USER_USER_ID")).isTrue();
+        assertThat(indexExists(jdbc, "REFRESH_TOKEN", "IDX_REFRESH_TOKEN")).isFalse();
+    }
+
+    @Test
+    void stopsBeforeUniqueIndexWhenUserIdsAreDuplicated() {
+        DataSource dataSource = baselineDatabase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO user (user_id, password, username, phone, email, role) VALUES ('twin', 'pw', 'a', '010', 'a@test.local', 'USER')");
+        jdbc.update("INSERT INTO user (user_id, password, username, phone, email, role) VALUES ('twin', 'pw', 'b', '010', 'b@test.local', 'USER')");
+
+        assertThatThrownBy(() -> flyway(dataSource).migrate())
+                .isInstanceOf(FlywayException.class)
+                .rootCause()
+                .hasMessageContaining("twin (2행)");
+        assertThat(indexExists(jdbc, "USER", "UK_USER_USER_ID")).isFalse();
+
+        // 중복 계정을 정리하고 실패 기록을 지우면 (V2_1 주석의 수동 조치) 멈췄던 곳부터 이어서 적용
+        jdbc.update("UPDATE user SET user_id = 'twin2' WHERE username = 'b'");
+        jdbc.update("DELETE FROM \"flyway_schema_history\" WHERE \"version\" = '2.1' AND NOT \"success\"");
+        assertThat(flyway(dataSource).migrate().migrations).extracting(migration -> migration.version).containsExactly("2.1", "3", "4");
+    }
+
+    // 이력 테이블 없이 기준 스키마(V1)만 있는 DB
+    private static DataSource baselineDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-" + DATABASES.incrementAndGet() + ";MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+        configure(dataSource).target("1").load().migrate();
+        new JdbcTemplate(dataSource).execute("DROP TABLE \"flyway_schema_history\"");
+        return dataSource;
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return configure(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private static org.flywaydb.core.api.configuration.FluentConfiguration configure(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:com/project/kidsvaguard/global/migration")
+                .placeholders(Map.of("lob_text", "clob"));
+    }
+
+    private static boolean indexExists(JdbcTemplate jdbc, String table, String index) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = ? AND INDEX_NAME = ?",
+                Integer.class, table, index) > 0;
+    }
+}
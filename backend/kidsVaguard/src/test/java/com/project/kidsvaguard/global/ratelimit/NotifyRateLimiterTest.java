@@ -0,0 +1,174 @@
+package com.project.kidsvaguard.global.ratelimit;
+
+import com.project.kidsvaguard.domain.alarm.entity.Alarm.AlarmType;
+import com.project.kidsvaguard.domain.place.repository.PlaceRepository;
+import com.project.kidsvaguard.global.exception.NotifyRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * GCRA 알림 수신 한도: burst 소진 후 간격마다 한 개씩 회복, Retry-After 올림, 장소/사용자/공용 버킷 구분, 낙상 별도 버킷, 정리.
+ * 시계는 생성자로 넘긴 AtomicLong 을 직접 움직입니다.
+ */
+class NotifyRateLimiterTest {
+
+    private static final String KID = "kid";
+    private static final String CAM = "rtsp://cam1";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final PlaceRepository placeRepository = mock(PlaceRepository.class);
+    private final List<NotifyRateLimiter> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(NotifyRateLimiter::shutdown);
+    }
+
+    @Test
+    void burstThenOneTokenPerInterval() {
+        NotifyRateLimiter limiter = limiter(true, 60, 20);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isZero();
+        }
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isEqualTo(1);
+
+        advanceMillis(999);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isEqualTo(1);
+        advanceMillis(1);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isZero();
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isEqualTo(1);
+
+        // 한동안 조용하면 burst 만큼만 다시 참 (그 이상 쌓이지 않음)
+        advanceMillis(TimeUnit.MINUTES.toMillis(10));
+        int accepted = 0;
+        while (limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING) == 0) {
+            accepted++;
+        }
+        assertThat(accepted).isEqualTo(20);
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        NotifyRateLimiter limiter = limiter(true, 60, 20);
+        placeLimits(limiter, new Object[]{KID, CAM, 6, 1}); // 10초에 한 건, 여유 1건
+
+        limiter.acquire(KID, CAM, AlarmType.OVERCROWDING);
+        assertThatThrownBy(() -> limiter.acquire(KID, CAM, AlarmType.OVERCROWDING))
+                .isInstanceOfSatisfying(NotifyRateLimitedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(10));
+
+        advanceMillis(3_500);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isEqualTo(7);
+        advanceMillis(6_500);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isZero();
+    }
+
+    @Test
+    void registeredCameraUserAndUnknownUserUseSeparateBuckets() {
+        NotifyRateLimiter limiter = limiter(true, 60, 2);
+        placeLimits(limiter, new Object[]{KID, CAM, null, null});
+
+        drain(limiter, KID, CAM, AlarmType.OVERCROWDING);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isPositive();
+
+        // 등록된 사용자의 모르는 카메라는 사용자 버킷 하나를 같이 씀
+        assertThat(limiter.tryAcquire(KID, "rtsp://unknown-a", AlarmType.OVERCROWDING)).isZero();
+        assertThat(limiter.tryAcquire(KID, "rtsp://unknown-b", AlarmType.OVERCROWDING)).isZero();
+        assertThat(limiter.tryAcquire(KID, "rtsp://unknown-c", AlarmType.OVERCROWDING)).isPositive();
+
+        // 모르는 사용자는 id 가 달라도 공용 버킷 하나
+        assertThat(limiter.tryAcquire("stranger-1", "x", AlarmType.OVERCROWDING)).isZero();
+        assertThat(limiter.tryAcquire("stranger-2", "y", AlarmType.OVERCROWDING)).isZero();
+        assertThat(limiter.tryAcquire("stranger-3", "z", AlarmType.OVERCROWDING)).isPositive();
+        assertThat(limiter.overflowStats().getRejected()).isEqualTo(1);
+
+        assertThat(limiter.keyCount()).isEqualTo(2);
+        assertThat(limiter.stats(KID + "|" + CAM).getAccepted()).isEqualTo(2);
+    }
+
+    @Test
+    void fallDetectionHasItsOwnBucket() {
+        NotifyRateLimiter limiter = limiter(true, 60, 2);
+        placeLimits(limiter, new Object[]{KID, CAM, null, null});
+
+        drain(limiter, KID, CAM, AlarmType.OVERCROWDING);
+        assertThat(limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isPositive();
+
+        // 과밀이 한도를 다 써도 낙상은 fall-burst(5) 만큼 통과
+        assertThat(drain(limiter, KID, CAM, AlarmType.FELL_DETECTION)).isEqualTo(5);
+        assertThat(limiter.stats("fall:" + KID + "|" + CAM).getBurst()).isEqualTo(5);
+
+        assertThat(drain(limiter, "stranger", "x", AlarmType.FELL_DETECTION)).isEqualTo(5);
+        assertThat(limiter.fallOverflowStats().getAccepted()).isEqualTo(5);
+        assertThat(limiter.overflowStats().getAccepted()).isZero();
+    }
+
+    @Test
+    void disabledOrAnonymousRequestsAreNotLimited() {
+        NotifyRateLimiter disabled = limiter(false, 1, 1);
+        NotifyRateLimiter enabled = limiter(true, 1, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(disabled.tryAcquire(KID, CAM, AlarmType.OVERCROWDING)).isZero();
+            assertThat(enabled.tryAcquire(null, CAM, AlarmType.OVERCROWDING)).isZero();
+        }
+        assertThat(disabled.keyCount()).isZero();
+        assertThat(enabled.keyCount()).isZero();
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledBuckets() {
+        NotifyRateLimiter limiter = limiter(true, 60, 20);
+
+        limiter.tryAcquire(KID, CAM, AlarmType.OVERCROWDING);
+        advanceMillis(500);
+        limiter.tryAcquire(KID, "rtsp://cam2", AlarmType.OVERCROWDING);
+        assertThat(limiter.keyCount()).isEqualTo(2);
+
+        advanceMillis(500); // cam1 은 토큰 하나를 다시 채웠고 cam2 는 아직
+        limiter.sweep();
+        assertThat(limiter.keyCount()).isEqualTo(1);
+        assertThat(limiter.stats(KID + "|rtsp://cam2")).isNotNull();
+
+        advanceMillis(500);
+        limiter.sweep();
+        assertThat(limiter.keyCount()).isZero();
+    }
+
+    private NotifyRateLimiter limiter(boolean enabled, int perMinute, int burst) {
+        NotifyRateLimiter limiter = new NotifyRateLimiter(placeRepository, new SimpleMeterRegistry(),
+                enabled, perMinute, burst, 60, 5, 1_000, 3_600, clock::get);
+        created.add(limiter);
+        return limiter;
+    }
+
+    // 장소 목록을 읽기 전에는 모든 키에 버킷을 만들고, 읽은 뒤에는 등록된 장소/사용자만 따로 버킷을 씀
+    private void placeLimits(NotifyRateLimiter limiter, Object[]... rows) {
+        when(placeRepository.findNotifyRateLimits()).thenReturn(List.of(rows));
+        limiter.reloadPlaceLimits();
+    }
+
+    private int drain(NotifyRateLimiter limiter, String userId, String cameraId, AlarmType alarmType) {
+        int accepted = 0;
+        while (limiter.tryAcquire(userId, cameraId, alarmType) == 0) {
+            accepted++;
+        }
+        return accepted;
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,237 @@
+package com.project.kidsvaguard.global.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 청크 업로드 세션: 범위 병합, 순서가 뒤섞인 청크의 재조립, 완료 처리(옮기기/알람 저장 실패 시 세션과 partial 유지)와 만료 정리.
+ * 저장소는 partial 파일에 위치 지정 쓰기와 blob 경로로 옮기기/되돌리기만 하는 스텁으로 대신합니다.
+ */
+class ChunkedUploadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final long TOTAL = CONTENT.length();
+
+    @TempDir
+    Path tempDir;
+
+    private final VideoStorageService storage = mock(VideoStorageService.class);
+    private final AtomicReference<IOException> promoteFailure = new AtomicReference<>();
+    private final AtomicReference<String> promoted = new AtomicReference<>();
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(storage.getMaxBytes()).thenReturn(1024L);
+        when(storage.isAllowedContentType(anyString())).thenReturn(true);
+        when(storage.createPartialFile(anyString()))
+                .thenAnswer(inv -> Files.createFile(tempDir.resolve(inv.getArgument(0, String.class) + ".part")));
+        when(storage.writeChunk(any(Path.class), anyLong(), anyLong(), any(InputStream.class))).thenAnswer(inv -> {
+            byte[] bytes = inv.getArgument(3, InputStream.class).readAllBytes();
+            try (FileChannel channel = FileChannel.open(inv.getArgument(0, Path.class), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(bytes), inv.getArgument(1, Long.class));
+            }
+            return (long) bytes.length;
+        });
+        when(storage.promotePartial(any(Path.class), anyString(), anyString(), anyLong())).thenAnswer(inv -> {
+            IOException failure = promoteFailure.getAndSet(null);
+            if (failure != null) {
+                throw failure;
+            }
+            Path partial = inv.getArgument(0, Path.class);
+            promoted.set(Files.readString(partial, StandardCharsets.US_ASCII));
+            long size = Files.size(partial);
+            Files.move(partial, blobFile(), StandardCopyOption.REPLACE_EXISTING);
+            return new StoredVideo("/uploads/test.mp4", inv.getArgument(2), size, 0, -1, "sha", false);
+        });
+        doAnswer(inv -> Files.copy(blobFile(), inv.getArgument(1, Path.class), StandardCopyOption.REPLACE_EXISTING))
+                .when(storage).restorePartial(any(StoredVideo.class), any(Path.class));
+        service = new ChunkedUploadService(storage, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void overlappingAndAdjacentRangesMerge() {
+        UploadSession session = new UploadSession("u", "clip.mp4", "video/mp4", 100, tempDir.resolve("u.part"));
+
+        session.addRange(10, 20);
+        session.addRange(40, 50);
+        session.addRange(15, 30);   // 왼쪽 구간과 겹침
+        session.addRange(30, 40);   // 양쪽과 맞닿음 -> 한 구간
+        session.addRange(60, 70);
+        session.addRange(55, 80);   // 오른쪽 구간을 덮음
+
+        assertThat(session.receivedRanges()).containsExactly(new long[]{10, 49}, new long[]{55, 79});
+        assertThat(session.missingRanges()).containsExactly(new long[]{0, 9}, new long[]{50, 54}, new long[]{80, 99});
+        assertThat(session.receivedBytes()).isEqualTo(65);
+        assertThat(session.isComplete()).isFalse();
+
+        session.addRange(0, 100);
+        assertThat(session.isComplete()).isTrue();
+        assertThat(session.missingRanges()).isEmpty();
+    }
+
+    @Test
+    void outOfOrderChunksReassembleInPlace() throws IOException {
+        UploadSession session = service.createSession("clip.mp4", "video/mp4", TOTAL);
+        String id = session.getUploadId();
+
+        put(id, 15, 19);
+        put(id, 0, 4);
+        put(id, 10, 14);
+        assertThatThrownBy(() -> service.complete(id, Function.identity()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(session.missingRanges()).containsExactly(new long[]{5, 9});
+
+        put(id, 5, 9);
+        put(id, 5, 9); // 같은 범위 재전송은 결과가 같음
+        StoredVideo video = service.complete(id, Function.identity());
+
+        assertThat(promoted.get()).isEqualTo(CONTENT);
+        assertThat(video.getSizeBytes()).isEqualTo(TOTAL);
+        assertThatThrownBy(() -> service.getSession(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void failedPromoteKeepsSessionForRetry() throws IOException {
+        String id = service.createSession("clip.mp4", "video/mp4", TOTAL).getUploadId();
+        put(id, 0, TOTAL - 1);
+        promoteFailure.set(new IOException("disk full"));
+
+        assertThatThrownBy(() -> service.complete(id, Function.identity())).isInstanceOf(IOException.class);
+        UploadSession kept = service.getSession(id);
+        assertThat(kept.isCompleting()).isFalse();
+        assertThat(kept.isComplete()).isTrue();
+
+        assertThat(service.complete(id, Function.identity()).getRelativePath()).isEqualTo("/uploads/test.mp4");
+        assertThat(promoted.get()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void failedAlarmSaveRestoresPartialAndKeepsSessionForRetry() throws IOException {
+        UploadSession session = service.createSession("clip.mp4", "video/mp4", TOTAL);
+        String id = session.getUploadId();
+        put(id, 0, TOTAL - 1);
+
+        // 알람 저장 중에는 세션이 남아 있고 청크 PUT 은 409
+        assertThatThrownBy(() -> service.complete(id, video -> {
+            assertThat(service.getSession(id).isCompleting()).isTrue();
+            assertThatThrownBy(() -> put(id, 0, 4))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+            throw new IllegalStateException("DB down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("DB down");
+
+        UploadSession kept = service.getSession(id);
+        assertThat(kept.isCompleting()).isFalse();
+        assertThat(Files.readString(kept.getPartialFile(), StandardCharsets.US_ASCII)).isEqualTo(CONTENT);
+        verify(storage).release(any(StoredVideo.class));
+
+        // 같은 uploadId 로 완료 요청만 다시 보내면 됨
+        assertThat(service.complete(id, StoredVideo::getRelativePath)).isEqualTo("/uploads/test.mp4");
+        assertThat(promoted.get()).isEqualTo(CONTENT);
+        assertThatThrownBy(() -> service.getSession(id)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void chunkBeingWrittenBlocksComplete() throws IOException {
+        UploadSession session = service.createSession("clip.mp4", "video/mp4", TOTAL);
+        String id = session.getUploadId();
+        put(id, 0, TOTAL - 1);
+        assertThat(session.beginWrite()).isTrue(); // 같은 범위를 다시 보내는 PUT 이 기록 중
+
+        assertThatThrownBy(() -> service.complete(id, Function.identity()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(storage, never()).promotePartial(any(Path.class), anyString(), anyString(), anyLong());
+
+        session.endWrite();
+        assertThat(service.complete(id, Function.identity()).getSizeBytes()).isEqualTo(TOTAL);
+    }
+
+    @Test
+    void completingSessionRejectsChunksAndSecondComplete() throws IOException {
+        UploadSession session = service.createSession("clip.mp4", "video/mp4", TOTAL);
+        String id = session.getUploadId();
+        put(id, 0, TOTAL - 1);
+        assertThat(session.beginCompleting()).isTrue(); // 다른 요청이 완료 처리 중
+
+        assertThatThrownBy(() -> service.complete(id, Function.identity()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> put(id, 0, 4))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void purgeRemovesExpiredSessionsAndPartialFiles() throws IOException {
+        ChunkedUploadService expiring = new ChunkedUploadService(storage, 0);
+        try {
+            UploadSession idle = expiring.createSession("idle.mp4", "video/mp4", TOTAL);
+            UploadSession completing = expiring.createSession("busy.mp4", "video/mp4", TOTAL);
+            completing.beginCompleting();
+            sleepPastMillisecond();
+
+            expiring.purgeExpiredSessions();
+
+            assertThat(Files.exists(idle.getPartialFile())).isFalse();
+            assertThatThrownBy(() -> expiring.getSession(idle.getUploadId())).isInstanceOf(ResponseStatusException.class);
+            assertThat(expiring.getSession(completing.getUploadId())).isSameAs(completing);
+        } finally {
+            expiring.shutdown();
+        }
+    }
+
+    private void put(String uploadId, long start, long end) throws IOException {
+        byte[] chunk = CONTENT.substring((int) start, (int) end + 1).getBytes(StandardCharsets.US_ASCII);
+        service.writeChunk(uploadId, "bytes " + start + "-" + end + "/" + TOTAL, new ByteArrayInputStream(chunk));
+    }
+
+    private Path blobFile() {
+        return tempDir.resolve("blob.mp4");
+    }
+
+    private static void sleepPastMillisecond() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}